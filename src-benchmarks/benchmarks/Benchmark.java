@@ -0,0 +1,203 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * minimal, dependency free micro benchmark harness.
+ *
+ * every case is warmed up, then measured in batches. for each case the harness reports
+ *  - throughput (operations per microsecond)
+ *  - average and best batch latency (nanoseconds per operation)
+ *  - allocation (bytes per operation and allocation rate in MB/s)
+ *
+ * allocation is read from the per thread allocation counter of HotSpot
+ * (com.sun.management.ThreadMXBean), which is the same source JMH's "-prof gc" uses.
+ * on VMs without that counter the allocation columns show "n/a".
+ *
+ * results are handed to a volatile sink, so the JIT can neither drop the work
+ * nor scalar replace the returned objects.
+ */
+public class Benchmark {
+
+    /** a single benchmarked operation, the returned value gets consumed by the harness */
+    public interface Op {
+        Object run();
+    }
+
+    /** a single benchmarked operation with a scalar result, avoids boxing the result */
+    public interface FloatOp {
+        float run();
+    }
+
+    private static class Case {
+        final String name;
+        final Op op;
+        final FloatOp floatOp;
+
+        Case(String name, Op op, FloatOp floatOp) {
+            this.name = name;
+            this.op = op;
+            this.floatOp = floatOp;
+        }
+
+        long runBatch(int batch) {
+            long start = System.nanoTime();
+            if (op != null) {
+                for (int i = 0; i < batch; i++) {
+                    sink = op.run();
+                }
+            } else {
+                for (int i = 0; i < batch; i++) {
+                    floatSink = floatOp.run();
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    public static volatile Object sink;
+    public static volatile float floatSink;
+
+    private final List<Case> cases = new ArrayList<Case>();
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private long warmupNanos = 300_000_000L;
+    private int samples = 20;
+    private long sampleNanos = 50_000_000L;
+
+    public Benchmark() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean hotspot = null;
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                hotspot.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                hotspot = null;
+            }
+        }
+        this.threadBean = hotspot;
+    }
+
+    /**
+     * changes the measuring times
+     * @param warmupMillis warmup time per case
+     * @param samples number of measured batches per case
+     * @param sampleMillis duration of one measured batch
+     */
+    public void setTimes(long warmupMillis, int samples, long sampleMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.samples = samples;
+        this.sampleNanos = sampleMillis * 1_000_000L;
+    }
+
+    /**
+     * registers a benchmark case
+     * @param name unique case name, e.g. "float4x4.multiply(float4x4)"
+     * @param op operation
+     */
+    public void add(String name, Op op) {
+        cases.add(new Case(name, op, null));
+    }
+
+    /**
+     * registers a benchmark case returning a scalar
+     * @param name unique case name, e.g. "float3.dot"
+     * @param op operation
+     */
+    public void addFloat(String name, FloatOp op) {
+        cases.add(new Case(name, null, op));
+    }
+
+    /**
+     * runs all cases whose name contains the filter
+     * @param filter substring filter, null or empty runs everything
+     */
+    public void run(String filter) {
+        System.out.println(String.format("%-48s %12s %12s %12s %12s %12s",
+                "benchmark", "ops/us", "avg ns/op", "min ns/op", "B/op", "MB/s alloc"));
+
+        for (Case c : cases) {
+            if (filter == null || filter.isEmpty() || c.name.contains(filter)) {
+                measure(c);
+            }
+        }
+    }
+
+    private void measure(Case c) {
+        /* warmup, growing the batch until one batch takes ~1ms */
+        int batch = 1;
+        long warmupEnd = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < warmupEnd) {
+            long t = c.runBatch(batch);
+            if (t < 1_000_000L && batch < (1 << 28)) {
+                batch <<= 1;
+            }
+        }
+
+        double best = Double.MAX_VALUE;
+        long totalOps = 0;
+        long totalNanos = 0;
+        long allocStart = allocatedBytes();
+
+        for (int s = 0; s < samples; s++) {
+            long sampleOps = 0;
+            long sampleTime = 0;
+            while (sampleTime < sampleNanos) {
+                sampleTime += c.runBatch(batch);
+                sampleOps += batch;
+            }
+            best = Math.min(best, (double) sampleTime / sampleOps);
+            totalOps += sampleOps;
+            totalNanos += sampleTime;
+        }
+
+        long allocEnd = allocatedBytes();
+
+        double avg = (double) totalNanos / totalOps;
+        double opsPerMicro = 1000.0 / avg;
+
+        String bytesPerOp = "n/a";
+        String allocRate = "n/a";
+        if (allocStart >= 0 && allocEnd >= 0) {
+            long bytes = allocEnd - allocStart;
+            bytesPerOp = String.format("%.1f", (double) bytes / totalOps);
+            allocRate = String.format("%.1f", (bytes / (1024.0 * 1024.0)) / (totalNanos / 1e9));
+        }
+
+        System.out.println(String.format("%-48s %12.3f %12.2f %12.2f %12s %12s",
+                c.name, opsPerMicro, avg, best, bytesPerOp, allocRate));
+    }
+
+    private long allocatedBytes() {
+        if (threadBean == null) {
+            return -1;
+        }
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
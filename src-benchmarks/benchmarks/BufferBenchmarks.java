@@ -0,0 +1,103 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.float4;
+import mathkit.float4x4;
+import mathkit.utils.BufferArena;
+import mathkit.utils.BufferPool;
+import mathkit.utils.BufferUtility;
+import mathkit.utils.Float4x4View;
+import mathkit.utils.Half4View;
+import mathkit.utils.HalfFloat;
+
+import java.nio.FloatBuffer;
+
+/* buffer packaging */
+public class BufferBenchmarks {
+    private final float[] matrix = new float[16];
+    private final float[] vertices = new float[3 * 1024];
+    private final float4x4 transform = new float4x4().initRotationY(30.0f);
+    private final BufferArena arena = new BufferArena(1 << 20);
+    private final BufferPool pool = new BufferPool();
+    private final short[] halfs = new short[3 * 1024];
+    private final float[] unpacked = new float[3 * 1024];
+    private final float4 color = new float4(0.25f, 0.5f, 0.75f, 1.0f);
+
+    public BufferBenchmarks() {
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = i;
+        }
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = i * 0.25f;
+        }
+        HalfFloat.toHalf(vertices, 0, halfs, 0, vertices.length);
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("BufferUtility.packageBuffer(16)", () -> BufferUtility.packageBuffer(matrix));
+        bench.add("BufferUtility.packageBuffer(3072)", () -> BufferUtility.packageBuffer(vertices));
+        bench.add("BufferUtility.packageBuffer(16, pool)", () -> {
+            FloatBuffer buffer = BufferUtility.packageBuffer(matrix, pool);
+            pool.release(buffer);
+            return buffer;
+        });
+        bench.add("BufferUtility.packageBuffer(3072, pool)", () -> {
+            FloatBuffer buffer = BufferUtility.packageBuffer(vertices, pool);
+            pool.release(buffer);
+            return buffer;
+        });
+        bench.add("BufferArena.allocateFloats(16)+put", () -> {
+            arena.reset();
+            return arena.allocateFloats(16).put(matrix);
+        });
+        bench.add("BufferArena.allocateFloat4x4(1)+set", () -> {
+            arena.reset();
+            Float4x4View view = arena.allocateFloat4x4(1);
+            view.set(0, transform);
+            return view;
+        });
+        bench.add("BufferArena.allocateFloat3(1024)+put", () -> {
+            arena.reset();
+            arena.allocateFloat3(1024).put(vertices, 0, 0, 1024);
+            return arena;
+        });
+
+        /* half precision, table based before java 20 */
+        bench.add("HalfFloat.toHalf(float[3072], short[])", () -> HalfFloat.toHalf(vertices, 0, halfs, 0, vertices.length));
+        bench.add("HalfFloat.toFloat(short[3072], float[])", () -> HalfFloat.toFloat(halfs, 0, unpacked, 0, halfs.length));
+        bench.add("BufferUtility.packageHalfBuffer(3072)", () -> BufferUtility.packageHalfBuffer(vertices));
+        bench.add("BufferArena.allocateHalf4(768)+put", () -> {
+            arena.reset();
+            arena.allocateHalf4(768).put(vertices, 0, 0, 768);
+            return arena;
+        });
+        bench.add("BufferArena.allocateHalf4(1)+set", () -> {
+            arena.reset();
+            Half4View view = arena.allocateHalf4(1);
+            view.set(0, color);
+            return view;
+        });
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+
+/* bulk operations over Float3Array / Float4Array compared to float3[] loops */
+public class BulkBenchmarks {
+    private static final BulkKernels KERNELS = BulkKernels.get();
+    private static final int COUNT = 4096;
+
+    private final float3[] objectsA = new float3[COUNT];
+    private final float3[] objectsB = new float3[COUNT];
+    private final float3 tmp = new float3();
+
+    private final Float3Array a3;
+    private final Float3Array b3;
+    private final Float3Array d3 = new Float3Array(COUNT);
+    private final Float4Array a4 = new Float4Array(COUNT);
+    private final Float4Array d4 = new Float4Array(COUNT);
+    private final float[] scalars = new float[COUNT];
+
+    private final float4x4 transform;
+    private final float[] packed = new float[COUNT * 3];
+    private final float[] packedOut = new float[COUNT * 4];
+    private final float[] matricesA = new float[16 * 256];
+    private final float[] matricesB = new float[16 * 256];
+    private final float[] matricesOut = new float[16 * 256];
+
+    private static final int LARGE = 1 << 18;
+    private final ParallelKernels parallel = ParallelKernels.common();
+    private final Float3Array largeA = new Float3Array(LARGE);
+    private final Float3Array largeB = new Float3Array(LARGE);
+    private final Float3Array largeOut = new Float3Array(LARGE);
+
+    public BulkBenchmarks() {
+        for (int i = 0; i < COUNT; i++) {
+            objectsA[i] = new float3(i * 0.5f + 1.0f, -i * 0.25f, 3.0f);
+            objectsB[i] = new float3(0.5f, i * 0.125f, -1.0f - i);
+            a4.set(i, i, 1.0f, -2.0f, 0.5f);
+        }
+        for (int i = 0; i < LARGE; i++) {
+            largeA.set(i, i * 0.5f + 1.0f, -i * 0.25f, 3.0f);
+            largeB.set(i, 0.5f, i * 0.125f, -1.0f - i);
+        }
+        a3 = new Float3Array(objectsA);
+        b3 = new Float3Array(objectsB);
+        a3.toInterleaved(packed, 0, 3, 0, COUNT);
+
+        float4x4 builder = new float4x4();
+        transform = builder.initTranslation(1.0f, 2.0f, 3.0f).multiply(builder.initRotationY(30.0f));
+        for (int i = 0; i < matricesA.length; i++) {
+            matricesA[i] = (i % 7) * 0.5f;
+            matricesB[i] = (i % 5) * -0.25f;
+        }
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("float3[].cross x4096", () -> {
+            for (int i = 0; i < COUNT; i++) {
+                objectsA[i].cross(objectsB[i], tmp);
+            }
+            return tmp;
+        });
+        bench.add("float3[].normalized x4096", () -> {
+            for (int i = 0; i < COUNT; i++) {
+                objectsA[i].normalized(tmp);
+            }
+            return tmp;
+        });
+        bench.add("Float3Array.add x4096", () -> a3.add(b3, d3));
+        bench.add("Float3Array.multiply(float) x4096", () -> a3.multiply(1.5f, d3));
+        bench.add("Float3Array.dot x4096", () -> a3.dot(b3, scalars));
+        bench.add("Float3Array.cross x4096", () -> a3.cross(b3, d3));
+        bench.add("Float3Array.normalized x4096", () -> a3.normalized(d3));
+        bench.add("Float3Array.lengthSquared x4096", () -> a3.lengthSquared(scalars));
+        bench.add("Float3Array.distanceEuclid x4096", () -> a3.distanceEuclid(b3, scalars));
+        bench.add("Float4Array.normalized x4096", () -> a4.normalized(d4));
+        bench.add("Float4Array.dot x4096", () -> a4.dot(a4, scalars));
+
+        bench.add("float4x4.multiply(float3)[] x4096", () -> {
+            for (int i = 0; i < COUNT; i++) {
+                transform.multiply(objectsA[i], tmp);
+            }
+            return tmp;
+        });
+        bench.add("float4x4.transformPoints x4096", () -> {
+            transform.transformPoints(packed, 0, packedOut, 0, COUNT, 3);
+            return packedOut;
+        });
+        bench.add("float4x4.transformPointsAffine x4096", () -> {
+            transform.transformPointsAffine(packed, 0, packedOut, 0, COUNT, 3);
+            return packedOut;
+        });
+        bench.add("float4x4.transformPointsProjective x4096", () -> {
+            transform.transformPointsProjective(packed, 0, 3, packedOut, 0, 4, COUNT);
+            return packedOut;
+        });
+        bench.add("float4x4.transformDirections x4096", () -> {
+            transform.transformDirections(packed, 0, packedOut, 0, COUNT, 3);
+            return packedOut;
+        });
+        bench.add("float4x4.transformPoints(Float3Array) x4096", () -> transform.transformPoints(a3, d3));
+        bench.add("float4x4.transformPointsAffine(Float3Array) x4096", () -> transform.transformPointsAffine(a3, d3));
+
+        bench.add("BulkKernels.multiply4x4 x256", () -> {
+            KERNELS.multiply4x4(matricesA, 0, matricesB, 0, matricesOut, 0, 256);
+            return matricesOut;
+        });
+
+        /* sequential and fork/join on 2^18 vectors */
+        bench.add("float4x4.transformPoints(Float3Array) x262144", () -> transform.transformPoints(largeA, largeOut));
+        bench.add("ParallelKernels.transformPoints x262144", () -> parallel.transformPoints(transform, largeA, largeOut));
+        bench.add("Float3Array.normalized x262144", () -> largeA.normalized(largeOut));
+        bench.add("ParallelKernels.normalized x262144", () -> parallel.normalized(largeA, largeOut));
+        bench.add("Float3Array.cross x262144", () -> largeA.cross(largeB, largeOut));
+        bench.add("ParallelKernels.cross x262144", () -> parallel.cross(largeA, largeB, largeOut));
+    }
+}
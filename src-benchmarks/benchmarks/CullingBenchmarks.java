@@ -0,0 +1,91 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+import mathkit.scene.Frustum;
+
+import java.util.Random;
+
+/* view frustum culling of 16384 objects */
+public class CullingBenchmarks {
+    private static final int COUNT = 16384;
+
+    private final float4x4 viewProjection;
+    private final Frustum frustum;
+    private final float[] spheres = new float[COUNT * 4];
+    private final float[] boxes = new float[COUNT * 6];
+    private final long[] visible = new long[Frustum.bitsetLength(COUNT)];
+    private final byte[] lastPlane = new byte[COUNT];
+    private final float4 corner = new float4();
+    private final float4 clip = new float4();
+
+    public CullingBenchmarks() {
+        float4x4 builder = new float4x4();
+        viewProjection = builder.initPerspective(70.0f, 16.0f / 9.0f, 0.1f, 500.0f)
+                .multiply(builder.initRotationY(25.0f))
+                .multiply(builder.initTranslation(-3.0f, -1.0f, -10.0f));
+        frustum = new Frustum(viewProjection);
+
+        Random random = new Random(42);
+        for (int i = 0; i < COUNT; i++) {
+            float x = random.nextFloat() * 1000.0f - 500.0f;
+            float y = random.nextFloat() * 100.0f - 50.0f;
+            float z = random.nextFloat() * 1000.0f - 500.0f;
+            float e = 0.5f + random.nextFloat() * 4.0f;
+            spheres[i * 4] = x; spheres[i * 4 + 1] = y; spheres[i * 4 + 2] = z; spheres[i * 4 + 3] = e * 1.7320508f;
+            boxes[i * 6] = x - e; boxes[i * 6 + 1] = y - e; boxes[i * 6 + 2] = z - e;
+            boxes[i * 6 + 3] = x + e; boxes[i * 6 + 4] = y + e; boxes[i * 6 + 5] = z + e;
+        }
+    }
+
+    public void register(Benchmark bench) {
+        bench.addFloat("float4x4.multiply(float4) 8 corners x16384", () -> {
+            int visibleCount = 0;
+            for (int i = 0; i < COUNT; i++) {
+                int b = i * 6;
+                boolean left = true, right = true, bottom = true, top = true, near = true, far = true;
+                for (int k = 0; k < 8; k++) {
+                    corner.x = boxes[b + ((k & 1) != 0 ? 3 : 0)];
+                    corner.y = boxes[b + 1 + ((k & 2) != 0 ? 3 : 0)];
+                    corner.z = boxes[b + 2 + ((k & 4) != 0 ? 3 : 0)];
+                    corner.w = 1.0f;
+                    viewProjection.multiply(corner, clip);
+                    left &= clip.x < -clip.w; right &= clip.x > clip.w;
+                    bottom &= clip.y < -clip.w; top &= clip.y > clip.w;
+                    near &= clip.z < -clip.w; far &= clip.z > clip.w;
+                }
+                if (!(left | right | bottom | top | near | far)) {
+                    visibleCount++;
+                }
+            }
+            return visibleCount;
+        });
+        bench.add("Frustum.set", () -> frustum.set(viewProjection));
+        bench.addFloat("Frustum.cullAABBs x16384", () -> frustum.cullAABBs(boxes, 0, COUNT, visible));
+        bench.addFloat("Frustum.cullAABBs coherent x16384", () -> frustum.cullAABBs(boxes, 0, COUNT, visible, lastPlane));
+        bench.addFloat("Frustum.cullSpheres x16384", () -> frustum.cullSpheres(spheres, 0, COUNT, visible));
+        bench.addFloat("Frustum.cullSpheres coherent x16384", () -> frustum.cullSpheres(spheres, 0, COUNT, visible, lastPlane));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+import mathkit.scene.MatrixStack;
+import mathkit.scene.TransformHierarchy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/* world matrix updates of a 4096 node hierarchy */
+public class HierarchyBenchmarks {
+    private static final int NODES = 4096;
+
+    private final TransformHierarchy hierarchy = new TransformHierarchy(NODES);
+    private final int[] parents = new int[NODES];
+    private final float4x4[] locals = new float4x4[NODES];
+    private final float4x4[] worlds = new float4x4[NODES];
+    private final ParallelKernels parallel = ParallelKernels.common();
+    private final quaternion rotation = new quaternion();
+
+    /* render traversal, 64 objects below one camera matrix */
+    private static final int OBJECTS = 64;
+    private final MatrixStack stack = new MatrixStack(16);
+    private final float4x4 camera = new float4x4().initTranslation(0.0f, -2.0f, -10.0f);
+    private final FloatBuffer uniforms = ByteBuffer.allocateDirect(16 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
+
+    private int next = 0;
+    private float angle = 0.0f;
+
+    public HierarchyBenchmarks() {
+        float4x4 builder = new float4x4();
+        for (int i = 0; i < NODES; i++) {
+            /* wide tree, every node has up to 8 children */
+            parents[i] = i == 0 ? TransformHierarchy.ROOT : (i - 1) / 8;
+            hierarchy.add(parents[i]);
+            hierarchy.setTranslation(i, i * 0.5f, 1.0f, -i * 0.25f);
+            locals[i] = builder.initTranslation(i * 0.5f, 1.0f, -i * 0.25f);
+            worlds[i] = new float4x4();
+        }
+        hierarchy.update();
+    }
+
+    /* touches 5% of the nodes, spread over the tree */
+    private void animate(int nodes) {
+        angle += 1.0f;
+        rotation.setRotationY(angle);
+        for (int n = 0; n < nodes; n++) {
+            next = (next + 97) % NODES;
+            hierarchy.setRotation(next, rotation);
+        }
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("float4x4.multiply chain, all nodes x4096", () -> {
+            for (int i = 0; i < NODES; i++) {
+                if (parents[i] == TransformHierarchy.ROOT) {
+                    worlds[i].set(locals[i]);
+                } else {
+                    worlds[parents[i]].multiply(locals[i], worlds[i]);
+                }
+            }
+            return worlds;
+        });
+        bench.add("TransformHierarchy.update, all dirty x4096", () -> {
+            animate(NODES);
+            hierarchy.update();
+            return hierarchy;
+        });
+        bench.add("TransformHierarchy.update, 5% dirty x4096", () -> {
+            animate(NODES / 20);
+            hierarchy.update();
+            return hierarchy;
+        });
+        bench.add("TransformHierarchy.update(parallel), all dirty x4096", () -> {
+            animate(NODES);
+            hierarchy.update(parallel);
+            return hierarchy;
+        });
+        bench.add("TransformHierarchy.update, clean x4096", () -> {
+            hierarchy.update();
+            return hierarchy;
+        });
+        bench.add("float4x4 traversal, translate rotate upload x64", () -> {
+            float4x4 builder = camera;
+            for (int i = 0; i < OBJECTS; i++) {
+                float4x4 model = camera.multiply(builder.initTranslation(i, 0.0f, 0.0f)).multiply(builder.initRotationY(i));
+                model.writeTo(uniforms, 0);
+            }
+            return uniforms;
+        });
+        bench.add("MatrixStack traversal, translate rotate upload x64", () -> {
+            stack.clear();
+            stack.load(camera);
+            for (int i = 0; i < OBJECTS; i++) {
+                stack.push().translate(i, 0.0f, 0.0f).rotate(i, 0.0f, 1.0f, 0.0f).upload(uniforms, 0);
+                stack.pop();
+            }
+            return uniforms;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+/**
+ * runs the mathkit micro benchmarks
+ *
+ * usage: java -cp out benchmarks.Main [filter]
+ *
+ * system properties:
+ *  -Dbench.warmup=300   warmup per case in milliseconds
+ *  -Dbench.samples=20   measured batches per case
+ *  -Dbench.sample=50    duration of a measured batch in milliseconds
+ */
+public class Main {
+
+    public static void main(String[] args) {
+        System.out.println("bulk kernels: " + mathkit.BulkKernels.get().name());
+
+        Benchmark bench = new Benchmark();
+        bench.setTimes(Long.getLong("bench.warmup", 300), Integer.getInteger("bench.samples", 20), Long.getLong("bench.sample", 50));
+
+        new VectorBenchmarks().register(bench);
+        new MatrixBenchmarks().register(bench);
+        new BufferBenchmarks().register(bench);
+        new BulkBenchmarks().register(bench);
+        new QuaternionBenchmarks().register(bench);
+        new HierarchyBenchmarks().register(bench);
+        new CullingBenchmarks().register(bench);
+        new SpatialBenchmarks().register(bench);
+        new MeshBenchmarks().register(bench);
+
+        bench.run(args.length > 0 ? args[0] : null);
+    }
+}
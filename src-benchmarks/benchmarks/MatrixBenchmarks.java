@@ -0,0 +1,143 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/* float3x3 and float4x4 operations */
+public class MatrixBenchmarks {
+    private final float3x3 a3 = new float3x3(new float3(0.9f, -0.1f, 0.4f), new float3(0.2f, 1.1f, -0.3f), new float3(-0.5f, 0.3f, 0.8f));
+    private final float3x3 b3 = new float3x3(new float3(1.2f, 0.4f, 0.0f), new float3(-0.3f, 0.7f, 0.2f), new float3(0.1f, -0.6f, 1.4f));
+    private final float3 v3 = new float3(0.3f, -1.7f, 2.5f);
+
+    private final float4x4 a4;
+    private final float4x4 b4;
+    private final float4x4 projection;
+    private final float4x4 r4 = new float4x4();
+    private final ifloat4x4 ia4;
+    private final ifloat4x4 ib4;
+    private final ifloat3 iv3 = new ifloat3(0.3f, -1.7f, 2.5f);
+    private final float4 v4 = new float4(0.3f, -1.7f, 2.5f, 1.0f);
+
+    private final float4x4[] instances = new float4x4[1024];
+    private final FloatBuffer upload = ByteBuffer.allocateDirect(1024 * 64).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    private final float[] uploadArray = new float[1024 * 16];
+
+    private final double4x4 d4;
+    private final double4x4 e4;
+    private final double[] worldInstances = new double[1024 * 16];
+    private final double3 eye = new double3(1.0e7, 25.0, -3.0e7);
+
+    private float angle = 0.0f;
+
+    public MatrixBenchmarks() {
+        float4x4 builder = new float4x4();
+        a4 = builder.initTranslation(1.0f, 2.0f, 3.0f).multiply(builder.initRotationY(30.0f)).multiply(builder.initScale(1.5f));
+        b4 = builder.initRotationX(-20.0f).multiply(builder.initTranslation(-4.0f, 0.5f, 2.0f));
+        ia4 = a4.toImmutable();
+        ib4 = b4.toImmutable();
+        projection = builder.initPerspective(60.0f, 16.0f / 9.0f, 0.1f, 1000.0f);
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = builder.initTranslation(i, 0.0f, -i);
+        }
+        d4 = new double4x4(a4);
+        e4 = new double4x4(b4);
+        double4x4 dbuilder = new double4x4();
+        for (int i = 0; i < 1024; i++) {
+            dbuilder.initTranslation(1.0e7 + i, 0.0, -3.0e7 - i).writeTo(worldInstances, i * 16);
+        }
+    }
+
+    public void register(Benchmark bench) {
+        /* float3x3 */
+        bench.add("float3x3.new(float3x3)", () -> new float3x3(a3));
+        bench.add("float3x3.getRow0", () -> a3.getRow0());
+        bench.add("float3x3.getColumn0", () -> a3.getColumn0());
+        bench.add("float3x3.transpose", () -> a3.transpose());
+        bench.add("float3x3.inverse", () -> a3.inverse());
+        bench.add("float3x3.multiply(float3x3)", () -> a3.multiply(b3));
+        bench.add("float3x3.multiply(float3)", () -> a3.multiply(v3));
+        bench.add("float3x3.multiply(float)", () -> a3.multiply(1.5f));
+        bench.add("float3x3.toFloat", () -> a3.toFloat());
+        bench.add("float3x3.toBuffer", () -> a3.toBuffer());
+
+        /* float4x4 */
+        bench.add("float4x4.new()", () -> new float4x4());
+        bench.add("float4x4.new(float4x4)", () -> new float4x4(a4));
+        bench.add("float4x4.getRow0", () -> a4.getRow0());
+        bench.add("float4x4.getColumn0", () -> a4.getColumn0());
+        bench.add("float4x4.getTranslationVector", () -> a4.getTranslationVector());
+        bench.add("float4x4.transposed", () -> a4.transposed());
+        bench.add("float4x4.initTranslation", () -> a4.initTranslation(1.0f, 2.0f, 3.0f));
+        bench.add("float4x4.initRotationX", () -> a4.initRotationX(nextAngle(1.0f)));
+        bench.add("float4x4.initRotationX(FAST)", () -> a4.initRotationX(nextAngle(1.0f), MathMode.FAST));
+        bench.add("float4x4.initScale", () -> a4.initScale(2.0f));
+        bench.add("float4x4.initOrthographic", () -> a4.initOrthographic(-1, 1, -1, 1, 0.1f, 100.0f));
+        bench.add("float4x4.initPerspective", () -> a4.initPerspective(60.0f, 16.0f / 9.0f, 0.1f, 1000.0f));
+        bench.add("float4x4.multiply(float)", () -> a4.multiply(1.5f));
+        bench.add("float4x4.multiply(float4x4)", () -> a4.multiply(b4));
+        bench.add("float4x4.multiply(float4)", () -> a4.multiply(v4));
+        bench.add("float4x4.multiply(float3)", () -> a4.multiply(v3));
+        bench.add("float4x4.multiplyNoHomogeneous", () -> a4.multiplyNoHomogeneous(v3));
+        bench.add("float4x4.toImmutable", () -> a4.toImmutable());
+        bench.add("ifloat4x4.multiply(float4x4, dest)", () -> { ia4.multiply(b4, r4); return r4; });
+        bench.addFloat("ifloat4x4.multiply(ifloat3), not escaping", () -> ia4.multiply(iv3).x);
+        bench.addFloat("ifloat4x4.multiply(ifloat4x4), not escaping", () -> ia4.multiply(ib4).m30);
+        bench.addFloat("float4x4.getDeterminant", () -> a4.getDeterminant());
+        bench.add("float4x4.inverse", () -> a4.inverse());
+        bench.add("float4x4.inverse(projection)", () -> projection.inverse());
+        bench.add("float4x4.inverseTranslationRotation", () -> b4.inverseTranslationRotation());
+        bench.addFloat("float4x4.determinant", () -> a4.determinant());
+        bench.add("float4x4.inverseAffine", () -> a4.inverseAffine());
+        bench.add("float4x4.inverse(dest)", () -> a4.inverse(r4));
+        bench.add("float4x4.inverseAffine(dest)", () -> a4.inverseAffine(r4));
+        bench.add("float4x4.inverseRigid(dest)", () -> b4.inverseRigid(r4));
+        bench.add("float4x4.toFloat", () -> a4.toFloat());
+        bench.add("float4x4.toBuffer", () -> a4.toBuffer());
+        bench.add("float4x4.writeTo(FloatBuffer)", () -> a4.writeTo(upload, 16));
+        bench.add("float4x4.writeTo(float[])", () -> a4.writeTo(uploadArray, 16));
+        bench.add("float4x4.writeTo(float4x4[1024], FloatBuffer)", () -> float4x4.writeTo(instances, 0, instances.length, upload, 0));
+        bench.add("float3x3.writeTo(FloatBuffer)", () -> a3.writeTo(upload, 9));
+
+        /* double4x4 */
+        bench.add("double4x4.multiply(double4x4)", () -> d4.multiply(e4));
+        bench.add("double4x4.inverse", () -> d4.inverse());
+        bench.add("double4x4.toFloat4x4RelativeToEye", () -> d4.toFloat4x4RelativeToEye(eye, r4));
+        bench.add("double4x4.toRelativeToEye(double[1024], float[])", () -> double4x4.toRelativeToEye(worldInstances, 0, eye, uploadArray, 0, 1024));
+        bench.add("double4x4.toRelativeToEye(double[1024], FloatBuffer)", () -> double4x4.toRelativeToEye(worldInstances, 0, eye, upload, 0, 1024));
+    }
+
+    /* keeps the argument in [0, 360), an ever growing angle would leave the fast path of FastMath */
+    private float nextAngle(float step) {
+        angle += step;
+        if (angle >= 360.0f) {
+            angle -= 360.0f;
+        }
+        return angle;
+    }
+}
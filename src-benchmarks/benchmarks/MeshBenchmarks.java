@@ -0,0 +1,96 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+
+/* normals and tangents of a 256 x 256 grid mesh, 131072 triangles */
+public class MeshBenchmarks {
+    private static final int SIZE = 256;
+    private static final int VERTICES = (SIZE + 1) * (SIZE + 1);
+    private static final int TRIANGLES = SIZE * SIZE * 2;
+
+    private final float[] positions = new float[VERTICES * 3];
+    private final float[] uvs = new float[VERTICES * 2];
+    private final int[] indices = new int[TRIANGLES * 3];
+    private final float[] normals = new float[VERTICES * 3];
+    private final float[] tangents = new float[VERTICES * 4];
+    private final MeshFrames frames = new MeshFrames();
+    private final ParallelKernels parallel = ParallelKernels.common();
+
+    private final float3[] points = new float3[VERTICES];
+    private final float2[] texCoords = new float2[VERTICES];
+
+    public MeshBenchmarks() {
+        for (int r = 0; r <= SIZE; r++) {
+            for (int c = 0; c <= SIZE; c++) {
+                int v = r * (SIZE + 1) + c;
+                float height = (float) (Math.sin(c * 0.1) * Math.cos(r * 0.07));
+                positions[v * 3] = c;
+                positions[v * 3 + 1] = height;
+                positions[v * 3 + 2] = r;
+                uvs[v * 2] = (float) c / SIZE;
+                uvs[v * 2 + 1] = (float) r / SIZE;
+                points[v] = new float3(c, height, r);
+                texCoords[v] = new float2(uvs[v * 2], uvs[v * 2 + 1]);
+            }
+        }
+        int i = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                int v0 = r * (SIZE + 1) + c, v1 = v0 + 1, v2 = v0 + SIZE + 1, v3 = v2 + 1;
+                indices[i++] = v0; indices[i++] = v2; indices[i++] = v1;
+                indices[i++] = v1; indices[i++] = v2; indices[i++] = v3;
+            }
+        }
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("float3.makeNormal/makeTangent per triangle x131072", () -> {
+            float3 last = null;
+            for (int t = 0; t < TRIANGLES * 3; t += 3) {
+                float3 p0 = points[indices[t]], p1 = points[indices[t + 1]], p2 = points[indices[t + 2]];
+                last = p0.makeNormal(p1, p2);
+                last = p0.makeTangent(p1, p2, texCoords[indices[t + 1]], texCoords[indices[t + 2]], texCoords[indices[t]]);
+            }
+            return last;
+        });
+        bench.add("MeshFrames.normals area x131072", () -> {
+            frames.normals(positions, indices, TRIANGLES, VERTICES, MeshFrames.AREA_WEIGHTED, normals);
+            return normals;
+        });
+        bench.add("MeshFrames.compute area x131072", () -> {
+            frames.compute(positions, uvs, indices, TRIANGLES, VERTICES, MeshFrames.AREA_WEIGHTED, normals, tangents);
+            return tangents;
+        });
+        bench.add("MeshFrames.compute angle x131072", () -> {
+            frames.compute(positions, uvs, indices, TRIANGLES, VERTICES, MeshFrames.ANGLE_WEIGHTED, normals, tangents);
+            return tangents;
+        });
+        bench.add("MeshFrames.compute(parallel) area x131072", () -> {
+            frames.compute(positions, uvs, indices, TRIANGLES, VERTICES, MeshFrames.AREA_WEIGHTED, normals, tangents, parallel);
+            return tangents;
+        });
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+
+/* quaternion operations compared to the equivalent float4x4 rotations */
+public class QuaternionBenchmarks {
+    private static final int JOINTS = 256;
+
+    private final quaternion qa = new quaternion(new float3(1.0f, 2.0f, -0.5f), 71.0f);
+    private final quaternion qb = new quaternion(new float3(-0.3f, 1.0f, 2.0f), 130.0f);
+    private final quaternion qr = new quaternion();
+    private final float4x4 ma = qa.toFloat4x4();
+    private final float4x4 mb = qb.toFloat4x4();
+    private final float4x4 mr = new float4x4();
+    private final float3x3 m3 = new float3x3();
+    private final float3 v3 = new float3(0.3f, -1.7f, 2.5f);
+    private final float3 r3 = new float3();
+
+    private final float[] poseA = new float[JOINTS * 4];
+    private final float[] poseB = new float[JOINTS * 4];
+    private final float[] pose = new float[JOINTS * 4];
+
+    private float t = 0.0f;
+
+    public QuaternionBenchmarks() {
+        quaternion q = new quaternion();
+        for (int i = 0; i < JOINTS; i++) {
+            q.setAxisAngle(new float3(i, 1.0f, -2.0f), i * 1.5f);
+            poseA[i * 4] = q.x; poseA[i * 4 + 1] = q.y; poseA[i * 4 + 2] = q.z; poseA[i * 4 + 3] = q.w;
+            q.setAxisAngle(new float3(1.0f, -i, 0.5f), i * 2.5f);
+            poseB[i * 4] = q.x; poseB[i * 4 + 1] = q.y; poseB[i * 4 + 2] = q.z; poseB[i * 4 + 3] = q.w;
+        }
+    }
+
+    private float nextT() {
+        t += 0.001f;
+        if (t > 1.0f) {
+            t = 0.0f;
+        }
+        return t;
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("quaternion.multiply", () -> qa.multiply(qb));
+        bench.add("quaternion.multiply(dest)", () -> qa.multiply(qb, qr));
+        bench.add("float4x4.multiply(float4x4, dest) rotation", () -> ma.multiply(mb, mr));
+        bench.add("quaternion.rotate(dest)", () -> qa.rotate(v3, r3));
+        bench.add("float4x4.multiplyNoHomogeneous(dest) rotation", () -> ma.multiplyNoHomogeneous(v3, r3));
+        bench.add("quaternion.toFloat4x4(dest)", () -> qa.toFloat4x4(mr));
+        bench.add("quaternion.toFloat3x3(dest)", () -> qa.toFloat3x3(m3));
+        bench.add("quaternion.set(float4x4)", () -> qr.set(ma));
+        bench.add("quaternion.setAxisAngle", () -> qr.setAxisAngle(v3, nextT() * 360.0f));
+        bench.add("quaternion.nlerp(dest)", () -> qa.nlerp(qb, nextT(), qr));
+        bench.add("quaternion.slerp(dest)", () -> qa.slerp(qb, nextT(), qr));
+        bench.add("quaternion.slerp(float[]) x256", () -> {
+            quaternion.slerp(poseA, 0, poseB, 0, nextT(), pose, 0, JOINTS);
+            return pose;
+        });
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.scene.DynamicAABBTree;
+import mathkit.scene.TriangleBVH;
+
+import java.util.Random;
+
+/* spatial queries over a 16384 triangle soup and 16384 moving boxes */
+public class SpatialBenchmarks {
+    private static final int TRIANGLES = 16384;
+    private static final int RAYS = 1024;
+
+    private final float[] triangles = new float[TRIANGLES * 9];
+    private final float[] rays = new float[RAYS * 6];
+    private final TriangleBVH bvh;
+    private final float[] hit = new float[3];
+    private final int[] results = new int[256];
+
+    private static final int PROXIES = 16384;
+    private final DynamicAABBTree tree = new DynamicAABBTree(0.1f, PROXIES * 2);
+    private final int[] proxies = new int[PROXIES];
+    private final float[] positions = new float[PROXIES * 3];
+    private final float[] velocities = new float[PROXIES * 3];
+    private final int[] pairs = new int[2 * 65536];
+
+    public SpatialBenchmarks() {
+        Random random = new Random(7);
+        for (int t = 0; t < TRIANGLES; t++) {
+            float x = random.nextFloat() * 200.0f, y = random.nextFloat() * 20.0f, z = random.nextFloat() * 200.0f;
+            for (int v = 0; v < 9; v += 3) {
+                triangles[t * 9 + v] = x + random.nextFloat() * 4.0f;
+                triangles[t * 9 + v + 1] = y + random.nextFloat() * 4.0f;
+                triangles[t * 9 + v + 2] = z + random.nextFloat() * 4.0f;
+            }
+        }
+        for (int r = 0; r < RAYS; r++) {
+            rays[r * 6] = random.nextFloat() * 200.0f;
+            rays[r * 6 + 1] = 30.0f;
+            rays[r * 6 + 2] = random.nextFloat() * 200.0f;
+            rays[r * 6 + 3] = random.nextFloat() - 0.5f;
+            rays[r * 6 + 4] = -1.0f;
+            rays[r * 6 + 5] = random.nextFloat() - 0.5f;
+        }
+        bvh = new TriangleBVH(triangles, 0, TRIANGLES);
+
+        for (int p = 0; p < PROXIES; p++) {
+            float x = random.nextFloat() * 400.0f, y = random.nextFloat() * 40.0f, z = random.nextFloat() * 400.0f;
+            positions[p * 3] = x; positions[p * 3 + 1] = y; positions[p * 3 + 2] = z;
+            velocities[p * 3] = random.nextFloat() - 0.5f;
+            velocities[p * 3 + 1] = 0.0f;
+            velocities[p * 3 + 2] = random.nextFloat() - 0.5f;
+            proxies[p] = tree.createProxy(x, y, z, x + 1.0f, y + 1.0f, z + 1.0f, p);
+        }
+    }
+
+    /* moves every proxy by its velocity, bouncing off the borders of the world */
+    private int step() {
+        int reinserted = 0;
+        for (int p = 0, o = 0; p < PROXIES; p++, o += 3) {
+            for (int a = 0; a < 3; a += 2) {
+                float v = positions[o + a] + velocities[o + a];
+                if (v < 0.0f || v > 400.0f) {
+                    velocities[o + a] = -velocities[o + a];
+                }
+                positions[o + a] += velocities[o + a];
+            }
+            float x = positions[o], y = positions[o + 1], z = positions[o + 2];
+            if (tree.moveProxy(proxies[p], x, y, z, x + 1.0f, y + 1.0f, z + 1.0f, velocities[o], velocities[o + 1], velocities[o + 2])) {
+                reinserted++;
+            }
+        }
+        return reinserted;
+    }
+
+    public void register(Benchmark bench) {
+        bench.add("TriangleBVH.build x16384", () -> new TriangleBVH(triangles, 0, TRIANGLES));
+        bench.addFloat("brute force raycast x16 rays", () -> {
+            int hits = 0;
+            for (int r = 0; r < 16; r++) {
+                if (bruteForce(r) >= 0) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        bench.addFloat("TriangleBVH.raycast x1024 rays", () -> {
+            int hits = 0;
+            for (int r = 0, o = 0; r < RAYS; r++, o += 6) {
+                if (bvh.raycast(rays[o], rays[o + 1], rays[o + 2], rays[o + 3], rays[o + 4], rays[o + 5], 100.0f, hit) >= 0) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        bench.addFloat("TriangleBVH.occluded x1024 rays", () -> {
+            int hits = 0;
+            for (int r = 0, o = 0; r < RAYS; r++, o += 6) {
+                if (bvh.occluded(rays[o], rays[o + 1], rays[o + 2], rays[o + 3], rays[o + 4], rays[o + 5], 100.0f)) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        bench.addFloat("TriangleBVH.overlapSphere x1024", () -> {
+            int found = 0;
+            for (int r = 0, o = 0; r < RAYS; r++, o += 6) {
+                found += bvh.overlapSphere(rays[o], 10.0f, rays[o + 2], 3.0f, results);
+            }
+            return found;
+        });
+        bench.addFloat("TriangleBVH.overlapAABB x1024", () -> {
+            int found = 0;
+            for (int r = 0, o = 0; r < RAYS; r++, o += 6) {
+                found += bvh.overlapAABB(rays[o] - 3.0f, 7.0f, rays[o + 2] - 3.0f, rays[o] + 3.0f, 13.0f, rays[o + 2] + 3.0f, results);
+            }
+            return found;
+        });
+
+        bench.addFloat("DynamicAABBTree.moveProxy x16384", () -> step());
+        bench.addFloat("DynamicAABBTree.query x1024", () -> {
+            int found = 0;
+            for (int r = 0, o = 0; r < RAYS; r++, o += 6) {
+                float x = rays[o] * 2.0f, z = rays[o + 2] * 2.0f;
+                found += tree.query(x, 0.0f, z, x + 8.0f, 40.0f, z + 8.0f, results);
+            }
+            return found;
+        });
+        bench.addFloat("DynamicAABBTree.overlapPairs x16384", () -> tree.overlapPairs(pairs));
+    }
+
+    /* moeller trumbore against every triangle */
+    private int bruteForce(int r) {
+        int o = r * 6;
+        float ox = rays[o], oy = rays[o + 1], oz = rays[o + 2], dx = rays[o + 3], dy = rays[o + 4], dz = rays[o + 5];
+        float best = 100.0f;
+        int index = -1;
+        for (int t = 0, v = 0; t < TRIANGLES; t++, v += 9) {
+            float e1x = triangles[v + 3] - triangles[v], e1y = triangles[v + 4] - triangles[v + 1], e1z = triangles[v + 5] - triangles[v + 2];
+            float e2x = triangles[v + 6] - triangles[v], e2y = triangles[v + 7] - triangles[v + 1], e2z = triangles[v + 8] - triangles[v + 2];
+            float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+            float det = e1x * px + e1y * py + e1z * pz;
+            if (det == 0) {
+                continue;
+            }
+            float inv = 1.0f / det;
+            float sx = ox - triangles[v], sy = oy - triangles[v + 1], sz = oz - triangles[v + 2];
+            float u = (sx * px + sy * py + sz * pz) * inv;
+            if (u < 0 || u > 1) {
+                continue;
+            }
+            float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+            float w = (dx * qx + dy * qy + dz * qz) * inv;
+            if (w < 0 || u + w > 1) {
+                continue;
+            }
+            float d = (e2x * qx + e2y * qy + e2z * qz) * inv;
+            if (d >= 0 && d < best) {
+                best = d;
+                index = t;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package benchmarks;
+
+import mathkit.*;
+
+/* float2, float3 and float4 operations */
+public class VectorBenchmarks {
+    private final float2 a2 = new float2(0.3f, -1.7f);
+    private final float2 b2 = new float2(2.1f, 0.9f);
+    private final float2 c2 = new float2(-0.4f, 1.3f);
+
+    private final float3 a3 = new float3(0.3f, -1.7f, 2.5f);
+    private final float3 b3 = new float3(2.1f, 0.9f, -0.6f);
+    private final float3 c3 = new float3(-0.4f, 1.3f, 0.8f);
+    private final float3 n3 = new float3(0.0f, 1.0f, 0.0f);
+    private final float2 t0 = new float2(0.0f, 0.0f);
+    private final float2 t1 = new float2(1.0f, 0.0f);
+    private final float2 t2 = new float2(0.0f, 1.0f);
+
+    private final float4 a4 = new float4(0.3f, -1.7f, 2.5f, 1.0f);
+    private final float4 b4 = new float4(2.1f, 0.9f, -0.6f, 0.5f);
+
+    private final float2 m2 = new float2(a2);
+    private final float3 m3 = new float3(a3);
+    private final float4 m4 = new float4(a4);
+
+    private final float2 r2 = new float2();
+    private final float3 r3 = new float3();
+
+    private static final int ZYX = Swizzle.mask("zyx");
+    private static final int WZYX = Swizzle.mask("wzyx");
+    private final float[] packed = new float[4096 * 3];
+
+    private float angle = 0.0f;
+
+    public void register(Benchmark bench) {
+        /* float2 */
+        bench.add("float2.multiply(float)", () -> a2.multiply(1.5f));
+        bench.add("float2.multiply(float2)", () -> a2.multiply(b2));
+        bench.add("float2.divide(float)", () -> a2.divide(1.5f));
+        bench.add("float2.divide(float2)", () -> a2.divide(b2));
+        bench.add("float2.scale", () -> { m2.scale(-1.0f); return m2; });
+        bench.addFloat("float2.length", () -> a2.length());
+        bench.addFloat("float2.lengthSquared", () -> a2.lengthSquared());
+        bench.add("float2.normalize", () -> { m2.normalize(); return m2; });
+        bench.add("float2.normalized", () -> a2.normalized());
+        bench.add("float2.rotate", () -> a2.rotate(nextAngle(1.0f)));
+        bench.add("float2.rotate(PRECISE)", () -> a2.rotate(nextAngle(1.0f), r2, MathMode.PRECISE));
+        bench.add("float2.rotate(FAST)", () -> a2.rotate(nextAngle(1.0f), r2, MathMode.FAST));
+        bench.add("float2.reflect", () -> a2.reflect(b2));
+        bench.add("float2.add", () -> a2.add(b2));
+        bench.add("float2.sub", () -> a2.sub(b2));
+        bench.addFloat("float2.cross(float2)", () -> a2.cross(b2));
+        bench.add("float2.cross()", () -> a2.cross());
+        bench.add("float2.distance", () -> a2.distance(b2));
+        bench.addFloat("float2.angleBetween", () -> a2.angleBetween(b2));
+        bench.addFloat("float2.angleBetween(FAST)", () -> a2.angleBetween(b2, MathMode.FAST));
+        bench.addFloat("float2.angleBetween2", () -> a2.angleBetween2(b2));
+        bench.addFloat("float2.dot", () -> a2.dot(b2));
+        bench.add("float2.inversed", () -> a2.inversed());
+        bench.add("float2.toFloat", () -> a2.toFloat());
+        bench.add("float2.clone", () -> a2.clone());
+        bench.add("float2.yx", () -> a2.yx());
+        bench.add("float2.xyy", () -> a2.xyy());
+
+        /* float3 */
+        bench.add("float3.makeNormal", () -> a3.makeNormal(b3, c3));
+        bench.add("float3.makeTangent", () -> a3.makeTangent(b3, c3, t1, t2, t0));
+        bench.add("float3.makeTangent(dest)", () -> a3.makeTangent(b3, c3, t1, t2, t0, r3));
+        bench.add("float3.makeBinormal", () -> n3.makeBinormal(a3));
+        bench.addFloat("float3.length", () -> a3.length());
+        bench.addFloat("float3.lengthSquared", () -> a3.lengthSquared());
+        bench.add("float3.cross", () -> a3.cross(b3));
+        bench.addFloat("float3.dot", () -> a3.dot(b3));
+        bench.add("float3.normalize", () -> { m3.normalize(); return m3; });
+        bench.add("float3.normalized", () -> a3.normalized());
+        bench.add("float3.normalized(FAST)", () -> a3.normalized(r3, MathMode.FAST));
+        bench.add("float3.add", () -> a3.add(b3));
+        bench.add("float3.sub", () -> a3.sub(b3));
+        bench.add("float3.multiply(float)", () -> a3.multiply(1.5f));
+        bench.add("float3.multiply(float3)", () -> a3.multiply(b3));
+        bench.add("float3.divide(float)", () -> a3.divide(1.5f));
+        bench.add("float3.divide(float3)", () -> a3.divide(b3));
+        bench.add("float3.reflect", () -> a3.reflect(b3));
+        bench.add("float3.inversed", () -> a3.inversed());
+        bench.add("float3.projectOnto", () -> a3.projectOnto(b3));
+        bench.addFloat("float3.angleBetween", () -> a3.angleBetween(b3));
+        bench.addFloat("float3.angleBetween(FAST)", () -> a3.angleBetween(b3, MathMode.FAST));
+        bench.add("float3.distance", () -> a3.distance(b3));
+        bench.addFloat("float3.distanceEuclid", () -> a3.distanceEuclid(b3));
+        bench.add("float3.scale", () -> { m3.scale(-1.0f); return m3; });
+        bench.add("float3.toFloat", () -> a3.toFloat());
+        bench.add("float3.clone", () -> a3.clone());
+        bench.add("float3.zyx", () -> a3.zyx());
+        bench.add("float3.swizzle(zyx)", () -> a3.swizzle(ZYX, r3));
+        bench.add("Swizzle.shuffle(zyx) x4096", () -> Swizzle.shuffle(packed, 0, 3, ZYX, 4096));
+        bench.add("float3.xz", () -> a3.xz());
+
+        /* float4 */
+        bench.add("float4.normalize", () -> { m4.normalize(); return m4; });
+        bench.add("float4.normalized", () -> a4.normalized());
+        bench.add("float4.scale", () -> { m4.scale(-1.0f); return m4; });
+        bench.add("float4.multiply(float)", () -> a4.multiply(1.5f));
+        bench.add("float4.multiply(float4)", () -> a4.multiply(b4));
+        bench.add("float4.divide(float)", () -> a4.divide(1.5f));
+        bench.add("float4.divide(float4)", () -> a4.divide(b4));
+        bench.addFloat("float4.length", () -> a4.length());
+        bench.addFloat("float4.lengthSquared", () -> a4.lengthSquared());
+        bench.addFloat("float4.dot", () -> a4.dot(b4));
+        bench.add("float4.inversed", () -> a4.inversed());
+        bench.add("float4.toFloat", () -> a4.toFloat());
+        bench.add("float4.clone", () -> a4.clone());
+        bench.add("float4.xyz", () -> a4.xyz());
+        bench.add("float4.swizzle(wzyx)", () -> a4.swizzle(WZYX, m4));
+
+        /* scratch temporaries */
+        bench.add("ScratchArena mark, 2x float3, reset", () -> {
+            ScratchArena scratch = ScratchArena.get();
+            long mark = scratch.mark();
+            float3 d = a3.sub(b3, scratch.float3());
+            float3 e = a3.cross(c3, scratch.float3());
+            d.add(e, m3);
+            scratch.reset(mark);
+            return m3;
+        });
+
+        /* scalar trig */
+        bench.addFloat("Math.sin", () -> (float) Math.sin(nextAngle(0.1f)));
+        bench.addFloat("FastMath.sin", () -> FastMath.sin(nextAngle(0.1f)));
+        bench.add("FastMath.sinCos", () -> FastMath.sinCos(nextAngle(0.1f), r2));
+        bench.addFloat("Math.acos", () -> (float) Math.acos(a4.x));
+        bench.addFloat("FastMath.acos", () -> FastMath.acos(a4.x));
+        bench.addFloat("Math.atan2", () -> (float) Math.atan2(a4.y, a4.x));
+        bench.addFloat("FastMath.atan2", () -> FastMath.atan2(a4.y, a4.x));
+    }
+
+    /* keeps the argument in [0, 360), an ever growing angle would leave the fast path of FastMath */
+    private float nextAngle(float step) {
+        angle += step;
+        if (angle >= 360.0f) {
+            angle -= 360.0f;
+        }
+        return angle;
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+import mathkit.BulkKernels;
+import mathkit.float4x4;
+
+/**
+ * BulkKernels on top of the jdk.incubator.vector api.
+ *
+ * build and run with --add-modules jdk.incubator.vector, BulkKernels.get() picks this class
+ * up automatically when it is on the class path.
+ *
+ * the bulk kernels use the preferred species, the remainder of a range runs through
+ * the scalar kernels. the lane operations are ordered like the scalar expressions and
+ * do not use fma, so the results are bit identical to the scalar kernels.
+ */
+public class VectorKernels extends BulkKernels {
+    private static final VectorSpecies<Float> S = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> S128 = FloatVector.SPECIES_128;
+
+    public VectorKernels() {
+        if (S.length() < 4) {
+            throw new UnsupportedOperationException("no simd support, preferred species: " + S);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector " + S;
+    }
+
+    /* componentwise */
+
+    @Override
+    public void add(float[] a, float[] b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).add(FloatVector.fromArray(S, b, i)).intoArray(dst, i);
+        }
+        super.add(a, b, dst, i, end - i);
+    }
+
+    @Override
+    public void add(float[] a, float b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).add(b).intoArray(dst, i);
+        }
+        super.add(a, b, dst, i, end - i);
+    }
+
+    @Override
+    public void sub(float[] a, float[] b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).sub(FloatVector.fromArray(S, b, i)).intoArray(dst, i);
+        }
+        super.sub(a, b, dst, i, end - i);
+    }
+
+    @Override
+    public void multiply(float[] a, float b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).mul(b).intoArray(dst, i);
+        }
+        super.multiply(a, b, dst, i, end - i);
+    }
+
+    @Override
+    public void multiply(float[] a, float[] b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).mul(FloatVector.fromArray(S, b, i)).intoArray(dst, i);
+        }
+        super.multiply(a, b, dst, i, end - i);
+    }
+
+    @Override
+    public void divide(float[] a, float[] b, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector.fromArray(S, a, i).div(FloatVector.fromArray(S, b, i)).intoArray(dst, i);
+        }
+        super.divide(a, b, dst, i, end - i);
+    }
+
+    /* 3d vectors */
+
+    @Override
+    public void dot3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i).mul(FloatVector.fromArray(S, bx, i));
+            FloatVector y = FloatVector.fromArray(S, ay, i).mul(FloatVector.fromArray(S, by, i));
+            FloatVector z = FloatVector.fromArray(S, az, i).mul(FloatVector.fromArray(S, bz, i));
+            x.add(y).add(z).intoArray(dst, i);
+        }
+        super.dot3(ax, ay, az, bx, by, bz, dst, i, end - i);
+    }
+
+    @Override
+    public void cross3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz,
+                       float[] dx, float[] dy, float[] dz, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x0 = FloatVector.fromArray(S, ax, i), y0 = FloatVector.fromArray(S, ay, i), z0 = FloatVector.fromArray(S, az, i);
+            FloatVector x1 = FloatVector.fromArray(S, bx, i), y1 = FloatVector.fromArray(S, by, i), z1 = FloatVector.fromArray(S, bz, i);
+            y0.mul(z1).sub(z0.mul(y1)).intoArray(dx, i);
+            z0.mul(x1).sub(x0.mul(z1)).intoArray(dy, i);
+            x0.mul(y1).sub(y0.mul(x1)).intoArray(dz, i);
+        }
+        super.cross3(ax, ay, az, bx, by, bz, dx, dy, dz, i, end - i);
+    }
+
+    @Override
+    public void normalize3(float[] ax, float[] ay, float[] az, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        FloatVector one = FloatVector.broadcast(S, 1.0f);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i), z = FloatVector.fromArray(S, az, i);
+            FloatVector inv = one.div(x.mul(x).add(y.mul(y)).add(z.mul(z)).sqrt());
+            x.mul(inv).intoArray(dx, i);
+            y.mul(inv).intoArray(dy, i);
+            z.mul(inv).intoArray(dz, i);
+        }
+        super.normalize3(ax, ay, az, dx, dy, dz, i, end - i);
+    }
+
+    @Override
+    public void lengthSquared3(float[] ax, float[] ay, float[] az, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i), z = FloatVector.fromArray(S, az, i);
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).intoArray(dst, i);
+        }
+        super.lengthSquared3(ax, ay, az, dst, i, end - i);
+    }
+
+    @Override
+    public void length3(float[] ax, float[] ay, float[] az, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i), z = FloatVector.fromArray(S, az, i);
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).sqrt().intoArray(dst, i);
+        }
+        super.length3(ax, ay, az, dst, i, end - i);
+    }
+
+    @Override
+    public void distance3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i).sub(FloatVector.fromArray(S, bx, i));
+            FloatVector y = FloatVector.fromArray(S, ay, i).sub(FloatVector.fromArray(S, by, i));
+            FloatVector z = FloatVector.fromArray(S, az, i).sub(FloatVector.fromArray(S, bz, i));
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).sqrt().intoArray(dst, i);
+        }
+        super.distance3(ax, ay, az, bx, by, bz, dst, i, end - i);
+    }
+
+    /* 4d vectors */
+
+    @Override
+    public void dot4(float[] ax, float[] ay, float[] az, float[] aw, float[] bx, float[] by, float[] bz, float[] bw,
+                     float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i).mul(FloatVector.fromArray(S, bx, i));
+            FloatVector y = FloatVector.fromArray(S, ay, i).mul(FloatVector.fromArray(S, by, i));
+            FloatVector z = FloatVector.fromArray(S, az, i).mul(FloatVector.fromArray(S, bz, i));
+            FloatVector w = FloatVector.fromArray(S, aw, i).mul(FloatVector.fromArray(S, bw, i));
+            x.add(y).add(z).add(w).intoArray(dst, i);
+        }
+        super.dot4(ax, ay, az, aw, bx, by, bz, bw, dst, i, end - i);
+    }
+
+    @Override
+    public void normalize4(float[] ax, float[] ay, float[] az, float[] aw, float[] dx, float[] dy, float[] dz, float[] dw,
+                           int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        FloatVector one = FloatVector.broadcast(S, 1.0f);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i);
+            FloatVector z = FloatVector.fromArray(S, az, i), w = FloatVector.fromArray(S, aw, i);
+            FloatVector inv = one.div(x.mul(x).add(y.mul(y)).add(z.mul(z)).add(w.mul(w)).sqrt());
+            x.mul(inv).intoArray(dx, i);
+            y.mul(inv).intoArray(dy, i);
+            z.mul(inv).intoArray(dz, i);
+            w.mul(inv).intoArray(dw, i);
+        }
+        super.normalize4(ax, ay, az, aw, dx, dy, dz, dw, i, end - i);
+    }
+
+    @Override
+    public void lengthSquared4(float[] ax, float[] ay, float[] az, float[] aw, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i);
+            FloatVector z = FloatVector.fromArray(S, az, i), w = FloatVector.fromArray(S, aw, i);
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).add(w.mul(w)).intoArray(dst, i);
+        }
+        super.lengthSquared4(ax, ay, az, aw, dst, i, end - i);
+    }
+
+    @Override
+    public void length4(float[] ax, float[] ay, float[] az, float[] aw, float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i), y = FloatVector.fromArray(S, ay, i);
+            FloatVector z = FloatVector.fromArray(S, az, i), w = FloatVector.fromArray(S, aw, i);
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).add(w.mul(w)).sqrt().intoArray(dst, i);
+        }
+        super.length4(ax, ay, az, aw, dst, i, end - i);
+    }
+
+    @Override
+    public void distance4(float[] ax, float[] ay, float[] az, float[] aw, float[] bx, float[] by, float[] bz, float[] bw,
+                          float[] dst, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, ax, i).sub(FloatVector.fromArray(S, bx, i));
+            FloatVector y = FloatVector.fromArray(S, ay, i).sub(FloatVector.fromArray(S, by, i));
+            FloatVector z = FloatVector.fromArray(S, az, i).sub(FloatVector.fromArray(S, bz, i));
+            FloatVector w = FloatVector.fromArray(S, aw, i).sub(FloatVector.fromArray(S, bw, i));
+            x.mul(x).add(y.mul(y)).add(z.mul(z)).add(w.mul(w)).sqrt().intoArray(dst, i);
+        }
+        super.distance4(ax, ay, az, aw, bx, by, bz, bw, dst, i, end - i);
+    }
+
+    /* transforms */
+
+    @Override
+    public void transformPoints(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        FloatVector one = FloatVector.broadcast(S, 1.0f);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, sx, i), y = FloatVector.fromArray(S, sy, i), z = FloatVector.fromArray(S, sz, i);
+            FloatVector inv = one.div(x.mul(m.m03).add(y.mul(m.m13)).add(z.mul(m.m23)).add(m.m33));
+            x.mul(m.m00).add(y.mul(m.m10)).add(z.mul(m.m20)).add(m.m30).mul(inv).intoArray(dx, i);
+            x.mul(m.m01).add(y.mul(m.m11)).add(z.mul(m.m21)).add(m.m31).mul(inv).intoArray(dy, i);
+            x.mul(m.m02).add(y.mul(m.m12)).add(z.mul(m.m22)).add(m.m32).mul(inv).intoArray(dz, i);
+        }
+        super.transformPoints(m, sx, sy, sz, dx, dy, dz, i, end - i);
+    }
+
+    @Override
+    public void transformPointsAffine(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, sx, i), y = FloatVector.fromArray(S, sy, i), z = FloatVector.fromArray(S, sz, i);
+            x.mul(m.m00).add(y.mul(m.m10)).add(z.mul(m.m20)).add(m.m30).intoArray(dx, i);
+            x.mul(m.m01).add(y.mul(m.m11)).add(z.mul(m.m21)).add(m.m31).intoArray(dy, i);
+            x.mul(m.m02).add(y.mul(m.m12)).add(z.mul(m.m22)).add(m.m32).intoArray(dz, i);
+        }
+        super.transformPointsAffine(m, sx, sy, sz, dx, dy, dz, i, end - i);
+    }
+
+    @Override
+    public void transformDirections(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        int i = offset, end = offset + count, bound = offset + S.loopBound(count);
+        for (; i < bound; i += S.length()) {
+            FloatVector x = FloatVector.fromArray(S, sx, i), y = FloatVector.fromArray(S, sy, i), z = FloatVector.fromArray(S, sz, i);
+            x.mul(m.m00).add(y.mul(m.m10)).add(z.mul(m.m20)).intoArray(dx, i);
+            x.mul(m.m01).add(y.mul(m.m11)).add(z.mul(m.m21)).intoArray(dy, i);
+            x.mul(m.m02).add(y.mul(m.m12)).add(z.mul(m.m22)).intoArray(dz, i);
+        }
+        super.transformDirections(m, sx, sy, sz, dx, dy, dz, i, end - i);
+    }
+
+    /* packed 4x4 matrices: one 128 bit vector per column, 4 broadcasts and 4 lane multiplies per result column */
+
+    @Override
+    public void multiply4x4(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+        for (int n = 0; n < count; n++, aOffset += 16, bOffset += 16, dstOffset += 16) {
+            FloatVector a0 = FloatVector.fromArray(S128, a, aOffset);
+            FloatVector a1 = FloatVector.fromArray(S128, a, aOffset + 4);
+            FloatVector a2 = FloatVector.fromArray(S128, a, aOffset + 8);
+            FloatVector a3 = FloatVector.fromArray(S128, a, aOffset + 12);
+
+            for (int c = 0; c < 16; c += 4) {
+                float b0 = b[bOffset + c], b1 = b[bOffset + c + 1], b2 = b[bOffset + c + 2], b3 = b[bOffset + c + 3];
+                a0.mul(b0).add(a1.mul(b1)).add(a2.mul(b2)).add(a3.mul(b3)).intoArray(dst, dstOffset + c);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * kernels behind the bulk operations of Float3Array, Float4Array and the
+ * float4x4 batch transforms. all kernels work on plain float arrays,
+ * in the range [offset, offset + count). destinations may alias the sources.
+ *
+ * this class is the scalar implementation. at class initialization get() tries to load
+ * mathkit.simd.VectorKernels (compiled from src-simd with the jdk.incubator.vector module).
+ * if that class or the incubator module is missing, the scalar kernels are used.
+ * -Dmathkit.simd=false forces the scalar kernels.
+ *
+ * every implementation has to return exactly the results of the scalar kernels.
+ */
+public class BulkKernels {
+    private static final BulkKernels INSTANCE = load();
+
+    /**
+     * returns the kernels in use
+     * @return vector kernels if available, scalar kernels otherwise
+     */
+    public static BulkKernels get() {
+        return INSTANCE;
+    }
+
+    private static BulkKernels load() {
+        if (!"false".equals(System.getProperty("mathkit.simd"))) {
+            try {
+                return (BulkKernels) Class.forName("mathkit.simd.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (Throwable e) {
+                /* no vector api or no simd build, fall through */
+            }
+        }
+        return new BulkKernels();
+    }
+
+    /**
+     * name of the implementation, for diagnostics
+     * @return name
+     */
+    public String name() {
+        return "scalar";
+    }
+
+    /* componentwise, used once per component array */
+
+    public void add(float[] a, float[] b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] + b[i];
+        }
+    }
+
+    public void add(float[] a, float b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] + b;
+        }
+    }
+
+    public void sub(float[] a, float[] b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] - b[i];
+        }
+    }
+
+    public void multiply(float[] a, float b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] * b;
+        }
+    }
+
+    public void multiply(float[] a, float[] b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] * b[i];
+        }
+    }
+
+    public void divide(float[] a, float[] b, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = a[i] / b[i];
+        }
+    }
+
+    /* 3d vectors in component arrays */
+
+    public void dot3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+        }
+    }
+
+    public void cross3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz,
+                       float[] dx, float[] dy, float[] dz, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x0 = ax[i], y0 = ay[i], z0 = az[i];
+            float x1 = bx[i], y1 = by[i], z1 = bz[i];
+            dx[i] = y0 * z1 - z0 * y1;
+            dy[i] = z0 * x1 - x0 * z1;
+            dz[i] = x0 * y1 - y0 * x1;
+        }
+    }
+
+    public void normalize3(float[] ax, float[] ay, float[] az, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x = ax[i], y = ay[i], z = az[i];
+            float inv = 1 / (float) Math.sqrt(x * x + y * y + z * z);
+            dx[i] = x * inv;
+            dy[i] = y * inv;
+            dz[i] = z * inv;
+        }
+    }
+
+    public void lengthSquared3(float[] ax, float[] ay, float[] az, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = ax[i] * ax[i] + ay[i] * ay[i] + az[i] * az[i];
+        }
+    }
+
+    public void length3(float[] ax, float[] ay, float[] az, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = (float) Math.sqrt(ax[i] * ax[i] + ay[i] * ay[i] + az[i] * az[i]);
+        }
+    }
+
+    public void distance3(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float ex = ax[i] - bx[i];
+            float ey = ay[i] - by[i];
+            float ez = az[i] - bz[i];
+            dst[i] = (float) Math.sqrt(ex * ex + ey * ey + ez * ez);
+        }
+    }
+
+    /* 4d vectors in component arrays */
+
+    public void dot4(float[] ax, float[] ay, float[] az, float[] aw, float[] bx, float[] by, float[] bz, float[] bw,
+                     float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i] + aw[i] * bw[i];
+        }
+    }
+
+    public void normalize4(float[] ax, float[] ay, float[] az, float[] aw, float[] dx, float[] dy, float[] dz, float[] dw,
+                           int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x = ax[i], y = ay[i], z = az[i], w = aw[i];
+            float inv = 1 / (float) Math.sqrt(x * x + y * y + z * z + w * w);
+            dx[i] = x * inv;
+            dy[i] = y * inv;
+            dz[i] = z * inv;
+            dw[i] = w * inv;
+        }
+    }
+
+    public void lengthSquared4(float[] ax, float[] ay, float[] az, float[] aw, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = ax[i] * ax[i] + ay[i] * ay[i] + az[i] * az[i] + aw[i] * aw[i];
+        }
+    }
+
+    public void length4(float[] ax, float[] ay, float[] az, float[] aw, float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            dst[i] = (float) Math.sqrt(ax[i] * ax[i] + ay[i] * ay[i] + az[i] * az[i] + aw[i] * aw[i]);
+        }
+    }
+
+    public void distance4(float[] ax, float[] ay, float[] az, float[] aw, float[] bx, float[] by, float[] bz, float[] bw,
+                          float[] dst, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float ex = ax[i] - bx[i];
+            float ey = ay[i] - by[i];
+            float ez = az[i] - bz[i];
+            float ew = aw[i] - bw[i];
+            dst[i] = (float) Math.sqrt(ex * ex + ey * ey + ez * ez + ew * ew);
+        }
+    }
+
+    /* transforms of 3d vectors in component arrays */
+
+    public void transformPoints(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x = sx[i], y = sy[i], z = sz[i];
+            float inv = 1.0f / (m.m03 * x + m.m13 * y + m.m23 * z + m.m33);
+            dx[i] = (m.m00 * x + m.m10 * y + m.m20 * z + m.m30) * inv;
+            dy[i] = (m.m01 * x + m.m11 * y + m.m21 * z + m.m31) * inv;
+            dz[i] = (m.m02 * x + m.m12 * y + m.m22 * z + m.m32) * inv;
+        }
+    }
+
+    public void transformPointsAffine(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x = sx[i], y = sy[i], z = sz[i];
+            dx[i] = m.m00 * x + m.m10 * y + m.m20 * z + m.m30;
+            dy[i] = m.m01 * x + m.m11 * y + m.m21 * z + m.m31;
+            dz[i] = m.m02 * x + m.m12 * y + m.m22 * z + m.m32;
+        }
+    }
+
+    public void transformDirections(float4x4 m, float[] sx, float[] sy, float[] sz, float[] dx, float[] dy, float[] dz, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            float x = sx[i], y = sy[i], z = sz[i];
+            dx[i] = m.m00 * x + m.m10 * y + m.m20 * z;
+            dy[i] = m.m01 * x + m.m11 * y + m.m21 * z;
+            dz[i] = m.m02 * x + m.m12 * y + m.m22 * z;
+        }
+    }
+
+    /* packed column major 4x4 matrices, 16 floats each */
+
+    /**
+     * multiplies packed matrices, dst = a * b for count consecutive matrix pairs
+     * dst may alias a or b
+     */
+    public void multiply4x4(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+        for (int n = 0; n < count; n++, aOffset += 16, bOffset += 16, dstOffset += 16) {
+            float a00 = a[aOffset],      a01 = a[aOffset + 1],  a02 = a[aOffset + 2],  a03 = a[aOffset + 3];
+            float a10 = a[aOffset + 4],  a11 = a[aOffset + 5],  a12 = a[aOffset + 6],  a13 = a[aOffset + 7];
+            float a20 = a[aOffset + 8],  a21 = a[aOffset + 9],  a22 = a[aOffset + 10], a23 = a[aOffset + 11];
+            float a30 = a[aOffset + 12], a31 = a[aOffset + 13], a32 = a[aOffset + 14], a33 = a[aOffset + 15];
+
+            for (int c = 0; c < 16; c += 4) {
+                float b0 = b[bOffset + c], b1 = b[bOffset + c + 1], b2 = b[bOffset + c + 2], b3 = b[bOffset + c + 3];
+                dst[dstOffset + c]     = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+                dst[dstOffset + c + 1] = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+                dst[dstOffset + c + 2] = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+                dst[dstOffset + c + 3] = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+            }
+        }
+    }
+}
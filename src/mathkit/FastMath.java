@@ -0,0 +1,205 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * float only math functions
+ *
+ * sin, cos and sinCos reduce the argument to [-pi/4, pi/4] (Cody-Waite, three part pi/2)
+ * and evaluate Taylor polynomials of degree 9 / 8 there.
+ * max absolute error: 1.1e-7 for |x| <= 10000. beyond that the float reduction loses accuracy
+ * (5e-7 at 50000, 3e-2 at 1e6), so larger, infinite and NaN arguments go to java.lang.Math
+ * (NaN for infinity and NaN).
+ *
+ * acos: Abramowitz & Stegun 4.4.46, max absolute error 4.4e-7 (all floats in [-1, 1]).
+ * atan2: reduced to [0, tan(pi/8)] and a Taylor polynomial of degree 15, max absolute error 2.9e-7.
+ * infinite arguments give the same angles as Math.atan2 (pi/4, 3pi/4 for two infinities).
+ *
+ * invSqrt stays on sqrt, HotSpot compiles (float) Math.sqrt of a float to a single
+ * precision square root, which measured faster than the bit trick with newton steps.
+ */
+public final class FastMath {
+    public static final float PI = (float) Math.PI;
+    public static final float TWO_PI = (float) (2.0 * Math.PI);
+    public static final float HALF_PI = (float) (0.5 * Math.PI);
+    public static final float QUARTER_PI = (float) (0.25 * Math.PI);
+    public static final float DEGREES_TO_RADIANS = (float) (Math.PI / 180.0);
+    public static final float RADIANS_TO_DEGREES = (float) (180.0 / Math.PI);
+
+    private static final float TWO_OVER_PI = (float) (2.0 / Math.PI);
+    /* pi / 2 in three parts, the first two have trailing zero bits so quadrant * part stays exact (cephes) */
+    private static final float HALF_PI_1 = 1.5703125f;
+    private static final float HALF_PI_2 = 4.837512969970703125e-4f;
+    private static final float HALF_PI_3 = 7.54978995489188216e-8f;
+    private static final float TAN_PI_OVER_8 = 0.41421356f;
+    /* largest |x| handled by the polynomial path of sin, cos and sinCos */
+    private static final float REDUCTION_LIMIT = 10000.0f;
+
+    private FastMath() {
+    }
+
+    public static float toRadians(float degrees) {
+        return degrees * DEGREES_TO_RADIANS;
+    }
+
+    public static float toDegrees(float radians) {
+        return radians * RADIANS_TO_DEGREES;
+    }
+
+    /**
+     * @param radians
+     * @return sine
+     */
+    public static float sin(float radians) {
+        if (!(Math.abs(radians) <= REDUCTION_LIMIT)) {
+            return (float) Math.sin(radians);
+        }
+        int quadrant = quadrant(radians);
+        float r = reduce(radians, quadrant);
+        switch (quadrant & 3) {
+            case 0: return sinPoly(r);
+            case 1: return cosPoly(r);
+            case 2: return -sinPoly(r);
+            default: return -cosPoly(r);
+        }
+    }
+
+    /**
+     * @param radians
+     * @return cosine
+     */
+    public static float cos(float radians) {
+        if (!(Math.abs(radians) <= REDUCTION_LIMIT)) {
+            return (float) Math.cos(radians);
+        }
+        int quadrant = quadrant(radians);
+        float r = reduce(radians, quadrant);
+        switch (quadrant & 3) {
+            case 0: return cosPoly(r);
+            case 1: return -sinPoly(r);
+            case 2: return -cosPoly(r);
+            default: return sinPoly(r);
+        }
+    }
+
+    /**
+     * sine and cosine with one argument reduction
+     * @param radians
+     * @param dest - receives cosine in x and sine in y
+     * @return dest
+     */
+    public static float2 sinCos(float radians, float2 dest) {
+        if (!(Math.abs(radians) <= REDUCTION_LIMIT)) {
+            dest.x = (float) Math.cos(radians);
+            dest.y = (float) Math.sin(radians);
+            return dest;
+        }
+        int quadrant = quadrant(radians);
+        float r = reduce(radians, quadrant);
+        float s = sinPoly(r), c = cosPoly(r);
+        switch (quadrant & 3) {
+            case 0: dest.x = c;  dest.y = s;  break;
+            case 1: dest.x = -s; dest.y = c;  break;
+            case 2: dest.x = -c; dest.y = -s; break;
+            default: dest.x = s; dest.y = -c; break;
+        }
+        return dest;
+    }
+
+    private static int quadrant(float radians) {
+        return (int) Math.floor(radians * TWO_OVER_PI + 0.5f);
+    }
+
+    private static float reduce(float radians, int quadrant) {
+        return ((radians - quadrant * HALF_PI_1) - quadrant * HALF_PI_2) - quadrant * HALF_PI_3;
+    }
+
+    /* |r| <= pi / 4 */
+    private static float sinPoly(float r) {
+        float r2 = r * r;
+        return r * (1.0f + r2 * (-1.0f / 6 + r2 * (1.0f / 120 + r2 * (-1.0f / 5040 + r2 * (1.0f / 362880)))));
+    }
+
+    private static float cosPoly(float r) {
+        float r2 = r * r;
+        return 1.0f + r2 * (-0.5f + r2 * (1.0f / 24 + r2 * (-1.0f / 720 + r2 * (1.0f / 40320))));
+    }
+
+    /**
+     * @param x cosine, clamped to [-1, 1]
+     * @return angle in radians, [0, pi]
+     */
+    public static float acos(float x) {
+        float a = Math.min(Math.abs(x), 1.0f);
+        float p = -0.0012624911f;
+        p = p * a + 0.0066700901f;
+        p = p * a - 0.0170881256f;
+        p = p * a + 0.0308918810f;
+        p = p * a - 0.0501743046f;
+        p = p * a + 0.0889789874f;
+        p = p * a - 0.2145988016f;
+        p = p * a + 1.5707963050f;
+        float r = (float) Math.sqrt(1.0f - a) * p;
+        return x < 0 ? PI - r : r;
+    }
+
+    /**
+     * @param y
+     * @param x
+     * @return angle of (x, y) in radians, [-pi, pi]
+     */
+    public static float atan2(float y, float x) {
+        float ax = Math.abs(x), ay = Math.abs(y);
+        float max = Math.max(ax, ay);
+        if (max == 0) {
+            /* signed zeros like Math.atan2 */
+            return Math.copySign(Float.floatToRawIntBits(x) < 0 ? PI : 0.0f, y);
+        }
+        /* equal magnitudes give z = 1 directly, this also keeps inf / inf from turning into NaN */
+        float z = ax == ay ? 1.0f : Math.min(ax, ay) / max;
+        float a = z > TAN_PI_OVER_8 ? QUARTER_PI + atanPoly((z - 1.0f) / (z + 1.0f)) : atanPoly(z);
+        if (ay > ax) {
+            a = HALF_PI - a;
+        }
+        if (x < 0) {
+            a = PI - a;
+        }
+        return Math.copySign(a, y);
+    }
+
+    /* |z| <= tan(pi / 8) */
+    private static float atanPoly(float z) {
+        float z2 = z * z;
+        return z * (1.0f + z2 * (-1.0f / 3 + z2 * (1.0f / 5 + z2 * (-1.0f / 7 + z2 * (1.0f / 9
+                + z2 * (-1.0f / 11 + z2 * (1.0f / 13 + z2 * (-1.0f / 15))))))));
+    }
+
+    /**
+     * @param x
+     * @return 1 / sqrt(x) in single precision
+     */
+    public static float invSqrt(float x) {
+        return 1.0f / (float) Math.sqrt(x);
+    }
+}
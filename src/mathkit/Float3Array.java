@@ -0,0 +1,469 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * structure of arrays container for 3d vectors
+ *
+ * the components are stored in three separate arrays (xs, ys, zs), so bulk
+ * operations run over contiguous memory instead of chasing float3 references.
+ *
+ * all bulk operations exist as whole array and as range (offset, count) version.
+ * destinations may be this or one of the operands.
+ */
+public class Float3Array {
+    private static final BulkKernels KERNELS = BulkKernels.get();
+
+    public final float[] xs, ys, zs;
+    public final int length;
+
+    /**
+     * builds a container of length zero vectors
+     * @param length number of vectors
+     */
+    public Float3Array(int length) {
+        this.length = length;
+        this.xs = new float[length];
+        this.ys = new float[length];
+        this.zs = new float[length];
+    }
+
+    /**
+     * builds a container from a float3 array (gather)
+     * @param vectors
+     */
+    public Float3Array(float3[] vectors) {
+        this(vectors.length);
+        gather(vectors, 0, 0, vectors.length);
+    }
+
+    /**
+     * builds a container from interleaved x, y, z data
+     * @param data interleaved components
+     * @param offset index of the first x component
+     * @param count number of vectors
+     * @param stride distance in floats between two vectors, at least 3
+     */
+    public Float3Array(float[] data, int offset, int count, int stride) {
+        this(count);
+        fromInterleaved(data, offset, stride, 0, count);
+    }
+
+    /**
+     * copies a vector into dest
+     * @param index
+     * @param dest
+     * @return dest
+     */
+    public float3 get(int index, float3 dest) {
+        dest.x = xs[index];
+        dest.y = ys[index];
+        dest.z = zs[index];
+        return dest;
+    }
+
+    /**
+     * returns a vector as new float3
+     * @param index
+     * @return new float3
+     */
+    public float3 get(int index) {
+        return get(index, new float3());
+    }
+
+    /**
+     * changes a vector
+     * @param index
+     * @param u
+     */
+    public void set(int index, float3 u) {
+        xs[index] = u.x;
+        ys[index] = u.y;
+        zs[index] = u.z;
+    }
+
+    /**
+     * changes a vector
+     * @param index
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void set(int index, float x, float y, float z) {
+        xs[index] = x;
+        ys[index] = y;
+        zs[index] = z;
+    }
+
+    /**
+     * copies float3 objects into this container
+     * @param src source vectors
+     * @param srcOffset first source vector
+     * @param dstOffset first destination index
+     * @param count number of vectors
+     */
+    public void gather(float3[] src, int srcOffset, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            float3 u = src[srcOffset + i];
+            xs[dstOffset + i] = u.x;
+            ys[dstOffset + i] = u.y;
+            zs[dstOffset + i] = u.z;
+        }
+    }
+
+    /**
+     * copies vectors of this container into existing float3 objects
+     * @param dst destination vectors
+     * @param srcOffset first source index
+     * @param dstOffset first destination vector
+     * @param count number of vectors
+     */
+    public void scatter(float3[] dst, int srcOffset, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            float3 u = dst[dstOffset + i];
+            u.x = xs[srcOffset + i];
+            u.y = ys[srcOffset + i];
+            u.z = zs[srcOffset + i];
+        }
+    }
+
+    /**
+     * parses the container into a new float3 array
+     * @return float3 array
+     */
+    public float3[] toFloat3() {
+        float3[] result = new float3[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = new float3(xs[i], ys[i], zs[i]);
+        }
+        return result;
+    }
+
+    /**
+     * reads interleaved x, y, z data
+     * @param src interleaved components
+     * @param srcOffset index of the first x component
+     * @param stride distance in floats between two vectors, at least 3
+     * @param dstOffset first destination index
+     * @param count number of vectors
+     */
+    public void fromInterleaved(float[] src, int srcOffset, int stride, int dstOffset, int count) {
+        for (int i = 0, s = srcOffset; i < count; i++, s += stride) {
+            xs[dstOffset + i] = src[s];
+            ys[dstOffset + i] = src[s + 1];
+            zs[dstOffset + i] = src[s + 2];
+        }
+    }
+
+    /**
+     * writes the vectors interleaved (x, y, z, x, y, z ...)
+     * @param dst destination array
+     * @param dstOffset index of the first x component
+     * @param stride distance in floats between two vectors, at least 3
+     * @param srcOffset first source index
+     * @param count number of vectors
+     */
+    public void toInterleaved(float[] dst, int dstOffset, int stride, int srcOffset, int count) {
+        for (int i = 0, d = dstOffset; i < count; i++, d += stride) {
+            dst[d] = xs[srcOffset + i];
+            dst[d + 1] = ys[srcOffset + i];
+            dst[d + 2] = zs[srcOffset + i];
+        }
+    }
+
+    /**
+     * parses the container into a tightly packed float array
+     * @return float array (x, y, z, x, y, z ...)
+     */
+    public float[] toFloat() {
+        float[] result = new float[length * 3];
+        toInterleaved(result, 0, 3, 0, length);
+        return result;
+    }
+
+    /**
+     * shuffles the channels of every vector, see Swizzle
+     * @param mask source channel per component, x, y or z
+     * @param dest may be this, at least as long as this
+     * @return dest
+     */
+    public Float3Array swizzle(int mask, Float3Array dest) {
+        if (dest.length < length) {
+            throw new IllegalArgumentException("dest too short: " + dest.length + " < " + length);
+        }
+        float[] a = channel(Swizzle.channel(mask, 0)), b = channel(Swizzle.channel(mask, 1)), c = channel(Swizzle.channel(mask, 2));
+        if (dest != this) {
+            System.arraycopy(a, 0, dest.xs, 0, length);
+            System.arraycopy(b, 0, dest.ys, 0, length);
+            System.arraycopy(c, 0, dest.zs, 0, length);
+            return dest;
+        }
+        for (int i = 0; i < length; i++) {
+            float x = a[i], y = b[i], z = c[i];
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = z;
+        }
+        return dest;
+    }
+
+    private float[] channel(int c) {
+        switch (c) {
+            case 0: return xs;
+            case 1: return ys;
+            case 2: return zs;
+            default: throw new IndexOutOfBoundsException("channel: " + c);
+        }
+    }
+
+    /* bulk operations */
+
+    /**
+     * adds the vectors of u to the vectors of this container
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array add(Float3Array u, Float3Array dest) {
+        return add(u, dest, 0, length);
+    }
+
+    public Float3Array add(Float3Array u, Float3Array dest, int offset, int count) {
+        KERNELS.add(xs, u.xs, dest.xs, offset, count);
+        KERNELS.add(ys, u.ys, dest.ys, offset, count);
+        KERNELS.add(zs, u.zs, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * adds one vector to all vectors of this container
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array add(float3 u, Float3Array dest) {
+        return add(u, dest, 0, length);
+    }
+
+    public Float3Array add(float3 u, Float3Array dest, int offset, int count) {
+        KERNELS.add(xs, u.x, dest.xs, offset, count);
+        KERNELS.add(ys, u.y, dest.ys, offset, count);
+        KERNELS.add(zs, u.z, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * subtracts the vectors of u from the vectors of this container
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array sub(Float3Array u, Float3Array dest) {
+        return sub(u, dest, 0, length);
+    }
+
+    public Float3Array sub(Float3Array u, Float3Array dest, int offset, int count) {
+        KERNELS.sub(xs, u.xs, dest.xs, offset, count);
+        KERNELS.sub(ys, u.ys, dest.ys, offset, count);
+        KERNELS.sub(zs, u.zs, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * scales all vectors locally
+     * @param scalar
+     */
+    public void scale(float scalar) {
+        multiply(scalar, this, 0, length);
+    }
+
+    /**
+     * scales all vectors by a factor
+     * @param scalar
+     * @param dest
+     * @return dest
+     */
+    public Float3Array multiply(float scalar, Float3Array dest) {
+        return multiply(scalar, dest, 0, length);
+    }
+
+    public Float3Array multiply(float scalar, Float3Array dest, int offset, int count) {
+        KERNELS.multiply(xs, scalar, dest.xs, offset, count);
+        KERNELS.multiply(ys, scalar, dest.ys, offset, count);
+        KERNELS.multiply(zs, scalar, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * multiplies the vectors componentwise
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array multiply(Float3Array u, Float3Array dest) {
+        return multiply(u, dest, 0, length);
+    }
+
+    public Float3Array multiply(Float3Array u, Float3Array dest, int offset, int count) {
+        KERNELS.multiply(xs, u.xs, dest.xs, offset, count);
+        KERNELS.multiply(ys, u.ys, dest.ys, offset, count);
+        KERNELS.multiply(zs, u.zs, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * divides the vectors componentwise
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array divide(Float3Array u, Float3Array dest) {
+        return divide(u, dest, 0, length);
+    }
+
+    public Float3Array divide(Float3Array u, Float3Array dest, int offset, int count) {
+        KERNELS.divide(xs, u.xs, dest.xs, offset, count);
+        KERNELS.divide(ys, u.ys, dest.ys, offset, count);
+        KERNELS.divide(zs, u.zs, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * dot products between the vectors of this container and u
+     * @param u
+     * @param dest receives one dot product per vector
+     * @return dest
+     */
+    public float[] dot(Float3Array u, float[] dest) {
+        return dot(u, dest, 0, length);
+    }
+
+    public float[] dot(Float3Array u, float[] dest, int offset, int count) {
+        KERNELS.dot3(xs, ys, zs, u.xs, u.ys, u.zs, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * cross products between the vectors of this container and u
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float3Array cross(Float3Array u, Float3Array dest) {
+        return cross(u, dest, 0, length);
+    }
+
+    public Float3Array cross(Float3Array u, Float3Array dest, int offset, int count) {
+        KERNELS.cross3(xs, ys, zs, u.xs, u.ys, u.zs, dest.xs, dest.ys, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * normalizes all vectors locally
+     */
+    public void normalize() {
+        normalized(this, 0, length);
+    }
+
+    /**
+     * writes the normalized vectors into dest
+     * @param dest
+     * @return dest
+     */
+    public Float3Array normalized(Float3Array dest) {
+        return normalized(dest, 0, length);
+    }
+
+    public Float3Array normalized(Float3Array dest, int offset, int count) {
+        KERNELS.normalize3(xs, ys, zs, dest.xs, dest.ys, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * negates all vectors locally
+     */
+    public void inverse() {
+        multiply(-1.0f, this, 0, length);
+    }
+
+    /**
+     * lengths of all vectors
+     * @param dest receives one length per vector
+     * @return dest
+     */
+    public float[] length(float[] dest) {
+        return length(dest, 0, length);
+    }
+
+    public float[] length(float[] dest, int offset, int count) {
+        KERNELS.length3(xs, ys, zs, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * squared lengths of all vectors
+     * @param dest receives one squared length per vector
+     * @return dest
+     */
+    public float[] lengthSquared(float[] dest) {
+        return lengthSquared(dest, 0, length);
+    }
+
+    public float[] lengthSquared(float[] dest, int offset, int count) {
+        KERNELS.lengthSquared3(xs, ys, zs, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * euclidean distances between the vectors of this container and u
+     * @param u
+     * @param dest receives one distance per vector
+     * @return dest
+     */
+    public float[] distanceEuclid(Float3Array u, float[] dest) {
+        return distanceEuclid(u, dest, 0, length);
+    }
+
+    public float[] distanceEuclid(Float3Array u, float[] dest, int offset, int count) {
+        KERNELS.distance3(xs, ys, zs, u.xs, u.ys, u.zs, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * euclidean distances between the vectors of this container and a single point
+     * @param u
+     * @param dest receives one distance per vector
+     * @return dest
+     */
+    public float[] distanceEuclid(float3 u, float[] dest) {
+        float ux = u.x, uy = u.y, uz = u.z;
+        for (int i = 0; i < length; i++) {
+            float ex = xs[i] - ux;
+            float ey = ys[i] - uy;
+            float ez = zs[i] - uz;
+            dest[i] = (float) Math.sqrt(ex * ex + ey * ey + ez * ez);
+        }
+        return dest;
+    }
+}
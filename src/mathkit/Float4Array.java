@@ -0,0 +1,463 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * structure of arrays container for 4d vectors
+ *
+ * the components are stored in four separate arrays (xs, ys, zs, ws).
+ * all bulk operations exist as whole array and as range (offset, count) version.
+ * destinations may be this or one of the operands.
+ */
+public class Float4Array {
+    private static final BulkKernels KERNELS = BulkKernels.get();
+
+    public final float[] xs, ys, zs, ws;
+    public final int length;
+
+    /**
+     * builds a container of length zero vectors
+     * @param length number of vectors
+     */
+    public Float4Array(int length) {
+        this.length = length;
+        this.xs = new float[length];
+        this.ys = new float[length];
+        this.zs = new float[length];
+        this.ws = new float[length];
+    }
+
+    /**
+     * builds a container from a float4 array (gather)
+     * @param vectors
+     */
+    public Float4Array(float4[] vectors) {
+        this(vectors.length);
+        gather(vectors, 0, 0, vectors.length);
+    }
+
+    /**
+     * builds a container from interleaved x, y, z, w data
+     * @param data interleaved components
+     * @param offset index of the first x component
+     * @param count number of vectors
+     * @param stride distance in floats between two vectors, at least 4
+     */
+    public Float4Array(float[] data, int offset, int count, int stride) {
+        this(count);
+        fromInterleaved(data, offset, stride, 0, count);
+    }
+
+    /**
+     * copies a vector into dest
+     * @param index
+     * @param dest
+     * @return dest
+     */
+    public float4 get(int index, float4 dest) {
+        dest.x = xs[index];
+        dest.y = ys[index];
+        dest.z = zs[index];
+        dest.w = ws[index];
+        return dest;
+    }
+
+    /**
+     * returns a vector as new float4
+     * @param index
+     * @return new float4
+     */
+    public float4 get(int index) {
+        return get(index, new float4());
+    }
+
+    /**
+     * changes a vector
+     * @param index
+     * @param u
+     */
+    public void set(int index, float4 u) {
+        xs[index] = u.x;
+        ys[index] = u.y;
+        zs[index] = u.z;
+        ws[index] = u.w;
+    }
+
+    /**
+     * changes a vector
+     * @param index
+     * @param x
+     * @param y
+     * @param z
+     * @param w
+     */
+    public void set(int index, float x, float y, float z, float w) {
+        xs[index] = x;
+        ys[index] = y;
+        zs[index] = z;
+        ws[index] = w;
+    }
+
+    /**
+     * copies float4 objects into this container
+     * @param src source vectors
+     * @param srcOffset first source vector
+     * @param dstOffset first destination index
+     * @param count number of vectors
+     */
+    public void gather(float4[] src, int srcOffset, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            float4 u = src[srcOffset + i];
+            xs[dstOffset + i] = u.x;
+            ys[dstOffset + i] = u.y;
+            zs[dstOffset + i] = u.z;
+            ws[dstOffset + i] = u.w;
+        }
+    }
+
+    /**
+     * copies vectors of this container into existing float4 objects
+     * @param dst destination vectors
+     * @param srcOffset first source index
+     * @param dstOffset first destination vector
+     * @param count number of vectors
+     */
+    public void scatter(float4[] dst, int srcOffset, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            float4 u = dst[dstOffset + i];
+            u.x = xs[srcOffset + i];
+            u.y = ys[srcOffset + i];
+            u.z = zs[srcOffset + i];
+            u.w = ws[srcOffset + i];
+        }
+    }
+
+    /**
+     * parses the container into a new float4 array
+     * @return float4 array
+     */
+    public float4[] toFloat4() {
+        float4[] result = new float4[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = new float4(xs[i], ys[i], zs[i], ws[i]);
+        }
+        return result;
+    }
+
+    /**
+     * reads interleaved x, y, z, w data
+     * @param src interleaved components
+     * @param srcOffset index of the first x component
+     * @param stride distance in floats between two vectors, at least 4
+     * @param dstOffset first destination index
+     * @param count number of vectors
+     */
+    public void fromInterleaved(float[] src, int srcOffset, int stride, int dstOffset, int count) {
+        for (int i = 0, s = srcOffset; i < count; i++, s += stride) {
+            xs[dstOffset + i] = src[s];
+            ys[dstOffset + i] = src[s + 1];
+            zs[dstOffset + i] = src[s + 2];
+            ws[dstOffset + i] = src[s + 3];
+        }
+    }
+
+    /**
+     * writes the vectors interleaved (x, y, z, w, x, y, z, w ...)
+     * @param dst destination array
+     * @param dstOffset index of the first x component
+     * @param stride distance in floats between two vectors, at least 4
+     * @param srcOffset first source index
+     * @param count number of vectors
+     */
+    public void toInterleaved(float[] dst, int dstOffset, int stride, int srcOffset, int count) {
+        for (int i = 0, d = dstOffset; i < count; i++, d += stride) {
+            dst[d] = xs[srcOffset + i];
+            dst[d + 1] = ys[srcOffset + i];
+            dst[d + 2] = zs[srcOffset + i];
+            dst[d + 3] = ws[srcOffset + i];
+        }
+    }
+
+    /**
+     * parses the container into a tightly packed float array
+     * @return float array (x, y, z, w, x, y, z, w ...)
+     */
+    public float[] toFloat() {
+        float[] result = new float[length * 4];
+        toInterleaved(result, 0, 4, 0, length);
+        return result;
+    }
+
+    /**
+     * copies the x, y, z components into a 3d container
+     * @param dest
+     * @return dest
+     */
+    public Float3Array xyz(Float3Array dest) {
+        System.arraycopy(xs, 0, dest.xs, 0, length);
+        System.arraycopy(ys, 0, dest.ys, 0, length);
+        System.arraycopy(zs, 0, dest.zs, 0, length);
+        return dest;
+    }
+
+    /**
+     * copies three channels of every vector into a 3d container, see Swizzle
+     * @param mask source channel per component
+     * @param dest at least as long as this
+     * @return dest
+     */
+    public Float3Array swizzle(int mask, Float3Array dest) {
+        if (dest.length < length) {
+            throw new IllegalArgumentException("dest too short: " + dest.length + " < " + length);
+        }
+        System.arraycopy(channel(Swizzle.channel(mask, 0)), 0, dest.xs, 0, length);
+        System.arraycopy(channel(Swizzle.channel(mask, 1)), 0, dest.ys, 0, length);
+        System.arraycopy(channel(Swizzle.channel(mask, 2)), 0, dest.zs, 0, length);
+        return dest;
+    }
+
+    /**
+     * shuffles the channels of every vector, see Swizzle
+     * @param mask source channel per component
+     * @param dest may be this, at least as long as this
+     * @return dest
+     */
+    public Float4Array swizzle(int mask, Float4Array dest) {
+        if (dest.length < length) {
+            throw new IllegalArgumentException("dest too short: " + dest.length + " < " + length);
+        }
+        float[] a = channel(Swizzle.channel(mask, 0)), b = channel(Swizzle.channel(mask, 1));
+        float[] c = channel(Swizzle.channel(mask, 2)), d = channel(Swizzle.channel(mask, 3));
+        if (dest != this) {
+            System.arraycopy(a, 0, dest.xs, 0, length);
+            System.arraycopy(b, 0, dest.ys, 0, length);
+            System.arraycopy(c, 0, dest.zs, 0, length);
+            System.arraycopy(d, 0, dest.ws, 0, length);
+            return dest;
+        }
+        for (int i = 0; i < length; i++) {
+            float x = a[i], y = b[i], z = c[i], w = d[i];
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = z;
+            ws[i] = w;
+        }
+        return dest;
+    }
+
+    private float[] channel(int c) {
+        switch (c) {
+            case 0: return xs;
+            case 1: return ys;
+            case 2: return zs;
+            default: return ws;
+        }
+    }
+
+    /* bulk operations */
+
+    /**
+     * adds the vectors of u to the vectors of this container
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float4Array add(Float4Array u, Float4Array dest) {
+        return add(u, dest, 0, length);
+    }
+
+    public Float4Array add(Float4Array u, Float4Array dest, int offset, int count) {
+        KERNELS.add(xs, u.xs, dest.xs, offset, count);
+        KERNELS.add(ys, u.ys, dest.ys, offset, count);
+        KERNELS.add(zs, u.zs, dest.zs, offset, count);
+        KERNELS.add(ws, u.ws, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * subtracts the vectors of u from the vectors of this container
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float4Array sub(Float4Array u, Float4Array dest) {
+        return sub(u, dest, 0, length);
+    }
+
+    public Float4Array sub(Float4Array u, Float4Array dest, int offset, int count) {
+        KERNELS.sub(xs, u.xs, dest.xs, offset, count);
+        KERNELS.sub(ys, u.ys, dest.ys, offset, count);
+        KERNELS.sub(zs, u.zs, dest.zs, offset, count);
+        KERNELS.sub(ws, u.ws, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * scales all vectors locally
+     * @param scalar
+     */
+    public void scale(float scalar) {
+        multiply(scalar, this, 0, length);
+    }
+
+    /**
+     * scales all vectors by a factor
+     * @param scalar
+     * @param dest
+     * @return dest
+     */
+    public Float4Array multiply(float scalar, Float4Array dest) {
+        return multiply(scalar, dest, 0, length);
+    }
+
+    public Float4Array multiply(float scalar, Float4Array dest, int offset, int count) {
+        KERNELS.multiply(xs, scalar, dest.xs, offset, count);
+        KERNELS.multiply(ys, scalar, dest.ys, offset, count);
+        KERNELS.multiply(zs, scalar, dest.zs, offset, count);
+        KERNELS.multiply(ws, scalar, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * multiplies the vectors componentwise
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float4Array multiply(Float4Array u, Float4Array dest) {
+        return multiply(u, dest, 0, length);
+    }
+
+    public Float4Array multiply(Float4Array u, Float4Array dest, int offset, int count) {
+        KERNELS.multiply(xs, u.xs, dest.xs, offset, count);
+        KERNELS.multiply(ys, u.ys, dest.ys, offset, count);
+        KERNELS.multiply(zs, u.zs, dest.zs, offset, count);
+        KERNELS.multiply(ws, u.ws, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * divides the vectors componentwise
+     * @param u
+     * @param dest
+     * @return dest
+     */
+    public Float4Array divide(Float4Array u, Float4Array dest) {
+        return divide(u, dest, 0, length);
+    }
+
+    public Float4Array divide(Float4Array u, Float4Array dest, int offset, int count) {
+        KERNELS.divide(xs, u.xs, dest.xs, offset, count);
+        KERNELS.divide(ys, u.ys, dest.ys, offset, count);
+        KERNELS.divide(zs, u.zs, dest.zs, offset, count);
+        KERNELS.divide(ws, u.ws, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * dot products between the vectors of this container and u
+     * @param u
+     * @param dest receives one dot product per vector
+     * @return dest
+     */
+    public float[] dot(Float4Array u, float[] dest) {
+        return dot(u, dest, 0, length);
+    }
+
+    public float[] dot(Float4Array u, float[] dest, int offset, int count) {
+        KERNELS.dot4(xs, ys, zs, ws, u.xs, u.ys, u.zs, u.ws, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * normalizes all vectors locally
+     */
+    public void normalize() {
+        normalized(this, 0, length);
+    }
+
+    /**
+     * writes the normalized vectors into dest
+     * @param dest
+     * @return dest
+     */
+    public Float4Array normalized(Float4Array dest) {
+        return normalized(dest, 0, length);
+    }
+
+    public Float4Array normalized(Float4Array dest, int offset, int count) {
+        KERNELS.normalize4(xs, ys, zs, ws, dest.xs, dest.ys, dest.zs, dest.ws, offset, count);
+        return dest;
+    }
+
+    /**
+     * negates all vectors locally
+     */
+    public void inverse() {
+        multiply(-1.0f, this, 0, length);
+    }
+
+    /**
+     * lengths of all vectors
+     * @param dest receives one length per vector
+     * @return dest
+     */
+    public float[] length(float[] dest) {
+        return length(dest, 0, length);
+    }
+
+    public float[] length(float[] dest, int offset, int count) {
+        KERNELS.length4(xs, ys, zs, ws, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * squared lengths of all vectors
+     * @param dest receives one squared length per vector
+     * @return dest
+     */
+    public float[] lengthSquared(float[] dest) {
+        return lengthSquared(dest, 0, length);
+    }
+
+    public float[] lengthSquared(float[] dest, int offset, int count) {
+        KERNELS.lengthSquared4(xs, ys, zs, ws, dest, offset, count);
+        return dest;
+    }
+
+    /**
+     * euclidean distances between the vectors of this container and u
+     * @param u
+     * @param dest receives one distance per vector
+     * @return dest
+     */
+    public float[] distanceEuclid(Float4Array u, float[] dest) {
+        return distanceEuclid(u, dest, 0, length);
+    }
+
+    public float[] distanceEuclid(Float4Array u, float[] dest, int offset, int count) {
+        KERNELS.distance4(xs, ys, zs, ws, u.xs, u.ys, u.zs, u.ws, dest, offset, count);
+        return dest;
+    }
+}
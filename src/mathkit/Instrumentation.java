@@ -0,0 +1,273 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * optional counters for invocations and allocations of selected operations
+ *
+ * off by default, -Dmathkit.instrumentation=true turns it on. ENABLED is a static final
+ * flag, so the guarded call sites are removed by the jit when it is off.
+ * when on, the counters are published as the mbean "mathkit:type=Instrumentation"
+ * and as the periodic jfr event mathkit.OperationStatistics.
+ *
+ * allocations count the heap objects created by the allocating overloads and their
+ * shallow heap size. direct buffers are counted with all their heap objects (see
+ * DIRECT_FLOAT_BUFFER_OBJECTS), their off-heap memory is counted separately as native bytes.
+ *
+ * singular matrices passed to inverse / inverseAffine are always counted, the
+ * check only runs on the singular path. with instrumentation on, every hit also
+ * commits a mathkit.SingularMatrix jfr event.
+ */
+public final class Instrumentation {
+    public static final boolean ENABLED = Boolean.getBoolean("mathkit.instrumentation");
+
+    /** shallow size of a float4x4, 16 byte header and 16 floats */
+    public static final int FLOAT4X4_BYTES = 80;
+
+    /** heap objects behind a direct float buffer: DirectByteBuffer, its Cleaner and Deallocator, the FloatBuffer view */
+    public static final int DIRECT_FLOAT_BUFFER_OBJECTS = 4;
+    /** shallow size of these objects, measured on a 64 bit jdk 17 with compressed oops */
+    public static final int DIRECT_FLOAT_BUFFER_BYTES = 192;
+
+    public static final String OBJECT_NAME = "mathkit:type=Instrumentation";
+
+    public enum Op {
+        FLOAT4X4_MULTIPLY("float4x4.multiply"),
+        FLOAT4X4_INVERSE("float4x4.inverse"),
+        FLOAT4X4_INVERSE_AFFINE("float4x4.inverseAffine"),
+        DOUBLE4X4_INVERSE("double4x4.inverse"),
+        DOUBLE4X4_INVERSE_AFFINE("double4x4.inverseAffine"),
+        FLOAT4X4_TO_BUFFER("float4x4.toBuffer"),
+        FLOAT3X3_TO_BUFFER("float3x3.toBuffer"),
+        PACKAGE_BUFFER("BufferUtility.packageBuffer");
+
+        private final String label;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder objects = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nativeBytes = new LongAdder();
+
+        Op(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public long invocations() {
+            return invocations.sum();
+        }
+
+        public long allocatedObjects() {
+            return objects.sum();
+        }
+
+        public long allocatedBytes() {
+            return bytes.sum();
+        }
+
+        public long allocatedNativeBytes() {
+            return nativeBytes.sum();
+        }
+    }
+
+    private static final Op[] OPS = Op.values();
+    private static final LongAdder SINGULAR = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * counts one call, guard the call site with ENABLED
+     * @param op
+     */
+    public static void invoked(Op op) {
+        op.invocations.increment();
+    }
+
+    /**
+     * counts allocations of one call, guard the call site with ENABLED
+     * @param op
+     * @param objects number of allocated objects
+     * @param bytes shallow heap size of the objects
+     */
+    public static void allocated(Op op, int objects, long bytes) {
+        op.objects.add(objects);
+        op.bytes.add(bytes);
+    }
+
+    /**
+     * counts off-heap memory allocated by one call, guard the call site with ENABLED
+     * @param op
+     * @param bytes direct memory
+     */
+    public static void allocatedNative(Op op, long bytes) {
+        op.nativeBytes.add(bytes);
+    }
+
+    /**
+     * counts a singular matrix passed to an inversion
+     * @param op
+     */
+    public static void singular(Op op) {
+        SINGULAR.increment();
+        if (ENABLED) {
+            InstrumentationEvents.singular(op.label);
+        }
+    }
+
+    /**
+     * @return number of singular matrices passed to inverse / inverseAffine
+     */
+    public static long singularMatrices() {
+        return SINGULAR.sum();
+    }
+
+    /**
+     * sets all counters to zero
+     */
+    public static void reset() {
+        for (Op op : OPS) {
+            op.invocations.reset();
+            op.objects.reset();
+            op.bytes.reset();
+            op.nativeBytes.reset();
+        }
+        SINGULAR.reset();
+    }
+
+    /**
+     * @return one line per operation with invocations, objects, heap bytes and native bytes
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Op op : OPS) {
+            sb.append(op.label).append(": ").append(op.invocations()).append(" calls, ")
+              .append(op.allocatedObjects()).append(" objects, ")
+              .append(op.allocatedBytes()).append(" bytes, ")
+              .append(op.allocatedNativeBytes()).append(" native bytes\n");
+        }
+        return sb.append("singular matrices: ").append(singularMatrices()).toString();
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StandardMBean(new Bean(), InstrumentationMBean.class), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            /* counters stay available through this class */
+        }
+        try {
+            InstrumentationEvents.register();
+        } catch (LinkageError e) {
+            /* no jdk.jfr module */
+        }
+    }
+
+    /** management interface, the arrays are indexed like getOperations() */
+    public interface InstrumentationMBean {
+        String[] getOperations();
+
+        long[] getInvocations();
+
+        long[] getAllocatedObjects();
+
+        long[] getAllocatedBytes();
+
+        long[] getAllocatedNativeBytes();
+
+        long getSingularMatrices();
+
+        String getReport();
+
+        void resetCounters();
+    }
+
+    private static final class Bean implements InstrumentationMBean {
+        public String[] getOperations() {
+            String[] labels = new String[OPS.length];
+            for (int i = 0; i < OPS.length; i++) {
+                labels[i] = OPS[i].label;
+            }
+            return labels;
+        }
+
+        public long[] getInvocations() {
+            long[] values = new long[OPS.length];
+            for (int i = 0; i < OPS.length; i++) {
+                values[i] = OPS[i].invocations();
+            }
+            return values;
+        }
+
+        public long[] getAllocatedObjects() {
+            long[] values = new long[OPS.length];
+            for (int i = 0; i < OPS.length; i++) {
+                values[i] = OPS[i].allocatedObjects();
+            }
+            return values;
+        }
+
+        public long[] getAllocatedBytes() {
+            long[] values = new long[OPS.length];
+            for (int i = 0; i < OPS.length; i++) {
+                values[i] = OPS[i].allocatedBytes();
+            }
+            return values;
+        }
+
+        public long[] getAllocatedNativeBytes() {
+            long[] values = new long[OPS.length];
+            for (int i = 0; i < OPS.length; i++) {
+                values[i] = OPS[i].allocatedNativeBytes();
+            }
+            return values;
+        }
+
+        public long getSingularMatrices() {
+            return singularMatrices();
+        }
+
+        public String getReport() {
+            return report();
+        }
+
+        public void resetCounters() {
+            reset();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/* jfr events of Instrumentation, only loaded when instrumentation is on */
+final class InstrumentationEvents {
+    private InstrumentationEvents() {
+    }
+
+    @Name("mathkit.SingularMatrix")
+    @Label("Singular Matrix")
+    @Category("mathkit")
+    static final class SingularMatrixEvent extends Event {
+        @Label("Operation")
+        String operation;
+    }
+
+    @Name("mathkit.OperationStatistics")
+    @Label("Operation Statistics")
+    @Category("mathkit")
+    @Period("10 s")
+    @StackTrace(false)
+    static final class OperationStatisticsEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Invocations")
+        long invocations;
+
+        @Label("Allocated Objects")
+        long allocatedObjects;
+
+        @Label("Allocated Bytes")
+        long allocatedBytes;
+
+        @Label("Allocated Native Bytes")
+        long allocatedNativeBytes;
+    }
+
+    static void register() {
+        FlightRecorder.addPeriodicEvent(OperationStatisticsEvent.class, () -> {
+            for (Instrumentation.Op op : Instrumentation.Op.values()) {
+                OperationStatisticsEvent event = new OperationStatisticsEvent();
+                event.operation = op.label();
+                event.invocations = op.invocations();
+                event.allocatedObjects = op.allocatedObjects();
+                event.allocatedBytes = op.allocatedBytes();
+                event.allocatedNativeBytes = op.allocatedNativeBytes();
+                event.commit();
+            }
+        });
+    }
+
+    static void singular(String operation) {
+        SingularMatrixEvent event = new SingularMatrixEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
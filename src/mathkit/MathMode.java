@@ -0,0 +1,84 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * selects the implementation behind trig, inverse square root and angle conversion
+ *
+ * PRECISE goes through java.lang.Math in double and rounds once,
+ * FAST stays in float and uses FastMath (see there for the error bounds).
+ */
+public abstract class MathMode {
+    public static final MathMode PRECISE = new MathMode() {
+        public float toRadians(float degrees) { return (float) Constants.toRadians(degrees); }
+        public float toDegrees(float radians) { return (float) Constants.toDegrees(radians); }
+        public float sin(float radians) { return (float) Math.sin(radians); }
+        public float cos(float radians) { return (float) Math.cos(radians); }
+        public float2 sinCos(float radians, float2 dest) {
+            dest.x = (float) Math.cos(radians);
+            dest.y = (float) Math.sin(radians);
+            return dest;
+        }
+        public float acos(float x) { return (float) Math.acos(x); }
+        public float atan2(float y, float x) { return (float) Math.atan2(y, x); }
+        public float invSqrt(float x) { return 1 / (float) Math.sqrt(x); }
+        public String toString() { return "PRECISE"; }
+    };
+
+    public static final MathMode FAST = new MathMode() {
+        public float toRadians(float degrees) { return FastMath.toRadians(degrees); }
+        public float toDegrees(float radians) { return FastMath.toDegrees(radians); }
+        public float sin(float radians) { return FastMath.sin(radians); }
+        public float cos(float radians) { return FastMath.cos(radians); }
+        public float2 sinCos(float radians, float2 dest) { return FastMath.sinCos(radians, dest); }
+        public float acos(float x) { return FastMath.acos(x); }
+        public float atan2(float y, float x) { return FastMath.atan2(y, x); }
+        public float invSqrt(float x) { return FastMath.invSqrt(x); }
+        public String toString() { return "FAST"; }
+    };
+
+    private MathMode() {
+    }
+
+    public abstract float toRadians(float degrees);
+
+    public abstract float toDegrees(float radians);
+
+    public abstract float sin(float radians);
+
+    public abstract float cos(float radians);
+
+    /**
+     * @param radians
+     * @param dest - receives cosine in x and sine in y
+     * @return dest
+     */
+    public abstract float2 sinCos(float radians, float2 dest);
+
+    public abstract float acos(float x);
+
+    public abstract float atan2(float y, float x);
+
+    public abstract float invSqrt(float x);
+}
@@ -0,0 +1,281 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.util.Arrays;
+
+/**
+ * smooth vertex normals and tangent frames for indexed triangle meshes
+ *
+ * positions are packed x y z, uvs u v, normals x y z and tangents x y z w per
+ * vertex, where w = +1 / -1 is the handedness of the bitangent:
+ * bitangent = w * cross(normal, tangent).
+ *
+ * the sequential path accumulates every triangle into its three vertices in
+ * one pass, then normalizes and orthogonalizes per vertex. the parallel path
+ * computes the triangles in parallel and gathers them per vertex in triangle
+ * order, so both produce identical results.
+ *
+ * scratch arrays are kept and only grow, reuse one instance per thread to stay
+ * allocation free.
+ */
+public class MeshFrames {
+    /** every triangle adds its normal scaled by its area */
+    public static final int AREA_WEIGHTED = 0;
+    /** every triangle adds its unit normal scaled by the angle at the vertex */
+    public static final int ANGLE_WEIGHTED = 1;
+
+    /* per triangle: normal x y z, tangent x y z, bitangent x y z, corner angles 0 1 2 */
+    private static final int FACE = 12;
+
+    private final float[] face = new float[FACE];
+    private float[] bitangents = new float[0];
+    private float[] faces = new float[0];
+    private int[] firstFace = new int[0];
+    private int[] faceList = new int[0];
+
+    /**
+     * smooth vertex normals
+     * @param positions packed x y z per vertex
+     * @param indices three vertex indices per triangle
+     * @param triangleCount
+     * @param vertexCount
+     * @param weighting AREA_WEIGHTED or ANGLE_WEIGHTED
+     * @param normals receives x y z per vertex
+     */
+    public void normals(float[] positions, int[] indices, int triangleCount, int vertexCount, int weighting, float[] normals) {
+        compute(positions, null, indices, triangleCount, vertexCount, weighting, normals, null);
+    }
+
+    /**
+     * smooth vertex normals and orthogonalized tangents with handedness
+     * @param positions packed x y z per vertex
+     * @param uvs packed u v per vertex, null for normals only
+     * @param indices three vertex indices per triangle
+     * @param triangleCount
+     * @param vertexCount
+     * @param weighting AREA_WEIGHTED or ANGLE_WEIGHTED, applies to the normals
+     * @param normals receives x y z per vertex
+     * @param tangents receives x y z w per vertex, null for normals only
+     */
+    public void compute(float[] positions, float[] uvs, int[] indices, int triangleCount, int vertexCount,
+                        int weighting, float[] normals, float[] tangents) {
+        boolean withTangents = uvs != null && tangents != null;
+        Arrays.fill(normals, 0, vertexCount * 3, 0);
+        if (withTangents) {
+            if (bitangents.length < vertexCount * 3) {
+                bitangents = new float[vertexCount * 3];
+            }
+            Arrays.fill(tangents, 0, vertexCount * 4, 0);
+            Arrays.fill(bitangents, 0, vertexCount * 3, 0);
+        }
+
+        for (int t = 0; t < triangleCount; t++) {
+            face(positions, withTangents ? uvs : null, indices, t, weighting, face, 0);
+            for (int corner = 0; corner < 3; corner++) {
+                add(face, 0, corner, indices[t * 3 + corner], weighting, normals, withTangents ? tangents : null);
+            }
+        }
+        finish(normals, withTangents ? tangents : null, 0, vertexCount);
+    }
+
+    /**
+     * same as compute, the triangles and vertices are split on the pool of parallel
+     * needs a vertex to triangle table, the scratch grows by 13 floats / ints per triangle
+     */
+    public void compute(float[] positions, float[] uvs, int[] indices, int triangleCount, int vertexCount,
+                        int weighting, float[] normals, float[] tangents, ParallelKernels parallel) {
+        boolean withTangents = uvs != null && tangents != null;
+        if (withTangents && bitangents.length < vertexCount * 3) {
+            bitangents = new float[vertexCount * 3];
+        }
+        if (faces.length < triangleCount * FACE) {
+            faces = new float[triangleCount * FACE];
+        }
+        buildAdjacency(indices, triangleCount, vertexCount);
+
+        float[] texCoords = withTangents ? uvs : null;
+        float[] tangentsOut = withTangents ? tangents : null;
+        parallel.run(0, triangleCount, (offset, count) -> {
+            for (int t = offset, end = offset + count; t < end; t++) {
+                face(positions, texCoords, indices, t, weighting, faces, t * FACE);
+            }
+        });
+        parallel.run(0, vertexCount, (offset, count) -> {
+            for (int v = offset, end = offset + count; v < end; v++) {
+                normals[v * 3] = normals[v * 3 + 1] = normals[v * 3 + 2] = 0;
+                if (tangentsOut != null) {
+                    tangentsOut[v * 4] = tangentsOut[v * 4 + 1] = tangentsOut[v * 4 + 2] = tangentsOut[v * 4 + 3] = 0;
+                    bitangents[v * 3] = bitangents[v * 3 + 1] = bitangents[v * 3 + 2] = 0;
+                }
+                for (int f = firstFace[v], last = firstFace[v + 1]; f < last; f++) {
+                    int corner = faceList[f];
+                    add(faces, (corner / 3) * FACE, corner % 3, v, weighting, normals, tangentsOut);
+                }
+            }
+            finish(normals, tangentsOut, offset, count);
+        });
+    }
+
+    /* counting sort of the triangle corners by vertex, ascending triangle order per vertex */
+    private void buildAdjacency(int[] indices, int triangleCount, int vertexCount) {
+        if (firstFace.length < vertexCount + 1) {
+            firstFace = new int[vertexCount + 1];
+        }
+        if (faceList.length < triangleCount * 3) {
+            faceList = new int[triangleCount * 3];
+        }
+        Arrays.fill(firstFace, 0, vertexCount + 1, 0);
+        for (int c = 0, n = triangleCount * 3; c < n; c++) {
+            firstFace[indices[c] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            firstFace[v + 1] += firstFace[v];
+        }
+        /* fill from the back, walking the corners backwards keeps them ascending */
+        for (int c = triangleCount * 3 - 1; c >= 0; c--) {
+            faceList[--firstFace[indices[c] + 1]] = c;
+        }
+        /* firstFace[v + 1] now holds the start of v, shift back */
+        System.arraycopy(firstFace, 1, firstFace, 0, vertexCount);
+        firstFace[vertexCount] = triangleCount * 3;
+    }
+
+    /* writes the FACE floats of triangle t to dst, the angles only for ANGLE_WEIGHTED */
+    private static void face(float[] positions, float[] uvs, int[] indices, int t, int weighting, float[] dst, int o) {
+        int i0 = indices[t * 3], i1 = indices[t * 3 + 1], i2 = indices[t * 3 + 2];
+        float p0x = positions[i0 * 3], p0y = positions[i0 * 3 + 1], p0z = positions[i0 * 3 + 2];
+        float e1x = positions[i1 * 3] - p0x, e1y = positions[i1 * 3 + 1] - p0y, e1z = positions[i1 * 3 + 2] - p0z;
+        float e2x = positions[i2 * 3] - p0x, e2y = positions[i2 * 3 + 1] - p0y, e2z = positions[i2 * 3 + 2] - p0z;
+
+        /* twice the area as length */
+        dst[o]     = e1y * e2z - e1z * e2y;
+        dst[o + 1] = e1z * e2x - e1x * e2z;
+        dst[o + 2] = e1x * e2y - e1y * e2x;
+
+        if (uvs != null) {
+            float s1 = uvs[i1 * 2] - uvs[i0 * 2], t1 = uvs[i1 * 2 + 1] - uvs[i0 * 2 + 1];
+            float s2 = uvs[i2 * 2] - uvs[i0 * 2], t2 = uvs[i2 * 2 + 1] - uvs[i0 * 2 + 1];
+            float det = s1 * t2 - s2 * t1;
+            float r = det != 0 ? 1.0f / det : 0;
+            dst[o + 3] = (e1x * t2 - e2x * t1) * r;
+            dst[o + 4] = (e1y * t2 - e2y * t1) * r;
+            dst[o + 5] = (e1z * t2 - e2z * t1) * r;
+            dst[o + 6] = (e2x * s1 - e1x * s2) * r;
+            dst[o + 7] = (e2y * s1 - e1y * s2) * r;
+            dst[o + 8] = (e2z * s1 - e1z * s2) * r;
+        }
+
+        if (weighting != ANGLE_WEIGHTED) {
+            return;
+        }
+
+        /* corner angles from the normalized edges */
+        float l1 = (float) Math.sqrt(e1x * e1x + e1y * e1y + e1z * e1z);
+        float l2 = (float) Math.sqrt(e2x * e2x + e2y * e2y + e2z * e2z);
+        float e3x = e2x - e1x, e3y = e2y - e1y, e3z = e2z - e1z;
+        float l3 = (float) Math.sqrt(e3x * e3x + e3y * e3y + e3z * e3z);
+        if (l1 == 0 || l2 == 0 || l3 == 0) {
+            dst[o + 9] = dst[o + 10] = dst[o + 11] = 0;
+            return;
+        }
+        float a0 = FastMath.acos((e1x * e2x + e1y * e2y + e1z * e2z) / (l1 * l2));
+        float a1 = FastMath.acos(-(e1x * e3x + e1y * e3y + e1z * e3z) / (l1 * l3));
+        dst[o + 9] = a0;
+        dst[o + 10] = a1;
+        dst[o + 11] = Math.max(0, FastMath.PI - a0 - a1);
+    }
+
+    /* adds the contribution of one triangle corner to vertex v */
+    private void add(float[] f, int o, int corner, int v, int weighting, float[] normals, float[] tangents) {
+        float nx = f[o], ny = f[o + 1], nz = f[o + 2];
+        if (weighting == ANGLE_WEIGHTED) {
+            float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            float w = len > 0 ? f[o + 9 + corner] / len : 0;
+            nx *= w;
+            ny *= w;
+            nz *= w;
+        }
+        normals[v * 3] += nx;
+        normals[v * 3 + 1] += ny;
+        normals[v * 3 + 2] += nz;
+        if (tangents != null) {
+            tangents[v * 4] += f[o + 3];
+            tangents[v * 4 + 1] += f[o + 4];
+            tangents[v * 4 + 2] += f[o + 5];
+            bitangents[v * 3] += f[o + 6];
+            bitangents[v * 3 + 1] += f[o + 7];
+            bitangents[v * 3 + 2] += f[o + 8];
+        }
+    }
+
+    /* normalizes the normals, gram-schmidt orthogonalizes the tangents and sets the handedness */
+    private void finish(float[] normals, float[] tangents, int offset, int count) {
+        for (int v = offset, end = offset + count; v < end; v++) {
+            int n = v * 3;
+            float nx = normals[n], ny = normals[n + 1], nz = normals[n + 2];
+            float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (len > 0) {
+                float inv = 1 / len;
+                nx *= inv;
+                ny *= inv;
+                nz *= inv;
+                normals[n] = nx;
+                normals[n + 1] = ny;
+                normals[n + 2] = nz;
+            }
+            if (tangents == null) {
+                continue;
+            }
+
+            int t = v * 4;
+            float tx = tangents[t], ty = tangents[t + 1], tz = tangents[t + 2];
+            float d = nx * tx + ny * ty + nz * tz;
+            float ox = tx - nx * d, oy = ty - ny * d, oz = tz - nz * d;
+            float tlen = (float) Math.sqrt(ox * ox + oy * oy + oz * oz);
+            if (tlen == 0) {
+                /* no usable uv gradient, any vector perpendicular to the normal */
+                if (Math.abs(nx) < 0.9f) {
+                    ox = 0; oy = nz; oz = -ny;
+                } else {
+                    ox = -nz; oy = 0; oz = nx;
+                }
+                tlen = (float) Math.sqrt(ox * ox + oy * oy + oz * oz);
+                if (tlen == 0) {
+                    ox = 1;
+                    tlen = 1;
+                }
+            }
+            float inv = 1 / tlen;
+            tangents[t] = ox * inv;
+            tangents[t + 1] = oy * inv;
+            tangents[t + 2] = oz * inv;
+
+            /* handedness: does cross(n, t) point along the accumulated bitangent */
+            float cx = ny * tz - nz * ty, cy = nz * tx - nx * tz, cz = nx * ty - ny * tx;
+            float h = cx * bitangents[n] + cy * bitangents[n + 1] + cz * bitangents[n + 2];
+            tangents[t + 3] = h < 0 ? -1.0f : 1.0f;
+        }
+    }
+}
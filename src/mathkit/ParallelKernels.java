@@ -0,0 +1,255 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * fork/join versions of the bulk transforms, normalize and cross
+ *
+ * the range is split in halves until a piece is at most chunk elements long,
+ * every piece runs the same range overload as the sequential path, so the
+ * results are bit identical. below the threshold everything stays on the
+ * calling thread.
+ *
+ * destinations may be one of the operands, as long as the offsets match.
+ */
+public class ParallelKernels {
+    /* 4096 vectors = 48 KB per Float3Array, source and destination fit into a typical L2 */
+    public static final int DEFAULT_CHUNK = 4096;
+    public static final int DEFAULT_THRESHOLD = 4 * DEFAULT_CHUNK;
+
+    private static ParallelKernels common;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int chunk;
+
+    /**
+     * uses the common pool and the default sizes
+     */
+    public ParallelKernels() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD, DEFAULT_CHUNK);
+    }
+
+    /**
+     * @param pool pool that runs the pieces
+     * @param threshold number of elements below which the work is done sequentially
+     * @param chunk maximum number of elements per piece
+     */
+    public ParallelKernels(ForkJoinPool pool, int threshold, int chunk) {
+        if (chunk < 1) {
+            throw new IllegalArgumentException("chunk must be positive: " + chunk);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.chunk = chunk;
+    }
+
+    /**
+     * @return instance on the common pool with the default sizes
+     */
+    public static synchronized ParallelKernels common() {
+        if (common == null) {
+            common = new ParallelKernels();
+        }
+        return common;
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public int threshold() {
+        return threshold;
+    }
+
+    public int chunk() {
+        return chunk;
+    }
+
+    /* transforms */
+
+    /**
+     * parallel float4x4.transformPoints(Float3Array, Float3Array)
+     * @param m
+     * @param src
+     * @param dest
+     * @return dest
+     */
+    public Float3Array transformPoints(float4x4 m, Float3Array src, Float3Array dest) {
+        run(0, src.length, (offset, count) -> m.transformPoints(src, dest, offset, count));
+        return dest;
+    }
+
+    /**
+     * parallel float4x4.transformPointsAffine(Float3Array, Float3Array)
+     * @param m
+     * @param src
+     * @param dest
+     * @return dest
+     */
+    public Float3Array transformPointsAffine(float4x4 m, Float3Array src, Float3Array dest) {
+        run(0, src.length, (offset, count) -> m.transformPointsAffine(src, dest, offset, count));
+        return dest;
+    }
+
+    /**
+     * parallel float4x4.transformDirections(Float3Array, Float3Array)
+     * @param m
+     * @param src
+     * @param dest
+     * @return dest
+     */
+    public Float3Array transformDirections(float4x4 m, Float3Array src, Float3Array dest) {
+        run(0, src.length, (offset, count) -> m.transformDirections(src, dest, offset, count));
+        return dest;
+    }
+
+    /**
+     * parallel float4x4.transformPoints on packed points
+     * dst may be src only with the same offset and stride
+     * @param m
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param srcStride distance in floats between two source points
+     * @param dst destination array
+     * @param dstOffset index of the first x component in dst
+     * @param dstStride distance in floats between two destination points
+     * @param count number of points
+     */
+    public void transformPoints(float4x4 m, float[] src, int srcOffset, int srcStride,
+                                float[] dst, int dstOffset, int dstStride, int count) {
+        run(0, count, (offset, n) -> m.transformPoints(src, srcOffset + offset * srcStride, srcStride,
+                dst, dstOffset + offset * dstStride, dstStride, n));
+    }
+
+    /**
+     * parallel float4x4.transformPointsAffine on packed points
+     * dst may be src only with the same offset and stride
+     */
+    public void transformPointsAffine(float4x4 m, float[] src, int srcOffset, int srcStride,
+                                      float[] dst, int dstOffset, int dstStride, int count) {
+        run(0, count, (offset, n) -> m.transformPointsAffine(src, srcOffset + offset * srcStride, srcStride,
+                dst, dstOffset + offset * dstStride, dstStride, n));
+    }
+
+    /**
+     * parallel float4x4.transformDirections on packed directions
+     * dst may be src only with the same offset and stride
+     */
+    public void transformDirections(float4x4 m, float[] src, int srcOffset, int srcStride,
+                                    float[] dst, int dstOffset, int dstStride, int count) {
+        run(0, count, (offset, n) -> m.transformDirections(src, srcOffset + offset * srcStride, srcStride,
+                dst, dstOffset + offset * dstStride, dstStride, n));
+    }
+
+    /* normalize and cross */
+
+    /**
+     * parallel Float3Array.normalized(Float3Array)
+     * @param src
+     * @param dest may be src
+     * @return dest
+     */
+    public Float3Array normalized(Float3Array src, Float3Array dest) {
+        run(0, src.length, (offset, count) -> src.normalized(dest, offset, count));
+        return dest;
+    }
+
+    /**
+     * parallel Float4Array.normalized(Float4Array)
+     * @param src
+     * @param dest may be src
+     * @return dest
+     */
+    public Float4Array normalized(Float4Array src, Float4Array dest) {
+        run(0, src.length, (offset, count) -> src.normalized(dest, offset, count));
+        return dest;
+    }
+
+    /**
+     * parallel Float3Array.cross(Float3Array, Float3Array)
+     * @param a
+     * @param b
+     * @param dest may be a or b
+     * @return dest
+     */
+    public Float3Array cross(Float3Array a, Float3Array b, Float3Array dest) {
+        run(0, a.length, (offset, count) -> a.cross(b, dest, offset, count));
+        return dest;
+    }
+
+    /* splitting */
+
+    /**
+     * a piece of work over the element range [offset, offset + count)
+     */
+    public interface RangeOp {
+        void run(int offset, int count);
+    }
+
+    /**
+     * runs op over [offset, offset + count), in parallel above the threshold
+     * @param offset first element
+     * @param count number of elements
+     * @param op
+     */
+    public void run(int offset, int count, RangeOp op) {
+        if (count <= 0) {
+            return;
+        }
+        if (count < threshold || count <= chunk) {
+            op.run(offset, count);
+        } else {
+            pool.invoke(new Range(op, offset, count, chunk));
+        }
+    }
+
+    private static final class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeOp op;
+        private final int offset, count, chunk;
+
+        Range(RangeOp op, int offset, int count, int chunk) {
+            this.op = op;
+            this.offset = offset;
+            this.count = count;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= chunk) {
+                op.run(offset, count);
+                return;
+            }
+            /* split on a chunk boundary so the pieces stay chunk aligned */
+            int half = ((count >>> 1) + chunk - 1) / chunk * chunk;
+            invokeAll(new Range(op, offset, half, chunk), new Range(op, offset + half, count - half, chunk));
+        }
+    }
+}
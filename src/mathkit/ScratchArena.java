@@ -0,0 +1,292 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+
+/**
+ * per thread pool of temporary vectors and matrices
+ *
+ * temporaries are handed out with a pointer bump and released in bulk:
+ *
+ *     ScratchArena scratch = ScratchArena.get();
+ *     long mark = scratch.mark();
+ *     try {
+ *         float3 t = scratch.float3();
+ *         ...
+ *     } finally {
+ *         scratch.reset(mark);
+ *     }
+ *
+ * or once per frame with reset(). the contents of a new temporary are undefined.
+ * the pools grow on demand, after the first frames nothing is allocated anymore.
+ *
+ * with -Dmathkit.scratch.debug=true reset fills the released objects with NaN and
+ * replaces them in the pool, so a reference kept past its reset reads NaN and
+ * can not change a temporary handed out later. the released objects are tracked
+ * (the last DEBUG_TRACKED of them): check(temp) throws IllegalStateException for a
+ * released temporary, and every reset throws if a tracked object was written since
+ * its release.
+ */
+public final class ScratchArena {
+    public static final boolean DEBUG = Boolean.getBoolean("mathkit.scratch.debug");
+    /* number of released objects watched in debug mode */
+    public static final int DEBUG_TRACKED = 8192;
+
+    /* the mark packs the four pool tops, 16 bits each */
+    private static final int MAX_POOL = 0xFFFF;
+
+    private static final float[] NAN_MATRIX = {
+            Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN,
+            Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN
+    };
+
+    private static final ThreadLocal<ScratchArena> ARENAS = ThreadLocal.withInitial(() -> new ScratchArena(32));
+
+    private float2[] float2s;
+    private float3[] float3s;
+    private float4[] float4s;
+    private float4x4[] float4x4s;
+    private int top2, top3, top4, top4x4;
+
+    /* debug mode: released objects, oldest first, and the same objects for lookups */
+    private final ArrayDeque<Object> released = DEBUG ? new ArrayDeque<>() : null;
+    private final IdentityHashMap<Object, Boolean> releasedSet = DEBUG ? new IdentityHashMap<>() : null;
+    private final float[] matrixCheck = DEBUG ? new float[16] : null;
+
+    /**
+     * creates an arena, usually get() is the better choice
+     * @param capacity number of preallocated objects per type
+     */
+    public ScratchArena(int capacity) {
+        capacity = Math.max(1, Math.min(capacity, MAX_POOL));
+        float2s = new float2[capacity];
+        float3s = new float3[capacity];
+        float4s = new float4[capacity];
+        float4x4s = new float4x4[capacity];
+        for (int i = 0; i < capacity; i++) {
+            float2s[i] = new float2();
+            float3s[i] = new float3();
+            float4s[i] = new float4();
+            float4x4s[i] = new float4x4();
+        }
+    }
+
+    /**
+     * @return arena of the calling thread
+     */
+    public static ScratchArena get() {
+        return ARENAS.get();
+    }
+
+    public float2 float2() {
+        if (top2 == float2s.length) {
+            float2s = grow(float2s, new float2[grownLength(top2)]);
+            for (int i = top2; i < float2s.length; i++) {
+                float2s[i] = new float2();
+            }
+        }
+        return float2s[top2++];
+    }
+
+    public float3 float3() {
+        if (top3 == float3s.length) {
+            float3s = grow(float3s, new float3[grownLength(top3)]);
+            for (int i = top3; i < float3s.length; i++) {
+                float3s[i] = new float3();
+            }
+        }
+        return float3s[top3++];
+    }
+
+    public float4 float4() {
+        if (top4 == float4s.length) {
+            float4s = grow(float4s, new float4[grownLength(top4)]);
+            for (int i = top4; i < float4s.length; i++) {
+                float4s[i] = new float4();
+            }
+        }
+        return float4s[top4++];
+    }
+
+    public float4x4 float4x4() {
+        if (top4x4 == float4x4s.length) {
+            float4x4s = grow(float4x4s, new float4x4[grownLength(top4x4)]);
+            for (int i = top4x4; i < float4x4s.length; i++) {
+                float4x4s[i] = new float4x4();
+            }
+        }
+        return float4x4s[top4x4++];
+    }
+
+    public float3 float3(float x, float y, float z) {
+        float3 t = float3();
+        t.x = x;
+        t.y = y;
+        t.z = z;
+        return t;
+    }
+
+    public float4 float4(float x, float y, float z, float w) {
+        float4 t = float4();
+        t.x = x;
+        t.y = y;
+        t.z = z;
+        t.w = w;
+        return t;
+    }
+
+    /**
+     * current allocation position, to be passed to reset(mark)
+     * @return mark
+     */
+    public long mark() {
+        return (long) top2 | (long) top3 << 16 | (long) top4 << 32 | (long) top4x4 << 48;
+    }
+
+    /**
+     * releases every temporary handed out after the mark
+     * @param mark value returned by mark()
+     */
+    public void reset(long mark) {
+        int t2 = (int) (mark & MAX_POOL), t3 = (int) (mark >>> 16 & MAX_POOL);
+        int t4 = (int) (mark >>> 32 & MAX_POOL), t4x4 = (int) (mark >>> 48 & MAX_POOL);
+        if (t2 > top2 || t3 > top3 || t4 > top4 || t4x4 > top4x4) {
+            throw new IllegalArgumentException("invalid mark, already released: " + Long.toHexString(mark));
+        }
+        if (DEBUG) {
+            verifyReleased();
+            poison(t2, t3, t4, t4x4);
+        }
+        top2 = t2;
+        top3 = t3;
+        top4 = t4;
+        top4x4 = t4x4;
+    }
+
+    /**
+     * releases all temporaries, e.g. at the end of a frame
+     */
+    public void reset() {
+        reset(0L);
+    }
+
+    /**
+     * @return number of temporaries currently handed out
+     */
+    public int used() {
+        return top2 + top3 + top4 + top4x4;
+    }
+
+    /**
+     * detects the use of a temporary after its reset, only in debug mode
+     * @param temp temporary of this arena
+     * @return temp
+     * @throws IllegalStateException if temp was released by a reset (debug mode only)
+     */
+    public <T> T check(T temp) {
+        if (DEBUG && releasedSet.containsKey(temp)) {
+            throw new IllegalStateException("scratch temporary used after reset: " + temp);
+        }
+        return temp;
+    }
+
+    /* debug mode: released objects get NaN, are swapped for fresh ones and tracked */
+    private void poison(int t2, int t3, int t4, int t4x4) {
+        for (int i = t2; i < top2; i++) {
+            float2s[i].set(Float.NaN, Float.NaN);
+            track(float2s[i]);
+            float2s[i] = new float2();
+        }
+        for (int i = t3; i < top3; i++) {
+            float3 v = float3s[i];
+            v.x = v.y = v.z = Float.NaN;
+            track(v);
+            float3s[i] = new float3();
+        }
+        for (int i = t4; i < top4; i++) {
+            float4 v = float4s[i];
+            v.x = v.y = v.z = v.w = Float.NaN;
+            track(v);
+            float4s[i] = new float4();
+        }
+        for (int i = t4x4; i < top4x4; i++) {
+            float4x4s[i].readFrom(NAN_MATRIX, 0);
+            track(float4x4s[i]);
+            float4x4s[i] = new float4x4();
+        }
+    }
+
+    private void track(Object temp) {
+        if (released.size() == DEBUG_TRACKED) {
+            releasedSet.remove(released.removeFirst());
+        }
+        released.addLast(temp);
+        releasedSet.put(temp, Boolean.TRUE);
+    }
+
+    /* debug mode: a released object that lost its NaN was written after its reset */
+    private void verifyReleased() {
+        for (Object temp : released) {
+            if (!isPoisoned(temp)) {
+                throw new IllegalStateException("scratch temporary written after reset: " + temp);
+            }
+        }
+    }
+
+    private boolean isPoisoned(Object temp) {
+        if (temp instanceof float2) {
+            float2 v = (float2) temp;
+            return Float.isNaN(v.x) && Float.isNaN(v.y);
+        }
+        if (temp instanceof float3) {
+            float3 v = (float3) temp;
+            return Float.isNaN(v.x) && Float.isNaN(v.y) && Float.isNaN(v.z);
+        }
+        if (temp instanceof float4) {
+            float4 v = (float4) temp;
+            return Float.isNaN(v.x) && Float.isNaN(v.y) && Float.isNaN(v.z) && Float.isNaN(v.w);
+        }
+        ((float4x4) temp).writeTo(matrixCheck, 0);
+        for (float f : matrixCheck) {
+            if (!Float.isNaN(f)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int grownLength(int length) {
+        if (length >= MAX_POOL) {
+            throw new IllegalStateException("scratch pool exhausted, " + MAX_POOL + " temporaries of one type, missing reset?");
+        }
+        return Math.min(length << 1, MAX_POOL);
+    }
+
+    private static <T> T[] grow(T[] pool, T[] grown) {
+        System.arraycopy(pool, 0, grown, 0, pool.length);
+        return grown;
+    }
+}
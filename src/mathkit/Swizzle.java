@@ -0,0 +1,174 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * swizzle masks and bulk channel shuffles
+ *
+ * a mask stores the source channel of every destination component in two bits,
+ * component i uses bits 2i and 2i + 1 (X = 0, Y = 1, Z = 2, W = 3).
+ * the number of components comes from the destination, so
+ * mask(Z, Y, X) used with a float3 destination is the same as zyx().
+ *
+ *     static final int ZYX = Swizzle.mask("zyx");
+ *     v.swizzle(ZYX, dest);
+ *
+ * masks are plain ints, build them once and keep them in constants.
+ */
+public final class Swizzle {
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int Z = 2;
+    public static final int W = 3;
+
+    private Swizzle() {
+    }
+
+    public static int mask(int c0, int c1) {
+        return check(c0) | check(c1) << 2;
+    }
+
+    public static int mask(int c0, int c1, int c2) {
+        return check(c0) | check(c1) << 2 | check(c2) << 4;
+    }
+
+    public static int mask(int c0, int c1, int c2, int c3) {
+        return check(c0) | check(c1) << 2 | check(c2) << 4 | check(c3) << 6;
+    }
+
+    /**
+     * parses a swizzle like "zyx" or "bgra"
+     * @param components 1 to 4 letters of xyzw or rgba
+     * @return mask
+     */
+    public static int mask(String components) {
+        if (components.isEmpty() || components.length() > 4) {
+            throw new IllegalArgumentException("swizzle needs 1 to 4 components: " + components);
+        }
+        int mask = 0;
+        for (int i = 0; i < components.length(); i++) {
+            int c;
+            switch (components.charAt(i)) {
+                case 'x': case 'r': c = X; break;
+                case 'y': case 'g': c = Y; break;
+                case 'z': case 'b': c = Z; break;
+                case 'w': case 'a': c = W; break;
+                default: throw new IllegalArgumentException("invalid swizzle: " + components);
+            }
+            mask |= c << (i << 1);
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask
+     * @param component destination component, 0 to 3
+     * @return source channel of the component
+     */
+    public static int channel(int mask, int component) {
+        return (mask >>> (component << 1)) & 3;
+    }
+
+    private static int check(int channel) {
+        if (channel < X || channel > W) {
+            throw new IndexOutOfBoundsException("channel: " + channel);
+        }
+        return channel;
+    }
+
+    /**
+     * shuffles the channels of interleaved vectors
+     * dst may be src as long as the vectors of both ranges start at the same index and use the same stride
+     * @param src interleaved source vectors
+     * @param srcOffset index of the first component of the first source vector
+     * @param srcStride distance in floats between two source vectors
+     * @param mask source channel per destination component, must be below srcStride
+     * @param dst interleaved destination vectors
+     * @param dstOffset index of the first component of the first destination vector
+     * @param dstStride distance in floats between two destination vectors
+     * @param components number of destination components, 1 to 4
+     * @param count number of vectors
+     * @return dst
+     */
+    public static float[] swizzle(float[] src, int srcOffset, int srcStride, int mask,
+                                  float[] dst, int dstOffset, int dstStride, int components, int count) {
+        for (int i = 0; i < components; i++) {
+            if (channel(mask, i) >= srcStride) {
+                throw new IllegalArgumentException("channel " + channel(mask, i) + " outside of stride " + srcStride);
+            }
+        }
+        int c0 = channel(mask, 0), c1 = channel(mask, 1), c2 = channel(mask, 2), c3 = channel(mask, 3);
+        int s = srcOffset, d = dstOffset;
+        switch (components) {
+            case 1:
+                for (int i = 0; i < count; i++, s += srcStride, d += dstStride) {
+                    dst[d] = src[s + c0];
+                }
+                break;
+            case 2:
+                for (int i = 0; i < count; i++, s += srcStride, d += dstStride) {
+                    float a = src[s + c0], b = src[s + c1];
+                    dst[d] = a;
+                    dst[d + 1] = b;
+                }
+                break;
+            case 3:
+                for (int i = 0; i < count; i++, s += srcStride, d += dstStride) {
+                    float a = src[s + c0], b = src[s + c1], c = src[s + c2];
+                    dst[d] = a;
+                    dst[d + 1] = b;
+                    dst[d + 2] = c;
+                }
+                break;
+            case 4:
+                for (int i = 0; i < count; i++, s += srcStride, d += dstStride) {
+                    float a = src[s + c0], b = src[s + c1], c = src[s + c2], e = src[s + c3];
+                    dst[d] = a;
+                    dst[d + 1] = b;
+                    dst[d + 2] = c;
+                    dst[d + 3] = e;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("components must be 1 to 4: " + components);
+        }
+        return dst;
+    }
+
+    /**
+     * shuffles the channels of tightly packed vectors in place, like swizzling every vector with mask
+     * @param data packed vectors
+     * @param offset index of the first component of the first vector
+     * @param components number of components per vector, 2 to 4
+     * @param mask
+     * @param count number of vectors
+     * @return data
+     */
+    public static float[] shuffle(float[] data, int offset, int components, int mask, int count) {
+        if (components < 2) {
+            throw new IllegalArgumentException("components must be 2 to 4: " + components);
+        }
+        return swizzle(data, offset, components, mask, data, offset, components, components, count);
+    }
+}
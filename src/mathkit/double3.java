@@ -0,0 +1,544 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * 3D Vector in double precision
+ *
+ * same operations as float3, for positions in large worlds. convert to float close to the
+ * gpu, preferably relative to the eye (toFloat3RelativeToEye, toRelativeToEye), so the
+ * narrowed values stay small and keep their precision.
+ */
+public class double3 {
+    public double x, y, z;
+
+    public double3() {
+        x = y = z = 0;
+    }
+
+    public double3(double x) {
+        this.x = x;
+        y = z = 0;
+    }
+
+    public double3(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.z = 0;
+    }
+
+    public double3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public double3(double3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
+    /**
+     * widens a float vector
+     * @param u
+     */
+    public double3(float3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#clone()
+     */
+    public double3 clone(){
+        return new double3(this);
+    }
+
+    /**
+     * returns the length of the vector
+     * @return double
+     */
+    public double length() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * returns the squared length of the vector
+     * @return squared length
+     */
+    public double lengthSquared() {
+        return (x * x + y * y + z * z);
+    }
+
+    /**
+     * creates the 3d cross product between two vectors
+     * @param u
+     * @return new double3
+     */
+    public double3 cross(double3 u) {
+        return new double3(y * u.z - z * u.y, z * u.x - x * u.z, x * u.y - y * u.x);
+    }
+
+    /**
+     * creates the 3d cross product between two vectors
+     * @param u
+     * @param dest - receives the cross product, may be this or u
+     * @return dest
+     */
+    public double3 cross(double3 u, double3 dest) {
+        double cx = y * u.z - z * u.y;
+        double cy = z * u.x - x * u.z;
+        double cz = x * u.y - y * u.x;
+        dest.x = cx;
+        dest.y = cy;
+        dest.z = cz;
+        return dest;
+    }
+
+    /**
+     * creates the dot product between two vectors
+     * @param u
+     * @return double
+     */
+    public double dot(double3 u) {
+        return (x * u.x + y * u.y + z * u.z);
+    }
+
+    /**
+     * normalizes the vector locally
+     */
+    public void normalize() {
+        scale(1 / length());
+    }
+
+    /**
+     * subtracts vector u from this vector
+     * @param u
+     * @return new double3
+     */
+    public double3 sub(double3 u) {
+        return new double3(x - u.x, y - u.y, z - u.z);
+    }
+
+    /**
+     * subtracts vector u from this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public double3 sub(double3 u, double3 dest) {
+        dest.x = x - u.x;
+        dest.y = y - u.y;
+        dest.z = z - u.z;
+        return dest;
+    }
+
+    /**
+     * adds vector u to this vector
+     * @param u
+     * @return new double3
+     */
+    public double3 add(double3 u) {
+        return new double3(x + u.x, y + u.y, z + u.z);
+    }
+
+    /**
+     * adds vector u to this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public double3 add(double3 u, double3 dest) {
+        dest.x = x + u.x;
+        dest.y = y + u.y;
+        dest.z = z + u.z;
+        return dest;
+    }
+
+    /**
+     * scales the vector by a factor
+     * @param scalar
+     * @return new double3
+     */
+    public double3 multiply(double scalar) {
+        return new double3(x * scalar, y * scalar, z * scalar);
+    }
+
+    /**
+     * scales the vector by a factor
+     * @param scalar
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public double3 multiply(double scalar, double3 dest) {
+        dest.x = x * scalar;
+        dest.y = y * scalar;
+        dest.z = z * scalar;
+        return dest;
+    }
+
+    /**
+     * scales a vector by 3 factors
+     * @param u
+     * @return new double3
+     */
+    public double3 multiply(double3 u) {
+        return new double3(x * u.x, y * u.y, z * u.z);
+    }
+
+    /**
+     * scales a vector by 3 factors
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public double3 multiply(double3 u, double3 dest) {
+        dest.x = x * u.x;
+        dest.y = y * u.y;
+        dest.z = z * u.z;
+        return dest;
+    }
+
+    /**
+     * scales down (divides) the vector by 3 factors
+     * @param u
+     * @return new double3
+     */
+    public double3 divide(double3 u) {
+        return new double3(x / u.x, y / u.y, z / u.z);
+    }
+
+    /**
+     * scales down (divides) the vector by 3 factors
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public double3 divide(double3 u, double3 dest) {
+        dest.x = x / u.x;
+        dest.y = y / u.y;
+        dest.z = z / u.z;
+        return dest;
+    }
+
+    /**
+     * scales down (divides) the vector by 3 factors
+     * @param factor
+     * @return new double3
+     */
+    public double3 divide(double factor) {
+        double inv = 1.0 / factor;
+        return new double3(x * inv, y * inv, z * inv);
+    }
+
+    /**
+     * scales down (divides) the vector by a factor
+     * @param factor
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public double3 divide(double factor, double3 dest) {
+        double inv = 1.0 / factor;
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        return dest;
+    }
+
+    /**
+     * reflects the vector around a vector
+     * @param around - vector on which this vector will be reflected
+     * @return new double3
+     */
+    public double3 reflect(double3 around){
+        return reflect(around, new double3());
+    }
+
+    /**
+     * reflects the vector around a vector
+     * @param around - vector on which this vector will be reflected
+     * @param dest - receives the reflection, may be this or around
+     * @return dest
+     */
+    public double3 reflect(double3 around, double3 dest){
+        double inv = 1 / around.length();
+        double nx = around.x * inv, ny = around.y * inv, nz = around.z * inv;
+        double d = -2 * (x * nx + y * ny + z * nz);
+        dest.x = nx * d + x;
+        dest.y = ny * d + y;
+        dest.z = nz * d + z;
+        return dest;
+    }
+
+    /**
+     * inverses / negates the vector locally
+     */
+    public void inverse() {
+        x = -x;
+        y = -y;
+        z = -z;
+    }
+
+    /**
+     * returns the inversed vector
+     * @return new double3
+     */
+    public double3 inversed() {
+        return inversed(new double3());
+    }
+
+    /**
+     * returns the inversed vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public double3 inversed(double3 dest) {
+        dest.x = -x;
+        dest.y = -y;
+        dest.z = -z;
+        return dest;
+    }
+
+    /**
+     * returns the normalized vector
+     * @return new double3
+     */
+    public double3 normalized() {
+        return normalized(new double3());
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public double3 normalized(double3 dest) {
+        double inv = 1 / length();
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        return dest;
+    }
+
+    /**
+     * projects this vector onto another
+     * @param n
+     * @return projected vector
+     */
+    public double3 projectOnto(double3 n){
+        return n.multiply(dot(n)/n.dot(n));
+    }
+
+    /**
+     * projects this vector onto another
+     * @param n
+     * @param dest - receives the projected vector, may be this or n
+     * @return dest
+     */
+    public double3 projectOnto(double3 n, double3 dest){
+        return n.multiply(dot(n)/n.dot(n), dest);
+    }
+
+	/* dot product definition */
+    /**
+     * returns the angle between two vectors
+     * @param u
+     * @return double (angle between 2 vectors)
+     */
+    public double angleBetween(double3 u) {
+        return (Math.acos((dot(u) / (length() * u.length()))) * Constants.ONE_OVER_180_PI);
+    }
+
+    /**
+     * returns the distance between 2 vectors
+     * @param u
+     * @return double - distance
+     */
+    public double3 distance(double3 u) {
+        return new double3(Math.abs(x - u.x), Math.abs(y - u.y), Math.abs(z - u.z));
+    }
+
+    /**
+     * returns the euclidean distance between 2 vectors
+     * @param u
+     * @return double - euclidean distance between 2 vectors
+     */
+    public double distanceEuclid(double3 u){
+        double ex = (x - u.x);
+        double ey = (y - u.y);
+        double ez = (z - u.z);
+        return Math.sqrt(ex * ex + ey * ey + ez * ez);
+    }
+
+    /**
+     * scales the vector locally
+     * @param scalar
+     */
+    public void scale(double scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        this.z *= scalar;
+    }
+
+    /**
+     * changes the vectors value to the parameter vectors values locally
+     * @param u
+     */
+    public void set(double3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
+    /**
+     * changes the vectors value to the widened parameter vectors values locally
+     * @param u
+     */
+    public void set(float3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
+    /**
+     * changes the x component
+     * @param x
+     */
+    public void setX(double x) {
+        this.x = x;
+    }
+
+    /**
+     * changes the y component
+     * @param y
+     */
+    public void setY(double y) {
+        this.y = y;
+    }
+
+    /**
+     * changes the z component
+     * @param z
+     */
+    public void setZ(double z) {
+        this.z = z;
+    }
+
+    /**
+     * parses the vector to a double array
+     * @return double array
+     */
+    public double[] toDouble() {
+        return new double[] { x, y, z };
+    }
+
+    /**
+     * narrows the vector to float
+     * @param dest - receives the rounded components
+     * @return dest
+     */
+    public float3 toFloat3(float3 dest) {
+        dest.x = (float) x;
+        dest.y = (float) y;
+        dest.z = (float) z;
+        return dest;
+    }
+
+    /**
+     * position relative to the eye, subtracted in double and then narrowed
+     * @param eye camera position
+     * @param dest - receives this - eye
+     * @return dest
+     */
+    public float3 toFloat3RelativeToEye(double3 eye, float3 dest) {
+        dest.x = (float) (x - eye.x);
+        dest.y = (float) (y - eye.y);
+        dest.z = (float) (z - eye.z);
+        return dest;
+    }
+
+    /**
+     * converts packed double positions to camera relative float positions
+     * the eye is subtracted in double, so the float result keeps its precision near the camera
+     * @param src packed positions
+     * @param srcOffset index of the first x component
+     * @param srcStride distance in doubles between two positions, at least 3
+     * @param eye camera position
+     * @param dst packed float positions
+     * @param dstOffset index of the first x component
+     * @param dstStride distance in floats between two positions, at least 3
+     * @param count number of positions
+     * @return dst
+     */
+    public static float[] toRelativeToEye(double[] src, int srcOffset, int srcStride, double3 eye,
+                                          float[] dst, int dstOffset, int dstStride, int count) {
+        double ex = eye.x, ey = eye.y, ez = eye.z;
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+            dst[d] = (float) (src[s] - ex);
+            dst[d + 1] = (float) (src[s + 1] - ey);
+            dst[d + 2] = (float) (src[s + 2] - ez);
+        }
+        return dst;
+    }
+
+    /**
+     * converts packed double positions (x, y, z, x, y, z ...) to camera relative float positions
+     * @param src packed positions
+     * @param srcOffset index of the first x component
+     * @param eye camera position
+     * @param dest receives the positions
+     * @param dstOffset first destination index
+     * @param count number of positions
+     * @return dest
+     */
+    public static Float3Array toRelativeToEye(double[] src, int srcOffset, double3 eye, Float3Array dest, int dstOffset, int count) {
+        double ex = eye.x, ey = eye.y, ez = eye.z;
+        float[] xs = dest.xs, ys = dest.ys, zs = dest.zs;
+        for (int i = 0, s = srcOffset; i < count; i++, s += 3) {
+            xs[dstOffset + i] = (float) (src[s] - ex);
+            ys[dstOffset + i] = (float) (src[s + 1] - ey);
+            zs[dstOffset + i] = (float) (src[s + 2] - ez);
+        }
+        return dest;
+    }
+
+    /**
+     * checks if two vectors are equal by values
+     * @param u
+     * @return bool
+     */
+    public boolean equals(double3 u) {
+        return (x == u.x && y == u.y && z == u.z);
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        return "[ X: " + x + " Y: " + y + " Z: " + z + " ]";
+    }
+
+}
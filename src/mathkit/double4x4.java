@@ -0,0 +1,885 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.nio.FloatBuffer;
+
+/***
+ *	4x4 matrix in double precision, same layout and operations as float4x4
+ *
+ *	Layout: Column-Major, element mCR = column C, row R
+ *
+ *	world transforms of large scenes stay in double, toFloat4x4RelativeToEye and
+ *	toRelativeToEye narrow them to float after moving the origin to the camera.
+ */
+
+public class double4x4 {
+    /* element mCR = column C, row R */
+    public double m00, m01, m02, m03;
+    public double m10, m11, m12, m13;
+    public double m20, m21, m22, m23;
+    public double m30, m31, m32, m33;
+
+    /**
+     * builds identity 4x4 matrix
+     */
+    public double4x4() {
+       loadIdentity();
+    }
+
+    /**
+     * builds 4x4 matrix via copying values from another 4x4 matrix
+     * @param mat
+     */
+    public double4x4(double4x4 mat) {
+        set(mat);
+    }
+
+    /**
+     * widens a float matrix
+     * @param mat
+     */
+    public double4x4(float4x4 mat) {
+        set(mat);
+    }
+
+    /**
+     * copies over values from given 4x4 matrix to this
+     * @param mat
+     */
+    public void set(double4x4 mat) {
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20; m30 = mat.m30;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21; m31 = mat.m31;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22; m32 = mat.m32;
+        m03 = mat.m03; m13 = mat.m13; m23 = mat.m23; m33 = mat.m33;
+    }
+
+    /**
+     * copies over the widened values from given float 4x4 matrix to this
+     * @param mat
+     */
+    public void set(float4x4 mat) {
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20; m30 = mat.m30;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21; m31 = mat.m31;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22; m32 = mat.m32;
+        m03 = mat.m03; m13 = mat.m13; m23 = mat.m23; m33 = mat.m33;
+    }
+
+    /**
+     * returns a single matrix element
+     * replaces the former m[column][row] access
+     * @param column 0 - 3
+     * @param row 0 - 3
+     * @return element value
+     */
+    public double get(int column, int row) {
+        if (column < 0 || column > 3 || row < 0 || row > 3) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch ((column << 2) | row) {
+            case 0:  return m00;
+            case 1:  return m01;
+            case 2:  return m02;
+            case 3:  return m03;
+            case 4:  return m10;
+            case 5:  return m11;
+            case 6:  return m12;
+            case 7:  return m13;
+            case 8:  return m20;
+            case 9:  return m21;
+            case 10: return m22;
+            case 11: return m23;
+            case 12: return m30;
+            case 13: return m31;
+            case 14: return m32;
+            default: return m33;
+        }
+    }
+
+    /**
+     * changes a single matrix element
+     * replaces the former m[column][row] = value access
+     * @param column 0 - 3
+     * @param row 0 - 3
+     * @param value new element value
+     */
+    public void set(int column, int row, double value) {
+        if (column < 0 || column > 3 || row < 0 || row > 3) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch ((column << 2) | row) {
+            case 0:  m00 = value; break;
+            case 1:  m01 = value; break;
+            case 2:  m02 = value; break;
+            case 3:  m03 = value; break;
+            case 4:  m10 = value; break;
+            case 5:  m11 = value; break;
+            case 6:  m12 = value; break;
+            case 7:  m13 = value; break;
+            case 8:  m20 = value; break;
+            case 9:  m21 = value; break;
+            case 10: m22 = value; break;
+            case 11: m23 = value; break;
+            case 12: m30 = value; break;
+            case 13: m31 = value; break;
+            case 14: m32 = value; break;
+            case 15: m33 = value; break;
+        }
+    }
+
+    /**
+     * resets this matrix to the identity matrix
+     */
+    public void loadIdentity() {
+        m00 = 1.0; m10 = 0.0; m20 = 0.0; m30 = 0.0;
+        m01 = 0.0; m11 = 1.0; m21 = 0.0; m31 = 0.0;
+        m02 = 0.0; m12 = 0.0; m22 = 1.0; m32 = 0.0;
+        m03 = 0.0; m13 = 0.0; m23 = 0.0; m33 = 1.0;
+    }
+
+    /**
+     * return the transpose of this matrix
+     * @return transposed matrix
+     */
+    public double4x4 transposed() {
+        return transposed(new double4x4());
+    }
+
+    /**
+     * writes the transpose of this matrix into dest
+     * @param dest - receives the transposed matrix, may be this
+     * @return dest
+     */
+    public double4x4 transposed(double4x4 dest) {
+        double t;
+        dest.m00 = m00; dest.m11 = m11; dest.m22 = m22; dest.m33 = m33;
+        t = m01; dest.m01 = m10; dest.m10 = t;
+        t = m02; dest.m02 = m20; dest.m20 = t;
+        t = m03; dest.m03 = m30; dest.m30 = t;
+        t = m12; dest.m12 = m21; dest.m21 = t;
+        t = m13; dest.m13 = m31; dest.m31 = t;
+        t = m23; dest.m23 = m32; dest.m32 = t;
+        return dest;
+    }
+
+    /**
+     * initializes a row translation matrix
+     * @param x double
+     * @param y double
+     * @param z double
+     * @return translation matrix
+     */
+    public double4x4 initTranslation(double x, double y, double z) {
+        double4x4 translationMatrix = new double4x4();
+        translationMatrix.m30 = x;
+        translationMatrix.m31 = y;
+        translationMatrix.m32 = z;
+        return translationMatrix;
+    }
+
+    /**
+     * initializes a row translation matrix
+     * @param v translation
+     * @return translation matrix
+     */
+    public double4x4 initTranslation(double3 v) {
+        double4x4 translationMatrix = new double4x4();
+        translationMatrix.m30 = v.x;
+        translationMatrix.m31 = v.y;
+        translationMatrix.m32 = v.z;
+        return translationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the x axis
+     * @param angle double
+     * @return rotation matrix for the x axis
+     */
+    public double4x4 initRotationX(double angle) {
+        double RAD = Constants.toRadians(angle);
+        double cos = Math.cos(RAD);
+        double sin = Math.sin(RAD);
+
+        double4x4 rotationMatrix = new double4x4();
+
+        rotationMatrix.m11 = cos; rotationMatrix.m21 = -sin;
+        rotationMatrix.m12 = sin; rotationMatrix.m22 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the y axis
+     * @param angle double
+     * @return rotation matrix for the y axis
+     */
+    public double4x4 initRotationY(double angle) {
+        double RAD = Constants.toRadians(angle);
+        double cos = Math.cos(RAD);
+        double sin = Math.sin(RAD);
+
+        double4x4 rotationMatrix = new double4x4();
+
+        rotationMatrix.m00 = cos;   rotationMatrix.m20 = sin;
+        rotationMatrix.m02 = -sin;  rotationMatrix.m22 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the z axis
+     * @param angle double
+     * @return rotation matrix for the z axis
+     */
+    public double4x4 initRotateZ(double angle) {
+        double RAD = Constants.toRadians(angle);
+        double cos = Math.cos(RAD);
+        double sin = Math.sin(RAD);
+
+        double4x4 rotationMatrix = new double4x4();
+
+        rotationMatrix.m00 = cos; rotationMatrix.m10 = -sin;
+        rotationMatrix.m01 = sin; rotationMatrix.m11 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * initializes a uniform scaling matrix
+     * @param factor double
+     * @return uniform scaling matrix
+     */
+    public double4x4 initScale(double factor) {
+        double4x4 scaleMatrix = new double4x4();
+
+        scaleMatrix.m00 = factor;
+        scaleMatrix.m11 = factor;
+        scaleMatrix.m22 = factor;
+
+        return scaleMatrix;
+    }
+
+    /**
+     * initializes a non uniform scaling matrix
+     * @param factor double
+     * @return non uniform scaling matrix
+     */
+    public double4x4 initScale(double3 factor) {
+        double4x4 scaleMatrix = new double4x4();
+
+        scaleMatrix.m00 = factor.x;
+        scaleMatrix.m11 = factor.y;
+        scaleMatrix.m22 = factor.z;
+
+        return scaleMatrix;
+    }
+
+    /**
+     * initializes a non uniform scaling matrix
+     * @param x double
+     * @param y double
+     * @param z double
+     * @return non uniform scaling matrix
+     */
+    public double4x4 initScale(double x, double y, double z) {
+        double4x4 scaleMatrix = new double4x4();
+
+        scaleMatrix.m00 = x;
+        scaleMatrix.m11 = y;
+        scaleMatrix.m22 = z;
+
+        return scaleMatrix;
+    }
+
+    /* multiplications */
+
+    /**
+     * scales all matrix values by a given scalar
+     * @param scalar double
+     * @return scaled matrix
+     */
+    public double4x4 multiply(double scalar) {
+        return multiply(scalar, new double4x4());
+    }
+
+    /**
+     * scales all matrix values by a given scalar
+     * @param scalar double
+     * @param result - receives the scaled matrix, may be this
+     * @return result
+     */
+    public double4x4 multiply(double scalar, double4x4 result) {
+        result.m00 = m00 * scalar;
+        result.m01 = m01 * scalar;
+        result.m02 = m02 * scalar;
+        result.m03 = m03 * scalar;
+
+        result.m10 = m10 * scalar;
+        result.m11 = m11 * scalar;
+        result.m12 = m12 * scalar;
+        result.m13 = m13 * scalar;
+
+        result.m20 = m20 * scalar;
+        result.m21 = m21 * scalar;
+        result.m22 = m22 * scalar;
+        result.m23 = m23 * scalar;
+
+        result.m30 = m30 * scalar;
+        result.m31 = m31 * scalar;
+        result.m32 = m32 * scalar;
+        result.m33 = m33 * scalar;
+
+        return result;
+    }
+
+    /**
+     * matrix multiplication
+     * @param mat
+     * @return (this * mat)
+     */
+    public double4x4 multiply(double4x4 mat){
+        return multiply(mat, new double4x4());
+    }
+
+    /**
+     * matrix multiplication
+     * @param mat
+     * @param dest - receives (this * mat), may be this or mat
+     * @return dest
+     */
+    public double4x4 multiply(double4x4 mat, double4x4 dest){
+        /* load this first, so dest may alias this. mat is consumed column by column, so dest may alias mat */
+        double a00 = m00, a01 = m01, a02 = m02, a03 = m03;
+        double a10 = m10, a11 = m11, a12 = m12, a13 = m13;
+        double a20 = m20, a21 = m21, a22 = m22, a23 = m23;
+        double a30 = m30, a31 = m31, a32 = m32, a33 = m33;
+
+        double b0 = mat.m00, b1 = mat.m01, b2 = mat.m02, b3 = mat.m03;
+        dest.m00 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m01 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m02 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m03 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m10; b1 = mat.m11; b2 = mat.m12; b3 = mat.m13;
+        dest.m10 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m11 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m12 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m13 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m20; b1 = mat.m21; b2 = mat.m22; b3 = mat.m23;
+        dest.m20 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m21 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m22 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m23 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m30; b1 = mat.m31; b2 = mat.m32; b3 = mat.m33;
+        dest.m30 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m31 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m32 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m33 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        return dest;
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the vector gets divided by the homogeneous coordinate
+     * Source: openFrameworks matrix class !
+     * @param v
+     * @return (mat * vector)
+     */
+    public double3 multiply(double3 v){
+        return multiply(v, new double3());
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the vector gets divided by the homogeneous coordinate
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public double3 multiply(double3 v, double3 dest){
+        double x = v.x, y = v.y, z = v.z;
+        double inv = 1.0 / (m03 * x + m13 * y + m23 * z + m33);
+        dest.x = (m00 * x + m10 * y + m20 * z + m30) * inv;
+        dest.y = (m01 * x + m11 * y + m21 * z + m31) * inv;
+        dest.z = (m02 * x + m12 * y + m22 * z + m32) * inv;
+        return dest;
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the homogeneous coordinate gets ignored!
+     * @param v
+     * @return (mat * vector)
+     */
+    public double3 multiplyNoHomogeneous(double3 v){
+        return multiplyNoHomogeneous(v, new double3());
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the homogeneous coordinate gets ignored!
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public double3 multiplyNoHomogeneous(double3 v, double3 dest){
+        double x = v.x, y = v.y, z = v.z;
+        dest.x = m00 * x + m10 * y + m20 * z;
+        dest.y = m01 * x + m11 * y + m21 * z;
+        dest.z = m02 * x + m12 * y + m22 * z;
+        return dest;
+    }
+
+    /* inverse */
+
+    /**
+     * @return determinant of this matrix
+     * @see #determinant()
+     */
+    public double getDeterminant() {
+        return determinant();
+    }
+
+    /**
+     * laplace expansion along the first column, only the four cofactors needed are computed
+     * @return determinant of this matrix
+     */
+    public double determinant() {
+
+        double i00 = m11 * m22 * m33 -
+                    m11 * m23 * m32 -
+                    m21 * m12 * m33 +
+                    m21 * m13 * m32 +
+                    m31 * m12 * m23 -
+                    m31 * m13 * m22;
+
+        double i10 = -m10 * m22 * m33 +
+                     m10 * m23 * m32 +
+                     m20 * m12 * m33 -
+                     m20 * m13 * m32 -
+                     m30 * m12 * m23 +
+                     m30 * m13 * m22;
+
+        double i20 = m10 * m21 * m33 -
+                    m10 * m23 * m31 -
+                    m20 * m11 * m33 +
+                    m20 * m13 * m31 +
+                    m30 * m11 * m23 -
+                    m30 * m13 * m21;
+
+        double i30 = -m10 * m21 * m32 +
+                     m10 * m22 * m31 +
+                     m20 * m11 * m32 -
+                     m20 * m12 * m31 -
+                     m30 * m11 * m22 +
+                     m30 * m12 * m21;
+
+        return m00 * i00 + m01 * i10 + m02 * i20 + m03 * i30;
+    }
+
+    /**
+     * an affine matrix has (0, 0, 0, 1) as its last row
+     * @return true if this matrix is affine
+     */
+    public boolean isAffine() {
+        return m03 == 0.0 && m13 == 0.0 && m23 == 0.0 && m33 == 1.0;
+    }
+
+    /**
+     * inverse of a rigid transform (orthonormal rotation and translation)
+     * the upper 3x3 is transposed, the translation rotated back and negated
+     * the result is wrong for matrices with scale, shear or projection
+     * @return double4x4 inverted matrix
+     */
+    public double4x4 inverseRigid() {
+        return inverseRigid(new double4x4());
+    }
+
+    /**
+     * inverse of a rigid transform (orthonormal rotation and translation)
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public double4x4 inverseRigid(double4x4 dest) {
+        double a01 = m01, a02 = m02, a12 = m12;
+        double t0 = m30, t1 = m31, t2 = m32;
+
+        /* transpose the upper 3x3 */
+        dest.m00 = m00;   dest.m01 = m10; dest.m02 = m20;
+        dest.m10 = a01;   dest.m11 = m11; dest.m12 = m21;
+        dest.m20 = a02;   dest.m21 = a12; dest.m22 = m22;
+
+        /* dot the t vector and the transposed rotation matrix */
+        dest.m30 = -(dest.m00 * t0 + dest.m10 * t1 + dest.m20 * t2);
+        dest.m31 = -(dest.m01 * t0 + dest.m11 * t1 + dest.m21 * t2);
+        dest.m32 = -(dest.m02 * t0 + dest.m12 * t1 + dest.m22 * t2);
+
+        dest.m03 = 0.0; dest.m13 = 0.0; dest.m23 = 0.0; dest.m33 = 1.0;
+        return dest;
+    }
+
+    /**
+     * inverse of an affine matrix, see isAffine()
+     * inverts the upper 3x3 and transforms the negated translation with it
+     * handles scale and shear, the last row is ignored and set to (0, 0, 0, 1)
+     * @return double4x4 inverted matrix
+     */
+    public double4x4 inverseAffine() {
+        return inverseAffine(new double4x4());
+    }
+
+    /**
+     * inverse of an affine matrix, see isAffine()
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public double4x4 inverseAffine(double4x4 dest) {
+
+        /* rows of the inverse are the cross products of the columns */
+        double r00 = m11 * m22 - m12 * m21, r01 = m12 * m20 - m10 * m22, r02 = m10 * m21 - m11 * m20;
+        double r10 = m21 * m02 - m22 * m01, r11 = m22 * m00 - m20 * m02, r12 = m20 * m01 - m21 * m00;
+        double r20 = m01 * m12 - m02 * m11, r21 = m02 * m10 - m00 * m12, r22 = m00 * m11 - m01 * m10;
+
+        double det = m00 * r00 + m01 * r01 + m02 * r02;
+
+        if (det != 0)
+        {
+            det = 1.0 / det;
+        }
+        else
+        {
+            Instrumentation.singular(Instrumentation.Op.DOUBLE4X4_INVERSE_AFFINE);
+            det = 1.0;
+        }
+
+        double t0 = m30, t1 = m31, t2 = m32;
+
+        dest.m00 = r00 * det; dest.m10 = r01 * det; dest.m20 = r02 * det;
+        dest.m01 = r10 * det; dest.m11 = r11 * det; dest.m21 = r12 * det;
+        dest.m02 = r20 * det; dest.m12 = r21 * det; dest.m22 = r22 * det;
+
+        dest.m30 = -(dest.m00 * t0 + dest.m10 * t1 + dest.m20 * t2);
+        dest.m31 = -(dest.m01 * t0 + dest.m11 * t1 + dest.m21 * t2);
+        dest.m32 = -(dest.m02 * t0 + dest.m12 * t1 + dest.m22 * t2);
+
+        dest.m03 = 0.0; dest.m13 = 0.0; dest.m23 = 0.0; dest.m33 = 1.0;
+        return dest;
+    }
+
+    /**
+     * Source: http://stackoverflow.com/questions/1148309/inverting-a-4x4-matrix
+     * @return double4x4 inverted matrix
+     */
+    public double4x4 inverse()
+    {
+        return inverse(new double4x4());
+    }
+
+    /**
+     * Source: http://stackoverflow.com/questions/1148309/inverting-a-4x4-matrix
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public double4x4 inverse(double4x4 dest)
+    {
+        double det;
+
+        //				0	1	2	3	4	5	6	7	8	9	10	11	12	13	14	15
+        // double[16] = {00, 01, 02, 03, 10, 11, 12, 13, 20, 21, 22, 23, 30, 31, 32, 33};
+
+        double i00 = m11 * m22 * m33 -
+                    m11 * m23 * m32 -
+                    m21 * m12 * m33 +
+                    m21 * m13 * m32 +
+                    m31 * m12 * m23 -
+                    m31 * m13 * m22;
+
+        double i10 = -m10 * m22 * m33 +
+                     m10 * m23 * m32 +
+                     m20 * m12 * m33 -
+                     m20 * m13 * m32 -
+                     m30 * m12 * m23 +
+                     m30 * m13 * m22;
+
+        double i20 = m10 * m21 * m33 -
+                    m10 * m23 * m31 -
+                    m20 * m11 * m33 +
+                    m20 * m13 * m31 +
+                    m30 * m11 * m23 -
+                    m30 * m13 * m21;
+
+        double i30 = -m10 * m21 * m32 +
+                     m10 * m22 * m31 +
+                     m20 * m11 * m32 -
+                     m20 * m12 * m31 -
+                     m30 * m11 * m22 +
+                     m30 * m12 * m21;
+
+        double i01 = -m01 * m22 * m33 +
+                     m01 * m23 * m32 +
+                     m21 * m02 * m33 -
+                     m21 * m03 * m32 -
+                     m31 * m02 * m23 +
+                     m31 * m03 * m22;
+
+        double i11 = m00 * m22 * m33 -
+                    m00 * m23 * m32 -
+                    m20 * m02 * m33 +
+                    m20 * m03 * m32 +
+                    m30 * m02 * m23 -
+                    m30 * m03 * m22;
+
+        double i21 = -m00 * m21 * m33 +
+                     m00 * m23 * m31 +
+                     m20 * m01 * m33 -
+                     m20 * m03 * m31 -
+                     m30 * m01 * m23 +
+                     m30 * m03 * m21;
+
+        double i31 = m00 * m21 * m32 -
+                    m00 * m22 * m31 -
+                    m20 * m01 * m32 +
+                    m20 * m02 * m31 +
+                    m30 * m01 * m22 -
+                    m30 * m02 * m21;
+
+        double i02 = m01 * m12 * m33 -
+                    m01 * m13 * m32 -
+                    m11 * m02 * m33 +
+                    m11 * m03 * m32 +
+                    m31 * m02 * m13 -
+                    m31 * m03 * m12;
+
+        double i12 = -m00 * m12 * m33 +
+                     m00 * m13 * m32 +
+                     m10 * m02 * m33 -
+                     m10 * m03 * m32 -
+                     m30 * m02 * m13 +
+                     m30 * m03 * m12;
+
+        double i22 = m00 * m11 * m33 -
+                    m00 * m13 * m31 -
+                    m10 * m01 * m33 +
+                    m10 * m03 * m31 +
+                    m30 * m01 * m13 -
+                    m30 * m03 * m11;
+
+        double i32 = -m00 * m11 * m32 +
+                     m00 * m12 * m31 +
+                     m10 * m01 * m32 -
+                     m10 * m02 * m31 -
+                     m30 * m01 * m12 +
+                     m30 * m02 * m11;
+
+        double i03 = -m01 * m12 * m23 +
+                     m01 * m13 * m22 +
+                     m11 * m02 * m23 -
+                     m11 * m03 * m22 -
+                     m21 * m02 * m13 +
+                     m21 * m03 * m12;
+
+        double i13 = m00 * m12 * m23 -
+                    m00 * m13 * m22 -
+                    m10 * m02 * m23 +
+                    m10 * m03 * m22 +
+                    m20 * m02 * m13 -
+                    m20 * m03 * m12;
+
+        double i23 = -m00 * m11 * m23 +
+                     m00 * m13 * m21 +
+                     m10 * m01 * m23 -
+                     m10 * m03 * m21 -
+                     m20 * m01 * m13 +
+                     m20 * m03 * m11;
+
+        double i33 = m00 * m11 * m22 -
+                    m00 * m12 * m21 -
+                    m10 * m01 * m22 +
+                    m10 * m02 * m21 +
+                    m20 * m01 * m12 -
+                    m20 * m02 * m11;
+
+        det = m00 * i00 + m01 * i10 + m02 * i20 + m03 * i30;
+
+        if (det != 0)
+        {
+            det = 1.0 / det;
+        }
+        else
+        {
+            Instrumentation.singular(Instrumentation.Op.DOUBLE4X4_INVERSE);
+            det = 1.0;
+        }
+
+        dest.m00 = i00 * det;
+        dest.m01 = i01 * det;
+        dest.m02 = i02 * det;
+        dest.m03 = i03 * det;
+
+        dest.m10 = i10 * det;
+        dest.m11 = i11 * det;
+        dest.m12 = i12 * det;
+        dest.m13 = i13 * det;
+
+        dest.m20 = i20 * det;
+        dest.m21 = i21 * det;
+        dest.m22 = i22 * det;
+        dest.m23 = i23 * det;
+
+        dest.m30 = i30 * det;
+        dest.m31 = i31 * det;
+        dest.m32 = i32 * det;
+        dest.m33 = i33 * det;
+
+        return dest;
+    }
+
+    /**
+     * parses this matrix into a double array
+     * @return double array
+     */
+    public double[] toDouble() {
+        return new double[] { m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33 };
+    }
+
+    /**
+     * writes this matrix column after column into an array
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public double[] writeTo(double[] dst, int offset) {
+        dst[offset]      = m00; dst[offset + 1]  = m01; dst[offset + 2]  = m02; dst[offset + 3]  = m03;
+        dst[offset + 4]  = m10; dst[offset + 5]  = m11; dst[offset + 6]  = m12; dst[offset + 7]  = m13;
+        dst[offset + 8]  = m20; dst[offset + 9]  = m21; dst[offset + 10] = m22; dst[offset + 11] = m23;
+        dst[offset + 12] = m30; dst[offset + 13] = m31; dst[offset + 14] = m32; dst[offset + 15] = m33;
+        return dst;
+    }
+
+    /**
+     * reads this matrix column after column from an array, counterpart of writeTo
+     * @param src
+     * @param offset index of the first element
+     * @return this
+     */
+    public double4x4 readFrom(double[] src, int offset) {
+        m00 = src[offset];      m01 = src[offset + 1];  m02 = src[offset + 2];  m03 = src[offset + 3];
+        m10 = src[offset + 4];  m11 = src[offset + 5];  m12 = src[offset + 6];  m13 = src[offset + 7];
+        m20 = src[offset + 8];  m21 = src[offset + 9];  m22 = src[offset + 10]; m23 = src[offset + 11];
+        m30 = src[offset + 12]; m31 = src[offset + 13]; m32 = src[offset + 14]; m33 = src[offset + 15];
+        return this;
+    }
+
+    /**
+     * narrows the matrix to float
+     * @param dest - receives the rounded elements
+     * @return dest
+     */
+    public float4x4 toFloat4x4(float4x4 dest) {
+        dest.m00 = (float) m00; dest.m10 = (float) m10; dest.m20 = (float) m20; dest.m30 = (float) m30;
+        dest.m01 = (float) m01; dest.m11 = (float) m11; dest.m21 = (float) m21; dest.m31 = (float) m31;
+        dest.m02 = (float) m02; dest.m12 = (float) m12; dest.m22 = (float) m22; dest.m32 = (float) m32;
+        dest.m03 = (float) m03; dest.m13 = (float) m13; dest.m23 = (float) m23; dest.m33 = (float) m33;
+        return dest;
+    }
+
+    /**
+     * translation(-eye) * this, computed in double and then narrowed
+     * combined with a view matrix without the eye translation, the float result
+     * keeps its precision for objects close to the camera, however far they are from the origin
+     * @param eye camera position
+     * @param dest - receives the camera relative matrix
+     * @return dest
+     */
+    public float4x4 toFloat4x4RelativeToEye(double3 eye, float4x4 dest) {
+        double ex = eye.x, ey = eye.y, ez = eye.z;
+        dest.m00 = (float) (m00 - ex * m03); dest.m01 = (float) (m01 - ey * m03); dest.m02 = (float) (m02 - ez * m03); dest.m03 = (float) m03;
+        dest.m10 = (float) (m10 - ex * m13); dest.m11 = (float) (m11 - ey * m13); dest.m12 = (float) (m12 - ez * m13); dest.m13 = (float) m13;
+        dest.m20 = (float) (m20 - ex * m23); dest.m21 = (float) (m21 - ey * m23); dest.m22 = (float) (m22 - ez * m23); dest.m23 = (float) m23;
+        dest.m30 = (float) (m30 - ex * m33); dest.m31 = (float) (m31 - ey * m33); dest.m32 = (float) (m32 - ez * m33); dest.m33 = (float) m33;
+        return dest;
+    }
+
+    /**
+     * converts packed column-major double matrices to camera relative float matrices, see toFloat4x4RelativeToEye
+     * @param src packed matrices, 16 doubles each
+     * @param srcOffset index of the first element
+     * @param eye camera position
+     * @param dst packed float matrices, 16 floats each
+     * @param dstOffset index of the first element
+     * @param count number of matrices
+     * @return dst
+     */
+    public static float[] toRelativeToEye(double[] src, int srcOffset, double3 eye, float[] dst, int dstOffset, int count) {
+        double ex = eye.x, ey = eye.y, ez = eye.z;
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += 16, d += 16) {
+            for (int c = 0; c < 16; c += 4) {
+                double w = src[s + c + 3];
+                dst[d + c]     = (float) (src[s + c] - ex * w);
+                dst[d + c + 1] = (float) (src[s + c + 1] - ey * w);
+                dst[d + c + 2] = (float) (src[s + c + 2] - ez * w);
+                dst[d + c + 3] = (float) w;
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * converts packed column-major double matrices to camera relative float matrices, see toFloat4x4RelativeToEye
+     * absolute puts, the position of the buffer does not change
+     * @param src packed matrices, 16 doubles each
+     * @param srcOffset index of the first element
+     * @param eye camera position
+     * @param dst
+     * @param index float index of the first element
+     * @param count number of matrices
+     * @return dst
+     */
+    public static FloatBuffer toRelativeToEye(double[] src, int srcOffset, double3 eye, FloatBuffer dst, int index, int count) {
+        double ex = eye.x, ey = eye.y, ez = eye.z;
+        for (int i = 0, s = srcOffset, d = index; i < count; i++, s += 16, d += 16) {
+            for (int c = 0; c < 16; c += 4) {
+                double w = src[s + c + 3];
+                dst.put(d + c,     (float) (src[s + c] - ex * w));
+                dst.put(d + c + 1, (float) (src[s + c + 1] - ey * w));
+                dst.put(d + c + 2, (float) (src[s + c + 2] - ez * w));
+                dst.put(d + c + 3, (float) w);
+            }
+        }
+        return dst;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        return    m00 + " | " + m10 + " | " + m20 + " | " + m30 + "\n"
+                + m01 + " | " + m11 + " | " + m21 + " | " + m31 + "\n"
+                + m02 + " | " + m12 + " | " + m22 + " | " + m32 + "\n"
+                + m03 + " | " + m13 + " | " + m23 + " | " + m33;
+    }
+}
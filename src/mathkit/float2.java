@@ -52,6 +52,15 @@ public class float2 {
         this.y = u.y;
     }
 
+    /**
+     * builds a mutable copy of an immutable vector
+     * @param u
+     */
+    public float2(ifloat2 u){
+        this.x = u.x;
+        this.y = u.y;
+    }
+
     /* (non-Javadoc)
      * @see java.lang.Object#clone()
      */
@@ -68,6 +77,18 @@ public class float2 {
         return new float2(x * scalar, y * scalar);
     }
 
+    /**
+     * scales the vector by a factor
+     * @param scalar
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float2 multiply(float scalar, float2 dest){
+        dest.x = x * scalar;
+        dest.y = y * scalar;
+        return dest;
+    }
+
     /**
      * scales a vector by 2 factors
      * x * u.x
@@ -79,6 +100,18 @@ public class float2 {
         return new float2(x * u.x, y * u.y);
     }
 
+    /**
+     * scales a vector by 2 factors
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float2 multiply(float2 u, float2 dest){
+        dest.x = x * u.x;
+        dest.y = y * u.y;
+        return dest;
+    }
+
     /**
      * devides the vector by the x&y components
      * @param u
@@ -88,6 +121,18 @@ public class float2 {
         return new float2( x / u.x, y / u.y);
     }
 
+    /**
+     * devides the vector by the x&y components
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float2 divide(float2 u, float2 dest){
+        dest.x = x / u.x;
+        dest.y = y / u.y;
+        return dest;
+    }
+
     /**
      * scales the vector down (divides) by a factor
      * @param factor
@@ -98,6 +143,19 @@ public class float2 {
         return new float2(x * inv, y * inv);
     }
 
+    /**
+     * scales the vector down (divides) by a factor
+     * @param factor
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float2 divide(float factor, float2 dest){
+        float inv = 1.0f / factor;
+        dest.x = x * inv;
+        dest.y = y * inv;
+        return dest;
+    }
+
     /**
      * scales the vector 'locally'
      * does not return a new vector
@@ -132,6 +190,14 @@ public class float2 {
         scale(1 / length());
     }
 
+    /**
+     * normalized the vector 'locally'
+     * @param mode - inverse square root implementation
+     */
+    public void normalize(MathMode mode){
+        scale(mode.invSqrt(lengthSquared()));
+    }
+
     /**
      * changes the x & y components to the parameter vectors values
      * @param u float2
@@ -141,6 +207,15 @@ public class float2 {
         this.y = u.y;
     }
 
+    /**
+     * changes the x & y components to the parameter vectors values
+     * @param u ifloat2
+     */
+    public void set(ifloat2 u){
+        this.x = u.x;
+        this.y = u.y;
+    }
+
     /**
      * changes the x & y components to the parameters
      * @param x
@@ -173,11 +248,42 @@ public class float2 {
      * @return new float2
      */
     public float2 rotate(float angleInDegrees) {
-        float cs = (float) Math.cos(Constants.toRadians(angleInDegrees));
-        float sn = (float) Math.sin(Constants.toRadians(angleInDegrees));
+        return rotate(angleInDegrees, new float2());
+    }
+
+    /**
+     * rotates the vector by a given amout of degrees
+     * @param angleInDegrees - angle in degrees
+     * @param dest - receives the rotated vector, may be this
+     * @return dest
+     */
+    public float2 rotate(float angleInDegrees, float2 dest) {
+        double rad = Constants.toRadians(angleInDegrees);
+        float cs = (float) Math.cos(rad);
+        float sn = (float) Math.sin(rad);
+        float px = x * cs - y * sn;
+        float py = x * sn + y * cs;
+        dest.x = px;
+        dest.y = py;
+        return dest;
+    }
+
+    /**
+     * rotates the vector by a given amout of degrees
+     * @param angleInDegrees - angle in degrees
+     * @param dest - receives the rotated vector, may be this
+     * @param mode - trig implementation
+     * @return dest
+     */
+    public float2 rotate(float angleInDegrees, float2 dest, MathMode mode) {
+        float rad = mode.toRadians(angleInDegrees);
+        float cs = mode.cos(rad);
+        float sn = mode.sin(rad);
         float px = x * cs - y * sn;
         float py = x * sn + y * cs;
-        return new float2(px, py);
+        dest.x = px;
+        dest.y = py;
+        return dest;
     }
 
     /**
@@ -186,8 +292,22 @@ public class float2 {
      * @return new float2 reflection vector
      */
     public float2 reflect(float2 around){
-        float2 normal = around.normalized();
-        return normal.multiply((-2 * this.dot(normal))).add(this);
+        return reflect(around, new float2());
+    }
+
+    /**
+     * reflects the vector around a vector
+     * @param around - vector on which this vector will be reflected
+     * @param dest - receives the reflection, may be this or around
+     * @return dest
+     */
+    public float2 reflect(float2 around, float2 dest){
+        float inv = 1 / around.length();
+        float nx = around.x * inv, ny = around.y * inv;
+        float d = -2 * (x * nx + y * ny);
+        dest.x = nx * d + x;
+        dest.y = ny * d + y;
+        return dest;
     }
 
     /**
@@ -199,6 +319,18 @@ public class float2 {
         return new float2(x - u.x , y - u.y);
     }
 
+    /**
+     * subtracts vector u from this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float2 sub(float2 u, float2 dest) {
+        dest.x = x - u.x;
+        dest.y = y - u.y;
+        return dest;
+    }
+
     /**
      * adds vector u to this vector
      * @param u
@@ -208,6 +340,18 @@ public class float2 {
         return new float2(x + u.x, y + u.y);
     }
 
+    /**
+     * adds vector u to this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float2 add(float2 u, float2 dest) {
+        dest.x = x + u.x;
+        dest.y = y + u.y;
+        return dest;
+    }
+
     /**
      * creates the 2d cross product
      * source: http://stackoverflow.com/questions/243945/calculating-a-2d-vectors-cross-product
@@ -245,6 +389,16 @@ public class float2 {
         return (float) (Math.atan2(x * u.y - y * u.x, x * u.x + y * u.y) * Constants.ONE_OVER_180_PI);
     }
 
+    /**
+     * returns the angle between two vectors
+     * @param u
+     * @param mode - trig implementation
+     * @return float
+     */
+    public float angleBetween(float2 u, MathMode mode){
+        return mode.toDegrees(mode.atan2(x * u.y - y * u.x, x * u.x + y * u.y));
+    }
+
     /**
      * dot product definition
      * returns angle between two vectors
@@ -252,7 +406,9 @@ public class float2 {
      * @return float
      */
     public float angleBetween2(float2 u){
-        return (float) (Math.acos(this.normalized().dot(u.normalized())) * Constants.ONE_OVER_180_PI);
+        float ia = 1 / length(), ib = 1 / u.length();
+        float cos = (x * ia) * (u.x * ib) + (y * ia) * (u.y * ib);
+        return (float) (Math.acos(cos) * Constants.ONE_OVER_180_PI);
     }
 
     /**
@@ -277,9 +433,18 @@ public class float2 {
      * @return new float2
      */
     public float2 inversed(){
-        float2 res = new float2(this);
-        res.inverse();
-        return res;
+        return inversed(new float2());
+    }
+
+    /**
+     * returns the inversed vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float2 inversed(float2 dest){
+        dest.x = -x;
+        dest.y = -y;
+        return dest;
     }
 
     /**
@@ -287,9 +452,32 @@ public class float2 {
      * @return new float2
      */
     public float2 normalized(){
-        float2 res = new float2(this);
-        res.normalize();
-        return res;
+        return normalized(new float2());
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float2 normalized(float2 dest){
+        float inv = 1 / length();
+        dest.x = x * inv;
+        dest.y = y * inv;
+        return dest;
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @param mode - inverse square root implementation
+     * @return dest
+     */
+    public float2 normalized(float2 dest, MathMode mode){
+        float inv = mode.invSqrt(lengthSquared());
+        dest.x = x * inv;
+        dest.y = y * inv;
+        return dest;
     }
 
     /**
@@ -300,6 +488,63 @@ public class float2 {
         return new float[]{x, y};
     }
 
+    /**
+     * @return immutable copy, safe to share between threads
+     */
+    public ifloat2 toImmutable(){
+        return new ifloat2(x, y);
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first two selected channels, may be this
+     * @return dest
+     */
+    public float2 swizzle(int mask, float2 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3);
+        dest.x = a;
+        dest.y = b;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first three selected channels
+     * @return dest
+     */
+    public float3 swizzle(int mask, float3 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the four selected channels
+     * @return dest
+     */
+    public float4 swizzle(int mask, float4 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3), d = channel((mask >>> 6) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        dest.w = d;
+        return dest;
+    }
+
+    private float channel(int c){
+        switch (c) {
+            case 0: return x;
+            case 1: return y;
+            default: throw new IndexOutOfBoundsException("channel: " + c);
+        }
+    }
+
     /* float 2 */
     public float2 xx(){
         return new float2(x, x);
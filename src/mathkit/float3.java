@@ -55,6 +55,16 @@ public class float3 {
         this.z = u.z;
     }
 
+    /**
+     * builds a mutable copy of an immutable vector
+     * @param u
+     */
+    public float3(ifloat3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
     public float3(float2 xy) {
         x = xy.x;
         y = xy.y;
@@ -93,12 +103,29 @@ public class float3 {
      * @return surface normal vector
      */
     public float3 makeNormal(float3 u, float3 v) {
-        float3 p1 = u.sub(this);
-        float3 p2 = v.sub(this);
+        return makeNormal(u, v, new float3());
+    }
 
-        float3 normal = p1.cross(p2);
-        normal.normalize();
-        return normal;
+    /**
+     * creates surface normal vector
+     * @param u
+     * @param v
+     * @param dest - receives the normal, may be this, u or v
+     * @return dest
+     */
+    public float3 makeNormal(float3 u, float3 v, float3 dest) {
+        float p1x = u.x - x, p1y = u.y - y, p1z = u.z - z;
+        float p2x = v.x - x, p2y = v.y - y, p2z = v.z - z;
+
+        float nx = p1y * p2z - p1z * p2y;
+        float ny = p1z * p2x - p1x * p2z;
+        float nz = p1x * p2y - p1y * p2x;
+        float inv = 1 / (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+        dest.x = nx * inv;
+        dest.y = ny * inv;
+        dest.z = nz * inv;
+        return dest;
     }
 
     /**
@@ -112,21 +139,34 @@ public class float3 {
      * @return surface tangent vector
      */
     public float3 makeTangent(float3 u, float3 v, float2 u_texCoord, float2 v_texCoord, float2 texCoord_associated_with_this_Vertex) {
-        float3 v1 = u.sub(this);
-        float3 v2 = v.sub(this);
+        return makeTangent(u, v, u_texCoord, v_texCoord, texCoord_associated_with_this_Vertex, new float3());
+    }
 
-        float2 st1 = u_texCoord.sub(texCoord_associated_with_this_Vertex);
-        float2 st2 = v_texCoord.sub(texCoord_associated_with_this_Vertex);
+    /**
+     * creates surface tangent vector
+     * @param u
+     * @param v
+     * @param u_texCoord
+     * @param v_texCoord
+     * @param texCoord_associated_with_this_Vertex
+     * @param dest - receives the tangent, may be this, u or v
+     * @return dest
+     */
+    public float3 makeTangent(float3 u, float3 v, float2 u_texCoord, float2 v_texCoord, float2 texCoord_associated_with_this_Vertex, float3 dest) {
+        float v1x = u.x - x, v1y = u.y - y, v1z = u.z - z;
+        float v2x = v.x - x, v2y = v.y - y, v2z = v.z - z;
 
-        float coef = (float) (1.0 / (st1.x * st2.y - st2.x * st1.y));
+        float2 t = texCoord_associated_with_this_Vertex;
+        float st1x = u_texCoord.x - t.x, st1y = u_texCoord.y - t.y;
+        float st2x = v_texCoord.x - t.x, st2y = v_texCoord.y - t.y;
 
-        float3 tangent = new float3();
-        tangent.x = coef * ((v1.x * st2.y) + (v2.x * -st1.y));
-        tangent.y = coef * ((v1.y * st2.y) + (v2.y * -st1.y));
-        tangent.z = coef * ((v1.z * st2.y) + (v2.z * -st1.y));
-        tangent.normalize();
+        float coef = (float) (1.0 / (st1x * st2y - st2x * st1y));
 
-        return tangent;
+        dest.x = coef * ((v1x * st2y) + (v2x * -st1y));
+        dest.y = coef * ((v1y * st2y) + (v2y * -st1y));
+        dest.z = coef * ((v1z * st2y) + (v2z * -st1y));
+        dest.normalize();
+        return dest;
     }
 
     /**
@@ -174,6 +214,22 @@ public class float3 {
         return new float3(y * u.z - z * u.y, z * u.x - x * u.z, x * u.y - y * u.x);
     }
 
+    /**
+     * creates the 3d cross product between two vectors
+     * @param u
+     * @param dest - receives the cross product, may be this or u
+     * @return dest
+     */
+    public float3 cross(float3 u, float3 dest) {
+        float cx = y * u.z - z * u.y;
+        float cy = z * u.x - x * u.z;
+        float cz = x * u.y - y * u.x;
+        dest.x = cx;
+        dest.y = cy;
+        dest.z = cz;
+        return dest;
+    }
+
     /**
      * creates the dot product between two vectors
      * @param u
@@ -190,6 +246,14 @@ public class float3 {
         scale(1 / length());
     }
 
+    /**
+     * normalizes the vector locally
+     * @param mode - inverse square root implementation
+     */
+    public void normalize(MathMode mode) {
+        scale(mode.invSqrt(x * x + y * y + z * z));
+    }
+
     /**
      * subtracts vector u from this vector
      * @param u
@@ -199,6 +263,19 @@ public class float3 {
         return new float3(x - u.x, y - u.y, z - u.z);
     }
 
+    /**
+     * subtracts vector u from this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float3 sub(float3 u, float3 dest) {
+        dest.x = x - u.x;
+        dest.y = y - u.y;
+        dest.z = z - u.z;
+        return dest;
+    }
+
     /**
      * adds vector u to this vector
      * @param u
@@ -208,6 +285,19 @@ public class float3 {
         return new float3(x + u.x, y + u.y, z + u.z);
     }
 
+    /**
+     * adds vector u to this vector
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float3 add(float3 u, float3 dest) {
+        dest.x = x + u.x;
+        dest.y = y + u.y;
+        dest.z = z + u.z;
+        return dest;
+    }
+
     /**
      * scales the vector by a factor
      * @param scalar
@@ -217,6 +307,19 @@ public class float3 {
         return new float3(x * scalar, y * scalar, z * scalar);
     }
 
+    /**
+     * scales the vector by a factor
+     * @param scalar
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float3 multiply(float scalar, float3 dest) {
+        dest.x = x * scalar;
+        dest.y = y * scalar;
+        dest.z = z * scalar;
+        return dest;
+    }
+
     /**
      * scales a vector by 3 factors
      * @param u
@@ -226,6 +329,19 @@ public class float3 {
         return new float3(x * u.x, y * u.y, z * u.z);
     }
 
+    /**
+     * scales a vector by 3 factors
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float3 multiply(float3 u, float3 dest) {
+        dest.x = x * u.x;
+        dest.y = y * u.y;
+        dest.z = z * u.z;
+        return dest;
+    }
+
     /**
      * scales down (divides) the vector by 3 factors
      * @param u
@@ -235,6 +351,19 @@ public class float3 {
         return new float3(x / u.x, y / u.y, z / u.z);
     }
 
+    /**
+     * scales down (divides) the vector by 3 factors
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float3 divide(float3 u, float3 dest) {
+        dest.x = x / u.x;
+        dest.y = y / u.y;
+        dest.z = z / u.z;
+        return dest;
+    }
+
     /**
      * scales down (divides) the vector by 3 factors
      * @param factor
@@ -245,14 +374,43 @@ public class float3 {
         return new float3(x * inv, y * inv, z * inv);
     }
 
+    /**
+     * scales down (divides) the vector by a factor
+     * @param factor
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float3 divide(float factor, float3 dest) {
+        float inv = 1.0f / factor;
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        return dest;
+    }
+
     /**
      * reflects the vector around a vector
      * @param around - vector on which this vector will be reflected
      * @return new float3
      */
     public float3 reflect(float3 around){
-        float3 normal = around.normalized();
-        return normal.multiply((-2 * this.dot(normal))).add(this);
+        return reflect(around, new float3());
+    }
+
+    /**
+     * reflects the vector around a vector
+     * @param around - vector on which this vector will be reflected
+     * @param dest - receives the reflection, may be this or around
+     * @return dest
+     */
+    public float3 reflect(float3 around, float3 dest){
+        float inv = 1 / around.length();
+        float nx = around.x * inv, ny = around.y * inv, nz = around.z * inv;
+        float d = -2 * (x * nx + y * ny + z * nz);
+        dest.x = nx * d + x;
+        dest.y = ny * d + y;
+        dest.z = nz * d + z;
+        return dest;
     }
 
     /**
@@ -269,9 +427,19 @@ public class float3 {
      * @return new float3
      */
     public float3 inversed() {
-        float3 res = new float3(this);
-        res.inverse();
-        return res;
+        return inversed(new float3());
+    }
+
+    /**
+     * returns the inversed vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float3 inversed(float3 dest) {
+        dest.x = -x;
+        dest.y = -y;
+        dest.z = -z;
+        return dest;
     }
 
     /**
@@ -279,9 +447,34 @@ public class float3 {
      * @return new float3
      */
     public float3 normalized() {
-        float3 res = new float3(this);
-        res.normalize();
-        return res;
+        return normalized(new float3());
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float3 normalized(float3 dest) {
+        float inv = 1 / length();
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        return dest;
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @param mode - inverse square root implementation
+     * @return dest
+     */
+    public float3 normalized(float3 dest, MathMode mode) {
+        float inv = mode.invSqrt(x * x + y * y + z * z);
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        return dest;
     }
 
     /**
@@ -293,6 +486,16 @@ public class float3 {
         return n.multiply(dot(n)/n.dot(n));
     }
 
+    /**
+     * projects this vector onto another
+     * @param n
+     * @param dest - receives the projected vector, may be this or n
+     * @return dest
+     */
+    public float3 projectOnto(float3 n, float3 dest){
+        return n.multiply(dot(n)/n.dot(n), dest);
+    }
+
 	/* dot product definition */
     /**
      * returns the angle between two vectors
@@ -303,6 +506,17 @@ public class float3 {
         return (float) (Math.acos((dot(u) / (length() * u.length()))) * Constants.ONE_OVER_180_PI);
     }
 
+    /**
+     * returns the angle between two vectors
+     * @param u
+     * @param mode - trig implementation
+     * @return float (angle between 2 vectors)
+     */
+    public float angleBetween(float3 u, MathMode mode) {
+        float lengths = (x * x + y * y + z * z) * (u.x * u.x + u.y * u.y + u.z * u.z);
+        return mode.toDegrees(mode.acos(dot(u) * mode.invSqrt(lengths)));
+    }
+
     /**
      * returns the distance between 2 vectors
      * @param u
@@ -344,6 +558,16 @@ public class float3 {
         this.z = u.z;
     }
 
+    /**
+     * changes the vectors value to the parameter vectors values locally
+     * @param u
+     */
+    public void set(ifloat3 u) {
+        this.x = u.x;
+        this.y = u.y;
+        this.z = u.z;
+    }
+
     /**
      * changes the x component
      * @param x
@@ -376,6 +600,64 @@ public class float3 {
         return new float[] { x, y, z };
     }
 
+    /**
+     * @return immutable copy, safe to share between threads
+     */
+    public ifloat3 toImmutable() {
+        return new ifloat3(x, y, z);
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first two selected channels
+     * @return dest
+     */
+    public float2 swizzle(int mask, float2 dest) {
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3);
+        dest.x = a;
+        dest.y = b;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first three selected channels, may be this
+     * @return dest
+     */
+    public float3 swizzle(int mask, float3 dest) {
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the four selected channels
+     * @return dest
+     */
+    public float4 swizzle(int mask, float4 dest) {
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3), d = channel((mask >>> 6) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        dest.w = d;
+        return dest;
+    }
+
+    private float channel(int c) {
+        switch (c) {
+            case 0: return x;
+            case 1: return y;
+            case 2: return z;
+            default: throw new IndexOutOfBoundsException("channel: " + c);
+        }
+    }
+
     /* float 2 */
     public float2 xx() {
         return new float2(x, x);
@@ -463,7 +745,7 @@ public class float3 {
     }
 
     public float3 xzy() {
-        return new float3(x, y, z);
+        return new float3(x, z, y);
     }
 
     public float3 yzx() {
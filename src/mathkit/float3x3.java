@@ -43,7 +43,10 @@ import java.nio.FloatBuffer;
  */
 
 public class float3x3 {
-    public float m[][] = new float[3][3];
+    /* element mCR = column C, row R */
+    public float m00, m01, m02;
+    public float m10, m11, m12;
+    public float m20, m21, m22;
 
     public float3x3(){
         setIdentity();
@@ -57,9 +60,9 @@ public class float3x3 {
      * @param row2
      */
     public float3x3(float3 row0, float3 row1, float3 row2){
-        m[0][0] = row0.x;  m[1][0] = row0.y;  m[2][0] = row0.z;
-        m[0][1] = row1.x;  m[1][1] = row1.y;  m[2][1] = row1.z;
-        m[0][2] = row2.x;  m[1][2] = row2.y;  m[2][2] = row2.z;
+        m00 = row0.x;  m10 = row0.y;  m20 = row0.z;
+        m01 = row1.x;  m11 = row1.y;  m21 = row1.z;
+        m02 = row2.x;  m12 = row2.y;  m22 = row2.z;
     }
 
     /**
@@ -67,9 +70,9 @@ public class float3x3 {
      * @param mat
      */
     public float3x3(float mat[]){
-        m[0][0] = mat[0];  m[1][0] = mat[3]; m[2][0] = mat[6];
-        m[0][1] = mat[1];  m[1][1] = mat[4]; m[2][1] = mat[7];
-        m[0][2] = mat[2];  m[1][2] = mat[5]; m[2][2] = mat[8];
+        m00 = mat[0];  m10 = mat[3]; m20 = mat[6];
+        m01 = mat[1];  m11 = mat[4]; m21 = mat[7];
+        m02 = mat[2];  m12 = mat[5]; m22 = mat[8];
     }
 
     /**
@@ -78,7 +81,15 @@ public class float3x3 {
      * @param mat
      */
     public float3x3(float3x3 mat){
-        this.m = mat.m.clone();
+        set(mat);
+    }
+
+    /**
+     * builds a mutable copy of an immutable 3x3 matrix
+     * @param mat
+     */
+    public float3x3(ifloat3x3 mat){
+        mat.get(this);
     }
 
     /**
@@ -87,9 +98,9 @@ public class float3x3 {
      * @param mat
      */
     public float3x3(float4x4 mat){
-        m[0][0] = mat.m[0][0]; m[1][0] = mat.m[1][0]; m[2][0] = mat.m[2][0];
-        m[0][1] = mat.m[0][1]; m[1][1] = mat.m[1][1]; m[2][1] = mat.m[2][1];
-        m[0][2] = mat.m[0][2]; m[1][2] = mat.m[1][2]; m[2][2] = mat.m[2][2];
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22;
     }
 
     /**
@@ -98,7 +109,66 @@ public class float3x3 {
      * @param mat
      */
     public void set(float3x3 mat){
-        this.m = mat.m.clone();
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22;
+    }
+
+    /**
+     * changes the values from this matrix,
+     * to the values of the parameter matrix
+     * @param mat
+     */
+    public void set(ifloat3x3 mat){
+        mat.get(this);
+    }
+
+    /**
+     * returns a single matrix element
+     * replaces the former m[column][row] access
+     * @param column 0 - 2
+     * @param row 0 - 2
+     * @return element value
+     */
+    public float get(int column, int row){
+        if (column < 0 || column > 2 || row < 0 || row > 2) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch (column * 3 + row) {
+            case 0: return m00;
+            case 1: return m01;
+            case 2: return m02;
+            case 3: return m10;
+            case 4: return m11;
+            case 5: return m12;
+            case 6: return m20;
+            case 7: return m21;
+            default: return m22;
+        }
+    }
+
+    /**
+     * changes a single matrix element
+     * replaces the former m[column][row] = value access
+     * @param column 0 - 2
+     * @param row 0 - 2
+     * @param value new element value
+     */
+    public void set(int column, int row, float value){
+        if (column < 0 || column > 2 || row < 0 || row > 2) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch (column * 3 + row) {
+            case 0: m00 = value; break;
+            case 1: m01 = value; break;
+            case 2: m02 = value; break;
+            case 3: m10 = value; break;
+            case 4: m11 = value; break;
+            case 5: m12 = value; break;
+            case 6: m20 = value; break;
+            case 7: m21 = value; break;
+            case 8: m22 = value; break;
+        }
     }
 
     /**
@@ -106,9 +176,9 @@ public class float3x3 {
      */
 
     public void setIdentity(){
-        m[0][0] = 1.0f; m[1][0] = 0.0f; m[2][0] = 0.0f;
-        m[0][1] = 0.0f; m[1][1] = 1.0f; m[2][1] = 0.0f;
-        m[0][2] = 0.0f; m[1][2] = 0.0f; m[2][2] = 1.0f;
+        m00 = 1.0f; m10 = 0.0f; m20 = 0.0f;
+        m01 = 0.0f; m11 = 1.0f; m21 = 0.0f;
+        m02 = 0.0f; m12 = 0.0f; m22 = 1.0f;
     }
 
     /**
@@ -116,7 +186,7 @@ public class float3x3 {
      * @return x components as a 3d vector
      */
     public float3 getColumn0(){
-        return new float3(m[0][0], m[0][1], m[0][2]);
+        return new float3(m00, m01, m02);
     }
 
     /**
@@ -124,7 +194,7 @@ public class float3x3 {
      * @return y components as a 3d vector
      */
     public float3 getColumn1(){
-        return new float3(m[1][0], m[1][1], m[1][2]);
+        return new float3(m10, m11, m12);
     }
 
     /**
@@ -132,7 +202,7 @@ public class float3x3 {
      * @return z components as a 3d vector
      */
     public float3 getColumn2(){
-        return new float3(m[2][0], m[2][1], m[2][2]);
+        return new float3(m20, m21, m22);
     }
 
     /**
@@ -140,7 +210,7 @@ public class float3x3 {
      * @return  0th row as a 3d vector
      */
     public float3 getRow0(){
-        return new float3(m[0][0], m[1][0], m[2][0]);
+        return new float3(m00, m10, m20);
     }
 
     /**
@@ -148,7 +218,7 @@ public class float3x3 {
      * @return 1st row as a 3d vector
      */
     public float3 getRow1(){
-        return new float3(m[0][1], m[1][1], m[2][1]);
+        return new float3(m01, m11, m21);
     }
 
     /**
@@ -156,7 +226,7 @@ public class float3x3 {
      * @return 2nd row as a 3d vector
      */
     public float3 getRow2(){
-        return new float3(m[0][2], m[1][2], m[2][2]);
+        return new float3(m02, m12, m22);
     }
 
     /**
@@ -164,9 +234,9 @@ public class float3x3 {
      * @param column0 float3
      */
     public void setColumn0(float3 column0){
-        m[0][0] = column0.x;
-        m[0][1] = column0.y;
-        m[0][2] = column0.z;
+        m00 = column0.x;
+        m01 = column0.y;
+        m02 = column0.z;
     }
 
     /**
@@ -174,9 +244,9 @@ public class float3x3 {
      * @param column1 float3
      */
     public void setColumn1(float3 column1){
-        m[1][0] = column1.x;
-        m[1][1] = column1.y;
-        m[1][2] = column1.z;
+        m10 = column1.x;
+        m11 = column1.y;
+        m12 = column1.z;
     }
 
     /**
@@ -184,9 +254,9 @@ public class float3x3 {
      * @param column2 float3
      */
     public void setColumn2(float3 column2){
-        m[2][0] = column2.x;
-        m[2][1] = column2.y;
-        m[2][2] = column2.z;
+        m20 = column2.x;
+        m21 = column2.y;
+        m22 = column2.z;
     }
 
     /**
@@ -194,9 +264,9 @@ public class float3x3 {
      * @param row0 float3
      */
     public void setRow0(float3 row0){
-        m[0][0] = row0.x;
-        m[1][0] = row0.y;
-        m[2][0] = row0.z;
+        m00 = row0.x;
+        m10 = row0.y;
+        m20 = row0.z;
     }
 
     /**
@@ -204,9 +274,9 @@ public class float3x3 {
      * @param row1 float3
      */
     public void setRow1(float3 row1){
-        m[0][1] = row1.x;
-        m[1][1] = row1.y;
-        m[2][1] = row1.z;
+        m01 = row1.x;
+        m11 = row1.y;
+        m21 = row1.z;
     }
 
     /**
@@ -214,9 +284,9 @@ public class float3x3 {
      * @param row2 float3
      */
     public void setRow2(float3 row2){
-        m[0][2] = row2.x;
-        m[1][2] = row2.y;
-        m[2][2] = row2.z;
+        m02 = row2.x;
+        m12 = row2.y;
+        m22 = row2.z;
     }
 
     /**
@@ -224,7 +294,21 @@ public class float3x3 {
      * @return transposed matrix
      */
     public float3x3 transpose(){
-        return new float3x3(getColumn0(), getColumn1(), getColumn2());
+        return transpose(new float3x3());
+    }
+
+    /**
+     * writes the transposed matrix into dest
+     * @param dest - receives the transposed matrix, may be this
+     * @return dest
+     */
+    public float3x3 transpose(float3x3 dest){
+        float t;
+        dest.m00 = m00; dest.m11 = m11; dest.m22 = m22;
+        t = m01; dest.m01 = m10; dest.m10 = t;
+        t = m02; dest.m02 = m20; dest.m20 = t;
+        t = m12; dest.m12 = m21; dest.m21 = t;
+        return dest;
     }
 
     /**
@@ -244,11 +328,37 @@ public class float3x3 {
      * @return (this * mat)
      */
     public float3x3 multiply(float3x3 mat){
-        float3 row0 = new float3(getRow0().dot(mat.getColumn0()), getRow0().dot(mat.getColumn1()), getRow0().dot(mat.getColumn2()));
-        float3 row1 = new float3(getRow1().dot(mat.getColumn0()), getRow1().dot(mat.getColumn1()), getRow1().dot(mat.getColumn2()));
-        float3 row2 = new float3(getRow2().dot(mat.getColumn0()), getRow2().dot(mat.getColumn1()), getRow2().dot(mat.getColumn2()));
+        return multiply(mat, new float3x3());
+    }
 
-        return new float3x3(row0, row1, row2);
+    /**
+     * matrix multiplication
+     * @param mat
+     * @param dest - receives (this * mat), may be this or mat
+     * @return dest
+     */
+    public float3x3 multiply(float3x3 mat, float3x3 dest){
+        /* load this first, so dest may alias this. mat is consumed column by column, so dest may alias mat */
+        float a00 = m00, a01 = m01, a02 = m02;
+        float a10 = m10, a11 = m11, a12 = m12;
+        float a20 = m20, a21 = m21, a22 = m22;
+
+        float b0 = mat.m00, b1 = mat.m01, b2 = mat.m02;
+        dest.m00 = a00 * b0 + a10 * b1 + a20 * b2;
+        dest.m01 = a01 * b0 + a11 * b1 + a21 * b2;
+        dest.m02 = a02 * b0 + a12 * b1 + a22 * b2;
+
+        b0 = mat.m10; b1 = mat.m11; b2 = mat.m12;
+        dest.m10 = a00 * b0 + a10 * b1 + a20 * b2;
+        dest.m11 = a01 * b0 + a11 * b1 + a21 * b2;
+        dest.m12 = a02 * b0 + a12 * b1 + a22 * b2;
+
+        b0 = mat.m20; b1 = mat.m21; b2 = mat.m22;
+        dest.m20 = a00 * b0 + a10 * b1 + a20 * b2;
+        dest.m21 = a01 * b0 + a11 * b1 + a21 * b2;
+        dest.m22 = a02 * b0 + a12 * b1 + a22 * b2;
+
+        return dest;
     }
 
     /**
@@ -257,7 +367,21 @@ public class float3x3 {
      * @return (mat * vector)
      */
     public float3 multiply(float3 v){
-        return new float3(v.dot(getRow0()), v.dot(getRow1()), v.dot(getRow2()));
+        return multiply(v, new float3());
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float3 multiply(float3 v, float3 dest){
+        float x = v.x, y = v.y, z = v.z;
+        dest.x = m00 * x + m10 * y + m20 * z;
+        dest.y = m01 * x + m11 * y + m21 * z;
+        dest.z = m02 * x + m12 * y + m22 * z;
+        return dest;
     }
 
     /**
@@ -266,19 +390,27 @@ public class float3x3 {
      * @return scaled matrix
      */
     public float3x3 multiply(float scalar){
-        float3x3 result = new float3x3();
+        return multiply(scalar, new float3x3());
+    }
 
-        result.m[0][0] = m[0][0] * scalar;
-        result.m[0][1] = m[0][1] * scalar;
-        result.m[0][2] = m[0][2] * scalar;
+    /**
+     * multiplies the whole matrix componentwise by a scalar
+     * @param scalar
+     * @param result - receives the scaled matrix, may be this
+     * @return result
+     */
+    public float3x3 multiply(float scalar, float3x3 result){
+        result.m00 = m00 * scalar;
+        result.m01 = m01 * scalar;
+        result.m02 = m02 * scalar;
 
-        result.m[1][0] = m[1][0] * scalar;
-        result.m[1][1] = m[1][1] * scalar;
-        result.m[1][2] = m[1][2] * scalar;
+        result.m10 = m10 * scalar;
+        result.m11 = m11 * scalar;
+        result.m12 = m12 * scalar;
 
-        result.m[2][0] = m[2][0] * scalar;
-        result.m[2][1] = m[2][1] * scalar;
-        result.m[2][2] = m[2][2] * scalar;
+        result.m20 = m20 * scalar;
+        result.m21 = m21 * scalar;
+        result.m22 = m22 * scalar;
 
         return result;
     }
@@ -288,10 +420,14 @@ public class float3x3 {
      * @return float array
      */
     public float[] toFloat(){
-        float[] c0 = getColumn0().toFloat();
-        float[] c1 = getColumn1().toFloat();
-        float[] c2 = getColumn2().toFloat();
-        return new float[] { c0[0], c0[1], c0[2], c1[0], c1[1], c1[2], c2[0], c2[1], c2[2] };
+        return new float[] { m00, m01, m02, m10, m11, m12, m20, m21, m22 };
+    }
+
+    /**
+     * @return immutable copy, safe to share between threads
+     */
+    public ifloat3x3 toImmutable(){
+        return new ifloat3x3(this);
     }
 
     /**
@@ -300,18 +436,109 @@ public class float3x3 {
      * @return float buffer
      */
     public FloatBuffer toBuffer(){
-        FloatBuffer buffer = ByteBuffer.allocateDirect(9 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
-        buffer.put(toFloat());
-        buffer.flip();
-        return buffer;
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.FLOAT3X3_TO_BUFFER);
+            Instrumentation.allocated(Instrumentation.Op.FLOAT3X3_TO_BUFFER, Instrumentation.DIRECT_FLOAT_BUFFER_OBJECTS, Instrumentation.DIRECT_FLOAT_BUFFER_BYTES);
+            Instrumentation.allocatedNative(Instrumentation.Op.FLOAT3X3_TO_BUFFER, 9 << 2);
+        }
+        return writeTo(ByteBuffer.allocateDirect(9 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer(), 0);
+    }
+
+    /**
+     * writes this matrix column after column into an array
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public float[] writeTo(float[] dst, int offset){
+        dst[offset]     = m00; dst[offset + 1] = m01; dst[offset + 2] = m02;
+        dst[offset + 3] = m10; dst[offset + 4] = m11; dst[offset + 5] = m12;
+        dst[offset + 6] = m20; dst[offset + 7] = m21; dst[offset + 8] = m22;
+        return dst;
+    }
+
+    /**
+     * writes this matrix column after column into an existing buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public FloatBuffer writeTo(FloatBuffer dst, int index){
+        dst.put(index,     m00); dst.put(index + 1, m01); dst.put(index + 2, m02);
+        dst.put(index + 3, m10); dst.put(index + 4, m11); dst.put(index + 5, m12);
+        dst.put(index + 6, m20); dst.put(index + 7, m21); dst.put(index + 8, m22);
+        return dst;
+    }
+
+    /**
+     * writes this matrix column after column into an existing buffer, using the byte order of the buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param byteOffset byte offset of the first element
+     * @return dst
+     */
+    public ByteBuffer writeTo(ByteBuffer dst, int byteOffset){
+        dst.putFloat(byteOffset,      m00); dst.putFloat(byteOffset + 4,  m01); dst.putFloat(byteOffset + 8,  m02);
+        dst.putFloat(byteOffset + 12, m10); dst.putFloat(byteOffset + 16, m11); dst.putFloat(byteOffset + 20, m12);
+        dst.putFloat(byteOffset + 24, m20); dst.putFloat(byteOffset + 28, m21); dst.putFloat(byteOffset + 32, m22);
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (9 floats each) into an existing buffer
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public static FloatBuffer writeTo(float3x3[] matrices, int from, int count, FloatBuffer dst, int index){
+        for (int i = 0; i < count; i++, index += 9) {
+            matrices[from + i].writeTo(dst, index);
+        }
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (36 bytes each) into an existing buffer
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param byteOffset byte offset of the first element
+     * @return dst
+     */
+    public static ByteBuffer writeTo(float3x3[] matrices, int from, int count, ByteBuffer dst, int byteOffset){
+        for (int i = 0; i < count; i++, byteOffset += 36) {
+            matrices[from + i].writeTo(dst, byteOffset);
+        }
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (9 floats each) into an array
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public static float[] writeTo(float3x3[] matrices, int from, int count, float[] dst, int offset){
+        for (int i = 0; i < count; i++, offset += 9) {
+            matrices[from + i].writeTo(dst, offset);
+        }
+        return dst;
     }
 
     /* (non-Javadoc)
      * @see java.lang.Object#toString()
      */
     public String toString() {
-        return    m[0][0] + " | " + m[1][0] + " | " + m[2][0] + "\n"
-                + m[0][1] + " | " + m[1][1] + " | " + m[2][1] + "\n"
-                + m[0][2] + " | " + m[1][2] + " | " + m[2][2];
+        return    m00 + " | " + m10 + " | " + m20 + "\n"
+                + m01 + " | " + m11 + " | " + m21 + "\n"
+                + m02 + " | " + m12 + " | " + m22;
     }
 }
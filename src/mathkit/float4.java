@@ -46,6 +46,17 @@ public class float4 {
         this.w = xyzw.w;
     }
 
+    /**
+     * builds a mutable copy of an immutable vector
+     * @param xyzw
+     */
+    public float4(ifloat4 xyzw){
+        this.x = xyzw.x;
+        this.y = xyzw.y;
+        this.z = xyzw.z;
+        this.w = xyzw.w;
+    }
+
     public float4(float2 xy, float2 zw){
         this.x = xy.x;
         this.y = xy.y;
@@ -89,9 +100,20 @@ public class float4 {
      * @return inversed vector
      */
     public float4 inversed(){
-        float4 res = new float4(this);
-        res.inverse();
-        return res;
+        return inversed(new float4());
+    }
+
+    /**
+     * returns the inversed vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float4 inversed(float4 dest){
+        dest.x = -x;
+        dest.y = -y;
+        dest.z = -z;
+        dest.w = -w;
+        return dest;
     }
 
     /**
@@ -99,9 +121,36 @@ public class float4 {
      * @return normalized vector
      */
     public float4 normalized(){
-        float4 res = new float4(this);
-        res.normalize();
-        return res;
+        return normalized(new float4());
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float4 normalized(float4 dest){
+        float inv = 1 / length();
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        dest.w = w * inv;
+        return dest;
+    }
+
+    /**
+     * returns the normalized vector
+     * @param dest - receives the result, may be this
+     * @param mode - inverse square root implementation
+     * @return dest
+     */
+    public float4 normalized(float4 dest, MathMode mode){
+        float inv = mode.invSqrt(x * x + y * y + z * z + w * w);
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        dest.w = w * inv;
+        return dest;
     }
 
     /**
@@ -124,6 +173,20 @@ public class float4 {
         return new float4(x * scalar, y * scalar, z * scalar, w *scalar);
     }
 
+    /**
+     * scales the vector by a factor
+     * @param scalar
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float4 multiply(float scalar, float4 dest){
+        dest.x = x * scalar;
+        dest.y = y * scalar;
+        dest.z = z * scalar;
+        dest.w = w * scalar;
+        return dest;
+    }
+
     /**
      * multiplies vector * vector componentwise
      * @param u
@@ -133,6 +196,20 @@ public class float4 {
         return new float4(x * u.x, y * u.y, z * u.z, w * u.w);
     }
 
+    /**
+     * multiplies vector * vector componentwise
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float4 multiply(float4 u, float4 dest){
+        dest.x = x * u.x;
+        dest.y = y * u.y;
+        dest.z = z * u.z;
+        dest.w = w * u.w;
+        return dest;
+    }
+
     /**
      * divides vector componentwise
      * @param u
@@ -142,6 +219,20 @@ public class float4 {
         return new float4( x / u.x, y /u.y, z /u.z, w / u.w);
     }
 
+    /**
+     * divides vector componentwise
+     * @param u
+     * @param dest - receives the result, may be this or u
+     * @return dest
+     */
+    public float4 divide(float4 u, float4 dest){
+        dest.x = x / u.x;
+        dest.y = y / u.y;
+        dest.z = z / u.z;
+        dest.w = w / u.w;
+        return dest;
+    }
+
     /**
      * scales down/divides vector by a scalar
      * @param factor
@@ -152,6 +243,21 @@ public class float4 {
         return new float4(x * inv, y * inv, z * inv, w * inv);
     }
 
+    /**
+     * scales down/divides vector by a scalar
+     * @param factor
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public float4 divide(float factor, float4 dest){
+        float inv = 1.0f / factor;
+        dest.x = x * inv;
+        dest.y = y * inv;
+        dest.z = z * inv;
+        dest.w = w * inv;
+        return dest;
+    }
+
     /**
      * normalizes the vector locally
      */
@@ -159,6 +265,14 @@ public class float4 {
         scale(1/length());
     }
 
+    /**
+     * normalizes the vector locally
+     * @param mode - inverse square root implementation
+     */
+    public void normalize(MathMode mode){
+        scale(mode.invSqrt(x * x + y * y + z * z + w * w));
+    }
+
     /**
      * returns the length of the vector
      * @return vector length
@@ -192,6 +306,65 @@ public class float4 {
         return new float[]{x, y, z, w};
     }
 
+    /**
+     * @return immutable copy, safe to share between threads
+     */
+    public ifloat4 toImmutable(){
+        return new ifloat4(x, y, z, w);
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first two selected channels
+     * @return dest
+     */
+    public float2 swizzle(int mask, float2 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3);
+        dest.x = a;
+        dest.y = b;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the first three selected channels
+     * @return dest
+     */
+    public float3 swizzle(int mask, float3 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        return dest;
+    }
+
+    /**
+     * copies the channels selected by a Swizzle mask into dest
+     * @param mask - see Swizzle
+     * @param dest - receives the four selected channels, may be this
+     * @return dest
+     */
+    public float4 swizzle(int mask, float4 dest){
+        float a = channel(mask & 3), b = channel((mask >>> 2) & 3), c = channel((mask >>> 4) & 3), d = channel((mask >>> 6) & 3);
+        dest.x = a;
+        dest.y = b;
+        dest.z = c;
+        dest.w = d;
+        return dest;
+    }
+
+    private float channel(int c){
+        switch (c) {
+            case 0: return x;
+            case 1: return y;
+            case 2: return z;
+            case 3: return w;
+            default: throw new IndexOutOfBoundsException("channel: " + c);
+        }
+    }
+
     public float3 xyz(){
         return new float3(x, y, z);
     }
@@ -44,7 +44,11 @@ import java.nio.FloatBuffer;
  */
 
 public class float4x4 {
-    public float m[][] = new float[4][4];
+    /* element mCR = column C, row R */
+    public float m00, m01, m02, m03;
+    public float m10, m11, m12, m13;
+    public float m20, m21, m22, m23;
+    public float m30, m31, m32, m33;
 
     /**
      * builds identity 4x4 matrix
@@ -63,10 +67,10 @@ public class float4x4 {
      * @param row3
      */
     public float4x4(float4 row0, float4 row1, float4 row2, float4 row3) {
-        m[0][0] = row0.x; m[1][0] = row0.y; m[2][0] = row0.z; m[3][0] = row0.w;
-        m[0][1] = row1.x; m[1][1] = row1.y; m[2][1] = row1.z; m[3][1] = row1.w;
-        m[0][2] = row2.x; m[1][2] = row2.y; m[2][2] = row2.z; m[3][2] = row2.w;
-        m[0][3] = row3.x; m[1][3] = row3.y; m[2][3] = row3.z; m[3][3] = row3.w;
+        m00 = row0.x; m10 = row0.y; m20 = row0.z; m30 = row0.w;
+        m01 = row1.x; m11 = row1.y; m21 = row1.z; m31 = row1.w;
+        m02 = row2.x; m12 = row2.y; m22 = row2.z; m32 = row2.w;
+        m03 = row3.x; m13 = row3.y; m23 = row3.z; m33 = row3.w;
     }
 
     /**
@@ -74,7 +78,15 @@ public class float4x4 {
      * @param mat
      */
     public float4x4(float4x4 mat) {
-        this.m = mat.m.clone();
+        set(mat);
+    }
+
+    /**
+     * builds a mutable copy of an immutable 4x4 matrix
+     * @param mat
+     */
+    public float4x4(ifloat4x4 mat) {
+        mat.get(this);
     }
 
     /**
@@ -83,10 +95,10 @@ public class float4x4 {
      * @param mat
      */
     public float4x4(float3x3 mat) {
-        m[0][0] = mat.m[0][0];  m[1][0] = mat.m[1][0];  m[2][0] = mat.m[2][0];  m[3][0] = 0.0f;
-        m[0][1] = mat.m[0][1];  m[1][1] = mat.m[1][1];  m[2][1] = mat.m[2][1];  m[3][1] = 0.0f;
-        m[0][2] = mat.m[0][2];  m[1][2] = mat.m[1][2];  m[2][2] = mat.m[2][2];  m[3][2] = 0.0f;
-        m[0][3] = 0.0f;         m[1][3] = 0.0f;         m[2][3] = 0.0f;         m[3][3] = 1.0f;
+        m00 = mat.m00;  m10 = mat.m10;  m20 = mat.m20;  m30 = 0.0f;
+        m01 = mat.m01;  m11 = mat.m11;  m21 = mat.m21;  m31 = 0.0f;
+        m02 = mat.m02;  m12 = mat.m12;  m22 = mat.m22;  m32 = 0.0f;
+        m03 = 0.0f;         m13 = 0.0f;         m23 = 0.0f;         m33 = 1.0f;
     }
 
     /**
@@ -94,7 +106,80 @@ public class float4x4 {
      * @param mat
      */
     public void set(float4x4 mat) {
-       this.m = mat.m.clone();
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20; m30 = mat.m30;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21; m31 = mat.m31;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22; m32 = mat.m32;
+        m03 = mat.m03; m13 = mat.m13; m23 = mat.m23; m33 = mat.m33;
+    }
+
+    /**
+     * copies over values from given immutable 4x4 matrix to this
+     * @param mat
+     */
+    public void set(ifloat4x4 mat) {
+        mat.get(this);
+    }
+
+    /**
+     * returns a single matrix element
+     * replaces the former m[column][row] access
+     * @param column 0 - 3
+     * @param row 0 - 3
+     * @return element value
+     */
+    public float get(int column, int row) {
+        if (column < 0 || column > 3 || row < 0 || row > 3) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch ((column << 2) | row) {
+            case 0:  return m00;
+            case 1:  return m01;
+            case 2:  return m02;
+            case 3:  return m03;
+            case 4:  return m10;
+            case 5:  return m11;
+            case 6:  return m12;
+            case 7:  return m13;
+            case 8:  return m20;
+            case 9:  return m21;
+            case 10: return m22;
+            case 11: return m23;
+            case 12: return m30;
+            case 13: return m31;
+            case 14: return m32;
+            default: return m33;
+        }
+    }
+
+    /**
+     * changes a single matrix element
+     * replaces the former m[column][row] = value access
+     * @param column 0 - 3
+     * @param row 0 - 3
+     * @param value new element value
+     */
+    public void set(int column, int row, float value) {
+        if (column < 0 || column > 3 || row < 0 || row > 3) {
+            throw new IndexOutOfBoundsException("column: " + column + " row: " + row);
+        }
+        switch ((column << 2) | row) {
+            case 0:  m00 = value; break;
+            case 1:  m01 = value; break;
+            case 2:  m02 = value; break;
+            case 3:  m03 = value; break;
+            case 4:  m10 = value; break;
+            case 5:  m11 = value; break;
+            case 6:  m12 = value; break;
+            case 7:  m13 = value; break;
+            case 8:  m20 = value; break;
+            case 9:  m21 = value; break;
+            case 10: m22 = value; break;
+            case 11: m23 = value; break;
+            case 12: m30 = value; break;
+            case 13: m31 = value; break;
+            case 14: m32 = value; break;
+            case 15: m33 = value; break;
+        }
     }
 
     /**
@@ -102,10 +187,10 @@ public class float4x4 {
      * @param mat
      */
     public float4x4(float[] mat) {
-        this.m[0][0] = mat[0]; this.m[1][0] = mat[4]; this.m[2][0] = mat[8];   this.m[3][0] = mat[12];
-        this.m[0][1] = mat[1]; this.m[1][1] = mat[5]; this.m[2][1] = mat[9];   this.m[3][1] = mat[13];
-        this.m[0][2] = mat[2]; this.m[1][2] = mat[6]; this.m[2][2] = mat[10];  this.m[3][2] = mat[14];
-        this.m[0][3] = mat[3]; this.m[1][3] = mat[7]; this.m[2][3] = mat[11];  this.m[3][3] = mat[15];
+        this.m00 = mat[0]; this.m10 = mat[4]; this.m20 = mat[8];   this.m30 = mat[12];
+        this.m01 = mat[1]; this.m11 = mat[5]; this.m21 = mat[9];   this.m31 = mat[13];
+        this.m02 = mat[2]; this.m12 = mat[6]; this.m22 = mat[10];  this.m32 = mat[14];
+        this.m03 = mat[3]; this.m13 = mat[7]; this.m23 = mat[11];  this.m33 = mat[15];
     }
 
     /**
@@ -113,7 +198,7 @@ public class float4x4 {
      * @return x values as a 4d vector
      */
     public float4 getColumn0() {
-        return new float4(m[0][0], m[0][1], m[0][2], m[0][3]);
+        return new float4(m00, m01, m02, m03);
     }
 
     /**
@@ -121,7 +206,7 @@ public class float4x4 {
      * @return y values as a 4d vector
      */
     public float4 getColumn1() {
-        return new float4(m[1][0], m[1][1], m[1][2], m[1][3]);
+        return new float4(m10, m11, m12, m13);
     }
 
     /**
@@ -129,7 +214,7 @@ public class float4x4 {
      * @return z values as a 4d vector
      */
     public float4 getColumn2() {
-        return new float4(m[2][0], m[2][1], m[2][2], m[2][3]);
+        return new float4(m20, m21, m22, m23);
     }
 
     /**
@@ -137,7 +222,7 @@ public class float4x4 {
      * @return w values as a 4d vector
      */
     public float4 getColumn3() {
-        return new float4(m[3][0], m[3][1], m[3][2], m[3][3]);
+        return new float4(m30, m31, m32, m33);
     }
 
     /**
@@ -145,7 +230,7 @@ public class float4x4 {
      * @return first row of the matrix
      */
     public float4 getRow0() {
-        return new float4(m[0][0], m[1][0], m[2][0], m[3][0]);
+        return new float4(m00, m10, m20, m30);
     }
 
     /**
@@ -153,7 +238,7 @@ public class float4x4 {
      * @return second row of the matrix
      */
     public float4 getRow1() {
-        return new float4(m[0][1], m[1][1], m[2][1], m[3][1]);
+        return new float4(m01, m11, m21, m31);
     }
 
     /**
@@ -161,7 +246,7 @@ public class float4x4 {
      * @return third row of the matrix
      */
     public float4 getRow2() {
-        return new float4(m[0][2], m[1][2], m[2][2], m[3][2]);
+        return new float4(m02, m12, m22, m32);
     }
 
     /**
@@ -169,7 +254,7 @@ public class float4x4 {
      * @return fourth row of the matrix
      */
     public float4 getRow3() {
-        return new float4(m[0][3], m[1][3], m[2][3], m[3][3]);
+        return new float4(m03, m13, m23, m33);
     }
 
     /**
@@ -177,7 +262,7 @@ public class float4x4 {
      * @return float3 forward vector
      */
     public float3 getForwardVector() {
-        return new float3(m[0][0], m[0][1], m[0][2]);
+        return new float3(m00, m01, m02);
     }
 
     /**
@@ -185,7 +270,7 @@ public class float4x4 {
      * @return float3 up vector
      */
     public float3 getUpVector() {
-        return new float3(m[1][0], m[1][1], m[1][2]);
+        return new float3(m10, m11, m12);
     }
 
     /**
@@ -193,7 +278,7 @@ public class float4x4 {
      * @return float3 right vector
      */
     public float3 getRightVector() {
-        return new float3(m[2][0], m[2][1], m[2][2]);
+        return new float3(m20, m21, m22);
     }
 
     /**
@@ -201,85 +286,85 @@ public class float4x4 {
      * @return float3 translation vector
      */
     public float3 getTranslationVector() {
-        return new float3(m[3][0], m[3][1], m[3][2]);
+        return new float3(m30, m31, m32);
     }
 
     public void setColumn0(float4 v) {
-        this.m[0][0] = v.x;
-        this.m[0][1] = v.y;
-        this.m[0][2] = v.z;
-        this.m[0][3] = v.w;
+        this.m00 = v.x;
+        this.m01 = v.y;
+        this.m02 = v.z;
+        this.m03 = v.w;
     }
 
     public void setColumn1(float4 v) {
-        this.m[1][0] = v.x;
-        this.m[1][1] = v.y;
-        this.m[1][2] = v.z;
-        this.m[1][3] = v.w;
+        this.m10 = v.x;
+        this.m11 = v.y;
+        this.m12 = v.z;
+        this.m13 = v.w;
     }
 
     public void setColumn2(float4 v) {
-        this.m[2][0] = v.x;
-        this.m[2][1] = v.y;
-        this.m[2][2] = v.z;
-        this.m[2][3] = v.w;
+        this.m20 = v.x;
+        this.m21 = v.y;
+        this.m22 = v.z;
+        this.m23 = v.w;
     }
 
     public void setColumn3(float4 v) {
-        this.m[3][0] = v.x;
-        this.m[3][1] = v.y;
-        this.m[3][2] = v.z;
-        this.m[3][3] = v.w;
+        this.m30 = v.x;
+        this.m31 = v.y;
+        this.m32 = v.z;
+        this.m33 = v.w;
     }
 
     public void setRow0(float4 v) {
-        this.m[0][0] = v.x; this.m[1][0] = v.y; this.m[2][0] = v.z; this.m[3][0] = v.w;
+        this.m00 = v.x; this.m10 = v.y; this.m20 = v.z; this.m30 = v.w;
     }
 
     public void setRow1(float4 v) {
-        this.m[0][1] = v.x; this.m[1][1] = v.y; this.m[2][1] = v.z; this.m[3][1] = v.w;
+        this.m01 = v.x; this.m11 = v.y; this.m21 = v.z; this.m31 = v.w;
     }
 
     public void setRow2(float4 v) {
-        this.m[0][2] = v.x; this.m[1][2] = v.y; this.m[2][2] = v.z; this.m[3][2] = v.w;
+        this.m02 = v.x; this.m12 = v.y; this.m22 = v.z; this.m32 = v.w;
     }
 
     public void setRow3(float4 v) {
-        this.m[0][3] = v.x; this.m[1][3] = v.y; this.m[2][3] = v.z; this.m[3][3] = v.w;
+        this.m03 = v.x; this.m13 = v.y; this.m23 = v.z; this.m33 = v.w;
     }
 
     public void setForwardVector(float3 v) {
-        m[0][0] = v.x;
-        m[0][1] = v.y;
-        m[0][2] = v.z;
+        m00 = v.x;
+        m01 = v.y;
+        m02 = v.z;
     }
 
     public void setUpVector(float3 v) {
-        m[1][0] = v.x;
-        m[1][1] = v.y;
-        m[1][2] = v.z;
+        m10 = v.x;
+        m11 = v.y;
+        m12 = v.z;
     }
 
     public void setRightVector3(float3 v) {
-        m[2][0] = v.x;
-        m[2][1] = v.y;
-        m[2][2] = v.z;
+        m20 = v.x;
+        m21 = v.y;
+        m22 = v.z;
     }
 
     public void setTranslationVector(float3 v) {
-        m[3][0] = v.x;
-        m[3][1] = v.y;
-        m[3][2] = v.z;
+        m30 = v.x;
+        m31 = v.y;
+        m32 = v.z;
     }
 
     /**
      * resets this matrix to the identity matrix
      */
     public void loadIdentity() {
-        m[0][0] = 1.0f; m[1][0] = 0.0f; m[2][0] = 0.0f; m[3][0] = 0.0f;
-        m[0][1] = 0.0f; m[1][1] = 1.0f; m[2][1] = 0.0f; m[3][1] = 0.0f;
-        m[0][2] = 0.0f; m[1][2] = 0.0f; m[2][2] = 1.0f; m[3][2] = 0.0f;
-        m[0][3] = 0.0f; m[1][3] = 0.0f; m[2][3] = 0.0f; m[3][3] = 1.0f;
+        m00 = 1.0f; m10 = 0.0f; m20 = 0.0f; m30 = 0.0f;
+        m01 = 0.0f; m11 = 1.0f; m21 = 0.0f; m31 = 0.0f;
+        m02 = 0.0f; m12 = 0.0f; m22 = 1.0f; m32 = 0.0f;
+        m03 = 0.0f; m13 = 0.0f; m23 = 0.0f; m33 = 1.0f;
     }
 
     /**
@@ -287,7 +372,24 @@ public class float4x4 {
      * @return transposed matrix
      */
     public float4x4 transposed() {
-        return new float4x4(getColumn0(), getColumn1(), getColumn2(), getColumn3());
+        return transposed(new float4x4());
+    }
+
+    /**
+     * writes the transpose of this matrix into dest
+     * @param dest - receives the transposed matrix, may be this
+     * @return dest
+     */
+    public float4x4 transposed(float4x4 dest) {
+        float t;
+        dest.m00 = m00; dest.m11 = m11; dest.m22 = m22; dest.m33 = m33;
+        t = m01; dest.m01 = m10; dest.m10 = t;
+        t = m02; dest.m02 = m20; dest.m20 = t;
+        t = m03; dest.m03 = m30; dest.m30 = t;
+        t = m12; dest.m12 = m21; dest.m21 = t;
+        t = m13; dest.m13 = m31; dest.m31 = t;
+        t = m23; dest.m23 = m32; dest.m32 = t;
+        return dest;
     }
 
     /**
@@ -299,9 +401,9 @@ public class float4x4 {
      */
     public float4x4 initTranslation(float x, float y, float z) {
         float4x4 translationMatrix = new float4x4();
-        translationMatrix.m[3][0] = x;
-        translationMatrix.m[3][1] = y;
-        translationMatrix.m[3][2] = z;
+        translationMatrix.m30 = x;
+        translationMatrix.m31 = y;
+        translationMatrix.m32 = z;
         return translationMatrix;
     }
 
@@ -312,9 +414,9 @@ public class float4x4 {
      */
     public float4x4 initTranslation(float3 v) {
         float4x4 translationMatrix = new float4x4();
-        translationMatrix.m[3][0] = v.x;
-        translationMatrix.m[3][1] = v.y;
-        translationMatrix.m[3][2] = v.z;
+        translationMatrix.m30 = v.x;
+        translationMatrix.m31 = v.y;
+        translationMatrix.m32 = v.z;
         return translationMatrix;
     }
 
@@ -330,8 +432,27 @@ public class float4x4 {
 
         float4x4 rotationMatrix = new float4x4();
 
-        rotationMatrix.m[1][1] = cos; rotationMatrix.m[2][1] = -sin;
-        rotationMatrix.m[1][2] = sin; rotationMatrix.m[2][2] = cos;
+        rotationMatrix.m11 = cos; rotationMatrix.m21 = -sin;
+        rotationMatrix.m12 = sin; rotationMatrix.m22 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the x axis
+     * @param angle float
+     * @param mode - trig implementation
+     * @return rotation matrix for the x axis
+     */
+    public float4x4 initRotationX(float angle, MathMode mode) {
+        float rad = mode.toRadians(angle);
+        float cos = mode.cos(rad);
+        float sin = mode.sin(rad);
+
+        float4x4 rotationMatrix = new float4x4();
+
+        rotationMatrix.m11 = cos; rotationMatrix.m21 = -sin;
+        rotationMatrix.m12 = sin; rotationMatrix.m22 = cos;
 
         return rotationMatrix;
     }
@@ -348,8 +469,27 @@ public class float4x4 {
 
         float4x4 rotationMatrix = new float4x4();
 
-        rotationMatrix.m[0][0] = cos;   rotationMatrix.m[2][0] = sin;
-        rotationMatrix.m[0][2] = -sin;  rotationMatrix.m[2][2] = cos;
+        rotationMatrix.m00 = cos;   rotationMatrix.m20 = sin;
+        rotationMatrix.m02 = -sin;  rotationMatrix.m22 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the y axis
+     * @param angle float
+     * @param mode - trig implementation
+     * @return rotation matrix for the y axis
+     */
+    public float4x4 initRotationY(float angle, MathMode mode) {
+        float rad = mode.toRadians(angle);
+        float cos = mode.cos(rad);
+        float sin = mode.sin(rad);
+
+        float4x4 rotationMatrix = new float4x4();
+
+        rotationMatrix.m00 = cos;   rotationMatrix.m20 = sin;
+        rotationMatrix.m02 = -sin;  rotationMatrix.m22 = cos;
 
         return rotationMatrix;
     }
@@ -366,8 +506,27 @@ public class float4x4 {
 
         float4x4 rotationMatrix = new float4x4();
 
-        rotationMatrix.m[0][0] = cos; rotationMatrix.m[1][0] = -sin;
-        rotationMatrix.m[0][1] = sin; rotationMatrix.m[1][1] = cos;
+        rotationMatrix.m00 = cos; rotationMatrix.m10 = -sin;
+        rotationMatrix.m01 = sin; rotationMatrix.m11 = cos;
+
+        return rotationMatrix;
+    }
+
+    /**
+     * builds a rotation matrix, that rotates a vertex around the z axis
+     * @param angle float
+     * @param mode - trig implementation
+     * @return rotation matrix for the z axis
+     */
+    public float4x4 initRotateZ(float angle, MathMode mode) {
+        float rad = mode.toRadians(angle);
+        float cos = mode.cos(rad);
+        float sin = mode.sin(rad);
+
+        float4x4 rotationMatrix = new float4x4();
+
+        rotationMatrix.m00 = cos; rotationMatrix.m10 = -sin;
+        rotationMatrix.m01 = sin; rotationMatrix.m11 = cos;
 
         return rotationMatrix;
     }
@@ -380,9 +539,9 @@ public class float4x4 {
     public float4x4 initScale(float factor) {
         float4x4 scaleMatrix = new float4x4();
 
-        scaleMatrix.m[0][0] = factor;
-        scaleMatrix.m[1][1] = factor;
-        scaleMatrix.m[2][2] = factor;
+        scaleMatrix.m00 = factor;
+        scaleMatrix.m11 = factor;
+        scaleMatrix.m22 = factor;
 
         return scaleMatrix;
     }
@@ -395,9 +554,9 @@ public class float4x4 {
     public float4x4 initScale(float3 factor) {
         float4x4 scaleMatrix = new float4x4();
 
-        scaleMatrix.m[0][0] = factor.x;
-        scaleMatrix.m[1][1] = factor.y;
-        scaleMatrix.m[2][2] = factor.z;
+        scaleMatrix.m00 = factor.x;
+        scaleMatrix.m11 = factor.y;
+        scaleMatrix.m22 = factor.z;
 
         return scaleMatrix;
     }
@@ -412,9 +571,9 @@ public class float4x4 {
     public float4x4 initScale(float x, float y, float z) {
         float4x4 scaleMatrix = new float4x4();
 
-        scaleMatrix.m[0][0] = x;
-        scaleMatrix.m[1][1] = y;
-        scaleMatrix.m[2][2] = z;
+        scaleMatrix.m00 = x;
+        scaleMatrix.m11 = y;
+        scaleMatrix.m22 = z;
 
         return scaleMatrix;
     }
@@ -435,9 +594,9 @@ public class float4x4 {
         float deltaY = top - bottom;
         float deltaZ = farPlane - nearPlane;
 
-        m[0][0] = 2.0f / deltaX;		                        m[3][0] = -(right + left) / deltaX;
-                                 m[1][1] = 2.0f / deltaY;		m[3][1] = -(top + bottom) / deltaY;
-                                 m[2][2] = -2.0f / deltaZ;		m[3][2] = -(farPlane + nearPlane) / deltaZ;
+        m00 = 2.0f / deltaX;		                        m30 = -(right + left) / deltaX;
+                                 m11 = 2.0f / deltaY;		m31 = -(top + bottom) / deltaY;
+                                 m22 = -2.0f / deltaZ;		m32 = -(farPlane + nearPlane) / deltaZ;
     }
 
     /**
@@ -466,11 +625,11 @@ public class float4x4 {
         loadIdentity();
         float tanOver2 = (float) Math.tan(fieldOfView * Math.PI / 360.0);
 
-        m[0][0] = 1 / tanOver2;
+        m00 = 1 / tanOver2;
 
-                                        m[1][1] = aspectRatio / tanOver2;
-                                                                                m[2][2] = (nearPlane + farPlane) / (nearPlane - farPlane);	    m[3][2] = 2.0f * nearPlane * farPlane / (nearPlane - farPlane);
-                                                                                m[2][3] = -1.0f;													m[3][3] = 0.0f;
+                                        m11 = aspectRatio / tanOver2;
+                                                                                m22 = (nearPlane + farPlane) / (nearPlane - farPlane);	    m32 = 2.0f * nearPlane * farPlane / (nearPlane - farPlane);
+                                                                                m23 = -1.0f;													m33 = 0.0f;
     }
 
     /**
@@ -494,27 +653,35 @@ public class float4x4 {
      * @return scaled matrix
      */
     public float4x4 multiply(float scalar) {
-        float4x4 result = new float4x4();
-
-        result.m[0][0] = m[0][0] * scalar;
-        result.m[0][1] = m[0][1] * scalar;
-        result.m[0][2] = m[0][2] * scalar;
-        result.m[0][3] = m[0][3] * scalar;
-
-        result.m[1][0] = m[1][0] * scalar;
-        result.m[1][1] = m[1][1] * scalar;
-        result.m[1][2] = m[1][2] * scalar;
-        result.m[1][3] = m[1][3] * scalar;
-
-        result.m[2][0] = m[2][0] * scalar;
-        result.m[2][1] = m[2][1] * scalar;
-        result.m[2][2] = m[2][2] * scalar;
-        result.m[2][3] = m[2][3] * scalar;
+        return multiply(scalar, new float4x4());
+    }
 
-        result.m[3][0] = m[3][0] * scalar;
-        result.m[3][1] = m[3][1] * scalar;
-        result.m[3][2] = m[3][2] * scalar;
-        result.m[3][3] = m[3][3] * scalar;
+    /**
+     * scales all matrix values by a given scalar
+     * @param scalar float
+     * @param result - receives the scaled matrix, may be this
+     * @return result
+     */
+    public float4x4 multiply(float scalar, float4x4 result) {
+        result.m00 = m00 * scalar;
+        result.m01 = m01 * scalar;
+        result.m02 = m02 * scalar;
+        result.m03 = m03 * scalar;
+
+        result.m10 = m10 * scalar;
+        result.m11 = m11 * scalar;
+        result.m12 = m12 * scalar;
+        result.m13 = m13 * scalar;
+
+        result.m20 = m20 * scalar;
+        result.m21 = m21 * scalar;
+        result.m22 = m22 * scalar;
+        result.m23 = m23 * scalar;
+
+        result.m30 = m30 * scalar;
+        result.m31 = m31 * scalar;
+        result.m32 = m32 * scalar;
+        result.m33 = m33 * scalar;
 
         return result;
     }
@@ -525,11 +692,53 @@ public class float4x4 {
      * @return (this * mat)
      */
     public float4x4 multiply(float4x4 mat){
-        float4 row0 = new float4(getRow0().dot(mat.getColumn0()), getRow0().dot(mat.getColumn1()), getRow0().dot(mat.getColumn2()), getRow0().dot(mat.getColumn3()));
-        float4 row1 = new float4(getRow1().dot(mat.getColumn0()), getRow1().dot(mat.getColumn1()), getRow1().dot(mat.getColumn2()), getRow1().dot(mat.getColumn3()));
-        float4 row2 = new float4(getRow2().dot(mat.getColumn0()), getRow2().dot(mat.getColumn1()), getRow2().dot(mat.getColumn2()), getRow2().dot(mat.getColumn3()));
-        float4 row3 = new float4(getRow3().dot(mat.getColumn0()), getRow3().dot(mat.getColumn1()), getRow3().dot(mat.getColumn2()), getRow3().dot(mat.getColumn3()));
-        return new float4x4(row0, row1, row2, row3);
+        if (Instrumentation.ENABLED) {
+            Instrumentation.allocated(Instrumentation.Op.FLOAT4X4_MULTIPLY, 1, Instrumentation.FLOAT4X4_BYTES);
+        }
+        return multiply(mat, new float4x4());
+    }
+
+    /**
+     * matrix multiplication
+     * @param mat
+     * @param dest - receives (this * mat), may be this or mat
+     * @return dest
+     */
+    public float4x4 multiply(float4x4 mat, float4x4 dest){
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.FLOAT4X4_MULTIPLY);
+        }
+        /* load this first, so dest may alias this. mat is consumed column by column, so dest may alias mat */
+        float a00 = m00, a01 = m01, a02 = m02, a03 = m03;
+        float a10 = m10, a11 = m11, a12 = m12, a13 = m13;
+        float a20 = m20, a21 = m21, a22 = m22, a23 = m23;
+        float a30 = m30, a31 = m31, a32 = m32, a33 = m33;
+
+        float b0 = mat.m00, b1 = mat.m01, b2 = mat.m02, b3 = mat.m03;
+        dest.m00 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m01 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m02 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m03 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m10; b1 = mat.m11; b2 = mat.m12; b3 = mat.m13;
+        dest.m10 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m11 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m12 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m13 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m20; b1 = mat.m21; b2 = mat.m22; b3 = mat.m23;
+        dest.m20 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m21 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m22 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m23 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        b0 = mat.m30; b1 = mat.m31; b2 = mat.m32; b3 = mat.m33;
+        dest.m30 = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+        dest.m31 = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+        dest.m32 = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+        dest.m33 = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+
+        return dest;
     }
 
     /**
@@ -538,7 +747,22 @@ public class float4x4 {
      * @return (mat * vector)
      */
     public float4 multiply(float4 v){
-        return new float4(v.dot(getRow0()), v.dot(getRow1()), v.dot(getRow2()), v.dot(getRow3()));
+        return multiply(v, new float4());
+    }
+
+    /**
+     * multiplies a 4d vector with the matrix
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float4 multiply(float4 v, float4 dest){
+        float x = v.x, y = v.y, z = v.z, w = v.w;
+        dest.x = m00 * x + m10 * y + m20 * z + m30 * w;
+        dest.y = m01 * x + m11 * y + m21 * z + m31 * w;
+        dest.z = m02 * x + m12 * y + m22 * z + m32 * w;
+        dest.w = m03 * x + m13 * y + m23 * z + m33 * w;
+        return dest;
     }
 
     /**
@@ -549,8 +773,23 @@ public class float4x4 {
      * @return (mat * vector)
      */
     public float3 multiply(float3 v){
-        float4 u = multiply(new float4(v, 1.0f));
-        return u.xyz().divide(u.w);
+        return multiply(v, new float3());
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the vector gets divided by the homogeneous coordinate
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float3 multiply(float3 v, float3 dest){
+        float x = v.x, y = v.y, z = v.z;
+        float inv = 1.0f / (m03 * x + m13 * y + m23 * z + m33);
+        dest.x = (m00 * x + m10 * y + m20 * z + m30) * inv;
+        dest.y = (m01 * x + m11 * y + m21 * z + m31) * inv;
+        dest.z = (m02 * x + m12 * y + m22 * z + m32) * inv;
+        return dest;
     }
 
     /**
@@ -560,151 +799,352 @@ public class float4x4 {
      * @return (mat * vector)
      */
     public float3 multiplyNoHomogeneous(float3 v){
-        return new float3(v.dot(getRow0().xyz()), v.dot(getRow1().xyz()), v.dot(getRow2().xyz()));
+        return multiplyNoHomogeneous(v, new float3());
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the homogeneous coordinate gets ignored!
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float3 multiplyNoHomogeneous(float3 v, float3 dest){
+        float x = v.x, y = v.y, z = v.z;
+        dest.x = m00 * x + m10 * y + m20 * z;
+        dest.y = m01 * x + m11 * y + m21 * z;
+        dest.z = m02 * x + m12 * y + m22 * z;
+        return dest;
+    }
+
+    /* batch transforms */
+
+    /**
+     * transforms packed points, the result gets divided by the homogeneous coordinate
+     * same as multiply(float3) for every point
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param count number of points
+     * @param stride distance in floats between two points, in src and dst
+     */
+    public void transformPoints(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+        transformPoints(src, srcOffset, stride, dst, dstOffset, stride, count);
+    }
+
+    /**
+     * transforms packed points, the result gets divided by the homogeneous coordinate
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param srcStride distance in floats between two source points
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param dstStride distance in floats between two destination points
+     * @param count number of points
+     */
+    public void transformPoints(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+            float x = src[s], y = src[s + 1], z = src[s + 2];
+            float inv = 1.0f / (m03 * x + m13 * y + m23 * z + m33);
+            dst[d]     = (m00 * x + m10 * y + m20 * z + m30) * inv;
+            dst[d + 1] = (m01 * x + m11 * y + m21 * z + m31) * inv;
+            dst[d + 2] = (m02 * x + m12 * y + m22 * z + m32) * inv;
+        }
+    }
+
+    /**
+     * transforms packed points by an affine matrix
+     * the last row is assumed to be (0, 0, 0, 1), no homogeneous divide takes place
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param count number of points
+     * @param stride distance in floats between two points, in src and dst
+     */
+    public void transformPointsAffine(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+        transformPointsAffine(src, srcOffset, stride, dst, dstOffset, stride, count);
+    }
+
+    /**
+     * transforms packed points by an affine matrix
+     * the last row is assumed to be (0, 0, 0, 1), no homogeneous divide takes place
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param srcStride distance in floats between two source points
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param dstStride distance in floats between two destination points
+     * @param count number of points
+     */
+    public void transformPointsAffine(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+            float x = src[s], y = src[s + 1], z = src[s + 2];
+            dst[d]     = m00 * x + m10 * y + m20 * z + m30;
+            dst[d + 1] = m01 * x + m11 * y + m21 * z + m31;
+            dst[d + 2] = m02 * x + m12 * y + m22 * z + m32;
+        }
+    }
+
+    /**
+     * transforms packed points into homogeneous clip space coordinates
+     * writes x y z w per point, no homogeneous divide takes place
+     * @param src source array, x y z per point
+     * @param srcOffset index of the first x component in src
+     * @param srcStride distance in floats between two source points
+     * @param dst destination array, must not overlap src
+     * @param dstOffset index of the first x component in dst
+     * @param dstStride distance in floats between two destination points, at least 4
+     * @param count number of points
+     */
+    public void transformPointsProjective(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+            float x = src[s], y = src[s + 1], z = src[s + 2];
+            dst[d]     = m00 * x + m10 * y + m20 * z + m30;
+            dst[d + 1] = m01 * x + m11 * y + m21 * z + m31;
+            dst[d + 2] = m02 * x + m12 * y + m22 * z + m32;
+            dst[d + 3] = m03 * x + m13 * y + m23 * z + m33;
+        }
+    }
+
+    /**
+     * transforms packed directions (normals, tangents ...), the translation gets ignored
+     * same as multiplyNoHomogeneous(float3) for every direction
+     * @param src source array, x y z per direction
+     * @param srcOffset index of the first x component in src
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param count number of directions
+     * @param stride distance in floats between two directions, in src and dst
+     */
+    public void transformDirections(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+        transformDirections(src, srcOffset, stride, dst, dstOffset, stride, count);
+    }
+
+    /**
+     * transforms packed directions (normals, tangents ...), the translation gets ignored
+     * @param src source array, x y z per direction
+     * @param srcOffset index of the first x component in src
+     * @param srcStride distance in floats between two source directions
+     * @param dst destination array, may be src
+     * @param dstOffset index of the first x component in dst
+     * @param dstStride distance in floats between two destination directions
+     * @param count number of directions
+     */
+    public void transformDirections(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+        for (int i = 0, s = srcOffset, d = dstOffset; i < count; i++, s += srcStride, d += dstStride) {
+            float x = src[s], y = src[s + 1], z = src[s + 2];
+            dst[d]     = m00 * x + m10 * y + m20 * z;
+            dst[d + 1] = m01 * x + m11 * y + m21 * z;
+            dst[d + 2] = m02 * x + m12 * y + m22 * z;
+        }
+    }
+
+    /**
+     * transforms the points of a 3d container, the result gets divided by the homogeneous coordinate
+     * @param src
+     * @param dest may be src
+     * @return dest
+     */
+    public Float3Array transformPoints(Float3Array src, Float3Array dest) {
+        return transformPoints(src, dest, 0, src.length);
+    }
+
+    public Float3Array transformPoints(Float3Array src, Float3Array dest, int offset, int count) {
+        BulkKernels.get().transformPoints(this, src.xs, src.ys, src.zs, dest.xs, dest.ys, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * transforms the points of a 3d container by an affine matrix
+     * the last row is assumed to be (0, 0, 0, 1)
+     * @param src
+     * @param dest may be src
+     * @return dest
+     */
+    public Float3Array transformPointsAffine(Float3Array src, Float3Array dest) {
+        return transformPointsAffine(src, dest, 0, src.length);
+    }
+
+    public Float3Array transformPointsAffine(Float3Array src, Float3Array dest, int offset, int count) {
+        BulkKernels.get().transformPointsAffine(this, src.xs, src.ys, src.zs, dest.xs, dest.ys, dest.zs, offset, count);
+        return dest;
+    }
+
+    /**
+     * transforms the directions of a 3d container, the translation gets ignored
+     * @param src
+     * @param dest may be src
+     * @return dest
+     */
+    public Float3Array transformDirections(Float3Array src, Float3Array dest) {
+        return transformDirections(src, dest, 0, src.length);
+    }
+
+    public Float3Array transformDirections(Float3Array src, Float3Array dest, int offset, int count) {
+        BulkKernels.get().transformDirections(this, src.xs, src.ys, src.zs, dest.xs, dest.ys, dest.zs, offset, count);
+        return dest;
     }
 
     /* inverse */
 
+    /**
+     * @return determinant of this matrix
+     * @see #determinant()
+     */
     public float getDeterminant() {
+        return determinant();
+    }
 
-        float det;
-        float4x4 result = new float4x4();
-
-        result.m[0][0] = m[1][1] * m[2][2] * m[3][3] -
-                m[1][1] * m[2][3] * m[3][2] -
-                m[2][1] * m[1][2] * m[3][3] +
-                m[2][1] * m[1][3] * m[3][2] +
-                m[3][1] * m[1][2] * m[2][3] -
-                m[3][1] * m[1][3] * m[2][2];
-
-        result.m[1][0] = -m[1][0] * m[2][2] * m[3][3] +
-                m[1][0] * m[2][3] * m[3][2] +
-                m[2][0] * m[1][2] * m[3][3] -
-                m[2][0] * m[1][3] * m[3][2] -
-                m[3][0] * m[1][2] * m[2][3] +
-                m[3][0] * m[1][3] * m[2][2];
-
-        result.m[2][0] = m[1][0] * m[2][1] * m[3][3] -
-                m[1][0] * m[2][3] * m[3][1] -
-                m[2][0] * m[1][1] * m[3][3] +
-                m[2][0] * m[1][3] * m[3][1] +
-                m[3][0] * m[1][1] * m[2][3] -
-                m[3][0] * m[1][3] * m[2][1];
-
-        result.m[3][0] = -m[1][0] * m[2][1] * m[3][2] +
-                m[1][0] * m[2][2] * m[3][1] +
-                m[2][0] * m[1][1] * m[3][2] -
-                m[2][0] * m[1][2] * m[3][1] -
-                m[3][0] * m[1][1] * m[2][2] +
-                m[3][0] * m[1][2] * m[2][1];
-
-        result.m[0][1] = -m[0][1] * m[2][2] * m[3][3] +
-                m[0][1] * m[2][3] * m[3][2] +
-                m[2][1] * m[0][2] * m[3][3] -
-                m[2][1] * m[0][3] * m[3][2] -
-                m[3][1] * m[0][2] * m[2][3] +
-                m[3][1] * m[0][3] * m[2][2];
-
-        result.m[1][1] = m[0][0] * m[2][2] * m[3][3] -
-                m[0][0] * m[2][3] * m[3][2] -
-                m[2][0] * m[0][2] * m[3][3] +
-                m[2][0] * m[0][3] * m[3][2] +
-                m[3][0] * m[0][2] * m[2][3] -
-                m[3][0] * m[0][3] * m[2][2];
-
-        result.m[2][1] = -m[0][0] * m[2][1] * m[3][3] +
-                m[0][0] * m[2][3] * m[3][1] +
-                m[2][0] * m[0][1] * m[3][3] -
-                m[2][0] * m[0][3] * m[3][1] -
-                m[3][0] * m[0][1] * m[2][3] +
-                m[3][0] * m[0][3] * m[2][1];
-
-        result.m[3][1] = m[0][0] * m[2][1] * m[3][2] -
-                m[0][0] * m[2][2] * m[3][1] -
-                m[2][0] * m[0][1] * m[3][2] +
-                m[2][0] * m[0][2] * m[3][1] +
-                m[3][0] * m[0][1] * m[2][2] -
-                m[3][0] * m[0][2] * m[2][1];
-
-        result.m[0][2] = m[0][1] * m[1][2] * m[3][3] -
-                m[0][1] * m[1][3] * m[3][2] -
-                m[1][1] * m[0][2] * m[3][3] +
-                m[1][1] * m[0][3] * m[3][2] +
-                m[3][1] * m[0][2] * m[1][3] -
-                m[3][1] * m[0][3] * m[1][2];
-
-        result.m[1][2] = -m[0][0] * m[1][2] * m[3][3] +
-                m[0][0] * m[1][3] * m[3][2] +
-                m[1][0] * m[0][2] * m[3][3] -
-                m[1][0] * m[0][3] * m[3][2] -
-                m[3][0] * m[0][2] * m[1][3] +
-                m[3][0] * m[0][3] * m[1][2];
-
-        result.m[2][2] = m[0][0] * m[1][1] * m[3][3] -
-                m[0][0] * m[1][3] * m[3][1] -
-                m[1][0] * m[0][1] * m[3][3] +
-                m[1][0] * m[0][3] * m[3][1] +
-                m[3][0] * m[0][1] * m[1][3] -
-                m[3][0] * m[0][3] * m[1][1];
-
-        result.m[3][2] = -m[0][0] * m[1][1] * m[3][2] +
-                m[0][0] * m[1][2] * m[3][1] +
-                m[1][0] * m[0][1] * m[3][2] -
-                m[1][0] * m[0][2] * m[3][1] -
-                m[3][0] * m[0][1] * m[1][2] +
-                m[3][0] * m[0][2] * m[1][1];
-
-        result.m[0][3] = -m[0][1] * m[1][2] * m[2][3] +
-                m[0][1] * m[1][3] * m[2][2] +
-                m[1][1] * m[0][2] * m[2][3] -
-                m[1][1] * m[0][3] * m[2][2] -
-                m[2][1] * m[0][2] * m[1][3] +
-                m[2][1] * m[0][3] * m[1][2];
-
-        result.m[1][3] = m[0][0] * m[1][2] * m[2][3] -
-                m[0][0] * m[1][3] * m[2][2] -
-                m[1][0] * m[0][2] * m[2][3] +
-                m[1][0] * m[0][3] * m[2][2] +
-                m[2][0] * m[0][2] * m[1][3] -
-                m[2][0] * m[0][3] * m[1][2];
-
-        result.m[2][3] = -m[0][0] * m[1][1] * m[2][3] +
-                m[0][0] * m[1][3] * m[2][1] +
-                m[1][0] * m[0][1] * m[2][3] -
-                m[1][0] * m[0][3] * m[2][1] -
-                m[2][0] * m[0][1] * m[1][3] +
-                m[2][0] * m[0][3] * m[1][1];
-
-        result.m[3][3] = m[0][0] * m[1][1] * m[2][2] -
-                m[0][0] * m[1][2] * m[2][1] -
-                m[1][0] * m[0][1] * m[2][2] +
-                m[1][0] * m[0][2] * m[2][1] +
-                m[2][0] * m[0][1] * m[1][2] -
-                m[2][0] * m[0][2] * m[1][1];
-
-        det = m[0][0] * result.m[0][0] + m[0][1] * result.m[1][0] + m[0][2] * result.m[2][0] + m[0][3] * result.m[3][0];
-
-        return det;
+    /**
+     * laplace expansion along the first column, only the four cofactors needed are computed
+     * @return determinant of this matrix
+     */
+    public float determinant() {
+
+        float i00 = m11 * m22 * m33 -
+                    m11 * m23 * m32 -
+                    m21 * m12 * m33 +
+                    m21 * m13 * m32 +
+                    m31 * m12 * m23 -
+                    m31 * m13 * m22;
+
+        float i10 = -m10 * m22 * m33 +
+                     m10 * m23 * m32 +
+                     m20 * m12 * m33 -
+                     m20 * m13 * m32 -
+                     m30 * m12 * m23 +
+                     m30 * m13 * m22;
+
+        float i20 = m10 * m21 * m33 -
+                    m10 * m23 * m31 -
+                    m20 * m11 * m33 +
+                    m20 * m13 * m31 +
+                    m30 * m11 * m23 -
+                    m30 * m13 * m21;
+
+        float i30 = -m10 * m21 * m32 +
+                     m10 * m22 * m31 +
+                     m20 * m11 * m32 -
+                     m20 * m12 * m31 -
+                     m30 * m11 * m22 +
+                     m30 * m12 * m21;
+
+        return m00 * i00 + m01 * i10 + m02 * i20 + m03 * i30;
+    }
+
+    /**
+     * an affine matrix has (0, 0, 0, 1) as its last row
+     * @return true if this matrix is affine
+     */
+    public boolean isAffine() {
+        return m03 == 0.0f && m13 == 0.0f && m23 == 0.0f && m33 == 1.0f;
     }
 
     /**
      *  invert the translation and rotation
+     *  @see #inverseRigid()
      */
     public float4x4 inverseTranslationRotation(){
+        return inverseRigid(new float4x4());
+    }
+
+    /**
+     *  invert the translation and rotation
+     *  @param dest - receives the inverse, may be this
+     *  @return dest
+     *  @see #inverseRigid(float4x4)
+     */
+    public float4x4 inverseTranslationRotation(float4x4 dest){
+        return inverseRigid(dest);
+    }
 
-        float4x4 result = new float4x4();
+    /**
+     * inverse of a rigid transform (orthonormal rotation and translation)
+     * the upper 3x3 is transposed, the translation rotated back and negated
+     * the result is wrong for matrices with scale, shear or projection
+     * @return float4x4 inverted matrix
+     */
+    public float4x4 inverseRigid() {
+        return inverseRigid(new float4x4());
+    }
+
+    /**
+     * inverse of a rigid transform (orthonormal rotation and translation)
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public float4x4 inverseRigid(float4x4 dest) {
+        float a01 = m01, a02 = m02, a12 = m12;
+        float t0 = m30, t1 = m31, t2 = m32;
 
         /* transpose the upper 3x3 */
-        result.m[0][0] = m[0][0];   result.m[1][0] = m[0][1]; result.m[2][0] = m[0][2];
-        result.m[0][1] = m[1][0];   result.m[1][1] = m[1][1]; result.m[2][1] = m[1][2];
-        result.m[0][2] = m[2][0];   result.m[1][2] = m[2][1]; result.m[2][2] = m[2][2];
+        dest.m00 = m00;   dest.m01 = m10; dest.m02 = m20;
+        dest.m10 = a01;   dest.m11 = m11; dest.m12 = m21;
+        dest.m20 = a02;   dest.m21 = a12; dest.m22 = m22;
+
+        /* dot the t vector and the transposed rotation matrix */
+        dest.m30 = -(dest.m00 * t0 + dest.m10 * t1 + dest.m20 * t2);
+        dest.m31 = -(dest.m01 * t0 + dest.m11 * t1 + dest.m21 * t2);
+        dest.m32 = -(dest.m02 * t0 + dest.m12 * t1 + dest.m22 * t2);
 
-	    /* dot the t vector and the transposed rotation matrix */
-        result.m[3][0] = -(result.getRow0().xyz().dot(getColumn3().xyz()));
-        result.m[3][1] = -(result.getRow1().xyz().dot(getColumn3().xyz()));
-        result.m[3][2] = -(result.getRow2().xyz().dot(getColumn3().xyz()));
+        dest.m03 = 0.0f; dest.m13 = 0.0f; dest.m23 = 0.0f; dest.m33 = 1.0f;
+        return dest;
+    }
 
-       return result;
+    /**
+     * inverse of an affine matrix, see isAffine()
+     * inverts the upper 3x3 and transforms the negated translation with it
+     * handles scale and shear, the last row is ignored and set to (0, 0, 0, 1)
+     * @return float4x4 inverted matrix
+     */
+    public float4x4 inverseAffine() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.allocated(Instrumentation.Op.FLOAT4X4_INVERSE_AFFINE, 1, Instrumentation.FLOAT4X4_BYTES);
+        }
+        return inverseAffine(new float4x4());
+    }
+
+    /**
+     * inverse of an affine matrix, see isAffine()
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public float4x4 inverseAffine(float4x4 dest) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.FLOAT4X4_INVERSE_AFFINE);
+        }
+
+        /* rows of the inverse are the cross products of the columns */
+        float r00 = m11 * m22 - m12 * m21, r01 = m12 * m20 - m10 * m22, r02 = m10 * m21 - m11 * m20;
+        float r10 = m21 * m02 - m22 * m01, r11 = m22 * m00 - m20 * m02, r12 = m20 * m01 - m21 * m00;
+        float r20 = m01 * m12 - m02 * m11, r21 = m02 * m10 - m00 * m12, r22 = m00 * m11 - m01 * m10;
+
+        float det = m00 * r00 + m01 * r01 + m02 * r02;
+
+        if (det != 0)
+        {
+            det = 1.0f / det;
+        }
+        else
+        {
+            Instrumentation.singular(Instrumentation.Op.FLOAT4X4_INVERSE_AFFINE);
+            det = 1.0f;
+        }
+
+        float t0 = m30, t1 = m31, t2 = m32;
+
+        dest.m00 = r00 * det; dest.m10 = r01 * det; dest.m20 = r02 * det;
+        dest.m01 = r10 * det; dest.m11 = r11 * det; dest.m21 = r12 * det;
+        dest.m02 = r20 * det; dest.m12 = r21 * det; dest.m22 = r22 * det;
+
+        dest.m30 = -(dest.m00 * t0 + dest.m10 * t1 + dest.m20 * t2);
+        dest.m31 = -(dest.m01 * t0 + dest.m11 * t1 + dest.m21 * t2);
+        dest.m32 = -(dest.m02 * t0 + dest.m12 * t1 + dest.m22 * t2);
+
+        dest.m03 = 0.0f; dest.m13 = 0.0f; dest.m23 = 0.0f; dest.m33 = 1.0f;
+        return dest;
     }
 
     /**
@@ -713,156 +1153,172 @@ public class float4x4 {
      */
     public float4x4 inverse()
     {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.allocated(Instrumentation.Op.FLOAT4X4_INVERSE, 1, Instrumentation.FLOAT4X4_BYTES);
+        }
+        return inverse(new float4x4());
+    }
+
+    /**
+     * Source: http://stackoverflow.com/questions/1148309/inverting-a-4x4-matrix
+     * @param dest - receives the inverted matrix, may be this
+     * @return dest
+     */
+    public float4x4 inverse(float4x4 dest)
+    {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.FLOAT4X4_INVERSE);
+        }
         float det;
-        float4x4 result = new float4x4();
 
         //				0	1	2	3	4	5	6	7	8	9	10	11	12	13	14	15
         // float[16] = {00, 01, 02, 03, 10, 11, 12, 13, 20, 21, 22, 23, 30, 31, 32, 33};
 
-        result.m[0][0] = m[1][1] * m[2][2] * m[3][3] -
-                         m[1][1] * m[2][3] * m[3][2] -
-                         m[2][1] * m[1][2] * m[3][3] +
-                         m[2][1] * m[1][3] * m[3][2] +
-                         m[3][1] * m[1][2] * m[2][3] -
-                         m[3][1] * m[1][3] * m[2][2];
-
-        result.m[1][0] = -m[1][0] * m[2][2] * m[3][3] +
-                          m[1][0] * m[2][3] * m[3][2] +
-                          m[2][0] * m[1][2] * m[3][3] -
-                          m[2][0] * m[1][3] * m[3][2] -
-                          m[3][0] * m[1][2] * m[2][3] +
-                          m[3][0] * m[1][3] * m[2][2];
-
-        result.m[2][0] = m[1][0] * m[2][1] * m[3][3] -
-                         m[1][0] * m[2][3] * m[3][1] -
-                         m[2][0] * m[1][1] * m[3][3] +
-                         m[2][0] * m[1][3] * m[3][1] +
-                         m[3][0] * m[1][1] * m[2][3] -
-                         m[3][0] * m[1][3] * m[2][1];
-
-        result.m[3][0] = -m[1][0] * m[2][1] * m[3][2] +
-                          m[1][0] * m[2][2] * m[3][1] +
-                          m[2][0] * m[1][1] * m[3][2] -
-                          m[2][0] * m[1][2] * m[3][1] -
-                          m[3][0] * m[1][1] * m[2][2] +
-                          m[3][0] * m[1][2] * m[2][1];
-
-        result.m[0][1] = -m[0][1] * m[2][2] * m[3][3] +
-                          m[0][1] * m[2][3] * m[3][2] +
-                          m[2][1] * m[0][2] * m[3][3] -
-                          m[2][1] * m[0][3] * m[3][2] -
-                          m[3][1] * m[0][2] * m[2][3] +
-                          m[3][1] * m[0][3] * m[2][2];
-
-        result.m[1][1] = m[0][0] * m[2][2] * m[3][3] -
-                         m[0][0] * m[2][3] * m[3][2] -
-                         m[2][0] * m[0][2] * m[3][3] +
-                         m[2][0] * m[0][3] * m[3][2] +
-                         m[3][0] * m[0][2] * m[2][3] -
-                         m[3][0] * m[0][3] * m[2][2];
-
-        result.m[2][1] = -m[0][0] * m[2][1] * m[3][3] +
-                          m[0][0] * m[2][3] * m[3][1] +
-                          m[2][0] * m[0][1] * m[3][3] -
-                          m[2][0] * m[0][3] * m[3][1] -
-                          m[3][0] * m[0][1] * m[2][3] +
-                          m[3][0] * m[0][3] * m[2][1];
-
-        result.m[3][1] = m[0][0] * m[2][1] * m[3][2] -
-                         m[0][0] * m[2][2] * m[3][1] -
-                         m[2][0] * m[0][1] * m[3][2] +
-                         m[2][0] * m[0][2] * m[3][1] +
-                         m[3][0] * m[0][1] * m[2][2] -
-                         m[3][0] * m[0][2] * m[2][1];
-
-        result.m[0][2] = m[0][1] * m[1][2] * m[3][3] -
-                         m[0][1] * m[1][3] * m[3][2] -
-                         m[1][1] * m[0][2] * m[3][3] +
-                         m[1][1] * m[0][3] * m[3][2] +
-                         m[3][1] * m[0][2] * m[1][3] -
-                         m[3][1] * m[0][3] * m[1][2];
-
-        result.m[1][2] = -m[0][0] * m[1][2] * m[3][3] +
-                          m[0][0] * m[1][3] * m[3][2] +
-                          m[1][0] * m[0][2] * m[3][3] -
-                          m[1][0] * m[0][3] * m[3][2] -
-                          m[3][0] * m[0][2] * m[1][3] +
-                          m[3][0] * m[0][3] * m[1][2];
-
-        result.m[2][2] = m[0][0] * m[1][1] * m[3][3] -
-                         m[0][0] * m[1][3] * m[3][1] -
-                         m[1][0] * m[0][1] * m[3][3] +
-                         m[1][0] * m[0][3] * m[3][1] +
-                         m[3][0] * m[0][1] * m[1][3] -
-                         m[3][0] * m[0][3] * m[1][1];
-
-        result.m[3][2] = -m[0][0] * m[1][1] * m[3][2] +
-                          m[0][0] * m[1][2] * m[3][1] +
-                          m[1][0] * m[0][1] * m[3][2] -
-                          m[1][0] * m[0][2] * m[3][1] -
-                          m[3][0] * m[0][1] * m[1][2] +
-                          m[3][0] * m[0][2] * m[1][1];
-
-        result.m[0][3] = -m[0][1] * m[1][2] * m[2][3] +
-                          m[0][1] * m[1][3] * m[2][2] +
-                          m[1][1] * m[0][2] * m[2][3] -
-                          m[1][1] * m[0][3] * m[2][2] -
-                          m[2][1] * m[0][2] * m[1][3] +
-                          m[2][1] * m[0][3] * m[1][2];
-
-        result.m[1][3] = m[0][0] * m[1][2] * m[2][3] -
-                         m[0][0] * m[1][3] * m[2][2] -
-                         m[1][0] * m[0][2] * m[2][3] +
-                         m[1][0] * m[0][3] * m[2][2] +
-                         m[2][0] * m[0][2] * m[1][3] -
-                         m[2][0] * m[0][3] * m[1][2];
-
-        result.m[2][3] = -m[0][0] * m[1][1] * m[2][3] +
-                          m[0][0] * m[1][3] * m[2][1] +
-                          m[1][0] * m[0][1] * m[2][3] -
-                          m[1][0] * m[0][3] * m[2][1] -
-                          m[2][0] * m[0][1] * m[1][3] +
-                          m[2][0] * m[0][3] * m[1][1];
-
-        result.m[3][3] = m[0][0] * m[1][1] * m[2][2] -
-                         m[0][0] * m[1][2] * m[2][1] -
-                         m[1][0] * m[0][1] * m[2][2] +
-                         m[1][0] * m[0][2] * m[2][1] +
-                         m[2][0] * m[0][1] * m[1][2] -
-                         m[2][0] * m[0][2] * m[1][1];
-
-        det = m[0][0] * result.m[0][0] + m[0][1] * result.m[1][0] + m[0][2] * result.m[2][0] + m[0][3] * result.m[3][0];
+        float i00 = m11 * m22 * m33 -
+                    m11 * m23 * m32 -
+                    m21 * m12 * m33 +
+                    m21 * m13 * m32 +
+                    m31 * m12 * m23 -
+                    m31 * m13 * m22;
+
+        float i10 = -m10 * m22 * m33 +
+                     m10 * m23 * m32 +
+                     m20 * m12 * m33 -
+                     m20 * m13 * m32 -
+                     m30 * m12 * m23 +
+                     m30 * m13 * m22;
+
+        float i20 = m10 * m21 * m33 -
+                    m10 * m23 * m31 -
+                    m20 * m11 * m33 +
+                    m20 * m13 * m31 +
+                    m30 * m11 * m23 -
+                    m30 * m13 * m21;
+
+        float i30 = -m10 * m21 * m32 +
+                     m10 * m22 * m31 +
+                     m20 * m11 * m32 -
+                     m20 * m12 * m31 -
+                     m30 * m11 * m22 +
+                     m30 * m12 * m21;
+
+        float i01 = -m01 * m22 * m33 +
+                     m01 * m23 * m32 +
+                     m21 * m02 * m33 -
+                     m21 * m03 * m32 -
+                     m31 * m02 * m23 +
+                     m31 * m03 * m22;
+
+        float i11 = m00 * m22 * m33 -
+                    m00 * m23 * m32 -
+                    m20 * m02 * m33 +
+                    m20 * m03 * m32 +
+                    m30 * m02 * m23 -
+                    m30 * m03 * m22;
+
+        float i21 = -m00 * m21 * m33 +
+                     m00 * m23 * m31 +
+                     m20 * m01 * m33 -
+                     m20 * m03 * m31 -
+                     m30 * m01 * m23 +
+                     m30 * m03 * m21;
+
+        float i31 = m00 * m21 * m32 -
+                    m00 * m22 * m31 -
+                    m20 * m01 * m32 +
+                    m20 * m02 * m31 +
+                    m30 * m01 * m22 -
+                    m30 * m02 * m21;
+
+        float i02 = m01 * m12 * m33 -
+                    m01 * m13 * m32 -
+                    m11 * m02 * m33 +
+                    m11 * m03 * m32 +
+                    m31 * m02 * m13 -
+                    m31 * m03 * m12;
+
+        float i12 = -m00 * m12 * m33 +
+                     m00 * m13 * m32 +
+                     m10 * m02 * m33 -
+                     m10 * m03 * m32 -
+                     m30 * m02 * m13 +
+                     m30 * m03 * m12;
+
+        float i22 = m00 * m11 * m33 -
+                    m00 * m13 * m31 -
+                    m10 * m01 * m33 +
+                    m10 * m03 * m31 +
+                    m30 * m01 * m13 -
+                    m30 * m03 * m11;
+
+        float i32 = -m00 * m11 * m32 +
+                     m00 * m12 * m31 +
+                     m10 * m01 * m32 -
+                     m10 * m02 * m31 -
+                     m30 * m01 * m12 +
+                     m30 * m02 * m11;
+
+        float i03 = -m01 * m12 * m23 +
+                     m01 * m13 * m22 +
+                     m11 * m02 * m23 -
+                     m11 * m03 * m22 -
+                     m21 * m02 * m13 +
+                     m21 * m03 * m12;
+
+        float i13 = m00 * m12 * m23 -
+                    m00 * m13 * m22 -
+                    m10 * m02 * m23 +
+                    m10 * m03 * m22 +
+                    m20 * m02 * m13 -
+                    m20 * m03 * m12;
+
+        float i23 = -m00 * m11 * m23 +
+                     m00 * m13 * m21 +
+                     m10 * m01 * m23 -
+                     m10 * m03 * m21 -
+                     m20 * m01 * m13 +
+                     m20 * m03 * m11;
+
+        float i33 = m00 * m11 * m22 -
+                    m00 * m12 * m21 -
+                    m10 * m01 * m22 +
+                    m10 * m02 * m21 +
+                    m20 * m01 * m12 -
+                    m20 * m02 * m11;
+
+        det = m00 * i00 + m01 * i10 + m02 * i20 + m03 * i30;
 
         if (det != 0)
         {
             det = 1.0f / det;
-
-            result.m[0][0] *= det;
-            result.m[0][1] *= det;
-            result.m[0][2] *= det;
-            result.m[0][3] *= det;
-
-            result.m[1][0] *= det;
-            result.m[1][1] *= det;
-            result.m[1][2] *= det;
-            result.m[1][3] *= det;
-
-            result.m[2][0] *= det;
-            result.m[2][1] *= det;
-            result.m[2][2] *= det;
-            result.m[2][3] *= det;
-
-            result.m[3][0] *= det;
-            result.m[3][1] *= det;
-            result.m[3][2] *= det;
-            result.m[3][3] *= det;
         }
         else
         {
-            System.out.println("No determinant found \n");
+            Instrumentation.singular(Instrumentation.Op.FLOAT4X4_INVERSE);
+            det = 1.0f;
         }
 
-        return result;
+        dest.m00 = i00 * det;
+        dest.m01 = i01 * det;
+        dest.m02 = i02 * det;
+        dest.m03 = i03 * det;
+
+        dest.m10 = i10 * det;
+        dest.m11 = i11 * det;
+        dest.m12 = i12 * det;
+        dest.m13 = i13 * det;
+
+        dest.m20 = i20 * det;
+        dest.m21 = i21 * det;
+        dest.m22 = i22 * det;
+        dest.m23 = i23 * det;
+
+        dest.m30 = i30 * det;
+        dest.m31 = i31 * det;
+        dest.m32 = i32 * det;
+        dest.m33 = i33 * det;
+
+        return dest;
     }
 
     /**
@@ -870,11 +1326,14 @@ public class float4x4 {
      * @return float array
      */
     public float[] toFloat() {
-        float[] c0 = getColumn0().toFloat();
-        float[] c1 = getColumn1().toFloat();
-        float[] c2 = getColumn2().toFloat();
-        float[] c3 = getColumn3().toFloat();
-        return new float[] { c0[0], c0[1], c0[2], c0[3], c1[0], c1[1], c1[2], c1[3], c2[0], c2[1], c2[2], c2[3], c3[0], c3[1], c3[2], c3[3] };
+        return new float[] { m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33 };
+    }
+
+    /**
+     * @return immutable copy, safe to share between threads
+     */
+    public ifloat4x4 toImmutable() {
+        return new ifloat4x4(this);
     }
 
     /**
@@ -884,19 +1343,127 @@ public class float4x4 {
      * @return float buffer
      */
     public FloatBuffer toBuffer() {
-        FloatBuffer buffer = ByteBuffer.allocateDirect(16 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
-        buffer.put(toFloat());
-        buffer.flip();
-        return buffer;
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.FLOAT4X4_TO_BUFFER);
+            Instrumentation.allocated(Instrumentation.Op.FLOAT4X4_TO_BUFFER, Instrumentation.DIRECT_FLOAT_BUFFER_OBJECTS, Instrumentation.DIRECT_FLOAT_BUFFER_BYTES);
+            Instrumentation.allocatedNative(Instrumentation.Op.FLOAT4X4_TO_BUFFER, 16 << 2);
+        }
+        return writeTo(ByteBuffer.allocateDirect(16 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer(), 0);
+    }
+
+    /**
+     * writes this matrix column after column into an array
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public float[] writeTo(float[] dst, int offset) {
+        dst[offset]      = m00; dst[offset + 1]  = m01; dst[offset + 2]  = m02; dst[offset + 3]  = m03;
+        dst[offset + 4]  = m10; dst[offset + 5]  = m11; dst[offset + 6]  = m12; dst[offset + 7]  = m13;
+        dst[offset + 8]  = m20; dst[offset + 9]  = m21; dst[offset + 10] = m22; dst[offset + 11] = m23;
+        dst[offset + 12] = m30; dst[offset + 13] = m31; dst[offset + 14] = m32; dst[offset + 15] = m33;
+        return dst;
+    }
+
+    /**
+     * reads this matrix column after column from an array, counterpart of writeTo
+     * @param src
+     * @param offset index of the first element
+     * @return this
+     */
+    public float4x4 readFrom(float[] src, int offset) {
+        m00 = src[offset];      m01 = src[offset + 1];  m02 = src[offset + 2];  m03 = src[offset + 3];
+        m10 = src[offset + 4];  m11 = src[offset + 5];  m12 = src[offset + 6];  m13 = src[offset + 7];
+        m20 = src[offset + 8];  m21 = src[offset + 9];  m22 = src[offset + 10]; m23 = src[offset + 11];
+        m30 = src[offset + 12]; m31 = src[offset + 13]; m32 = src[offset + 14]; m33 = src[offset + 15];
+        return this;
+    }
+
+    /**
+     * writes this matrix column after column into an existing buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public FloatBuffer writeTo(FloatBuffer dst, int index) {
+        dst.put(index,      m00); dst.put(index + 1,  m01); dst.put(index + 2,  m02); dst.put(index + 3,  m03);
+        dst.put(index + 4,  m10); dst.put(index + 5,  m11); dst.put(index + 6,  m12); dst.put(index + 7,  m13);
+        dst.put(index + 8,  m20); dst.put(index + 9,  m21); dst.put(index + 10, m22); dst.put(index + 11, m23);
+        dst.put(index + 12, m30); dst.put(index + 13, m31); dst.put(index + 14, m32); dst.put(index + 15, m33);
+        return dst;
+    }
+
+    /**
+     * writes this matrix column after column into an existing buffer, using the byte order of the buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param byteOffset byte offset of the first element
+     * @return dst
+     */
+    public ByteBuffer writeTo(ByteBuffer dst, int byteOffset) {
+        dst.putFloat(byteOffset,      m00); dst.putFloat(byteOffset + 4,  m01); dst.putFloat(byteOffset + 8,  m02); dst.putFloat(byteOffset + 12, m03);
+        dst.putFloat(byteOffset + 16, m10); dst.putFloat(byteOffset + 20, m11); dst.putFloat(byteOffset + 24, m12); dst.putFloat(byteOffset + 28, m13);
+        dst.putFloat(byteOffset + 32, m20); dst.putFloat(byteOffset + 36, m21); dst.putFloat(byteOffset + 40, m22); dst.putFloat(byteOffset + 44, m23);
+        dst.putFloat(byteOffset + 48, m30); dst.putFloat(byteOffset + 52, m31); dst.putFloat(byteOffset + 56, m32); dst.putFloat(byteOffset + 60, m33);
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (16 floats each) into an existing buffer
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public static FloatBuffer writeTo(float4x4[] matrices, int from, int count, FloatBuffer dst, int index) {
+        for (int i = 0; i < count; i++, index += 16) {
+            matrices[from + i].writeTo(dst, index);
+        }
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (64 bytes each) into an existing buffer
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param byteOffset byte offset of the first element
+     * @return dst
+     */
+    public static ByteBuffer writeTo(float4x4[] matrices, int from, int count, ByteBuffer dst, int byteOffset) {
+        for (int i = 0; i < count; i++, byteOffset += 64) {
+            matrices[from + i].writeTo(dst, byteOffset);
+        }
+        return dst;
+    }
+
+    /**
+     * writes count matrices contiguously (16 floats each) into an array
+     * @param matrices
+     * @param from index of the first matrix
+     * @param count number of matrices
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public static float[] writeTo(float4x4[] matrices, int from, int count, float[] dst, int offset) {
+        for (int i = 0; i < count; i++, offset += 16) {
+            matrices[from + i].writeTo(dst, offset);
+        }
+        return dst;
     }
 
     /* (non-Javadoc)
      * @see java.lang.Object#toString()
      */
     public String toString() {
-        return    m[0][0] + " | " + m[1][0] + " | " + m[2][0] + " | " + m[3][0] + "\n"
-                + m[0][1] + " | " + m[1][1] + " | " + m[2][1] + " | " + m[3][1] + "\n"
-                + m[0][2] + " | " + m[1][2] + " | " + m[2][2] + " | " + m[3][2] + "\n"
-                + m[0][3] + " | " + m[1][3] + " | " + m[2][3] + " | " + m[3][3];
+        return    m00 + " | " + m10 + " | " + m20 + " | " + m30 + "\n"
+                + m01 + " | " + m11 + " | " + m21 + " | " + m31 + "\n"
+                + m02 + " | " + m12 + " | " + m22 + " | " + m32 + "\n"
+                + m03 + " | " + m13 + " | " + m23 + " | " + m33;
     }
 }
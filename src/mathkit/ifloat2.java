@@ -0,0 +1,120 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * immutable 2d vector
+ *
+ * all fields are final, so an instance can be handed to other threads without copying.
+ * operations return new instances, small enough for escape analysis to keep them in registers
+ * when they do not leave the method.
+ */
+public final class ifloat2 {
+    public static final ifloat2 ZERO = new ifloat2(0.0f, 0.0f);
+
+    public final float x, y;
+
+    public ifloat2(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * copies the values of a mutable vector
+     * @param u
+     */
+    public ifloat2(float2 u) {
+        this(u.x, u.y);
+    }
+
+    /**
+     * @param dest - receives the values
+     * @return dest
+     */
+    public float2 get(float2 dest) {
+        dest.x = x;
+        dest.y = y;
+        return dest;
+    }
+
+    /**
+     * @return new mutable copy
+     */
+    public float2 toMutable() {
+        return new float2(x, y);
+    }
+
+    public ifloat2 add(ifloat2 u) {
+        return new ifloat2(x + u.x, y + u.y);
+    }
+
+    public ifloat2 sub(ifloat2 u) {
+        return new ifloat2(x - u.x, y - u.y);
+    }
+
+    public ifloat2 multiply(float scalar) {
+        return new ifloat2(x * scalar, y * scalar);
+    }
+
+    public ifloat2 multiply(ifloat2 u) {
+        return new ifloat2(x * u.x, y * u.y);
+    }
+
+    public float dot(ifloat2 u) {
+        return x * u.x + y * u.y;
+    }
+
+    public float length() {
+        return (float) Math.sqrt(x * x + y * y);
+    }
+
+    public float lengthSquared() {
+        return x * x + y * y;
+    }
+
+    public ifloat2 normalized() {
+        return multiply(1 / length());
+    }
+
+    public boolean equals(Object o) {
+        return o instanceof ifloat2 && equals((ifloat2) o);
+    }
+
+    /**
+     * checks if two vectors are equal by values
+     * @param u
+     * @return bool
+     */
+    public boolean equals(ifloat2 u) {
+        return Float.compare(x, u.x) == 0 && Float.compare(y, u.y) == 0;
+    }
+
+    public int hashCode() {
+        return 31 * Float.floatToIntBits(x) + Float.floatToIntBits(y);
+    }
+
+    public String toString() {
+        return "[ X: " + x + " Y: " + y + " ]";
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * immutable 3d vector
+ *
+ * all fields are final, so an instance can be handed to other threads without copying.
+ * operations return new instances, small enough for escape analysis to keep them in registers
+ * when they do not leave the method.
+ */
+public final class ifloat3 {
+    public static final ifloat3 ZERO = new ifloat3(0.0f, 0.0f, 0.0f);
+
+    public final float x, y, z;
+
+    public ifloat3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * copies the values of a mutable vector
+     * @param u
+     */
+    public ifloat3(float3 u) {
+        this(u.x, u.y, u.z);
+    }
+
+    /**
+     * @param dest - receives the values
+     * @return dest
+     */
+    public float3 get(float3 dest) {
+        dest.x = x;
+        dest.y = y;
+        dest.z = z;
+        return dest;
+    }
+
+    /**
+     * @return new mutable copy
+     */
+    public float3 toMutable() {
+        return new float3(x, y, z);
+    }
+
+    public ifloat3 add(ifloat3 u) {
+        return new ifloat3(x + u.x, y + u.y, z + u.z);
+    }
+
+    public ifloat3 sub(ifloat3 u) {
+        return new ifloat3(x - u.x, y - u.y, z - u.z);
+    }
+
+    public ifloat3 multiply(float scalar) {
+        return new ifloat3(x * scalar, y * scalar, z * scalar);
+    }
+
+    public ifloat3 multiply(ifloat3 u) {
+        return new ifloat3(x * u.x, y * u.y, z * u.z);
+    }
+
+    public float dot(ifloat3 u) {
+        return x * u.x + y * u.y + z * u.z;
+    }
+
+    public ifloat3 cross(ifloat3 u) {
+        return new ifloat3(y * u.z - z * u.y, z * u.x - x * u.z, x * u.y - y * u.x);
+    }
+
+    public float length() {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    public float lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    public ifloat3 normalized() {
+        return multiply(1 / length());
+    }
+
+    public boolean equals(Object o) {
+        return o instanceof ifloat3 && equals((ifloat3) o);
+    }
+
+    /**
+     * checks if two vectors are equal by values
+     * @param u
+     * @return bool
+     */
+    public boolean equals(ifloat3 u) {
+        return Float.compare(x, u.x) == 0 && Float.compare(y, u.y) == 0 && Float.compare(z, u.z) == 0;
+    }
+
+    public int hashCode() {
+        return (31 * Float.floatToIntBits(x) + Float.floatToIntBits(y)) * 31 + Float.floatToIntBits(z);
+    }
+
+    public String toString() {
+        return "[ X: " + x + " Y: " + y + " Z: " + z + " ]";
+    }
+}
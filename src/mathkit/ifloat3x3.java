@@ -0,0 +1,112 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.util.Arrays;
+
+/**
+ * immutable 3x3 matrix, same layout and element names as float3x3 (mCR = column C, row R)
+ *
+ * all fields are final, so an instance can be published to many reader threads
+ * without a defensive copy.
+ */
+public final class ifloat3x3 {
+    public static final ifloat3x3 IDENTITY = new ifloat3x3(new float3x3());
+
+    public final float m00, m01, m02;
+    public final float m10, m11, m12;
+    public final float m20, m21, m22;
+
+    /**
+     * copies the values of a mutable matrix
+     * @param mat
+     */
+    public ifloat3x3(float3x3 mat) {
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22;
+    }
+
+    /**
+     * @param dest - receives the values
+     * @return dest
+     */
+    public float3x3 get(float3x3 dest) {
+        dest.m00 = m00; dest.m10 = m10; dest.m20 = m20;
+        dest.m01 = m01; dest.m11 = m11; dest.m21 = m21;
+        dest.m02 = m02; dest.m12 = m12; dest.m22 = m22;
+        return dest;
+    }
+
+    /**
+     * @return new mutable copy
+     */
+    public float3x3 toMutable() {
+        return get(new float3x3());
+    }
+
+    /**
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float3 multiply(float3 v, float3 dest) {
+        float x = v.x, y = v.y, z = v.z;
+        dest.x = m00 * x + m10 * y + m20 * z;
+        dest.y = m01 * x + m11 * y + m21 * z;
+        dest.z = m02 * x + m12 * y + m22 * z;
+        return dest;
+    }
+
+    /**
+     * @param v
+     * @return (mat * vector)
+     */
+    public ifloat3 multiply(ifloat3 v) {
+        return new ifloat3(m00 * v.x + m10 * v.y + m20 * v.z,
+                m01 * v.x + m11 * v.y + m21 * v.z,
+                m02 * v.x + m12 * v.y + m22 * v.z);
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof ifloat3x3)) {
+            return false;
+        }
+        ifloat3x3 m = (ifloat3x3) o;
+        return Float.compare(m00, m.m00) == 0 && Float.compare(m01, m.m01) == 0 && Float.compare(m02, m.m02) == 0
+            && Float.compare(m10, m.m10) == 0 && Float.compare(m11, m.m11) == 0 && Float.compare(m12, m.m12) == 0
+            && Float.compare(m20, m.m20) == 0 && Float.compare(m21, m.m21) == 0 && Float.compare(m22, m.m22) == 0;
+    }
+
+    public int hashCode() {
+        float[] e = {m00, m01, m02, m10, m11, m12, m20, m21, m22};
+        return Arrays.hashCode(e);
+    }
+
+    public String toString() {
+        return    m00 + " | " + m10 + " | " + m20 + "\n"
+                + m01 + " | " + m11 + " | " + m21 + "\n"
+                + m02 + " | " + m12 + " | " + m22;
+    }
+}
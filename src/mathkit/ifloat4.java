@@ -0,0 +1,128 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/**
+ * immutable 4d vector
+ *
+ * all fields are final, so an instance can be handed to other threads without copying.
+ * operations return new instances, small enough for escape analysis to keep them in registers
+ * when they do not leave the method.
+ */
+public final class ifloat4 {
+    public static final ifloat4 ZERO = new ifloat4(0.0f, 0.0f, 0.0f, 0.0f);
+
+    public final float x, y, z, w;
+
+    public ifloat4(float x, float y, float z, float w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    /**
+     * copies the values of a mutable vector
+     * @param u
+     */
+    public ifloat4(float4 u) {
+        this(u.x, u.y, u.z, u.w);
+    }
+
+    /**
+     * @param dest - receives the values
+     * @return dest
+     */
+    public float4 get(float4 dest) {
+        dest.x = x;
+        dest.y = y;
+        dest.z = z;
+        dest.w = w;
+        return dest;
+    }
+
+    /**
+     * @return new mutable copy
+     */
+    public float4 toMutable() {
+        return new float4(x, y, z, w);
+    }
+
+    public ifloat4 add(ifloat4 u) {
+        return new ifloat4(x + u.x, y + u.y, z + u.z, w + u.w);
+    }
+
+    public ifloat4 sub(ifloat4 u) {
+        return new ifloat4(x - u.x, y - u.y, z - u.z, w - u.w);
+    }
+
+    public ifloat4 multiply(float scalar) {
+        return new ifloat4(x * scalar, y * scalar, z * scalar, w * scalar);
+    }
+
+    public ifloat4 multiply(ifloat4 u) {
+        return new ifloat4(x * u.x, y * u.y, z * u.z, w * u.w);
+    }
+
+    public float dot(ifloat4 u) {
+        return x * u.x + y * u.y + z * u.z + w * u.w;
+    }
+
+    public float length() {
+        return (float) Math.sqrt(x * x + y * y + z * z + w * w);
+    }
+
+    public float lengthSquared() {
+        return x * x + y * y + z * z + w * w;
+    }
+
+    public ifloat4 normalized() {
+        return multiply(1 / length());
+    }
+
+    public boolean equals(Object o) {
+        return o instanceof ifloat4 && equals((ifloat4) o);
+    }
+
+    /**
+     * checks if two vectors are equal by values
+     * @param u
+     * @return bool
+     */
+    public boolean equals(ifloat4 u) {
+        return Float.compare(x, u.x) == 0 && Float.compare(y, u.y) == 0
+                && Float.compare(z, u.z) == 0 && Float.compare(w, u.w) == 0;
+    }
+
+    public int hashCode() {
+        int h = Float.floatToIntBits(x);
+        h = 31 * h + Float.floatToIntBits(y);
+        h = 31 * h + Float.floatToIntBits(z);
+        return 31 * h + Float.floatToIntBits(w);
+    }
+
+    public String toString() {
+        return "[ X: " + x + " Y: " + y + " Z: " + z + " W: " + w + " ]";
+    }
+}
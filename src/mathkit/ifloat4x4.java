@@ -0,0 +1,247 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * immutable 4x4 matrix, same layout and element names as float4x4 (mCR = column C, row R)
+ *
+ * all fields are final, so a transform can be published to many reader threads
+ * without a defensive copy. build one from a float4x4 after composing it there.
+ */
+public final class ifloat4x4 {
+    public static final ifloat4x4 IDENTITY = new ifloat4x4(new float4x4());
+
+    public final float m00, m01, m02, m03;
+    public final float m10, m11, m12, m13;
+    public final float m20, m21, m22, m23;
+    public final float m30, m31, m32, m33;
+
+    /**
+     * copies the values of a mutable matrix
+     * @param mat
+     */
+    public ifloat4x4(float4x4 mat) {
+        m00 = mat.m00; m10 = mat.m10; m20 = mat.m20; m30 = mat.m30;
+        m01 = mat.m01; m11 = mat.m11; m21 = mat.m21; m31 = mat.m31;
+        m02 = mat.m02; m12 = mat.m12; m22 = mat.m22; m32 = mat.m32;
+        m03 = mat.m03; m13 = mat.m13; m23 = mat.m23; m33 = mat.m33;
+    }
+
+    /* column-major elements, no copy */
+    private ifloat4x4(float m00, float m01, float m02, float m03,
+                      float m10, float m11, float m12, float m13,
+                      float m20, float m21, float m22, float m23,
+                      float m30, float m31, float m32, float m33) {
+        this.m00 = m00; this.m01 = m01; this.m02 = m02; this.m03 = m03;
+        this.m10 = m10; this.m11 = m11; this.m12 = m12; this.m13 = m13;
+        this.m20 = m20; this.m21 = m21; this.m22 = m22; this.m23 = m23;
+        this.m30 = m30; this.m31 = m31; this.m32 = m32; this.m33 = m33;
+    }
+
+    /**
+     * @param src column-major elements, like float4x4.writeTo
+     * @param offset index of the first element
+     */
+    public ifloat4x4(float[] src, int offset) {
+        m00 = src[offset];      m01 = src[offset + 1];  m02 = src[offset + 2];  m03 = src[offset + 3];
+        m10 = src[offset + 4];  m11 = src[offset + 5];  m12 = src[offset + 6];  m13 = src[offset + 7];
+        m20 = src[offset + 8];  m21 = src[offset + 9];  m22 = src[offset + 10]; m23 = src[offset + 11];
+        m30 = src[offset + 12]; m31 = src[offset + 13]; m32 = src[offset + 14]; m33 = src[offset + 15];
+    }
+
+    /**
+     * @param dest - receives the values
+     * @return dest
+     */
+    public float4x4 get(float4x4 dest) {
+        dest.m00 = m00; dest.m10 = m10; dest.m20 = m20; dest.m30 = m30;
+        dest.m01 = m01; dest.m11 = m11; dest.m21 = m21; dest.m31 = m31;
+        dest.m02 = m02; dest.m12 = m12; dest.m22 = m22; dest.m32 = m32;
+        dest.m03 = m03; dest.m13 = m13; dest.m23 = m23; dest.m33 = m33;
+        return dest;
+    }
+
+    /**
+     * @return new mutable copy
+     */
+    public float4x4 toMutable() {
+        return get(new float4x4());
+    }
+
+    /**
+     * @param mat
+     * @param dest - receives this * mat, may be mat
+     * @return dest
+     */
+    public float4x4 multiply(float4x4 mat, float4x4 dest) {
+        float b00 = mat.m00, b01 = mat.m01, b02 = mat.m02, b03 = mat.m03;
+        float b10 = mat.m10, b11 = mat.m11, b12 = mat.m12, b13 = mat.m13;
+        float b20 = mat.m20, b21 = mat.m21, b22 = mat.m22, b23 = mat.m23;
+        float b30 = mat.m30, b31 = mat.m31, b32 = mat.m32, b33 = mat.m33;
+
+        dest.m00 = m00 * b00 + m10 * b01 + m20 * b02 + m30 * b03;
+        dest.m01 = m01 * b00 + m11 * b01 + m21 * b02 + m31 * b03;
+        dest.m02 = m02 * b00 + m12 * b01 + m22 * b02 + m32 * b03;
+        dest.m03 = m03 * b00 + m13 * b01 + m23 * b02 + m33 * b03;
+
+        dest.m10 = m00 * b10 + m10 * b11 + m20 * b12 + m30 * b13;
+        dest.m11 = m01 * b10 + m11 * b11 + m21 * b12 + m31 * b13;
+        dest.m12 = m02 * b10 + m12 * b11 + m22 * b12 + m32 * b13;
+        dest.m13 = m03 * b10 + m13 * b11 + m23 * b12 + m33 * b13;
+
+        dest.m20 = m00 * b20 + m10 * b21 + m20 * b22 + m30 * b23;
+        dest.m21 = m01 * b20 + m11 * b21 + m21 * b22 + m31 * b23;
+        dest.m22 = m02 * b20 + m12 * b21 + m22 * b22 + m32 * b23;
+        dest.m23 = m03 * b20 + m13 * b21 + m23 * b22 + m33 * b23;
+
+        dest.m30 = m00 * b30 + m10 * b31 + m20 * b32 + m30 * b33;
+        dest.m31 = m01 * b30 + m11 * b31 + m21 * b32 + m31 * b33;
+        dest.m32 = m02 * b30 + m12 * b31 + m22 * b32 + m32 * b33;
+        dest.m33 = m03 * b30 + m13 * b31 + m23 * b32 + m33 * b33;
+        return dest;
+    }
+
+    /**
+     * @param mat
+     * @return this * mat
+     */
+    public ifloat4x4 multiply(ifloat4x4 mat) {
+        return new ifloat4x4(
+                m00 * mat.m00 + m10 * mat.m01 + m20 * mat.m02 + m30 * mat.m03,
+                m01 * mat.m00 + m11 * mat.m01 + m21 * mat.m02 + m31 * mat.m03,
+                m02 * mat.m00 + m12 * mat.m01 + m22 * mat.m02 + m32 * mat.m03,
+                m03 * mat.m00 + m13 * mat.m01 + m23 * mat.m02 + m33 * mat.m03,
+
+                m00 * mat.m10 + m10 * mat.m11 + m20 * mat.m12 + m30 * mat.m13,
+                m01 * mat.m10 + m11 * mat.m11 + m21 * mat.m12 + m31 * mat.m13,
+                m02 * mat.m10 + m12 * mat.m11 + m22 * mat.m12 + m32 * mat.m13,
+                m03 * mat.m10 + m13 * mat.m11 + m23 * mat.m12 + m33 * mat.m13,
+
+                m00 * mat.m20 + m10 * mat.m21 + m20 * mat.m22 + m30 * mat.m23,
+                m01 * mat.m20 + m11 * mat.m21 + m21 * mat.m22 + m31 * mat.m23,
+                m02 * mat.m20 + m12 * mat.m21 + m22 * mat.m22 + m32 * mat.m23,
+                m03 * mat.m20 + m13 * mat.m21 + m23 * mat.m22 + m33 * mat.m23,
+
+                m00 * mat.m30 + m10 * mat.m31 + m20 * mat.m32 + m30 * mat.m33,
+                m01 * mat.m30 + m11 * mat.m31 + m21 * mat.m32 + m31 * mat.m33,
+                m02 * mat.m30 + m12 * mat.m31 + m22 * mat.m32 + m32 * mat.m33,
+                m03 * mat.m30 + m13 * mat.m31 + m23 * mat.m32 + m33 * mat.m33);
+    }
+
+    /**
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float4 multiply(float4 v, float4 dest) {
+        float x = v.x, y = v.y, z = v.z, w = v.w;
+        dest.x = m00 * x + m10 * y + m20 * z + m30 * w;
+        dest.y = m01 * x + m11 * y + m21 * z + m31 * w;
+        dest.z = m02 * x + m12 * y + m22 * z + m32 * w;
+        dest.w = m03 * x + m13 * y + m23 * z + m33 * w;
+        return dest;
+    }
+
+    /**
+     * multiplies a 3d vector with the matrix
+     * the vector gets divided by the homogeneous coordinate
+     * @param v
+     * @param dest - receives (mat * vector), may be v
+     * @return dest
+     */
+    public float3 multiply(float3 v, float3 dest) {
+        float x = v.x, y = v.y, z = v.z;
+        float inv = 1.0f / (m03 * x + m13 * y + m23 * z + m33);
+        dest.x = (m00 * x + m10 * y + m20 * z + m30) * inv;
+        dest.y = (m01 * x + m11 * y + m21 * z + m31) * inv;
+        dest.z = (m02 * x + m12 * y + m22 * z + m32) * inv;
+        return dest;
+    }
+
+    /**
+     * @param v
+     * @return (mat * vector), divided by the homogeneous coordinate
+     */
+    public ifloat3 multiply(ifloat3 v) {
+        float inv = 1.0f / (m03 * v.x + m13 * v.y + m23 * v.z + m33);
+        return new ifloat3((m00 * v.x + m10 * v.y + m20 * v.z + m30) * inv,
+                (m01 * v.x + m11 * v.y + m21 * v.z + m31) * inv,
+                (m02 * v.x + m12 * v.y + m22 * v.z + m32) * inv);
+    }
+
+    /**
+     * writes this matrix column after column into an array
+     * @param dst
+     * @param offset index of the first element
+     * @return dst
+     */
+    public float[] writeTo(float[] dst, int offset) {
+        dst[offset]      = m00; dst[offset + 1]  = m01; dst[offset + 2]  = m02; dst[offset + 3]  = m03;
+        dst[offset + 4]  = m10; dst[offset + 5]  = m11; dst[offset + 6]  = m12; dst[offset + 7]  = m13;
+        dst[offset + 8]  = m20; dst[offset + 9]  = m21; dst[offset + 10] = m22; dst[offset + 11] = m23;
+        dst[offset + 12] = m30; dst[offset + 13] = m31; dst[offset + 14] = m32; dst[offset + 15] = m33;
+        return dst;
+    }
+
+    /**
+     * writes this matrix column after column into an existing buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public FloatBuffer writeTo(FloatBuffer dst, int index) {
+        dst.put(index,      m00); dst.put(index + 1,  m01); dst.put(index + 2,  m02); dst.put(index + 3,  m03);
+        dst.put(index + 4,  m10); dst.put(index + 5,  m11); dst.put(index + 6,  m12); dst.put(index + 7,  m13);
+        dst.put(index + 8,  m20); dst.put(index + 9,  m21); dst.put(index + 10, m22); dst.put(index + 11, m23);
+        dst.put(index + 12, m30); dst.put(index + 13, m31); dst.put(index + 14, m32); dst.put(index + 15, m33);
+        return dst;
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof ifloat4x4)) {
+            return false;
+        }
+        ifloat4x4 m = (ifloat4x4) o;
+        return Float.compare(m00, m.m00) == 0 && Float.compare(m01, m.m01) == 0 && Float.compare(m02, m.m02) == 0 && Float.compare(m03, m.m03) == 0
+            && Float.compare(m10, m.m10) == 0 && Float.compare(m11, m.m11) == 0 && Float.compare(m12, m.m12) == 0 && Float.compare(m13, m.m13) == 0
+            && Float.compare(m20, m.m20) == 0 && Float.compare(m21, m.m21) == 0 && Float.compare(m22, m.m22) == 0 && Float.compare(m23, m.m23) == 0
+            && Float.compare(m30, m.m30) == 0 && Float.compare(m31, m.m31) == 0 && Float.compare(m32, m.m32) == 0 && Float.compare(m33, m.m33) == 0;
+    }
+
+    public int hashCode() {
+        float[] e = {m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33};
+        return Arrays.hashCode(e);
+    }
+
+    public String toString() {
+        return    m00 + " | " + m10 + " | " + m20 + " | " + m30 + "\n"
+                + m01 + " | " + m11 + " | " + m21 + " | " + m31 + "\n"
+                + m02 + " | " + m12 + " | " + m22 + " | " + m32 + "\n"
+                + m03 + " | " + m13 + " | " + m23 + " | " + m33;
+    }
+}
@@ -0,0 +1,527 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit;
+
+/** http://deadkitteninaframe.com/wordpress/ */
+/** rotation quaternion, x y z is the vector part, w the scalar part */
+
+public class quaternion {
+    public float x, y, z, w;
+
+    /* below this dot product slerp falls back to nlerp */
+    private static final float SLERP_THRESHOLD = 0.9995f;
+
+    /**
+     * identity rotation
+     */
+    public quaternion(){
+        x = y = z = 0;
+        w = 1;
+    }
+
+    public quaternion(float x, float y, float z, float w){
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    public quaternion(quaternion q){
+        set(q);
+    }
+
+    /**
+     * rotation around an axis
+     * @param axis rotation axis, does not need to be normalized
+     * @param angle in degrees
+     */
+    public quaternion(float3 axis, float angle){
+        setAxisAngle(axis, angle);
+    }
+
+    /**
+     * rotation part of a matrix
+     * @param mat orthonormal rotation matrix
+     */
+    public quaternion(float3x3 mat){
+        set(mat);
+    }
+
+    /**
+     * rotation part of a matrix
+     * @param mat matrix with an orthonormal upper 3x3
+     */
+    public quaternion(float4x4 mat){
+        set(mat);
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#clone()
+     */
+    public quaternion clone(){
+        return new quaternion(this);
+    }
+
+    /* setters */
+
+    public quaternion set(float x, float y, float z, float w){
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    public quaternion set(quaternion q){
+        x = q.x;
+        y = q.y;
+        z = q.z;
+        w = q.w;
+        return this;
+    }
+
+    public quaternion setIdentity(){
+        return set(0, 0, 0, 1);
+    }
+
+    /**
+     * sets this to a rotation around an axis
+     * @param axis rotation axis, does not need to be normalized
+     * @param angle in degrees
+     * @return this
+     */
+    public quaternion setAxisAngle(float3 axis, float angle){
+        double half = Constants.toRadians(angle) * 0.5;
+        float s = (float) Math.sin(half) / axis.length();
+        x = axis.x * s;
+        y = axis.y * s;
+        z = axis.z * s;
+        w = (float) Math.cos(half);
+        return this;
+    }
+
+    /**
+     * same rotation as float4x4.initRotationX
+     * @param angle in degrees
+     * @return this
+     */
+    public quaternion setRotationX(float angle){
+        double half = Constants.toRadians(angle) * 0.5;
+        return set((float) Math.sin(half), 0, 0, (float) Math.cos(half));
+    }
+
+    /**
+     * same rotation as float4x4.initRotationY
+     * @param angle in degrees
+     * @return this
+     */
+    public quaternion setRotationY(float angle){
+        double half = Constants.toRadians(angle) * 0.5;
+        return set(0, (float) Math.sin(half), 0, (float) Math.cos(half));
+    }
+
+    /**
+     * same rotation as float4x4.initRotateZ
+     * @param angle in degrees
+     * @return this
+     */
+    public quaternion setRotationZ(float angle){
+        double half = Constants.toRadians(angle) * 0.5;
+        return set(0, 0, (float) Math.sin(half), (float) Math.cos(half));
+    }
+
+    /**
+     * extracts the rotation of an orthonormal 3x3 matrix
+     * @param mat
+     * @return this
+     */
+    public quaternion set(float3x3 mat){
+        return setRotation(mat.m00, mat.m10, mat.m20, mat.m01, mat.m11, mat.m21, mat.m02, mat.m12, mat.m22);
+    }
+
+    /**
+     * extracts the rotation of the upper 3x3 of a matrix, which must be orthonormal
+     * @param mat
+     * @return this
+     */
+    public quaternion set(float4x4 mat){
+        return setRotation(mat.m00, mat.m10, mat.m20, mat.m01, mat.m11, mat.m21, mat.m02, mat.m12, mat.m22);
+    }
+
+    /* rows of the rotation matrix, picks the largest component to stay stable */
+    private quaternion setRotation(float r00, float r01, float r02,
+                                   float r10, float r11, float r12,
+                                   float r20, float r21, float r22){
+        float trace = r00 + r11 + r22;
+        if (trace > 0) {
+            float s = 0.5f / (float) Math.sqrt(trace + 1.0f);
+            w = 0.25f / s;
+            x = (r21 - r12) * s;
+            y = (r02 - r20) * s;
+            z = (r10 - r01) * s;
+        } else if (r00 > r11 && r00 > r22) {
+            float s = 0.5f / (float) Math.sqrt(1.0f + r00 - r11 - r22);
+            w = (r21 - r12) * s;
+            x = 0.25f / s;
+            y = (r01 + r10) * s;
+            z = (r02 + r20) * s;
+        } else if (r11 > r22) {
+            float s = 0.5f / (float) Math.sqrt(1.0f + r11 - r00 - r22);
+            w = (r02 - r20) * s;
+            x = (r01 + r10) * s;
+            y = 0.25f / s;
+            z = (r12 + r21) * s;
+        } else {
+            float s = 0.5f / (float) Math.sqrt(1.0f + r22 - r00 - r11);
+            w = (r10 - r01) * s;
+            x = (r02 + r20) * s;
+            y = (r12 + r21) * s;
+            z = 0.25f / s;
+        }
+        return this;
+    }
+
+    /* conversion */
+
+    /**
+     * @return rotation matrix of this quaternion, which must be normalized
+     */
+    public float3x3 toFloat3x3(){
+        return toFloat3x3(new float3x3());
+    }
+
+    /**
+     * @param dest - receives the rotation matrix
+     * @return dest
+     */
+    public float3x3 toFloat3x3(float3x3 dest){
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+
+        dest.m00 = 1 - 2 * (yy + zz); dest.m10 = 2 * (xy - wz);     dest.m20 = 2 * (xz + wy);
+        dest.m01 = 2 * (xy + wz);     dest.m11 = 1 - 2 * (xx + zz); dest.m21 = 2 * (yz - wx);
+        dest.m02 = 2 * (xz - wy);     dest.m12 = 2 * (yz + wx);     dest.m22 = 1 - 2 * (xx + yy);
+        return dest;
+    }
+
+    /**
+     * @return rotation matrix of this quaternion, which must be normalized
+     */
+    public float4x4 toFloat4x4(){
+        return toFloat4x4(new float4x4());
+    }
+
+    /**
+     * the translation of dest is cleared
+     * @param dest - receives the rotation matrix
+     * @return dest
+     */
+    public float4x4 toFloat4x4(float4x4 dest){
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+
+        dest.m00 = 1 - 2 * (yy + zz); dest.m10 = 2 * (xy - wz);     dest.m20 = 2 * (xz + wy);     dest.m30 = 0;
+        dest.m01 = 2 * (xy + wz);     dest.m11 = 1 - 2 * (xx + zz); dest.m21 = 2 * (yz - wx);     dest.m31 = 0;
+        dest.m02 = 2 * (xz - wy);     dest.m12 = 2 * (yz + wx);     dest.m22 = 1 - 2 * (xx + yy); dest.m32 = 0;
+        dest.m03 = 0;                 dest.m13 = 0;                 dest.m23 = 0;                 dest.m33 = 1;
+        return dest;
+    }
+
+    /* operations */
+
+    /**
+     * hamilton product, the result rotates by q first and then by this
+     * like float4x4.multiply does for matrices
+     * @param q
+     * @return this * q
+     */
+    public quaternion multiply(quaternion q){
+        return multiply(q, new quaternion());
+    }
+
+    /**
+     * hamilton product, the result rotates by q first and then by this
+     * @param q
+     * @param dest - receives the result, may be this or q
+     * @return dest
+     */
+    public quaternion multiply(quaternion q, quaternion dest){
+        float ax = x, ay = y, az = z, aw = w;
+        float bx = q.x, by = q.y, bz = q.z, bw = q.w;
+        dest.x = aw * bx + ax * bw + ay * bz - az * by;
+        dest.y = aw * by - ax * bz + ay * bw + az * bx;
+        dest.z = aw * bz + ax * by - ay * bx + az * bw;
+        dest.w = aw * bw - ax * bx - ay * by - az * bz;
+        return dest;
+    }
+
+    /**
+     * rotates a vector without building a matrix, this must be normalized
+     * @param v
+     * @return rotated vector
+     */
+    public float3 rotate(float3 v){
+        return rotate(v, new float3());
+    }
+
+    /**
+     * rotates a vector without building a matrix, this must be normalized
+     * v' = v + w * t + q x t with t = 2 * (q x v)
+     * @param v
+     * @param dest - receives the rotated vector, may be v
+     * @return dest
+     */
+    public float3 rotate(float3 v, float3 dest){
+        float vx = v.x, vy = v.y, vz = v.z;
+        float tx = 2 * (y * vz - z * vy);
+        float ty = 2 * (z * vx - x * vz);
+        float tz = 2 * (x * vy - y * vx);
+        dest.x = vx + w * tx + (y * tz - z * ty);
+        dest.y = vy + w * ty + (z * tx - x * tz);
+        dest.z = vz + w * tz + (x * ty - y * tx);
+        return dest;
+    }
+
+    /**
+     * conjugates the quaternion locally
+     * for normalized quaternions this is the inverse rotation
+     */
+    public void conjugate(){
+        x = -x;
+        y = -y;
+        z = -z;
+    }
+
+    /**
+     * @return conjugated quaternion
+     */
+    public quaternion conjugated(){
+        return conjugated(new quaternion());
+    }
+
+    /**
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public quaternion conjugated(quaternion dest){
+        return dest.set(-x, -y, -z, w);
+    }
+
+    /**
+     * @return inverse rotation, also for quaternions which are not normalized
+     */
+    public quaternion inversed(){
+        return inversed(new quaternion());
+    }
+
+    /**
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public quaternion inversed(quaternion dest){
+        float inv = 1 / lengthSquared();
+        return dest.set(-x * inv, -y * inv, -z * inv, w * inv);
+    }
+
+    /**
+     * normalizes the quaternion locally
+     */
+    public void normalize(){
+        normalized(this);
+    }
+
+    /**
+     * @return normalized quaternion
+     */
+    public quaternion normalized(){
+        return normalized(new quaternion());
+    }
+
+    /**
+     * @param dest - receives the result, may be this
+     * @return dest
+     */
+    public quaternion normalized(quaternion dest){
+        float inv = 1 / length();
+        return dest.set(x * inv, y * inv, z * inv, w * inv);
+    }
+
+    public float length(){
+        return (float) Math.sqrt(x * x + y * y + z * z + w * w);
+    }
+
+    public float lengthSquared(){
+        return (x * x + y * y + z * z + w * w);
+    }
+
+    public float dot(quaternion q){
+        return (x * q.x + y * q.y + z * q.z + w * q.w);
+    }
+
+    /* interpolation */
+
+    /**
+     * normalized linear interpolation along the shortest path
+     * cheaper than slerp, the angular velocity is not constant
+     * @param q target rotation
+     * @param t 0 returns this, 1 returns q
+     * @return interpolated rotation
+     */
+    public quaternion nlerp(quaternion q, float t){
+        return nlerp(q, t, new quaternion());
+    }
+
+    /**
+     * normalized linear interpolation along the shortest path
+     * @param q target rotation
+     * @param t 0 returns this, 1 returns q
+     * @param dest - receives the result, may be this or q
+     * @return dest
+     */
+    public quaternion nlerp(quaternion q, float t, quaternion dest){
+        float s = 1 - t;
+        if (dot(q) < 0) {
+            t = -t;
+        }
+        dest.set(x * s + q.x * t, y * s + q.y * t, z * s + q.z * t, w * s + q.w * t);
+        return dest.normalized(dest);
+    }
+
+    /**
+     * spherical linear interpolation along the shortest path
+     * both quaternions must be normalized
+     * @param q target rotation
+     * @param t 0 returns this, 1 returns q
+     * @return interpolated rotation
+     */
+    public quaternion slerp(quaternion q, float t){
+        return slerp(q, t, new quaternion());
+    }
+
+    /**
+     * spherical linear interpolation along the shortest path
+     * both quaternions must be normalized
+     * @param q target rotation
+     * @param t 0 returns this, 1 returns q
+     * @param dest - receives the result, may be this or q
+     * @return dest
+     */
+    public quaternion slerp(quaternion q, float t, quaternion dest){
+        float d = dot(q);
+        float sign = 1;
+        if (d < 0) {
+            d = -d;
+            sign = -1;
+        }
+        if (d > SLERP_THRESHOLD) {
+            return nlerp(q, t, dest);
+        }
+        double theta = Math.acos(d);
+        double inv = 1.0 / Math.sin(theta);
+        float s0 = (float) (Math.sin((1 - t) * theta) * inv);
+        float s1 = (float) (Math.sin(t * theta) * inv) * sign;
+        return dest.set(x * s0 + q.x * s1, y * s0 + q.y * s1, z * s0 + q.z * s1, w * s0 + q.w * s1);
+    }
+
+    /**
+     * slerps count packed quaternions (x, y, z, w) with one shared weight,
+     * e.g. to sample all joints of a pose between two key frames
+     * @param from packed start rotations
+     * @param fromOffset index of the first float
+     * @param to packed target rotations
+     * @param toOffset index of the first float
+     * @param t 0 returns from, 1 returns to
+     * @param dst receives the packed result, may overlap from or to at the same offset
+     * @param dstOffset index of the first float
+     * @param count number of quaternions
+     */
+    public static void slerp(float[] from, int fromOffset, float[] to, int toOffset, float t,
+                             float[] dst, int dstOffset, int count){
+        for (int i = 0; i < count; i++) {
+            slerp(from, fromOffset + (i << 2), to, toOffset + (i << 2), t, dst, dstOffset + (i << 2));
+        }
+    }
+
+    /**
+     * slerps count packed quaternions (x, y, z, w) with one weight per quaternion
+     * @param from packed start rotations
+     * @param fromOffset index of the first float
+     * @param to packed target rotations
+     * @param toOffset index of the first float
+     * @param t weights
+     * @param tOffset index of the first weight
+     * @param dst receives the packed result, may overlap from or to at the same offset
+     * @param dstOffset index of the first float
+     * @param count number of quaternions
+     */
+    public static void slerp(float[] from, int fromOffset, float[] to, int toOffset, float[] t, int tOffset,
+                             float[] dst, int dstOffset, int count){
+        for (int i = 0; i < count; i++) {
+            slerp(from, fromOffset + (i << 2), to, toOffset + (i << 2), t[tOffset + i], dst, dstOffset + (i << 2));
+        }
+    }
+
+    /* same math as slerp(quaternion, float, quaternion) on packed floats */
+    private static void slerp(float[] a, int ai, float[] b, int bi, float t, float[] dst, int di){
+        float ax = a[ai], ay = a[ai + 1], az = a[ai + 2], aw = a[ai + 3];
+        float bx = b[bi], by = b[bi + 1], bz = b[bi + 2], bw = b[bi + 3];
+
+        float d = ax * bx + ay * by + az * bz + aw * bw;
+        float sign = 1;
+        if (d < 0) {
+            d = -d;
+            sign = -1;
+        }
+
+        float s0, s1;
+        if (d > SLERP_THRESHOLD) {
+            s0 = 1 - t;
+            s1 = t * sign;
+        } else {
+            double theta = Math.acos(d);
+            double inv = 1.0 / Math.sin(theta);
+            s0 = (float) (Math.sin((1 - t) * theta) * inv);
+            s1 = (float) (Math.sin(t * theta) * inv) * sign;
+        }
+
+        float rx = ax * s0 + bx * s1, ry = ay * s0 + by * s1, rz = az * s0 + bz * s1, rw = aw * s0 + bw * s1;
+        if (d > SLERP_THRESHOLD) {
+            float inv = 1 / (float) Math.sqrt(rx * rx + ry * ry + rz * rz + rw * rw);
+            rx *= inv; ry *= inv; rz *= inv; rw *= inv;
+        }
+        dst[di] = rx;
+        dst[di + 1] = ry;
+        dst[di + 2] = rz;
+        dst[di + 3] = rw;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        return "[ X: " + x + " Y: " + y + " Z: " + z + " W: " + w + " ]";
+    }
+}
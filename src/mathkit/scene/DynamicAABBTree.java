@@ -0,0 +1,548 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.scene;
+
+import java.util.Arrays;
+
+/**
+ * dynamic AABB tree for moving objects, in the style of physics broadphase trees
+ *
+ * every proxy is a leaf with a fattened box, small movements inside the fat box
+ * cost nothing, larger ones remove and reinsert the leaf. insertion picks the
+ * sibling with the lowest surface area cost and tree rotations keep the heights
+ * of siblings within one.
+ *
+ * the nodes are stored in primitive arrays with a free list, proxy ids are node
+ * indices and stay valid until the proxy is destroyed. queries reuse one stack,
+ * use one instance per thread.
+ */
+public class DynamicAABBTree {
+    public static final int NULL = -1;
+
+    /* moveProxy predicts this many displacements ahead */
+    private static final float DISPLACEMENT_MULTIPLIER = 4.0f;
+
+    private final float margin;
+
+    private float[] bounds;     // 6 floats per node, min x y z, max x y z
+    private int[] parents;
+    private int[] child1;       // next free node for free nodes
+    private int[] child2;
+    private int[] heights;      // 0 for leaves, -1 for free nodes
+    private int[] userData;
+
+    private int root = NULL;
+    private int freeList = NULL;
+    private int nodeCount;
+    private int proxyCount;
+
+    private int[] stack = new int[64];
+
+    public DynamicAABBTree() {
+        this(0.1f, 16);
+    }
+
+    /**
+     * @param margin fattening of the proxy boxes on every side
+     * @param capacity initial number of nodes, grows on demand
+     */
+    public DynamicAABBTree(float margin, int capacity) {
+        this.margin = margin;
+        capacity = Math.max(capacity, 1);
+        bounds = new float[capacity * 6];
+        parents = new int[capacity];
+        child1 = new int[capacity];
+        child2 = new int[capacity];
+        heights = new int[capacity];
+        userData = new int[capacity];
+        linkFree(0, capacity);
+    }
+
+    /* proxies */
+
+    /**
+     * inserts a proxy with a fattened box
+     * @param userData value returned by getUserData
+     * @return proxy id
+     */
+    public int createProxy(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int userData) {
+        int proxy = allocateNode();
+        int o = proxy * 6;
+        bounds[o] = minX - margin; bounds[o + 1] = minY - margin; bounds[o + 2] = minZ - margin;
+        bounds[o + 3] = maxX + margin; bounds[o + 4] = maxY + margin; bounds[o + 5] = maxZ + margin;
+        heights[proxy] = 0;
+        this.userData[proxy] = userData;
+        insertLeaf(proxy);
+        proxyCount++;
+        return proxy;
+    }
+
+    public void destroyProxy(int proxy) {
+        checkProxy(proxy);
+        removeLeaf(proxy);
+        freeNode(proxy);
+        proxyCount--;
+    }
+
+    /**
+     * updates the box of a proxy, the leaf only moves in the tree when the box leaves its fat box
+     * @param proxy
+     * @param dx displacement since the last move, extends the fat box in that direction
+     * @param dy
+     * @param dz
+     * @return true if the proxy was reinserted
+     */
+    public boolean moveProxy(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                             float dx, float dy, float dz) {
+        checkProxy(proxy);
+        int o = proxy * 6;
+        if (bounds[o] <= minX && bounds[o + 1] <= minY && bounds[o + 2] <= minZ
+                && bounds[o + 3] >= maxX && bounds[o + 4] >= maxY && bounds[o + 5] >= maxZ) {
+            return false;
+        }
+        removeLeaf(proxy);
+
+        dx *= DISPLACEMENT_MULTIPLIER;
+        dy *= DISPLACEMENT_MULTIPLIER;
+        dz *= DISPLACEMENT_MULTIPLIER;
+        bounds[o]     = minX - margin + Math.min(dx, 0);
+        bounds[o + 1] = minY - margin + Math.min(dy, 0);
+        bounds[o + 2] = minZ - margin + Math.min(dz, 0);
+        bounds[o + 3] = maxX + margin + Math.max(dx, 0);
+        bounds[o + 4] = maxY + margin + Math.max(dy, 0);
+        bounds[o + 5] = maxZ + margin + Math.max(dz, 0);
+
+        insertLeaf(proxy);
+        return true;
+    }
+
+    public boolean moveProxy(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return moveProxy(proxy, minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0);
+    }
+
+    public int getUserData(int proxy) {
+        checkProxy(proxy);
+        return userData[proxy];
+    }
+
+    /**
+     * @param proxy
+     * @param dst receives min x y z, max x y z of the fat box
+     * @param offset index of the first float
+     * @return dst
+     */
+    public float[] getFatBounds(int proxy, float[] dst, int offset) {
+        checkProxy(proxy);
+        System.arraycopy(bounds, proxy * 6, dst, offset, 6);
+        return dst;
+    }
+
+    public int proxyCount() {
+        return proxyCount;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return height of the tree, 0 for a single leaf or an empty tree
+     */
+    public int height() {
+        return root == NULL ? 0 : heights[root];
+    }
+
+    /**
+     * @return largest height difference between two siblings
+     */
+    public int maxBalance() {
+        int max = 0;
+        for (int n = 0; n < heights.length; n++) {
+            if (heights[n] > 0) {
+                max = Math.max(max, Math.abs(heights[child2[n]] - heights[child1[n]]));
+            }
+        }
+        return max;
+    }
+
+    /* queries */
+
+    /**
+     * proxies whose fat boxes overlap a box
+     * @param results receives proxy ids, as many as fit
+     * @return number of overlapping proxies, may be larger than results.length
+     */
+    public int query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] results) {
+        if (root == NULL) {
+            return 0;
+        }
+        int found = 0, top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            int o = node * 6;
+            if (bounds[o] > maxX || bounds[o + 3] < minX
+                    || bounds[o + 1] > maxY || bounds[o + 4] < minY
+                    || bounds[o + 2] > maxZ || bounds[o + 5] < minZ) {
+                continue;
+            }
+            if (heights[node] == 0) {
+                if (found < results.length) {
+                    results[found] = node;
+                }
+                found++;
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * overlapping fat boxes between the proxies of this tree and another tree
+     * by descending both trees at once
+     * @param other another tree
+     * @param pairs receives proxy id of this tree and proxy id of the other tree per pair, as many as fit
+     * @return number of pairs, may be larger than pairs.length / 2
+     */
+    public int overlapPairs(DynamicAABBTree other, int[] pairs) {
+        if (other == this) {
+            return overlapPairs(pairs);
+        }
+        if (root == NULL || other.root == NULL) {
+            return 0;
+        }
+        return descend(other, root, other.root, pairs, 0, false);
+    }
+
+    /**
+     * overlapping fat boxes between the proxies of this tree, every pair is reported once
+     * @param pairs receives two proxy ids per pair, the lower one first, as many as fit
+     * @return number of pairs, may be larger than pairs.length / 2
+     */
+    public int overlapPairs(int[] pairs) {
+        /* every pair of leaves has exactly one lowest common ancestor, descend its two subtrees */
+        int found = 0;
+        for (int n = 0; n < heights.length; n++) {
+            if (heights[n] > 0) {
+                found = descend(this, child1[n], child2[n], pairs, found, true);
+            }
+        }
+        return found;
+    }
+
+    /* reports the overlapping leaves of subtree a of this tree and subtree b of other */
+    private int descend(DynamicAABBTree other, int a, int b, int[] pairs, int found, boolean sorted) {
+        float[] ob = other.bounds;
+        int top = 0;
+        stack[top++] = a;
+        stack[top++] = b;
+        while (top > 0) {
+            b = stack[--top];
+            a = stack[--top];
+            if (!overlaps(bounds, a, ob, b)) {
+                continue;
+            }
+            boolean leafA = heights[a] == 0, leafB = other.heights[b] == 0;
+            if (leafA && leafB) {
+                if (found * 2 + 1 < pairs.length) {
+                    pairs[found * 2] = sorted ? Math.min(a, b) : a;
+                    pairs[found * 2 + 1] = sorted ? Math.max(a, b) : b;
+                }
+                found++;
+                continue;
+            }
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            /* split the larger node */
+            if (leafB || (!leafA && area(bounds, a) > area(ob, b))) {
+                stack[top++] = child1[a]; stack[top++] = b;
+                stack[top++] = child2[a]; stack[top++] = b;
+            } else {
+                stack[top++] = a; stack[top++] = other.child1[b];
+                stack[top++] = a; stack[top++] = other.child2[b];
+            }
+        }
+        return found;
+    }
+
+    /* tree maintenance, after Box2D b2DynamicTree */
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parents[leaf] = NULL;
+            return;
+        }
+
+        /* find the best sibling */
+        int l = leaf * 6;
+        float lminX = bounds[l], lminY = bounds[l + 1], lminZ = bounds[l + 2];
+        float lmaxX = bounds[l + 3], lmaxY = bounds[l + 4], lmaxZ = bounds[l + 5];
+        int index = root;
+        while (heights[index] > 0) {
+            int c1 = child1[index], c2 = child2[index];
+            float area = area(bounds, index);
+            float combinedArea = combinedArea(index, lminX, lminY, lminZ, lmaxX, lmaxY, lmaxZ);
+
+            /* cost of creating a new parent for this node and the new leaf */
+            float cost = 2.0f * combinedArea;
+            /* minimum cost of pushing the leaf further down the tree */
+            float inheritanceCost = 2.0f * (combinedArea - area);
+
+            float cost1 = combinedArea(c1, lminX, lminY, lminZ, lmaxX, lmaxY, lmaxZ) + inheritanceCost;
+            if (heights[c1] > 0) {
+                cost1 -= area(bounds, c1);
+            }
+            float cost2 = combinedArea(c2, lminX, lminY, lminZ, lmaxX, lmaxY, lmaxZ) + inheritanceCost;
+            if (heights[c2] > 0) {
+                cost2 -= area(bounds, c2);
+            }
+
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+        int sibling = index;
+
+        /* create a new parent */
+        int oldParent = parents[sibling];
+        int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        userData[newParent] = 0;
+        heights[newParent] = heights[sibling] + 1;
+        combine(newParent, leaf, sibling);
+
+        if (oldParent != NULL) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        refit(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = child1[parent] == leaf ? child2[parent] : child1[parent];
+
+        if (grandParent != NULL) {
+            if (child1[grandParent] == parent) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parents[sibling] = grandParent;
+            freeNode(parent);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parents[sibling] = NULL;
+            freeNode(parent);
+        }
+    }
+
+    /* walks up from index, balancing and refitting the ancestors */
+    private void refit(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int c1 = child1[index], c2 = child2[index];
+            heights[index] = 1 + Math.max(heights[c1], heights[c2]);
+            combine(index, c1, c2);
+            index = parents[index];
+        }
+    }
+
+    /* rotates the taller grandchild up if a is imbalanced, returns the new root of the subtree */
+    private int balance(int a) {
+        if (heights[a] < 2) {
+            return a;
+        }
+        int b = child1[a], c = child2[a];
+        int balance = heights[c] - heights[b];
+
+        if (balance > 1) {
+            /* rotate c up */
+            int f = child1[c], g = child2[c];
+            child1[c] = a;
+            parents[c] = parents[a];
+            parents[a] = c;
+            replaceChild(parents[c], a, c);
+            if (heights[f] > heights[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parents[g] = a;
+                combine(a, b, g);
+                combine(c, a, f);
+                heights[a] = 1 + Math.max(heights[b], heights[g]);
+                heights[c] = 1 + Math.max(heights[a], heights[f]);
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parents[f] = a;
+                combine(a, b, f);
+                combine(c, a, g);
+                heights[a] = 1 + Math.max(heights[b], heights[f]);
+                heights[c] = 1 + Math.max(heights[a], heights[g]);
+            }
+            return c;
+        }
+
+        if (balance < -1) {
+            /* rotate b up */
+            int d = child1[b], e = child2[b];
+            child1[b] = a;
+            parents[b] = parents[a];
+            parents[a] = b;
+            replaceChild(parents[b], a, b);
+            if (heights[d] > heights[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parents[e] = a;
+                combine(a, c, e);
+                combine(b, a, d);
+                heights[a] = 1 + Math.max(heights[c], heights[e]);
+                heights[b] = 1 + Math.max(heights[a], heights[d]);
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parents[d] = a;
+                combine(a, c, d);
+                combine(b, a, e);
+                heights[a] = 1 + Math.max(heights[c], heights[d]);
+                heights[b] = 1 + Math.max(heights[a], heights[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL) {
+            root = newChild;
+        } else if (child1[parent] == oldChild) {
+            child1[parent] = newChild;
+        } else {
+            child2[parent] = newChild;
+        }
+    }
+
+    /* bounds helpers */
+
+    private void combine(int dst, int a, int b) {
+        int d = dst * 6, o1 = a * 6, o2 = b * 6;
+        bounds[d]     = Math.min(bounds[o1],     bounds[o2]);
+        bounds[d + 1] = Math.min(bounds[o1 + 1], bounds[o2 + 1]);
+        bounds[d + 2] = Math.min(bounds[o1 + 2], bounds[o2 + 2]);
+        bounds[d + 3] = Math.max(bounds[o1 + 3], bounds[o2 + 3]);
+        bounds[d + 4] = Math.max(bounds[o1 + 4], bounds[o2 + 4]);
+        bounds[d + 5] = Math.max(bounds[o1 + 5], bounds[o2 + 5]);
+    }
+
+    private float combinedArea(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int o = node * 6;
+        float ex = Math.max(bounds[o + 3], maxX) - Math.min(bounds[o], minX);
+        float ey = Math.max(bounds[o + 4], maxY) - Math.min(bounds[o + 1], minY);
+        float ez = Math.max(bounds[o + 5], maxZ) - Math.min(bounds[o + 2], minZ);
+        return ex * ey + ey * ez + ez * ex;
+    }
+
+    /* half the surface area */
+    private static float area(float[] bounds, int node) {
+        int o = node * 6;
+        float ex = bounds[o + 3] - bounds[o], ey = bounds[o + 4] - bounds[o + 1], ez = bounds[o + 5] - bounds[o + 2];
+        return ex * ey + ey * ez + ez * ex;
+    }
+
+    private static boolean overlaps(float[] a, int na, float[] b, int nb) {
+        int o1 = na * 6, o2 = nb * 6;
+        return a[o1] <= b[o2 + 3] && a[o1 + 3] >= b[o2]
+                && a[o1 + 1] <= b[o2 + 4] && a[o1 + 4] >= b[o2 + 1]
+                && a[o1 + 2] <= b[o2 + 5] && a[o1 + 5] >= b[o2 + 2];
+    }
+
+    /* node pool */
+
+    private int allocateNode() {
+        if (freeList == NULL) {
+            int capacity = parents.length;
+            int grown = capacity * 2;
+            bounds = Arrays.copyOf(bounds, grown * 6);
+            parents = Arrays.copyOf(parents, grown);
+            child1 = Arrays.copyOf(child1, grown);
+            child2 = Arrays.copyOf(child2, grown);
+            heights = Arrays.copyOf(heights, grown);
+            userData = Arrays.copyOf(userData, grown);
+            linkFree(capacity, grown);
+        }
+        int node = freeList;
+        freeList = child1[node];
+        parents[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        heights[node] = 0;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        child1[node] = freeList;
+        heights[node] = -1;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void linkFree(int from, int to) {
+        for (int n = from; n < to; n++) {
+            child1[n] = n + 1 < to ? n + 1 : freeList;
+            heights[n] = -1;
+        }
+        freeList = from;
+    }
+
+    private void checkProxy(int proxy) {
+        if (proxy < 0 || proxy >= heights.length || heights[proxy] != 0) {
+            throw new IllegalArgumentException("no proxy " + proxy);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.scene;
+
+import mathkit.float4;
+import mathkit.float4x4;
+
+/**
+ * view frustum as six planes, extracted from a projection or view-projection matrix
+ *
+ * the planes point inwards, a point p is inside when a * x + b * y + c * z + d >= 0
+ * for all of them. works for the matrices of initPerspective / initOrthographic
+ * and any product with a view or model matrix (clip space z in [-w, w]).
+ *
+ * the bulk tests take packed arrays and write one bit per object into a long[]
+ * bitset. object i uses spheres[i * 4 .. i * 4 + 3] (x, y, z, radius) or
+ * boxes[i * 6 .. i * 6 + 5] (min x, y, z, max x, y, z) and bit i.
+ * an optional byte[] per object remembers the plane that rejected it last time,
+ * that plane is tested first (temporal coherence).
+ */
+public class Frustum {
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int BOTTOM = 2;
+    public static final int TOP = 3;
+    public static final int NEAR = 4;
+    public static final int FAR = 5;
+
+    /* a, b, c, d per plane, (a, b, c) normalized */
+    private final float[] planes = new float[24];
+    private final float4x4 product = new float4x4();
+
+    public Frustum() {
+    }
+
+    /**
+     * @param viewProjection projection or projection * view matrix
+     */
+    public Frustum(float4x4 viewProjection) {
+        set(viewProjection);
+    }
+
+    /**
+     * extracts the planes of a (view-)projection matrix
+     * @param m projection or projection * view matrix
+     * @return this
+     */
+    public Frustum set(float4x4 m) {
+        /* row 3 +/- row 0, 1, 2 */
+        setPlane(LEFT,   m.m03 + m.m00, m.m13 + m.m10, m.m23 + m.m20, m.m33 + m.m30);
+        setPlane(RIGHT,  m.m03 - m.m00, m.m13 - m.m10, m.m23 - m.m20, m.m33 - m.m30);
+        setPlane(BOTTOM, m.m03 + m.m01, m.m13 + m.m11, m.m23 + m.m21, m.m33 + m.m31);
+        setPlane(TOP,    m.m03 - m.m01, m.m13 - m.m11, m.m23 - m.m21, m.m33 - m.m31);
+        setPlane(NEAR,   m.m03 + m.m02, m.m13 + m.m12, m.m23 + m.m22, m.m33 + m.m32);
+        setPlane(FAR,    m.m03 - m.m02, m.m13 - m.m12, m.m23 - m.m22, m.m33 - m.m32);
+        return this;
+    }
+
+    /**
+     * extracts the planes of projection * view without allocating
+     * @param projection
+     * @param view
+     * @return this
+     */
+    public Frustum set(float4x4 projection, float4x4 view) {
+        return set(projection.multiply(view, product));
+    }
+
+    private void setPlane(int plane, float a, float b, float c, float d) {
+        float inv = 1.0f / (float) Math.sqrt(a * a + b * b + c * c);
+        int i = plane << 2;
+        planes[i] = a * inv;
+        planes[i + 1] = b * inv;
+        planes[i + 2] = c * inv;
+        planes[i + 3] = d * inv;
+    }
+
+    /**
+     * @param plane LEFT, RIGHT, BOTTOM, TOP, NEAR or FAR
+     * @param dest - receives a, b, c, d
+     * @return dest
+     */
+    public float4 getPlane(int plane, float4 dest) {
+        int i = plane << 2;
+        dest.x = planes[i];
+        dest.y = planes[i + 1];
+        dest.z = planes[i + 2];
+        dest.w = planes[i + 3];
+        return dest;
+    }
+
+    /* single tests */
+
+    public boolean containsPoint(float x, float y, float z) {
+        for (int i = 0; i < 24; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the sphere is at least partially inside
+     */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        return rejectSphere(x, y, z, radius, 0) < 0;
+    }
+
+    /**
+     * @return true if the box is at least partially inside, may be conservative near the corners
+     */
+    public boolean intersectsAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return rejectAABB(minX, minY, minZ, maxX, maxY, maxZ, 0) < 0;
+    }
+
+    /* returns the rejecting plane or -1, starting with plane first */
+    private int rejectSphere(float x, float y, float z, float radius, int first) {
+        for (int n = 0, p = first; n < 6; n++, p = p == 5 ? 0 : p + 1) {
+            int i = p << 2;
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /* tests the corner furthest along each plane normal */
+    private int rejectAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int first) {
+        for (int n = 0, p = first; n < 6; n++, p = p == 5 ? 0 : p + 1) {
+            int i = p << 2;
+            float a = planes[i], b = planes[i + 1], c = planes[i + 2];
+            float x = a >= 0 ? maxX : minX;
+            float y = b >= 0 ? maxY : minY;
+            float z = c >= 0 ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[i + 3] < 0) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /* bulk tests */
+
+    /**
+     * culls packed spheres (x, y, z, radius)
+     * @param spheres packed spheres
+     * @param first index of the first object
+     * @param count number of objects
+     * @param visible bitset, bit i is set for visible objects and cleared otherwise
+     * @return number of visible objects
+     */
+    public int cullSpheres(float[] spheres, int first, int count, long[] visible) {
+        return cullSpheres(spheres, first, count, visible, null);
+    }
+
+    /**
+     * culls packed spheres (x, y, z, radius) with temporal coherence
+     * @param spheres packed spheres
+     * @param first index of the first object
+     * @param count number of objects
+     * @param visible bitset, bit i is set for visible objects and cleared otherwise
+     * @param lastPlane plane that rejected object i last time, updated in place, may be null
+     * @return number of visible objects
+     */
+    public int cullSpheres(float[] spheres, int first, int count, long[] visible, byte[] lastPlane) {
+        int visibleCount = 0;
+        for (int o = first, end = first + count; o < end; o++) {
+            int s = o << 2;
+            int start = lastPlane != null ? lastPlane[o] : 0;
+            int plane = rejectSphere(spheres[s], spheres[s + 1], spheres[s + 2], spheres[s + 3], start);
+            if (plane < 0) {
+                visible[o >>> 6] |= 1L << o;
+                visibleCount++;
+            } else {
+                visible[o >>> 6] &= ~(1L << o);
+                if (lastPlane != null) {
+                    lastPlane[o] = (byte) plane;
+                }
+            }
+        }
+        return visibleCount;
+    }
+
+    /**
+     * culls packed axis aligned boxes (min x, y, z, max x, y, z)
+     * @param boxes packed boxes
+     * @param first index of the first object
+     * @param count number of objects
+     * @param visible bitset, bit i is set for visible objects and cleared otherwise
+     * @return number of visible objects
+     */
+    public int cullAABBs(float[] boxes, int first, int count, long[] visible) {
+        return cullAABBs(boxes, first, count, visible, null);
+    }
+
+    /**
+     * culls packed axis aligned boxes (min x, y, z, max x, y, z) with temporal coherence
+     * @param boxes packed boxes
+     * @param first index of the first object
+     * @param count number of objects
+     * @param visible bitset, bit i is set for visible objects and cleared otherwise
+     * @param lastPlane plane that rejected object i last time, updated in place, may be null
+     * @return number of visible objects
+     */
+    public int cullAABBs(float[] boxes, int first, int count, long[] visible, byte[] lastPlane) {
+        int visibleCount = 0;
+        for (int o = first, end = first + count; o < end; o++) {
+            int b = o * 6;
+            int start = lastPlane != null ? lastPlane[o] : 0;
+            int plane = rejectAABB(boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3], boxes[b + 4], boxes[b + 5], start);
+            if (plane < 0) {
+                visible[o >>> 6] |= 1L << o;
+                visibleCount++;
+            } else {
+                visible[o >>> 6] &= ~(1L << o);
+                if (lastPlane != null) {
+                    lastPlane[o] = (byte) plane;
+                }
+            }
+        }
+        return visibleCount;
+    }
+
+    /**
+     * @param count number of objects
+     * @return length of a long[] bitset for count objects
+     */
+    public static int bitsetLength(int count) {
+        return (count + 63) >>> 6;
+    }
+
+    /**
+     * @param visible bitset filled by one of the cull methods
+     * @param index object index
+     * @return true if the bit of the object is set
+     */
+    public static boolean isVisible(long[] visible, int index) {
+        return (visible[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.scene;
+
+import mathkit.MathMode;
+import mathkit.float2;
+import mathkit.float4x4;
+import mathkit.quaternion;
+
+import java.nio.FloatBuffer;
+
+/**
+ * fixed capacity matrix stack for render traversal
+ *
+ * all matrices live in one float[], 16 floats per level, column-major like
+ * float4x4.writeTo. push copies the top matrix one level up, pop drops it.
+ * the operations change the top matrix in place, mulRight and the
+ * translate / rotate / scale helpers apply the new transform in model space
+ * (top = top * m), like the fixed function matrix stack, mulLeft in
+ * parent space (top = m * top).
+ *
+ * nothing allocates after construction.
+ */
+public class MatrixStack {
+    private final float[] matrices;
+    private final int capacity;
+    /* index of the first element of the top matrix */
+    private int top;
+    private final float2 sinCos = new float2();
+
+    /**
+     * @param capacity maximum depth, at least 1; the stack starts with the identity at depth 1
+     */
+    public MatrixStack(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        matrices = new float[capacity << 4];
+        loadIdentity();
+    }
+
+    /**
+     * @return number of matrices on the stack, at least 1
+     */
+    public int depth() {
+        return (top >> 4) + 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * duplicates the top matrix
+     * @return this
+     */
+    public MatrixStack push() {
+        if (top + 16 >= matrices.length) {
+            throw new IllegalStateException("matrix stack overflow, capacity " + capacity);
+        }
+        System.arraycopy(matrices, top, matrices, top + 16, 16);
+        top += 16;
+        return this;
+    }
+
+    /**
+     * removes the top matrix, the bottom matrix can not be removed
+     * @return this
+     */
+    public MatrixStack pop() {
+        if (top == 0) {
+            throw new IllegalStateException("matrix stack underflow");
+        }
+        top -= 16;
+        return this;
+    }
+
+    /**
+     * drops everything above the bottom matrix and sets it to the identity
+     * @return this
+     */
+    public MatrixStack clear() {
+        top = 0;
+        return loadIdentity();
+    }
+
+    /**
+     * @return this
+     */
+    public MatrixStack loadIdentity() {
+        float[] a = matrices;
+        int t = top;
+        for (int i = 0; i < 16; i++) {
+            a[t + i] = 0;
+        }
+        a[t] = a[t + 5] = a[t + 10] = a[t + 15] = 1;
+        return this;
+    }
+
+    /**
+     * replaces the top matrix
+     * @param m
+     * @return this
+     */
+    public MatrixStack load(float4x4 m) {
+        m.writeTo(matrices, top);
+        return this;
+    }
+
+    /**
+     * replaces the top matrix
+     * @param src column-major matrix
+     * @param offset index of the first element
+     * @return this
+     */
+    public MatrixStack load(float[] src, int offset) {
+        System.arraycopy(src, offset, matrices, top, 16);
+        return this;
+    }
+
+    /**
+     * @param dest - receives the top matrix
+     * @return dest
+     */
+    public float4x4 get(float4x4 dest) {
+        return dest.readFrom(matrices, top);
+    }
+
+    /**
+     * @param dst - receives the top matrix, column-major
+     * @param offset index of the first element
+     * @return dst
+     */
+    public float[] get(float[] dst, int offset) {
+        System.arraycopy(matrices, top, dst, offset, 16);
+        return dst;
+    }
+
+    /**
+     * @param column
+     * @param row
+     * @return element of the top matrix
+     */
+    public float get(int column, int row) {
+        return matrices[top + (column << 2) + row];
+    }
+
+    /**
+     * writes the top matrix column after column into an existing buffer
+     * absolute puts, the position of the buffer does not change
+     * @param dst
+     * @param index float index of the first element
+     * @return dst
+     */
+    public FloatBuffer upload(FloatBuffer dst, int index) {
+        float[] a = matrices;
+        int t = top;
+        for (int i = 0; i < 16; i++) {
+            dst.put(index + i, a[t + i]);
+        }
+        return dst;
+    }
+
+    /**
+     * top = top * m
+     * @param m
+     * @return this
+     */
+    public MatrixStack mulRight(float4x4 m) {
+        return mulRight(m.m00, m.m01, m.m02, m.m03, m.m10, m.m11, m.m12, m.m13,
+                m.m20, m.m21, m.m22, m.m23, m.m30, m.m31, m.m32, m.m33);
+    }
+
+    /**
+     * top = top * m
+     * @param src column-major matrix
+     * @param offset index of the first element
+     * @return this
+     */
+    public MatrixStack mulRight(float[] src, int offset) {
+        int o = offset;
+        return mulRight(src[o], src[o + 1], src[o + 2], src[o + 3], src[o + 4], src[o + 5], src[o + 6], src[o + 7],
+                src[o + 8], src[o + 9], src[o + 10], src[o + 11], src[o + 12], src[o + 13], src[o + 14], src[o + 15]);
+    }
+
+    private MatrixStack mulRight(float b00, float b01, float b02, float b03, float b10, float b11, float b12, float b13,
+                                 float b20, float b21, float b22, float b23, float b30, float b31, float b32, float b33) {
+        float[] a = matrices;
+        int t = top;
+        float a00 = a[t],      a01 = a[t + 1],  a02 = a[t + 2],  a03 = a[t + 3];
+        float a10 = a[t + 4],  a11 = a[t + 5],  a12 = a[t + 6],  a13 = a[t + 7];
+        float a20 = a[t + 8],  a21 = a[t + 9],  a22 = a[t + 10], a23 = a[t + 11];
+        float a30 = a[t + 12], a31 = a[t + 13], a32 = a[t + 14], a33 = a[t + 15];
+
+        a[t]      = a00 * b00 + a10 * b01 + a20 * b02 + a30 * b03;
+        a[t + 1]  = a01 * b00 + a11 * b01 + a21 * b02 + a31 * b03;
+        a[t + 2]  = a02 * b00 + a12 * b01 + a22 * b02 + a32 * b03;
+        a[t + 3]  = a03 * b00 + a13 * b01 + a23 * b02 + a33 * b03;
+
+        a[t + 4]  = a00 * b10 + a10 * b11 + a20 * b12 + a30 * b13;
+        a[t + 5]  = a01 * b10 + a11 * b11 + a21 * b12 + a31 * b13;
+        a[t + 6]  = a02 * b10 + a12 * b11 + a22 * b12 + a32 * b13;
+        a[t + 7]  = a03 * b10 + a13 * b11 + a23 * b12 + a33 * b13;
+
+        a[t + 8]  = a00 * b20 + a10 * b21 + a20 * b22 + a30 * b23;
+        a[t + 9]  = a01 * b20 + a11 * b21 + a21 * b22 + a31 * b23;
+        a[t + 10] = a02 * b20 + a12 * b21 + a22 * b22 + a32 * b23;
+        a[t + 11] = a03 * b20 + a13 * b21 + a23 * b22 + a33 * b23;
+
+        a[t + 12] = a00 * b30 + a10 * b31 + a20 * b32 + a30 * b33;
+        a[t + 13] = a01 * b30 + a11 * b31 + a21 * b32 + a31 * b33;
+        a[t + 14] = a02 * b30 + a12 * b31 + a22 * b32 + a32 * b33;
+        a[t + 15] = a03 * b30 + a13 * b31 + a23 * b32 + a33 * b33;
+        return this;
+    }
+
+    /**
+     * top = m * top
+     * @param m
+     * @return this
+     */
+    public MatrixStack mulLeft(float4x4 m) {
+        float[] a = matrices;
+        for (int c = top, end = top + 16; c < end; c += 4) {
+            float b0 = a[c], b1 = a[c + 1], b2 = a[c + 2], b3 = a[c + 3];
+            a[c]     = m.m00 * b0 + m.m10 * b1 + m.m20 * b2 + m.m30 * b3;
+            a[c + 1] = m.m01 * b0 + m.m11 * b1 + m.m21 * b2 + m.m31 * b3;
+            a[c + 2] = m.m02 * b0 + m.m12 * b1 + m.m22 * b2 + m.m32 * b3;
+            a[c + 3] = m.m03 * b0 + m.m13 * b1 + m.m23 * b2 + m.m33 * b3;
+        }
+        return this;
+    }
+
+    /**
+     * top = m * top
+     * @param src column-major matrix
+     * @param offset index of the first element
+     * @return this
+     */
+    public MatrixStack mulLeft(float[] src, int offset) {
+        float[] a = matrices;
+        int o = offset;
+        for (int c = top, end = top + 16; c < end; c += 4) {
+            float b0 = a[c], b1 = a[c + 1], b2 = a[c + 2], b3 = a[c + 3];
+            a[c]     = src[o]     * b0 + src[o + 4] * b1 + src[o + 8]  * b2 + src[o + 12] * b3;
+            a[c + 1] = src[o + 1] * b0 + src[o + 5] * b1 + src[o + 9]  * b2 + src[o + 13] * b3;
+            a[c + 2] = src[o + 2] * b0 + src[o + 6] * b1 + src[o + 10] * b2 + src[o + 14] * b3;
+            a[c + 3] = src[o + 3] * b0 + src[o + 7] * b1 + src[o + 11] * b2 + src[o + 15] * b3;
+        }
+        return this;
+    }
+
+    /**
+     * top = top * translation(x, y, z)
+     * @return this
+     */
+    public MatrixStack translate(float x, float y, float z) {
+        float[] a = matrices;
+        int t = top;
+        for (int r = 0; r < 4; r++) {
+            a[t + 12 + r] += a[t + r] * x + a[t + 4 + r] * y + a[t + 8 + r] * z;
+        }
+        return this;
+    }
+
+    /**
+     * top = top * scale(x, y, z)
+     * @return this
+     */
+    public MatrixStack scale(float x, float y, float z) {
+        float[] a = matrices;
+        int t = top;
+        for (int r = 0; r < 4; r++) {
+            a[t + r] *= x;
+            a[t + 4 + r] *= y;
+            a[t + 8 + r] *= z;
+        }
+        return this;
+    }
+
+    /**
+     * top = top * scale(factor)
+     * @return this
+     */
+    public MatrixStack scale(float factor) {
+        return scale(factor, factor, factor);
+    }
+
+    /**
+     * top = top * rotation around an axis, same direction as float4x4.initRotationX/Y/initRotateZ
+     * @param angle in degrees
+     * @param x axis, does not need to be normalized
+     * @param y
+     * @param z
+     * @return this
+     */
+    public MatrixStack rotate(float angle, float x, float y, float z) {
+        return rotate(angle, x, y, z, MathMode.PRECISE);
+    }
+
+    /**
+     * top = top * rotation around an axis, same direction as float4x4.initRotationX/Y/initRotateZ
+     * @param angle in degrees
+     * @param x axis, does not need to be normalized
+     * @param y
+     * @param z
+     * @param mode - trig implementation
+     * @return this
+     */
+    public MatrixStack rotate(float angle, float x, float y, float z, MathMode mode) {
+        float lengthSquared = x * x + y * y + z * z;
+        if (lengthSquared == 0) {
+            return this;
+        }
+        float inv = mode.invSqrt(lengthSquared);
+        x *= inv;
+        y *= inv;
+        z *= inv;
+        mode.sinCos(mode.toRadians(angle), sinCos);
+        float c = sinCos.x, s = sinCos.y, t = 1 - c;
+
+        /* rodrigues, r<column><row> */
+        return rotate(t * x * x + c,     t * x * y + s * z, t * x * z - s * y,
+                      t * x * y - s * z, t * y * y + c,     t * y * z + s * x,
+                      t * x * z + s * y, t * y * z - s * x, t * z * z + c);
+    }
+
+    /**
+     * top = top * rotation of a unit quaternion
+     * @param q
+     * @return this
+     */
+    public MatrixStack rotate(quaternion q) {
+        float x = q.x, y = q.y, z = q.z, w = q.w;
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+        return rotate(1 - 2 * (yy + zz), 2 * (xy + wz),     2 * (xz - wy),
+                      2 * (xy - wz),     1 - 2 * (xx + zz), 2 * (yz + wx),
+                      2 * (xz + wy),     2 * (yz - wx),     1 - 2 * (xx + yy));
+    }
+
+    /* top = top * r for a 3x3 rotation or scale, the translation column stays */
+    private MatrixStack rotate(float r00, float r01, float r02, float r10, float r11, float r12,
+                               float r20, float r21, float r22) {
+        float[] a = matrices;
+        int t = top;
+        for (int r = 0; r < 4; r++) {
+            float a0 = a[t + r], a1 = a[t + 4 + r], a2 = a[t + 8 + r];
+            a[t + r]     = a0 * r00 + a1 * r01 + a2 * r02;
+            a[t + 4 + r] = a0 * r10 + a1 * r11 + a2 * r12;
+            a[t + 8 + r] = a0 * r20 + a1 * r21 + a2 * r22;
+        }
+        return this;
+    }
+}
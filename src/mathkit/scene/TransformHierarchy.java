@@ -0,0 +1,404 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.scene;
+
+import mathkit.ParallelKernels;
+import mathkit.float3;
+import mathkit.float4x4;
+import mathkit.quaternion;
+
+import java.util.Arrays;
+
+/**
+ * transform hierarchy with incremental world matrix updates
+ *
+ * nodes are stored in flat arrays ordered by parent, every parent has a lower
+ * index than its children, so one forward pass computes all world matrices.
+ * local transforms are translation, rotation (quaternion) and scale, local
+ * and world matrices are packed column-major, 16 floats per node.
+ *
+ * setters only mark the node dirty, update() rebuilds the local matrices of
+ * dirty nodes and the world matrices of dirty nodes and their descendants,
+ * starting at the first dirty index. static parts of the scene cost one flag
+ * check per node and frame.
+ */
+public class TransformHierarchy {
+    public static final int ROOT = -1;
+
+    private static final byte LOCAL_DIRTY = 1;
+    private static final byte WORLD_CHANGED = 2;
+
+    private int size;
+    private int[] parents;
+    private int[] depths;
+    private float[] translations;   // x y z per node
+    private float[] rotations;      // x y z w per node
+    private float[] scales;         // x y z per node
+    private float[] locals;         // 16 per node
+    private float[] worlds;         // 16 per node
+    private byte[] flags;
+
+    /* first node with LOCAL_DIRTY set, size if none */
+    private int firstDirty;
+
+    /* nodes grouped by depth for the parallel update, rebuilt after structural changes */
+    private int[] levelNodes;
+    private int[] levelStarts;
+    private boolean levelsValid;
+
+    public TransformHierarchy() {
+        this(64);
+    }
+
+    /**
+     * @param capacity initial number of nodes, grows on demand
+     */
+    public TransformHierarchy(int capacity) {
+        capacity = Math.max(capacity, 1);
+        parents = new int[capacity];
+        depths = new int[capacity];
+        translations = new float[capacity * 3];
+        rotations = new float[capacity * 4];
+        scales = new float[capacity * 3];
+        locals = new float[capacity * 16];
+        worlds = new float[capacity * 16];
+        flags = new byte[capacity];
+    }
+
+    /* structure */
+
+    /**
+     * appends a node with identity local transform
+     * @param parent index of an existing node or ROOT
+     * @return index of the new node
+     */
+    public int add(int parent) {
+        if (parent != ROOT && (parent < 0 || parent >= size)) {
+            throw new IndexOutOfBoundsException("parent " + parent + " out of range, size " + size);
+        }
+        if (size == parents.length) {
+            grow(size * 2);
+        }
+        int node = size++;
+        parents[node] = parent;
+        depths[node] = parent == ROOT ? 0 : depths[parent] + 1;
+        setTranslation(node, 0, 0, 0);
+        setRotation(node, 0, 0, 0, 1);
+        setScale(node, 1, 1, 1);
+        levelsValid = false;
+        return node;
+    }
+
+    /**
+     * moves a node (and its subtree) under another parent
+     * the parent order must be kept, so newParent has to be lower than node
+     * @param node
+     * @param newParent index lower than node or ROOT
+     */
+    public void setParent(int node, int newParent) {
+        checkNode(node);
+        if (newParent != ROOT && (newParent < 0 || newParent >= node)) {
+            throw new IllegalArgumentException("parent " + newParent + " must be lower than node " + node);
+        }
+        parents[node] = newParent;
+        /* depths of the subtree change, children always come after their parents */
+        depths[node] = newParent == ROOT ? 0 : depths[newParent] + 1;
+        for (int i = node + 1; i < size; i++) {
+            depths[i] = parents[i] == ROOT ? 0 : depths[parents[i]] + 1;
+        }
+        levelsValid = false;
+        markDirty(node);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getParent(int node) {
+        checkNode(node);
+        return parents[node];
+    }
+
+    public int getDepth(int node) {
+        checkNode(node);
+        return depths[node];
+    }
+
+    /**
+     * removes all nodes
+     */
+    public void clear() {
+        size = 0;
+        firstDirty = 0;
+        levelsValid = false;
+    }
+
+    /* local transform */
+
+    public void setTranslation(int node, float x, float y, float z) {
+        checkNode(node);
+        int i = node * 3;
+        translations[i] = x; translations[i + 1] = y; translations[i + 2] = z;
+        markDirty(node);
+    }
+
+    public void setTranslation(int node, float3 t) {
+        setTranslation(node, t.x, t.y, t.z);
+    }
+
+    public void setRotation(int node, float x, float y, float z, float w) {
+        checkNode(node);
+        int i = node << 2;
+        rotations[i] = x; rotations[i + 1] = y; rotations[i + 2] = z; rotations[i + 3] = w;
+        markDirty(node);
+    }
+
+    /**
+     * @param node
+     * @param q normalized rotation
+     */
+    public void setRotation(int node, quaternion q) {
+        setRotation(node, q.x, q.y, q.z, q.w);
+    }
+
+    public void setScale(int node, float x, float y, float z) {
+        checkNode(node);
+        int i = node * 3;
+        scales[i] = x; scales[i + 1] = y; scales[i + 2] = z;
+        markDirty(node);
+    }
+
+    public float3 getTranslation(int node, float3 dest) {
+        checkNode(node);
+        int i = node * 3;
+        dest.x = translations[i]; dest.y = translations[i + 1]; dest.z = translations[i + 2];
+        return dest;
+    }
+
+    public quaternion getRotation(int node, quaternion dest) {
+        checkNode(node);
+        int i = node << 2;
+        return dest.set(rotations[i], rotations[i + 1], rotations[i + 2], rotations[i + 3]);
+    }
+
+    public float3 getScale(int node, float3 dest) {
+        checkNode(node);
+        int i = node * 3;
+        dest.x = scales[i]; dest.y = scales[i + 1]; dest.z = scales[i + 2];
+        return dest;
+    }
+
+    /* matrices */
+
+    /**
+     * local matrix as of the last update()
+     * @param node
+     * @param dest - receives the matrix
+     * @return dest
+     */
+    public float4x4 getLocal(int node, float4x4 dest) {
+        checkNode(node);
+        return dest.readFrom(locals, node << 4);
+    }
+
+    /**
+     * world matrix as of the last update()
+     * @param node
+     * @param dest - receives the matrix
+     * @return dest
+     */
+    public float4x4 getWorld(int node, float4x4 dest) {
+        checkNode(node);
+        return dest.readFrom(worlds, node << 4);
+    }
+
+    /**
+     * packed world matrices, 16 floats per node in node order, valid up to size() * 16
+     * the array is replaced when the hierarchy grows
+     * @return world matrices
+     */
+    public float[] worldMatrices() {
+        return worlds;
+    }
+
+    /**
+     * @param node
+     * @return true if the world matrix of node changed in the last update()
+     */
+    public boolean worldChanged(int node) {
+        checkNode(node);
+        return (flags[node] & WORLD_CHANGED) != 0;
+    }
+
+    /* update */
+
+    /**
+     * @return true if an update() would change any matrix
+     */
+    public boolean isDirty() {
+        return firstDirty < size;
+    }
+
+    /**
+     * recomputes the local matrices of dirty nodes and the world matrices of
+     * dirty nodes and their descendants
+     */
+    public void update() {
+        int start = firstDirty;
+        /* flags before the first dirty node still describe an older update */
+        Arrays.fill(flags, 0, start, (byte) 0);
+        for (int node = start; node < size; node++) {
+            updateNode(node);
+        }
+        firstDirty = size;
+    }
+
+    /**
+     * same result as update(), but the nodes of each depth level run in parallel
+     * worth it for wide trees, deep chains are serial by nature
+     * @param kernels pool, threshold and chunk size to use
+     */
+    public void update(ParallelKernels kernels) {
+        if (firstDirty >= size) {
+            Arrays.fill(flags, 0, size, (byte) 0);
+            return;
+        }
+        buildLevels();
+        for (int level = 0; level + 1 < levelStarts.length; level++) {
+            int from = levelStarts[level];
+            kernels.run(from, levelStarts[level + 1] - from, (offset, count) -> {
+                for (int n = offset, end = offset + count; n < end; n++) {
+                    updateNode(levelNodes[n]);
+                }
+            });
+        }
+        firstDirty = size;
+    }
+
+    private void updateNode(int node) {
+        int parent = parents[node];
+        byte f = flags[node];
+        boolean changed = (f & LOCAL_DIRTY) != 0 || (parent != ROOT && (flags[parent] & WORLD_CHANGED) != 0);
+        if ((f & LOCAL_DIRTY) != 0) {
+            composeLocal(node);
+        }
+        if (changed) {
+            int o = node << 4;
+            if (parent == ROOT) {
+                System.arraycopy(locals, o, worlds, o, 16);
+            } else {
+                multiplyAffine(worlds, parent << 4, locals, o, worlds, o);
+            }
+        }
+        flags[node] = changed ? WORLD_CHANGED : 0;
+    }
+
+    /* local = translation * rotation * scale */
+    private void composeLocal(int node) {
+        int t = node * 3, r = node << 2, o = node << 4;
+        float x = rotations[r], y = rotations[r + 1], z = rotations[r + 2], w = rotations[r + 3];
+        float sx = scales[t], sy = scales[t + 1], sz = scales[t + 2];
+
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+
+        float[] m = locals;
+        m[o]      = (1 - 2 * (yy + zz)) * sx; m[o + 1]  = 2 * (xy + wz) * sx;       m[o + 2]  = 2 * (xz - wy) * sx;       m[o + 3]  = 0;
+        m[o + 4]  = 2 * (xy - wz) * sy;       m[o + 5]  = (1 - 2 * (xx + zz)) * sy; m[o + 6]  = 2 * (yz + wx) * sy;       m[o + 7]  = 0;
+        m[o + 8]  = 2 * (xz + wy) * sz;       m[o + 9]  = 2 * (yz - wx) * sz;       m[o + 10] = (1 - 2 * (xx + yy)) * sz; m[o + 11] = 0;
+        m[o + 12] = translations[t];          m[o + 13] = translations[t + 1];      m[o + 14] = translations[t + 2];      m[o + 15] = 1;
+    }
+
+    /* dst = a * b for packed affine matrices, the last rows are (0, 0, 0, 1) */
+    private static void multiplyAffine(float[] a, int ao, float[] b, int bo, float[] dst, int d) {
+        float a00 = a[ao],     a01 = a[ao + 1],  a02 = a[ao + 2];
+        float a10 = a[ao + 4], a11 = a[ao + 5],  a12 = a[ao + 6];
+        float a20 = a[ao + 8], a21 = a[ao + 9],  a22 = a[ao + 10];
+        float a30 = a[ao + 12], a31 = a[ao + 13], a32 = a[ao + 14];
+
+        for (int c = 0; c < 12; c += 4) {
+            float b0 = b[bo + c], b1 = b[bo + c + 1], b2 = b[bo + c + 2];
+            dst[d + c]     = a00 * b0 + a10 * b1 + a20 * b2;
+            dst[d + c + 1] = a01 * b0 + a11 * b1 + a21 * b2;
+            dst[d + c + 2] = a02 * b0 + a12 * b1 + a22 * b2;
+            dst[d + c + 3] = 0;
+        }
+        float b0 = b[bo + 12], b1 = b[bo + 13], b2 = b[bo + 14];
+        dst[d + 12] = a00 * b0 + a10 * b1 + a20 * b2 + a30;
+        dst[d + 13] = a01 * b0 + a11 * b1 + a21 * b2 + a31;
+        dst[d + 14] = a02 * b0 + a12 * b1 + a22 * b2 + a32;
+        dst[d + 15] = 1;
+    }
+
+    /* counting sort of the nodes by depth, parent order is kept inside a level */
+    private void buildLevels() {
+        if (levelsValid) {
+            return;
+        }
+        int maxDepth = 0;
+        for (int i = 0; i < size; i++) {
+            maxDepth = Math.max(maxDepth, depths[i]);
+        }
+        levelStarts = new int[maxDepth + 2];
+        for (int i = 0; i < size; i++) {
+            levelStarts[depths[i] + 1]++;
+        }
+        for (int l = 1; l < levelStarts.length; l++) {
+            levelStarts[l] += levelStarts[l - 1];
+        }
+        if (levelNodes == null || levelNodes.length < size) {
+            levelNodes = new int[parents.length];
+        }
+        int[] fill = Arrays.copyOf(levelStarts, levelStarts.length);
+        for (int i = 0; i < size; i++) {
+            levelNodes[fill[depths[i]]++] = i;
+        }
+        levelsValid = true;
+    }
+
+    private void markDirty(int node) {
+        flags[node] |= LOCAL_DIRTY;
+        if (node < firstDirty) {
+            firstDirty = node;
+        }
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= size) {
+            throw new IndexOutOfBoundsException("node " + node + " out of range, size " + size);
+        }
+    }
+
+    private void grow(int capacity) {
+        parents = Arrays.copyOf(parents, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        translations = Arrays.copyOf(translations, capacity * 3);
+        rotations = Arrays.copyOf(rotations, capacity * 4);
+        scales = Arrays.copyOf(scales, capacity * 3);
+        locals = Arrays.copyOf(locals, capacity * 16);
+        worlds = Arrays.copyOf(worlds, capacity * 16);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
@@ -0,0 +1,575 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.scene;
+
+import mathkit.float3;
+
+/**
+ * bounding volume hierarchy over a static triangle soup
+ *
+ * built with binned SAH (surface area heuristic), the nodes live in flat arrays:
+ * six floats of bounds and two ints per node. inner nodes store the index of
+ * their left child, the right child follows directly. leaves store the first
+ * triangle and the triangle count. the triangles are copied in leaf order, so a
+ * leaf reads one contiguous block.
+ *
+ * triangles are packed as nine floats (v0 x y z, v1 x y z, v2 x y z), queries
+ * report the index of the triangle in the source array.
+ *
+ * queries share a traversal stack, use one instance per thread.
+ */
+public class TriangleBVH {
+    private static final int BINS = 16;
+    private static final int MAX_LEAF_SIZE = 16;
+
+    private final int triangleCount;
+    private final float[] triangles;     // 9 floats per triangle, leaf order
+    private final int[] triangleIds;     // leaf order -> source index
+
+    private final float[] bounds;        // 6 floats per node
+    private final int[] nodes;           // 2 ints per node: left child or first triangle, triangle count (0 for inner nodes)
+    private int nodeCount;
+    private int depth;
+
+    private final int[] stack;
+
+    /* build scratch, released after the constructor */
+    private float[] centroids;
+    private float[] triBounds;
+    private int[] binCounts;
+    private float[] binBounds;
+    private float[] rightAreas;
+
+    /**
+     * builds the hierarchy
+     * @param src packed triangles, nine floats each
+     * @param offset index of the first float
+     * @param count number of triangles
+     */
+    public TriangleBVH(float[] src, int offset, int count) {
+        triangleCount = count;
+        triangleIds = new int[count];
+        centroids = new float[count * 3];
+        triBounds = new float[count * 6];
+        for (int t = 0; t < count; t++) {
+            triangleIds[t] = t;
+            int v = offset + t * 9, b = t * 6;
+            for (int a = 0; a < 3; a++) {
+                float p0 = src[v + a], p1 = src[v + 3 + a], p2 = src[v + 6 + a];
+                float min = Math.min(p0, Math.min(p1, p2));
+                float max = Math.max(p0, Math.max(p1, p2));
+                triBounds[b + a] = min;
+                triBounds[b + 3 + a] = max;
+                centroids[t * 3 + a] = (min + max) * 0.5f;
+            }
+        }
+
+        int capacity = Math.max(1, 2 * count - 1);
+        bounds = new float[capacity * 6];
+        nodes = new int[capacity * 2];
+        binCounts = new int[BINS];
+        binBounds = new float[BINS * 6];
+        rightAreas = new float[BINS];
+
+        nodeCount = 1;
+        nodes[0] = 0;
+        nodes[1] = count;
+        subdivide(0, 1);
+
+        triangles = new float[count * 9];
+        for (int t = 0; t < count; t++) {
+            System.arraycopy(src, offset + triangleIds[t] * 9, triangles, t * 9, 9);
+        }
+        stack = new int[depth + 1];
+
+        centroids = null;
+        triBounds = null;
+        binCounts = null;
+        binBounds = null;
+        rightAreas = null;
+    }
+
+    public int triangleCount() {
+        return triangleCount;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of levels, 1 for a single leaf
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /* build */
+
+    private void subdivide(int node, int level) {
+        depth = Math.max(depth, level);
+        int first = nodes[node * 2], count = nodes[node * 2 + 1];
+        updateBounds(node, first, count);
+        if (count <= 1) {
+            return;
+        }
+
+        /* centroid bounds select the bins */
+        float cminX = Float.POSITIVE_INFINITY, cminY = Float.POSITIVE_INFINITY, cminZ = Float.POSITIVE_INFINITY;
+        float cmaxX = Float.NEGATIVE_INFINITY, cmaxY = Float.NEGATIVE_INFINITY, cmaxZ = Float.NEGATIVE_INFINITY;
+        for (int i = first; i < first + count; i++) {
+            int c = triangleIds[i] * 3;
+            cminX = Math.min(cminX, centroids[c]);     cmaxX = Math.max(cmaxX, centroids[c]);
+            cminY = Math.min(cminY, centroids[c + 1]); cmaxY = Math.max(cmaxY, centroids[c + 1]);
+            cminZ = Math.min(cminZ, centroids[c + 2]); cmaxZ = Math.max(cmaxZ, centroids[c + 2]);
+        }
+
+        int bestAxis = -1, bestBin = 0;
+        float bestCost = Float.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            float min = axis == 0 ? cminX : axis == 1 ? cminY : cminZ;
+            float max = axis == 0 ? cmaxX : axis == 1 ? cmaxY : cmaxZ;
+            if (max <= min) {
+                continue;
+            }
+            fillBins(first, count, axis, min, BINS / (max - min));
+
+            /* sweep from the right to get the areas, then from the left to evaluate the planes */
+            float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+            float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+            for (int b = BINS - 1; b > 0; b--) {
+                int o = b * 6;
+                minX = Math.min(minX, binBounds[o]);     maxX = Math.max(maxX, binBounds[o + 3]);
+                minY = Math.min(minY, binBounds[o + 1]); maxY = Math.max(maxY, binBounds[o + 4]);
+                minZ = Math.min(minZ, binBounds[o + 2]); maxZ = Math.max(maxZ, binBounds[o + 5]);
+                rightAreas[b] = area(minX, minY, minZ, maxX, maxY, maxZ);
+            }
+            minX = minY = minZ = Float.POSITIVE_INFINITY;
+            maxX = maxY = maxZ = Float.NEGATIVE_INFINITY;
+            int leftCount = 0;
+            for (int b = 0; b < BINS - 1; b++) {
+                int o = b * 6;
+                minX = Math.min(minX, binBounds[o]);     maxX = Math.max(maxX, binBounds[o + 3]);
+                minY = Math.min(minY, binBounds[o + 1]); maxY = Math.max(maxY, binBounds[o + 4]);
+                minZ = Math.min(minZ, binBounds[o + 2]); maxZ = Math.max(maxZ, binBounds[o + 5]);
+                leftCount += binCounts[b];
+                int rightCount = count - leftCount;
+                if (leftCount == 0 || rightCount == 0) {
+                    continue;
+                }
+                float cost = leftCount * area(minX, minY, minZ, maxX, maxY, maxZ) + rightCount * rightAreas[b + 1];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        /* all centroids in one point, nothing to split */
+        if (bestAxis < 0) {
+            return;
+        }
+        /* leaf cost is count * area, a split costs one traversal step plus the children */
+        int o = node * 6;
+        float nodeArea = area(bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5]);
+        float splitCost = 1.0f + bestCost / nodeArea;
+        if (splitCost >= count && count <= MAX_LEAF_SIZE) {
+            return;
+        }
+
+        float min = bestAxis == 0 ? cminX : bestAxis == 1 ? cminY : cminZ;
+        float max = bestAxis == 0 ? cmaxX : bestAxis == 1 ? cmaxY : cmaxZ;
+        float scale = BINS / (max - min);
+        int i = first, j = first + count - 1;
+        while (i <= j) {
+            if (bin(centroids[triangleIds[i] * 3 + bestAxis], min, scale) <= bestBin) {
+                i++;
+            } else {
+                int tmp = triangleIds[i];
+                triangleIds[i] = triangleIds[j];
+                triangleIds[j--] = tmp;
+            }
+        }
+
+        int left = nodeCount;
+        nodeCount += 2;
+        nodes[left * 2] = first;
+        nodes[left * 2 + 1] = i - first;
+        nodes[left * 2 + 2] = i;
+        nodes[left * 2 + 3] = count - (i - first);
+        nodes[node * 2] = left;
+        nodes[node * 2 + 1] = 0;
+
+        subdivide(left, level + 1);
+        subdivide(left + 1, level + 1);
+    }
+
+    private void fillBins(int first, int count, int axis, float min, float scale) {
+        for (int b = 0; b < BINS; b++) {
+            binCounts[b] = 0;
+            int o = b * 6;
+            binBounds[o] = binBounds[o + 1] = binBounds[o + 2] = Float.POSITIVE_INFINITY;
+            binBounds[o + 3] = binBounds[o + 4] = binBounds[o + 5] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = first; i < first + count; i++) {
+            int t = triangleIds[i];
+            int b = bin(centroids[t * 3 + axis], min, scale);
+            binCounts[b]++;
+            int o = b * 6, s = t * 6;
+            binBounds[o]     = Math.min(binBounds[o],     triBounds[s]);
+            binBounds[o + 1] = Math.min(binBounds[o + 1], triBounds[s + 1]);
+            binBounds[o + 2] = Math.min(binBounds[o + 2], triBounds[s + 2]);
+            binBounds[o + 3] = Math.max(binBounds[o + 3], triBounds[s + 3]);
+            binBounds[o + 4] = Math.max(binBounds[o + 4], triBounds[s + 4]);
+            binBounds[o + 5] = Math.max(binBounds[o + 5], triBounds[s + 5]);
+        }
+    }
+
+    private static int bin(float centroid, float min, float scale) {
+        return Math.min(BINS - 1, (int) ((centroid - min) * scale));
+    }
+
+    private void updateBounds(int node, int first, int count) {
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = first; i < first + count; i++) {
+            int s = triangleIds[i] * 6;
+            minX = Math.min(minX, triBounds[s]);     maxX = Math.max(maxX, triBounds[s + 3]);
+            minY = Math.min(minY, triBounds[s + 1]); maxY = Math.max(maxY, triBounds[s + 4]);
+            minZ = Math.min(minZ, triBounds[s + 2]); maxZ = Math.max(maxZ, triBounds[s + 5]);
+        }
+        int o = node * 6;
+        bounds[o] = minX; bounds[o + 1] = minY; bounds[o + 2] = minZ;
+        bounds[o + 3] = maxX; bounds[o + 4] = maxY; bounds[o + 5] = maxZ;
+    }
+
+    private static float area(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        float ex = maxX - minX, ey = maxY - minY, ez = maxZ - minZ;
+        return ex * ey + ey * ez + ez * ex;
+    }
+
+    /* ray queries */
+
+    /**
+     * closest hit along a ray
+     * @param origin
+     * @param direction does not need to be normalized, distances are in multiples of it
+     * @param maxDistance
+     * @param hit receives distance, barycentric u and v of the hit, may be null
+     * @return source index of the hit triangle or -1
+     */
+    public int raycast(float3 origin, float3 direction, float maxDistance, float[] hit) {
+        return raycast(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance, hit);
+    }
+
+    /**
+     * closest hit along a ray
+     * @param hit receives distance, barycentric u and v of the hit, may be null
+     * @return source index of the hit triangle or -1
+     */
+    public int raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, float[] hit) {
+        return traverse(ox, oy, oz, dx, dy, dz, maxDistance, hit, false);
+    }
+
+    /**
+     * any hit along a ray, e.g. for line of sight checks
+     * @return true if a triangle is hit closer than maxDistance
+     */
+    public boolean occluded(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance) {
+        return traverse(ox, oy, oz, dx, dy, dz, maxDistance, null, true) >= 0;
+    }
+
+    public boolean occluded(float3 origin, float3 direction, float maxDistance) {
+        return occluded(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance);
+    }
+
+    private int traverse(float ox, float oy, float oz, float dx, float dy, float dz, float tMax, float[] hit, boolean anyHit) {
+        if (triangleCount == 0) {
+            return -1;
+        }
+        /* a zero component would give 0 * inf = NaN in slab() for origins on a bounds plane */
+        float idx = 1.0f / nonZero(dx), idy = 1.0f / nonZero(dy), idz = 1.0f / nonZero(dz);
+        int best = -1;
+        float bestU = 0, bestV = 0;
+        int top = 0;
+        int node = 0;
+        if (slab(0, ox, oy, oz, idx, idy, idz, tMax) == Float.POSITIVE_INFINITY) {
+            return -1;
+        }
+        while (true) {
+            int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                for (int t = nodes[node * 2], end = t + count; t < end; t++) {
+                    int v = t * 9;
+                    /* moeller trumbore */
+                    float e1x = triangles[v + 3] - triangles[v], e1y = triangles[v + 4] - triangles[v + 1], e1z = triangles[v + 5] - triangles[v + 2];
+                    float e2x = triangles[v + 6] - triangles[v], e2y = triangles[v + 7] - triangles[v + 1], e2z = triangles[v + 8] - triangles[v + 2];
+                    float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+                    float det = e1x * px + e1y * py + e1z * pz;
+                    if (det == 0) {
+                        continue;
+                    }
+                    float inv = 1.0f / det;
+                    float sx = ox - triangles[v], sy = oy - triangles[v + 1], sz = oz - triangles[v + 2];
+                    float u = (sx * px + sy * py + sz * pz) * inv;
+                    if (u < 0 || u > 1) {
+                        continue;
+                    }
+                    float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+                    float w = (dx * qx + dy * qy + dz * qz) * inv;
+                    if (w < 0 || u + w > 1) {
+                        continue;
+                    }
+                    float d = (e2x * qx + e2y * qy + e2z * qz) * inv;
+                    if (d >= 0 && d < tMax) {
+                        tMax = d;
+                        best = t;
+                        bestU = u;
+                        bestV = w;
+                        if (anyHit) {
+                            return triangleIds[t];
+                        }
+                    }
+                }
+            } else {
+                /* visit the nearer child first, push the other one */
+                int left = nodes[node * 2];
+                float tl = slab(left, ox, oy, oz, idx, idy, idz, tMax);
+                float tr = slab(left + 1, ox, oy, oz, idx, idy, idz, tMax);
+                if (tl != Float.POSITIVE_INFINITY && tr != Float.POSITIVE_INFINITY) {
+                    if (tl <= tr) {
+                        stack[top++] = left + 1;
+                        node = left;
+                    } else {
+                        stack[top++] = left;
+                        node = left + 1;
+                    }
+                    continue;
+                } else if (tl != Float.POSITIVE_INFINITY) {
+                    node = left;
+                    continue;
+                } else if (tr != Float.POSITIVE_INFINITY) {
+                    node = left + 1;
+                    continue;
+                }
+            }
+            if (top == 0) {
+                break;
+            }
+            node = stack[--top];
+        }
+        if (best < 0) {
+            return -1;
+        }
+        if (hit != null) {
+            hit[0] = tMax;
+            hit[1] = bestU;
+            hit[2] = bestV;
+        }
+        return triangleIds[best];
+    }
+
+    /* replaces +-0 by the smallest normal float of the same sign, the reciprocal stays finite */
+    private static float nonZero(float d) {
+        return d == 0 ? Math.copySign(Float.MIN_NORMAL, d) : d;
+    }
+
+    /* entry distance of the ray into the node bounds, infinity on a miss */
+    private float slab(int node, float ox, float oy, float oz, float idx, float idy, float idz, float tMax) {
+        int o = node * 6;
+        float tx1 = (bounds[o] - ox) * idx, tx2 = (bounds[o + 3] - ox) * idx;
+        float ty1 = (bounds[o + 1] - oy) * idy, ty2 = (bounds[o + 4] - oy) * idy;
+        float tz1 = (bounds[o + 2] - oz) * idz, tz2 = (bounds[o + 5] - oz) * idz;
+        float tmin = Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.min(tz1, tz2));
+        float tmax = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.max(tz1, tz2));
+        return tmax >= tmin && tmax >= 0 && tmin < tMax ? tmin : Float.POSITIVE_INFINITY;
+    }
+
+    /* overlap queries */
+
+    /**
+     * triangles touching a sphere
+     * @param results receives source triangle indices, as many as fit
+     * @return number of overlapping triangles, may be larger than results.length
+     */
+    public int overlapSphere(float x, float y, float z, float radius, int[] results) {
+        if (triangleCount == 0) {
+            return 0;
+        }
+        float r2 = radius * radius;
+        int found = 0, top = 0, node = 0;
+        while (true) {
+            int o = node * 6;
+            float ex = Math.max(Math.max(bounds[o] - x, x - bounds[o + 3]), 0);
+            float ey = Math.max(Math.max(bounds[o + 1] - y, y - bounds[o + 4]), 0);
+            float ez = Math.max(Math.max(bounds[o + 2] - z, z - bounds[o + 5]), 0);
+            if (ex * ex + ey * ey + ez * ez <= r2) {
+                int count = nodes[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = nodes[node * 2] + 1;
+                    node = nodes[node * 2];
+                    continue;
+                }
+                for (int t = nodes[node * 2], end = t + count; t < end; t++) {
+                    if (triangleDistanceSquared(t * 9, x, y, z) <= r2) {
+                        if (found < results.length) {
+                            results[found] = triangleIds[t];
+                        }
+                        found++;
+                    }
+                }
+            }
+            if (top == 0) {
+                return found;
+            }
+            node = stack[--top];
+        }
+    }
+
+    /**
+     * triangles touching an axis aligned box
+     * @param results receives source triangle indices, as many as fit
+     * @return number of overlapping triangles, may be larger than results.length
+     */
+    public int overlapAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] results) {
+        if (triangleCount == 0) {
+            return 0;
+        }
+        float cx = (minX + maxX) * 0.5f, cy = (minY + maxY) * 0.5f, cz = (minZ + maxZ) * 0.5f;
+        float hx = (maxX - minX) * 0.5f, hy = (maxY - minY) * 0.5f, hz = (maxZ - minZ) * 0.5f;
+        int found = 0, top = 0, node = 0;
+        while (true) {
+            int o = node * 6;
+            if (bounds[o] <= maxX && bounds[o + 3] >= minX
+                    && bounds[o + 1] <= maxY && bounds[o + 4] >= minY
+                    && bounds[o + 2] <= maxZ && bounds[o + 5] >= minZ) {
+                int count = nodes[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = nodes[node * 2] + 1;
+                    node = nodes[node * 2];
+                    continue;
+                }
+                for (int t = nodes[node * 2], end = t + count; t < end; t++) {
+                    if (triangleOverlapsBox(t * 9, cx, cy, cz, hx, hy, hz)) {
+                        if (found < results.length) {
+                            results[found] = triangleIds[t];
+                        }
+                        found++;
+                    }
+                }
+            }
+            if (top == 0) {
+                return found;
+            }
+            node = stack[--top];
+        }
+    }
+
+    /* squared distance from p to the closest point of the triangle, Ericson, Real-Time Collision Detection 5.1.5 */
+    private float triangleDistanceSquared(int v, float px, float py, float pz) {
+        float ax = triangles[v], ay = triangles[v + 1], az = triangles[v + 2];
+        float abx = triangles[v + 3] - ax, aby = triangles[v + 4] - ay, abz = triangles[v + 5] - az;
+        float acx = triangles[v + 6] - ax, acy = triangles[v + 7] - ay, acz = triangles[v + 8] - az;
+        float apx = px - ax, apy = py - ay, apz = pz - az;
+
+        float d1 = abx * apx + aby * apy + abz * apz;
+        float d2 = acx * apx + acy * apy + acz * apz;
+        float cx, cy, cz;
+        if (d1 <= 0 && d2 <= 0) {
+            cx = ax; cy = ay; cz = az;
+        } else {
+            float bpx = apx - abx, bpy = apy - aby, bpz = apz - abz;
+            float d3 = abx * bpx + aby * bpy + abz * bpz;
+            float d4 = acx * bpx + acy * bpy + acz * bpz;
+            float cpx = apx - acx, cpy = apy - acy, cpz = apz - acz;
+            float d5 = abx * cpx + aby * cpy + abz * cpz;
+            float d6 = acx * cpx + acy * cpy + acz * cpz;
+            float vc = d1 * d4 - d3 * d2;
+            float vb = d5 * d2 - d1 * d6;
+            float va = d3 * d6 - d5 * d4;
+            if (d3 >= 0 && d4 <= d3) {
+                cx = ax + abx; cy = ay + aby; cz = az + abz;
+            } else if (d6 >= 0 && d5 <= d6) {
+                cx = ax + acx; cy = ay + acy; cz = az + acz;
+            } else if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+                float s = d1 / (d1 - d3);
+                cx = ax + abx * s; cy = ay + aby * s; cz = az + abz * s;
+            } else if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+                float s = d2 / (d2 - d6);
+                cx = ax + acx * s; cy = ay + acy * s; cz = az + acz * s;
+            } else if (va <= 0 && (d4 - d3) >= 0 && (d5 - d6) >= 0) {
+                float s = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+                cx = ax + abx + (acx - abx) * s; cy = ay + aby + (acy - aby) * s; cz = az + abz + (acz - abz) * s;
+            } else {
+                float denom = 1.0f / (va + vb + vc);
+                float s = vb * denom, t = vc * denom;
+                cx = ax + abx * s + acx * t; cy = ay + aby * s + acy * t; cz = az + abz * s + acz * t;
+            }
+        }
+        float dx = px - cx, dy = py - cy, dz = pz - cz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /* separating axis test, Akenine-Moeller: box axes, triangle normal and the nine edge cross products */
+    private boolean triangleOverlapsBox(int v, float cx, float cy, float cz, float hx, float hy, float hz) {
+        float v0x = triangles[v] - cx,     v0y = triangles[v + 1] - cy, v0z = triangles[v + 2] - cz;
+        float v1x = triangles[v + 3] - cx, v1y = triangles[v + 4] - cy, v1z = triangles[v + 5] - cz;
+        float v2x = triangles[v + 6] - cx, v2y = triangles[v + 7] - cy, v2z = triangles[v + 8] - cz;
+
+        /* box axes */
+        if (Math.max(v0x, Math.max(v1x, v2x)) < -hx || Math.min(v0x, Math.min(v1x, v2x)) > hx) return false;
+        if (Math.max(v0y, Math.max(v1y, v2y)) < -hy || Math.min(v0y, Math.min(v1y, v2y)) > hy) return false;
+        if (Math.max(v0z, Math.max(v1z, v2z)) < -hz || Math.min(v0z, Math.min(v1z, v2z)) > hz) return false;
+
+        float e0x = v1x - v0x, e0y = v1y - v0y, e0z = v1z - v0z;
+        float e1x = v2x - v1x, e1y = v2y - v1y, e1z = v2z - v1z;
+        float e2x = v0x - v2x, e2y = v0y - v2y, e2z = v0z - v2z;
+
+        /* edge cross products */
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, 0, -e0z, e0y, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, 0, -e1z, e1y, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, 0, -e2z, e2y, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, e0z, 0, -e0x, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, e1z, 0, -e1x, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, e2z, 0, -e2x, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, -e0y, e0x, 0, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, -e1y, e1x, 0, hx, hy, hz)) return false;
+        if (separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, -e2y, e2x, 0, hx, hy, hz)) return false;
+
+        /* triangle normal */
+        float nx = e0y * e1z - e0z * e1y, ny = e0z * e1x - e0x * e1z, nz = e0x * e1y - e0y * e1x;
+        return !separated(v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, nx, ny, nz, hx, hy, hz);
+    }
+
+    private static boolean separated(float v0x, float v0y, float v0z, float v1x, float v1y, float v1z,
+                                     float v2x, float v2y, float v2z, float ax, float ay, float az,
+                                     float hx, float hy, float hz) {
+        float p0 = v0x * ax + v0y * ay + v0z * az;
+        float p1 = v1x * ax + v1y * ay + v1z * az;
+        float p2 = v2x * ax + v2y * ay + v2z * az;
+        float r = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+        return Math.max(p0, Math.max(p1, p2)) < -r || Math.min(p0, Math.min(p1, p2)) > r;
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * arena for off-heap (direct) buffers.
+ *
+ * the arena allocates one native order direct slab up front and hands out 16 byte aligned
+ * slices of it. allocation is a pointer bump, nothing is freed individually:
+ * reset() (or reset(mark)) makes the space reusable, e.g. once per frame.
+ *
+ * the lifetime is logical only. close() makes the arena and the views created by it
+ * throw IllegalStateException, it does not free the slab: the native memory is returned
+ * by the garbage collector once the arena and every buffer sliced from it are unreachable.
+ * raw buffers from allocate(), allocateFloats() and allocateShorts() are not guarded,
+ * they stay readable and writable after reset() and close() and may alias later allocations,
+ * so do not keep them past the reset that releases them.
+ *
+ * an arena is meant to be used by one thread at a time.
+ */
+public class BufferArena implements AutoCloseable {
+    public static final int ALIGNMENT = 16;
+
+    private ByteBuffer slab;
+    private final int capacity;
+    private int top;
+
+    /**
+     * creates an arena
+     * @param capacity size of the slab in bytes
+     */
+    public BufferArena(int capacity) {
+        this.slab = ByteBuffer.allocateDirect(capacity + ALIGNMENT).alignedSlice(ALIGNMENT).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+    }
+
+    /**
+     * allocates a native order byte buffer
+     * @param bytes size in bytes
+     * @return buffer, position 0, limit = bytes
+     */
+    public ByteBuffer allocate(int bytes) {
+        if (slab == null) {
+            throw new IllegalStateException("arena is closed");
+        }
+        int start = (top + ALIGNMENT - 1) & -ALIGNMENT;
+        if (bytes < 0 || start + bytes > capacity) {
+            throw new IllegalStateException("arena exhausted, requested " + bytes + " bytes, " + (capacity - start) + " left");
+        }
+        top = start + bytes;
+
+        ByteBuffer slice = slab.duplicate();
+        slice.position(start).limit(start + bytes);
+        return slice.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * allocates a native order float buffer
+     * @param count number of floats
+     * @return buffer, position 0, limit = count
+     */
+    public FloatBuffer allocateFloats(int count) {
+        return allocate(count << 2).asFloatBuffer();
+    }
+
+    /**
+     * allocates a native order short buffer, e.g. for half precision values
+     * @param count number of shorts
+     * @return buffer, position 0, limit = count
+     */
+    public ShortBuffer allocateShorts(int count) {
+        return allocate(count << 1).asShortBuffer();
+    }
+
+    /**
+     * allocates a view of count 2d vectors
+     * @param count
+     * @return view
+     */
+    public Float2View allocateFloat2(int count) {
+        return new Float2View(this, allocateFloats(count * 2), count);
+    }
+
+    /**
+     * allocates a view of count 3d vectors, tightly packed
+     * @param count
+     * @return view
+     */
+    public Float3View allocateFloat3(int count) {
+        return new Float3View(this, allocateFloats(count * 3), count);
+    }
+
+    /**
+     * allocates a view of count 4d vectors
+     * @param count
+     * @return view
+     */
+    public Float4View allocateFloat4(int count) {
+        return new Float4View(this, allocateFloats(count * 4), count);
+    }
+
+    /**
+     * allocates a view of count column major 4x4 matrices
+     * @param count
+     * @return view
+     */
+    public Float4x4View allocateFloat4x4(int count) {
+        return new Float4x4View(this, allocateFloats(count * 16), count);
+    }
+
+    /**
+     * allocates a view of count 2d vectors in half precision
+     * @param count
+     * @return view
+     */
+    public Half2View allocateHalf2(int count) {
+        return new Half2View(this, allocateShorts(count * 2), count);
+    }
+
+    /**
+     * allocates a view of count 4d vectors in half precision
+     * @param count
+     * @return view
+     */
+    public Half4View allocateHalf4(int count) {
+        return new Half4View(this, allocateShorts(count * 4), count);
+    }
+
+    /**
+     * current allocation position, to be passed to reset(mark)
+     * @return mark
+     */
+    public int mark() {
+        return top;
+    }
+
+    /**
+     * releases everything allocated after the mark
+     * buffers and views allocated after the mark must not be used anymore
+     * @param mark value returned by mark()
+     */
+    public void reset(int mark) {
+        if (mark < 0 || mark > top) {
+            throw new IllegalArgumentException("invalid mark: " + mark);
+        }
+        top = mark;
+    }
+
+    /**
+     * releases all allocations
+     */
+    public void reset() {
+        top = 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int used() {
+        return top;
+    }
+
+    public int remaining() {
+        return capacity - top;
+    }
+
+    public boolean isOpen() {
+        return slab != null;
+    }
+
+    /**
+     * ends the logical lifetime of the arena, views created by it fail from now on.
+     * the slab memory is not freed here, it is returned by the garbage collector once the
+     * arena and all buffers sliced from it are unreachable. raw buffers are not invalidated.
+     */
+    @Override
+    public void close() {
+        slab = null;
+        top = 0;
+    }
+}
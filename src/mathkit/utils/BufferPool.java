@@ -0,0 +1,280 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.Buffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * thread safe pool of native order direct buffers.
+ *
+ * requests are rounded up to power of two size classes between 64 bytes and 1 MB.
+ * small classes (up to 4 KB) are carved out of 64 KB slabs, so a miss does not cost
+ * one allocateDirect per buffer. larger requests than the biggest class are allocated
+ * directly and not pooled.
+ *
+ * a buffer handed out by acquire() / acquireFloats() has to be given back with
+ * release() once the caller (e.g. the gpu upload) is done with it. the pool keeps track
+ * of the buffers it handed out, release() rejects foreign buffers and double releases.
+ * a buffer that is never released stays referenced by the pool.
+ */
+public class BufferPool {
+    private static final int MIN_SHIFT = 6;
+    private static final int MAX_SHIFT = 20;
+    private static final int SLAB_SHIFT = 16;
+    private static final int SLAB_CLASS_SHIFT = 12;
+
+    private static final BufferPool SHARED = new BufferPool();
+
+    private final ArrayDeque<ByteBuffer>[] byteQueues;
+    private final ArrayDeque<FloatBuffer>[] floatQueues;
+    /* buffers handed out and not released yet, guarded by itself */
+    private final IdentityHashMap<Buffer, Boolean> acquired = new IdentityHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesOutstanding = new AtomicLong();
+    private final AtomicLong bytesAllocated = new AtomicLong();
+
+    /**
+     * returns the process wide pool
+     * @return shared pool
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    public BufferPool() {
+        int classes = MAX_SHIFT - MIN_SHIFT + 1;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayDeque<ByteBuffer>[] bytes = new ArrayDeque[classes];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayDeque<FloatBuffer>[] floats = new ArrayDeque[classes];
+        byteQueues = bytes;
+        floatQueues = floats;
+        for (int i = 0; i < classes; i++) {
+            byteQueues[i] = new ArrayDeque<ByteBuffer>();
+            floatQueues[i] = new ArrayDeque<FloatBuffer>();
+        }
+    }
+
+    /**
+     * acquires a direct byte buffer
+     * @param bytes requested size
+     * @return native order buffer, position 0, limit = bytes, capacity = size class
+     */
+    public ByteBuffer acquire(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + bytes);
+        }
+        int sizeClass = sizeClass(bytes);
+        if (sizeClass < 0) {
+            misses.incrementAndGet();
+            bytesAllocated.addAndGet(bytes);
+            bytesOutstanding.addAndGet(bytes);
+            return track(ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()));
+        }
+
+        ByteBuffer buffer = poll(byteQueues[sizeClass]);
+        if (buffer == null) {
+            buffer = allocate(sizeClass);
+        }
+        bytesOutstanding.addAndGet(buffer.capacity());
+        buffer.clear();
+        buffer.limit(bytes);
+        return track(buffer);
+    }
+
+    /**
+     * acquires a direct float buffer
+     * @param count requested number of floats
+     * @return native order buffer, position 0, limit = count, capacity = size class
+     */
+    public FloatBuffer acquireFloats(int count) {
+        if (count < 0 || count > Integer.MAX_VALUE >> 2) {
+            throw new IllegalArgumentException("invalid float count: " + count);
+        }
+        int sizeClass = sizeClass(count << 2);
+        if (sizeClass < 0) {
+            misses.incrementAndGet();
+            bytesAllocated.addAndGet(count << 2);
+            bytesOutstanding.addAndGet(count << 2);
+            return track(ByteBuffer.allocateDirect(count << 2).order(ByteOrder.nativeOrder()).asFloatBuffer());
+        }
+
+        FloatBuffer buffer = poll(floatQueues[sizeClass]);
+        if (buffer == null) {
+            ByteBuffer bytes = poll(byteQueues[sizeClass]);
+            buffer = (bytes != null ? bytes : allocate(sizeClass)).asFloatBuffer();
+        }
+        bytesOutstanding.addAndGet(buffer.capacity() << 2);
+        buffer.clear();
+        buffer.limit(count);
+        return track(buffer);
+    }
+
+    /**
+     * gives a buffer back to the pool
+     * @param buffer buffer returned by acquire()
+     * @throws IllegalArgumentException if the buffer is not outstanding from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        untrack(buffer);
+        int capacity = buffer.capacity();
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass >= 0) {
+            offer(byteQueues[sizeClass], buffer);
+        }
+        bytesOutstanding.addAndGet(-capacity);
+    }
+
+    /**
+     * gives a float buffer back to the pool
+     * @param buffer buffer returned by acquireFloats()
+     * @throws IllegalArgumentException if the buffer is not outstanding from this pool
+     */
+    public void release(FloatBuffer buffer) {
+        untrack(buffer);
+        int capacity = buffer.capacity() << 2;
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass >= 0) {
+            offer(floatQueues[sizeClass], buffer);
+        }
+        bytesOutstanding.addAndGet(-capacity);
+    }
+
+    /**
+     * drops all pooled buffers, their memory is returned once they become unreachable
+     */
+    public void trim() {
+        for (int i = 0; i < byteQueues.length; i++) {
+            synchronized (byteQueues[i]) {
+                byteQueues[i].clear();
+            }
+            synchronized (floatQueues[i]) {
+                floatQueues[i].clear();
+            }
+        }
+    }
+
+    /** @return number of acquisitions served from the pool */
+    public long hits() {
+        return hits.get();
+    }
+
+    /** @return number of acquisitions that needed new memory */
+    public long misses() {
+        return misses.get();
+    }
+
+    /** @return bytes currently handed out and not released */
+    public long bytesOutstanding() {
+        return bytesOutstanding.get();
+    }
+
+    /** @return direct memory allocated by the pool so far */
+    public long bytesAllocated() {
+        return bytesAllocated.get();
+    }
+
+    public String toString() {
+        return "BufferPool [ hits: " + hits() + " misses: " + misses() + " outstanding: " + bytesOutstanding()
+                + " allocated: " + bytesAllocated() + " ]";
+    }
+
+    private static int sizeClass(int bytes) {
+        if (bytes > (1 << MAX_SHIFT)) {
+            return -1;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(bytes, 1) - 1);
+        return Math.max(shift, MIN_SHIFT) - MIN_SHIFT;
+    }
+
+    private <T extends Buffer> T track(T buffer) {
+        synchronized (acquired) {
+            acquired.put(buffer, Boolean.TRUE);
+        }
+        return buffer;
+    }
+
+    private void untrack(Buffer buffer) {
+        Boolean outstanding;
+        synchronized (acquired) {
+            outstanding = acquired.remove(buffer);
+        }
+        if (outstanding == null) {
+            throw new IllegalArgumentException("buffer was not acquired from this pool or is already released: " + buffer);
+        }
+    }
+
+    private <T> T poll(ArrayDeque<T> queue) {
+        T buffer;
+        synchronized (queue) {
+            buffer = queue.pollLast();
+        }
+        if (buffer != null) {
+            hits.incrementAndGet();
+        }
+        return buffer;
+    }
+
+    private static <T> void offer(ArrayDeque<T> queue, T buffer) {
+        synchronized (queue) {
+            queue.addLast(buffer);
+        }
+    }
+
+    /* allocates one buffer of the size class, small classes get a whole slab and pool the rest of it */
+    private ByteBuffer allocate(int sizeClass) {
+        misses.incrementAndGet();
+        int shift = sizeClass + MIN_SHIFT;
+        int size = 1 << shift;
+
+        if (shift > SLAB_CLASS_SHIFT) {
+            bytesAllocated.addAndGet(size);
+            return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+
+        ByteBuffer slab = ByteBuffer.allocateDirect(1 << SLAB_SHIFT);
+        bytesAllocated.addAndGet(1 << SLAB_SHIFT);
+
+        ByteBuffer first = null;
+        ArrayDeque<ByteBuffer> queue = byteQueues[sizeClass];
+        for (int offset = 0; offset < slab.capacity(); offset += size) {
+            slab.limit(offset + size).position(offset);
+            ByteBuffer slice = slab.slice().order(ByteOrder.nativeOrder());
+            if (first == null) {
+                first = slice;
+            } else {
+                offer(queue, slice);
+            }
+        }
+        return first;
+    }
+}
@@ -1,54 +1,74 @@
-/**
- Copyright (c) 2013 - 2017, Sergej Schefer
- All rights reserved.
-
- Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
-
- 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
-
- 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
-
- THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
- EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
- IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
- DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
- (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
- LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
- THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
- EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-
 /* temp. class */
 package mathkit.utils;
 
+import mathkit.Instrumentation;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 
 public class BufferUtility {
 
+    /**
+     * copies the data into a new native order direct buffer
+     * the caller owns the buffer
+     * @param data
+     * @return float buffer, position 0, limit = data.length
+     */
     public static FloatBuffer packageBuffer(float[] data){
-        ByteBuffer vbb = ByteBuffer.allocateDirect(data.length * 4);
-        vbb.order(ByteOrder.nativeOrder());
-        FloatBuffer fb = vbb.asFloatBuffer();
-        fb.put(data);
-        fb.position(0);
-        return fb;
-    }
-
-    public static FloatBuffer packageBuffer2(float[] data) {
-        FloatBuffer buffer = ByteBuffer.allocateDirect(16 << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.PACKAGE_BUFFER);
+            Instrumentation.allocated(Instrumentation.Op.PACKAGE_BUFFER, Instrumentation.DIRECT_FLOAT_BUFFER_OBJECTS, Instrumentation.DIRECT_FLOAT_BUFFER_BYTES);
+            Instrumentation.allocatedNative(Instrumentation.Op.PACKAGE_BUFFER, data.length << 2);
+        }
+        FloatBuffer buffer = ByteBuffer.allocateDirect(data.length << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
         buffer.put(data);
         buffer.flip();
         return buffer;
     }
 
-    public static FloatBuffer packageBuffer3(float[] data){
-        FloatBuffer buffer = ByteBuffer.allocateDirect(data.length << 2).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    /**
+     * copies the data into a pooled direct buffer
+     * the buffer has to be given back with pool.release() after use
+     * @param data
+     * @param pool
+     * @return float buffer, position 0, limit = data.length
+     */
+    public static FloatBuffer packageBuffer(float[] data, BufferPool pool){
+        if (Instrumentation.ENABLED) {
+            Instrumentation.invoked(Instrumentation.Op.PACKAGE_BUFFER);
+        }
+        FloatBuffer buffer = pool.acquireFloats(data.length);
         buffer.put(data);
         buffer.flip();
         return buffer;
     }
+
+    /**
+     * converts the data to half precision into a new native order direct buffer
+     * the caller owns the buffer
+     * @param data
+     * @return short buffer with half bits, position 0, limit = data.length
+     */
+    public static ShortBuffer packageHalfBuffer(float[] data) {
+        ShortBuffer buffer = ByteBuffer.allocateDirect(data.length << 1).order(ByteOrder.nativeOrder()).asShortBuffer();
+        return HalfFloat.toHalf(data, 0, buffer, 0, data.length);
+    }
+
+    /**
+     * @deprecated same as packageBuffer(float[]), used to allocate 16 floats regardless of the input
+     */
+    @Deprecated
+    public static FloatBuffer packageBuffer2(float[] data) {
+        return packageBuffer(data);
+    }
+
+    /**
+     * @deprecated same as packageBuffer(float[])
+     */
+    @Deprecated
+    public static FloatBuffer packageBuffer3(float[] data){
+        return packageBuffer(data);
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import mathkit.Float3Array;
+import mathkit.float3;
+
+import java.nio.FloatBuffer;
+
+/** off-heap view of tightly packed 3d vectors */
+public class Float3View extends FloatView {
+
+    Float3View(BufferArena arena, FloatBuffer buffer, int length) {
+        super(arena, buffer, 3, length);
+    }
+
+    public void set(int index, float3 u) {
+        checkOpen();
+        int i = index * 3;
+        buffer.put(i, u.x);
+        buffer.put(i + 1, u.y);
+        buffer.put(i + 2, u.z);
+    }
+
+    public float3 get(int index, float3 dest) {
+        checkOpen();
+        int i = index * 3;
+        dest.x = buffer.get(i);
+        dest.y = buffer.get(i + 1);
+        dest.z = buffer.get(i + 2);
+        return dest;
+    }
+
+    /**
+     * copies float3 objects into the view
+     * @param src
+     * @param srcOffset first source vector
+     * @param index first destination element
+     * @param count number of vectors
+     */
+    public void put(float3[] src, int srcOffset, int index, int count) {
+        for (int n = 0; n < count; n++) {
+            set(index + n, src[srcOffset + n]);
+        }
+    }
+
+    /**
+     * interleaves the vectors of a structure of arrays container into the view
+     * @param src
+     * @param srcOffset first source vector
+     * @param index first destination element
+     * @param count number of vectors
+     */
+    public void put(Float3Array src, int srcOffset, int index, int count) {
+        checkOpen();
+        for (int n = 0, i = index * 3; n < count; n++, i += 3) {
+            buffer.put(i, src.xs[srcOffset + n]);
+            buffer.put(i + 1, src.ys[srcOffset + n]);
+            buffer.put(i + 2, src.zs[srcOffset + n]);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import mathkit.float4;
+
+import java.nio.FloatBuffer;
+
+/** off-heap view of packed 4d vectors */
+public class Float4View extends FloatView {
+
+    Float4View(BufferArena arena, FloatBuffer buffer, int length) {
+        super(arena, buffer, 4, length);
+    }
+
+    public void set(int index, float4 u) {
+        checkOpen();
+        int i = index << 2;
+        buffer.put(i, u.x);
+        buffer.put(i + 1, u.y);
+        buffer.put(i + 2, u.z);
+        buffer.put(i + 3, u.w);
+    }
+
+    public float4 get(int index, float4 dest) {
+        checkOpen();
+        int i = index << 2;
+        dest.x = buffer.get(i);
+        dest.y = buffer.get(i + 1);
+        dest.z = buffer.get(i + 2);
+        dest.w = buffer.get(i + 3);
+        return dest;
+    }
+
+    /**
+     * copies float4 objects into the view
+     * @param src
+     * @param srcOffset first source vector
+     * @param index first destination element
+     * @param count number of vectors
+     */
+    public void put(float4[] src, int srcOffset, int index, int count) {
+        for (int n = 0; n < count; n++) {
+            set(index + n, src[srcOffset + n]);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import mathkit.float4x4;
+
+import java.nio.FloatBuffer;
+
+/** off-heap view of column major 4x4 matrices, 16 floats each */
+public class Float4x4View extends FloatView {
+
+    Float4x4View(BufferArena arena, FloatBuffer buffer, int length) {
+        super(arena, buffer, 16, length);
+    }
+
+    public void set(int index, float4x4 m) {
+        checkOpen();
+        m.writeTo(buffer, index << 4);
+    }
+
+    public float4x4 get(int index, float4x4 dest) {
+        checkOpen();
+        int i = index << 4;
+        dest.m00 = buffer.get(i);      dest.m01 = buffer.get(i + 1);  dest.m02 = buffer.get(i + 2);  dest.m03 = buffer.get(i + 3);
+        dest.m10 = buffer.get(i + 4);  dest.m11 = buffer.get(i + 5);  dest.m12 = buffer.get(i + 6);  dest.m13 = buffer.get(i + 7);
+        dest.m20 = buffer.get(i + 8);  dest.m21 = buffer.get(i + 9);  dest.m22 = buffer.get(i + 10); dest.m23 = buffer.get(i + 11);
+        dest.m30 = buffer.get(i + 12); dest.m31 = buffer.get(i + 13); dest.m32 = buffer.get(i + 14); dest.m33 = buffer.get(i + 15);
+        return dest;
+    }
+
+    /**
+     * copies matrices into the view
+     * @param src
+     * @param srcOffset first source matrix
+     * @param index first destination element
+     * @param count number of matrices
+     */
+    public void put(float4x4[] src, int srcOffset, int index, int count) {
+        checkOpen();
+        float4x4.writeTo(src, srcOffset, count, buffer, index << 4);
+    }
+}
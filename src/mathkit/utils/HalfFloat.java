@@ -0,0 +1,272 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * conversion between float and IEEE 754 half precision (binary16), stored in a short.
+ *
+ * on java 20+ Float.floatToFloat16 / Float.float16ToFloat are used (intrinsics on most cpus),
+ * otherwise a table based implementation with the same results:
+ * float to half rounds to nearest even, overflows to infinity and flushes below 2^-25 to zero,
+ * half to float is exact.
+ */
+public final class HalfFloat {
+    /* Float.floatToFloat16 and Float.float16ToFloat, null before java 20 */
+    private static final MethodHandle FLOAT_TO_HALF = lookup("floatToFloat16", MethodType.methodType(short.class, float.class));
+    private static final MethodHandle HALF_TO_FLOAT = lookup("float16ToFloat", MethodType.methodType(float.class, short.class));
+
+    /* float to half: indexed by sign and exponent of the float */
+    private static final short[] BASE = new short[512];
+    private static final byte[] SHIFT = new byte[512];
+
+    /* half to float: MANTISSA[OFFSET[h >> 10] + (h & 0x3ff)] + EXPONENT[h >> 10] */
+    private static final int[] MANTISSA = new int[2048];
+    private static final int[] EXPONENT = new int[64];
+    private static final short[] OFFSET = new short[64];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int e = i - 127;
+            short base;
+            int shift;
+            if (e < -25 || i == 0) {
+                /* too small, also float subnormals: zero */
+                base = 0;
+                shift = 31;
+            } else if (e < -14) {
+                /* half subnormal, the implicit bit is shifted into the mantissa */
+                base = 0;
+                shift = -1 - e;
+            } else if (e <= 15) {
+                /* half normal, the implicit bit adds the missing 1 to the exponent */
+                base = (short) ((e + 14) << 10);
+                shift = 13;
+            } else {
+                /* overflow and infinity */
+                base = 0x7c00;
+                shift = 31;
+            }
+            BASE[i] = base;
+            BASE[i | 0x100] = (short) (base | 0x8000);
+            SHIFT[i] = (byte) shift;
+            SHIFT[i | 0x100] = (byte) shift;
+        }
+
+        /* subnormals, normalized */
+        for (int i = 1; i < 1024; i++) {
+            int m = i << 13;
+            int e = 0;
+            while ((m & 0x00800000) == 0) {
+                e -= 0x00800000;
+                m <<= 1;
+            }
+            MANTISSA[i] = (m & ~0x00800000) | (e + 0x38800000);
+        }
+        for (int i = 1024; i < 2048; i++) {
+            MANTISSA[i] = 0x38000000 + ((i - 1024) << 13);
+        }
+        for (int i = 1; i < 31; i++) {
+            EXPONENT[i] = i << 23;
+            EXPONENT[i | 32] = 0x80000000 + (i << 23);
+        }
+        EXPONENT[31] = 0x47800000;
+        EXPONENT[32] = 0x80000000;
+        EXPONENT[63] = 0xc7800000;
+        for (int i = 1; i < 64; i++) {
+            OFFSET[i] = (short) 1024;
+        }
+        OFFSET[32] = 0;
+    }
+
+    private HalfFloat() {
+    }
+
+    private static MethodHandle lookup(String name, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Float.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            /* before java 20, use the tables */
+            return null;
+        }
+    }
+
+    /**
+     * tells whether the conversions of java.lang.Float are used
+     * @return true on java 20+
+     */
+    public static boolean isNative() {
+        return FLOAT_TO_HALF != null;
+    }
+
+    /**
+     * converts a float to half precision, rounding to nearest even
+     * @param f
+     * @return half bits
+     */
+    public static short toHalf(float f) {
+        if (FLOAT_TO_HALF != null) {
+            try {
+                return (short) FLOAT_TO_HALF.invokeExact(f);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return toHalfTable(f);
+    }
+
+    /**
+     * converts half precision to float, exact
+     * @param h half bits
+     * @return float
+     */
+    public static float toFloat(short h) {
+        if (HALF_TO_FLOAT != null) {
+            try {
+                return (float) HALF_TO_FLOAT.invokeExact(h);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return toFloatTable(h);
+    }
+
+    static short toHalfTable(float f) {
+        int bits = Float.floatToRawIntBits(f);
+        if ((bits & 0x7fffffff) > 0x7f800000) {
+            /* NaN, keeps the sign and folds the payload like Float.floatToFloat16 */
+            return (short) ((bits >>> 16 & 0x8000) | 0x7c00 | (bits & 0x007fe000) >> 13 | (bits & 0x00001ff0) >> 4 | (bits & 0x0000000f));
+        }
+        int i = bits >>> 23;
+        int s = SHIFT[i];
+        int m = (bits & 0x007fffff) | 0x00800000;
+        /* round to nearest even, a carry moves into the exponent and up to infinity */
+        return (short) (BASE[i] + ((m + (1 << (s - 1)) - 1 + ((m >> s) & 1)) >> s));
+    }
+
+    static float toFloatTable(short h) {
+        int e = (h & 0xffff) >>> 10;
+        return Float.intBitsToFloat(MANTISSA[OFFSET[e] + (h & 0x3ff)] + EXPONENT[e]);
+    }
+
+    /**
+     * converts packed floats to half precision
+     * @param src
+     * @param srcOffset first float in src
+     * @param dst
+     * @param dstOffset first half in dst
+     * @param count number of values
+     * @return dst
+     */
+    public static short[] toHalf(float[] src, int srcOffset, short[] dst, int dstOffset, int count) {
+        if (FLOAT_TO_HALF != null) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = toHalf(src[srcOffset + i]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = toHalfTable(src[srcOffset + i]);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * converts packed halfs to float
+     * @param src
+     * @param srcOffset first half in src
+     * @param dst
+     * @param dstOffset first float in dst
+     * @param count number of values
+     * @return dst
+     */
+    public static float[] toFloat(short[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        if (HALF_TO_FLOAT != null) {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = toFloat(src[srcOffset + i]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOffset + i] = toFloatTable(src[srcOffset + i]);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * converts packed floats to half precision into a buffer
+     * absolute puts, the position of the buffer does not change
+     * @param src
+     * @param srcOffset first float in src
+     * @param dst
+     * @param index first half in dst
+     * @param count number of values
+     * @return dst
+     */
+    public static ShortBuffer toHalf(float[] src, int srcOffset, ShortBuffer dst, int index, int count) {
+        for (int i = 0; i < count; i++) {
+            dst.put(index + i, toHalf(src[srcOffset + i]));
+        }
+        return dst;
+    }
+
+    /**
+     * converts floats of a buffer to half precision into a buffer
+     * absolute gets and puts, the positions of the buffers do not change
+     * @param src
+     * @param srcIndex first float in src
+     * @param dst
+     * @param dstIndex first half in dst
+     * @param count number of values
+     * @return dst
+     */
+    public static ShortBuffer toHalf(FloatBuffer src, int srcIndex, ShortBuffer dst, int dstIndex, int count) {
+        for (int i = 0; i < count; i++) {
+            dst.put(dstIndex + i, toHalf(src.get(srcIndex + i)));
+        }
+        return dst;
+    }
+
+    /**
+     * converts halfs of a buffer to float
+     * absolute gets, the position of the buffer does not change
+     * @param src
+     * @param index first half in src
+     * @param dst
+     * @param dstOffset first float in dst
+     * @param count number of values
+     * @return dst
+     */
+    public static float[] toFloat(ShortBuffer src, int index, float[] dst, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            dst[dstOffset + i] = toFloat(src.get(index + i));
+        }
+        return dst;
+    }
+}
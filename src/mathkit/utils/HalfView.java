@@ -0,0 +1,108 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package mathkit.utils;
+
+import java.nio.ShortBuffer;
+
+/**
+ * typed view of a half precision buffer allocated by a BufferArena.
+ * elements have a fixed number of half components and are tightly packed,
+ * values are converted with HalfFloat on the way in and out.
+ */
+public abstract class HalfView {
+    protected final BufferArena arena;
+    protected final ShortBuffer buffer;
+    protected final int components;
+    public final int length;
+
+    HalfView(BufferArena arena, ShortBuffer buffer, int components, int length) {
+        this.arena = arena;
+        this.buffer = buffer;
+        this.components = components;
+        this.length = length;
+    }
+
+    protected final void checkOpen() {
+        if (!arena.isOpen()) {
+            throw new IllegalStateException("view used after its arena was closed");
+        }
+    }
+
+    /**
+     * returns the underlying buffer, e.g. for gpu uploads
+     * position 0, limit = length * components
+     * @return short buffer with half bits
+     */
+    public ShortBuffer buffer() {
+        checkOpen();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * converts packed floats into the view
+     * @param src source array, components floats per element
+     * @param srcOffset first float in src
+     * @param index first destination element
+     * @param count number of elements
+     */
+    public void put(float[] src, int srcOffset, int index, int count) {
+        checkOpen();
+        HalfFloat.toHalf(src, srcOffset, buffer, index * components, count * components);
+    }
+
+    /**
+     * converts elements out of the view into packed floats
+     * @param index first source element
+     * @param dst destination array
+     * @param dstOffset first float in dst
+     * @param count number of elements
+     */
+    public void get(int index, float[] dst, int dstOffset, int count) {
+        checkOpen();
+        HalfFloat.toFloat(buffer, index * components, dst, dstOffset, count * components);
+    }
+
+    /**
+     * copies packed half bits into the view, no conversion
+     * @param src source array, components halfs per element
+     * @param srcOffset first half in src
+     * @param index first destination element
+     * @param count number of elements
+     */
+    public void put(short[] src, int srcOffset, int index, int count) {
+        checkOpen();
+        buffer.clear();
+        buffer.position(index * components);
+        buffer.put(src, srcOffset, count * components);
+    }
+
+    /**
+     * size of the view in bytes
+     * @return bytes
+     */
+    public int byteSize() {
+        return (length * components) << 1;
+    }
+}
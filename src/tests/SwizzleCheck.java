@@ -0,0 +1,95 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package tests;
+
+import mathkit.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/* every named swizzle (xy(), zyx(), ...) has to match swizzle(Swizzle.mask(name), dest) */
+public class SwizzleCheck {
+
+    public static void main(String[] args) throws Exception {
+        Object[] sources = { new float2(1, 2), new float3(1, 2, 3), new float4(1, 2, 3, 4) };
+        int checked = 0;
+        for (Object source : sources) {
+            for (Method method : source.getClass().getMethods()) {
+                String name = method.getName();
+                if (method.getParameterCount() != 0 || !name.matches("[xyzw]{2,4}")) {
+                    continue;
+                }
+                Object named = method.invoke(source);
+                Object dest = method.getReturnType().getConstructor().newInstance();
+                Object masked = source.getClass().getMethod("swizzle", int.class, method.getReturnType())
+                        .invoke(source, Swizzle.mask(name), dest);
+                check(Arrays.equals(components(named), components(masked)),
+                        source.getClass().getSimpleName() + "." + name + "() = " + named + ", mask gives " + masked);
+                checked++;
+            }
+        }
+        check(checked == 49, "expected 49 named swizzles, found " + checked);
+
+        /* xzy used to return (x, y, z) */
+        float3 xzy = new float3(1, 2, 3).xzy();
+        check(xzy.x == 1 && xzy.y == 3 && xzy.z == 2, "float3.xzy() = " + xzy);
+
+        /* containers refuse a shorter destination */
+        Float3Array a3 = new Float3Array(4);
+        Float4Array a4 = new Float4Array(4);
+        checkThrows(() -> a3.swizzle(Swizzle.mask("zyx"), new Float3Array(3)), "Float3Array.swizzle(Float3Array)");
+        checkThrows(() -> a4.swizzle(Swizzle.mask("zyx"), new Float3Array(3)), "Float4Array.swizzle(Float3Array)");
+        checkThrows(() -> a4.swizzle(Swizzle.mask("wzyx"), new Float4Array(3)), "Float4Array.swizzle(Float4Array)");
+
+        System.out.println("swizzles ok (" + checked + " named swizzles)");
+    }
+
+    private static float[] components(Object v) {
+        if (v instanceof float2) {
+            float2 u = (float2) v;
+            return new float[] { u.x, u.y };
+        }
+        if (v instanceof float3) {
+            float3 u = (float3) v;
+            return new float[] { u.x, u.y, u.z };
+        }
+        float4 u = (float4) v;
+        return new float[] { u.x, u.y, u.z, u.w };
+    }
+
+    private static void checkThrows(Runnable r, String what) {
+        try {
+            r.run();
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError(what + " accepted a shorter destination");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
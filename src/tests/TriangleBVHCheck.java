@@ -0,0 +1,73 @@
+/**
+ Copyright (c) 2013 - 2017, Sergej Schefer
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+
+ 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY
+ EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY
+ DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package tests;
+
+import mathkit.scene.TriangleBVH;
+
+/* axis aligned pick rays onto a tiled floor, rays through shared edges and node bounds planes must hit */
+public class TriangleBVHCheck {
+
+    public static void main(String[] args) {
+        int tiles = 8;
+        float[] floor = new float[tiles * tiles * 2 * 9];
+        int v = 0;
+        for (int z = 0; z < tiles; z++) {
+            for (int x = 0; x < tiles; x++) {
+                float[] quad = {
+                        x, 0, z,   x + 1, 0, z,       x + 1, 0, z + 1,
+                        x, 0, z,   x + 1, 0, z + 1,   x, 0, z + 1
+                };
+                System.arraycopy(quad, 0, floor, v, quad.length);
+                v += quad.length;
+            }
+        }
+        TriangleBVH bvh = new TriangleBVH(floor, 0, tiles * tiles * 2);
+        float[] hit = new float[3];
+
+        int rays = 0;
+        for (float x = 0.25f; x < tiles; x += 0.25f) {
+            for (float z = 0.25f; z < tiles; z += 0.25f) {
+                check(bvh.raycast(x, 10, z, 0, -1, 0, 100, hit) >= 0, "vertical ray missed at x=" + x + " z=" + z);
+                check(hit[0] == 10, "vertical ray distance " + hit[0] + " at x=" + x + " z=" + z);
+                check(bvh.occluded(x, 10, z, 0, -1, 0, 100), "vertical ray not occluded at x=" + x + " z=" + z);
+                rays++;
+            }
+        }
+
+        /* tilted in z only, dx stays 0 on the plane x = 2 */
+        check(bvh.raycast(2, 10, 1, 0, -1, 0.1f, 100, hit) >= 0, "tilted ray missed at x=2");
+        /* origin on the outer bounds plane */
+        check(bvh.raycast(0, 10, 3.5f, 0, -1, 0, 100, hit) >= 0, "vertical ray missed on the border x=0");
+        /* horizontal ray in the plane of the floor does not hit */
+        check(bvh.raycast(-1, 0, 3.5f, 1, 0, 0, 100, hit) < 0, "ray parallel to the floor hit");
+
+        System.out.println("TriangleBVH axis aligned rays ok (" + rays + " vertical rays)");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}